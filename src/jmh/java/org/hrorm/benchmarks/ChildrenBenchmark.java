@@ -0,0 +1,123 @@
+package org.hrorm.benchmarks;
+
+import org.hrorm.ChildSelectStrategy;
+import org.hrorm.Dao;
+import org.hrorm.DaoBuilder;
+import org.hrorm.Operator;
+import org.hrorm.Where;
+import org.hrorm.examples.Recipes;
+import org.hrorm.examples.Recipes.Author;
+import org.hrorm.examples.Recipes.Ingredient;
+import org.hrorm.examples.Recipes.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects of the recipes of {@link Recipes}, which join to their author
+ * and have a list of ingredients, under each child select strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChildrenBenchmark {
+
+    private static final int AUTHORS = 10;
+    private static final int INGREDIENTS_PER_RECIPE = 5;
+
+    @Param({"10", "100", "1000"})
+    public int recipes;
+
+    @Param({"Standard", "ByKeysInClause", "SubSelectInClause"})
+    public ChildSelectStrategy strategy;
+
+    private InMemoryDatabase database;
+    private Dao<Recipe> recipeDao;
+    private List<Long> recipeIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // The builders of Recipes are shared, and a join takes the strategy
+        // of the joined builder when it is declared, so they are copied here.
+        DaoBuilder<Author> authorDaoBuilder = new DaoBuilder<>("AUTHOR", Author::new)
+                .withPrimaryKey("ID", "AUTHOR_SEQUENCE", Author::getId, Author::setId)
+                .withStringColumn("NAME", Author::getName, Author::setName)
+                .withChildSelectStrategy(strategy);
+        DaoBuilder<Recipe> recipeDaoBuilder = new DaoBuilder<>("RECIPE", Recipe::new)
+                .withPrimaryKey("ID", "RECIPE_SEQUENCE", Recipe::getId, Recipe::setId)
+                .withStringColumn("NAME", Recipe::getName, Recipe::setName)
+                .withJoinColumn("AUTHOR_ID", Recipe::getAuthor, Recipe::setAuthor, authorDaoBuilder)
+                .withChildren(Recipe::getIngredients, Recipe::setIngredients, Recipes.ingredientDaoBuilder)
+                .withChildSelectStrategy(strategy);
+
+        database = new InMemoryDatabase(authorDaoBuilder, recipeDaoBuilder, Recipes.ingredientDaoBuilder);
+
+        Dao<Author> authorDao = authorDaoBuilder.buildDao(database.getConnection());
+        List<Author> authors = new ArrayList<>();
+        for(int idx = 0; idx < AUTHORS; idx++){
+            Author author = new Author();
+            author.setName("Author " + idx);
+            authors.add(author);
+        }
+        authorDao.insertAll(authors);
+
+        recipeDao = recipeDaoBuilder.buildDao(database.getConnection());
+        List<Recipe> recipeList = new ArrayList<>();
+        for(int idx = 0; idx < recipes; idx++){
+            Recipe recipe = new Recipe();
+            recipe.setName("Recipe " + idx);
+            recipe.setAuthor(authors.get(idx % AUTHORS));
+            List<Ingredient> ingredients = new ArrayList<>();
+            for(int jdx = 0; jdx < INGREDIENTS_PER_RECIPE; jdx++){
+                Ingredient ingredient = new Ingredient();
+                ingredient.setName("Ingredient " + jdx);
+                ingredient.setAmount(jdx);
+                ingredients.add(ingredient);
+            }
+            recipe.setIngredients(ingredients);
+            recipeList.add(recipe);
+        }
+        recipeIds = recipeDao.insertAll(recipeList);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Recipe> selectAll(){
+        return recipeDao.select();
+    }
+
+    @Benchmark
+    public List<Recipe> selectWhere(){
+        return recipeDao.select(Where.where("name", Operator.LIKE, "Recipe 1%"));
+    }
+
+    @Benchmark
+    public Recipe selectById(){
+        Long id = recipeIds.get(next);
+        next = (next + 1) % recipeIds.size();
+        return recipeDao.selectOne(id);
+    }
+}
@@ -0,0 +1,101 @@
+package org.hrorm.benchmarks;
+
+import org.hrorm.Dao;
+import org.hrorm.examples.media.MediaDaoBuilders;
+import org.hrorm.examples.media.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single row inserts, updates and selects by primary key, against
+ * tables of several sizes. The rows inserted are deleted after each
+ * iteration, so that every iteration starts from the same number of rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrudBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    private InMemoryDatabase database;
+    private Dao<Movie> dao;
+    private List<Movie> movies;
+    private long lastSeededId;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new InMemoryDatabase(MediaDaoBuilders.MOVIE_DAO_BUILDER);
+        dao = MediaDaoBuilders.MOVIE_DAO_BUILDER.buildDao(database.getConnection());
+        movies = new ArrayList<>();
+        for(int idx = 0; idx < rows; idx++){
+            Movie movie = new Movie();
+            movie.setTitle("Movie " + idx);
+            movies.add(movie);
+        }
+        dao.insertAll(movies);
+        lastSeededId = movies.stream().mapToLong(Movie::getId).max().getAsLong();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInserted() throws SQLException {
+        String sql = "delete from movies where id > ?";
+        try (PreparedStatement statement = database.getConnection().prepareStatement(sql)){
+            statement.setLong(1, lastSeededId);
+            statement.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    private Movie nextMovie(){
+        Movie movie = movies.get(next);
+        next = (next + 1) % movies.size();
+        return movie;
+    }
+
+    @Benchmark
+    public Long insert(){
+        Movie movie = new Movie();
+        movie.setTitle("Inserted");
+        return dao.insert(movie);
+    }
+
+    @Benchmark
+    public Movie update(){
+        Movie movie = nextMovie();
+        movie.setTitle("Updated " + next);
+        dao.update(movie);
+        return movie;
+    }
+
+    @Benchmark
+    public Movie selectById(){
+        return dao.selectOne(nextMovie().getId());
+    }
+}
@@ -0,0 +1,52 @@
+package org.hrorm.benchmarks;
+
+import org.hrorm.KeylessDaoDescriptor;
+import org.hrorm.Schema;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An H2 database held in memory, with a schema generated from the passed
+ * descriptors. Each instance is a separate database.
+ */
+public class InMemoryDatabase implements AutoCloseable {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private final Connection connection;
+
+    public InMemoryDatabase(KeylessDaoDescriptor<?, ?> ... descriptors) throws SQLException {
+        String url = "jdbc:h2:mem:benchmark_" + counter.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        connection = DriverManager.getConnection(url);
+
+        Schema schema = new Schema(descriptors);
+        List<String> statements = new ArrayList<>();
+        statements.addAll(schema.sequences());
+        statements.addAll(schema.tables());
+        statements.addAll(schema.constraints());
+        try (Statement statement = connection.createStatement()){
+            for(String sql : statements){
+                statement.execute(sql);
+            }
+        }
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Statement statement = connection.createStatement()){
+            statement.execute("shutdown");
+        } finally {
+            connection.close();
+        }
+    }
+}
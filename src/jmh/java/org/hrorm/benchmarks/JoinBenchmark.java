@@ -0,0 +1,115 @@
+package org.hrorm.benchmarks;
+
+import org.hrorm.ChildSelectStrategy;
+import org.hrorm.Dao;
+import org.hrorm.DaoBuilder;
+import org.hrorm.examples.join_with_children.DaoBuilders;
+import org.hrorm.examples.join_with_children.Pea;
+import org.hrorm.examples.join_with_children.Pod;
+import org.hrorm.examples.join_with_children.Root;
+import org.hrorm.examples.join_with_children.Stem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects of entities joined to other entities which have children: roots
+ * join to stems, which join to pods, which have peas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark {
+
+    private static final int PEAS_PER_POD = 3;
+
+    @Param({"10", "100", "1000"})
+    public int rows;
+
+    @Param({"Standard", "ByKeysInClause", "SubSelectInClause"})
+    public ChildSelectStrategy strategy;
+
+    private InMemoryDatabase database;
+    private Dao<Stem> stemDao;
+    private Dao<Root> rootDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder().withChildSelectStrategy(strategy);
+        DaoBuilder<Stem> stemDaoBuilder = DaoBuilders.baseStemDaoBuilder(podDaoBuilder).withChildSelectStrategy(strategy);
+        DaoBuilder<Root> rootDaoBuilder = DaoBuilders.baseRootDaoBuilder(stemDaoBuilder).withChildSelectStrategy(strategy);
+        DaoBuilder<Pea> peaDaoBuilder = DaoBuilders.basePeaDaoBuilder();
+
+        database = new InMemoryDatabase(podDaoBuilder, peaDaoBuilder, stemDaoBuilder, rootDaoBuilder);
+
+        Dao<Pod> podDao = podDaoBuilder.buildDao(database.getConnection());
+        stemDao = stemDaoBuilder.buildDao(database.getConnection());
+        rootDao = rootDaoBuilder.buildDao(database.getConnection());
+
+        List<Pod> pods = new ArrayList<>();
+        for(int idx = 0; idx < rows; idx++){
+            Pod pod = new Pod();
+            pod.setMark("Pod " + idx);
+            List<Pea> peas = new ArrayList<>();
+            for(int jdx = 0; jdx < PEAS_PER_POD; jdx++){
+                Pea pea = new Pea();
+                pea.setFlag("Pea " + jdx);
+                peas.add(pea);
+            }
+            pod.setPeas(peas);
+            pods.add(pod);
+        }
+        podDao.insertAll(pods);
+
+        List<Stem> stems = new ArrayList<>();
+        for(Pod pod : pods){
+            Stem stem = new Stem();
+            stem.setTag("Stem of " + pod.getMark());
+            stem.setPod(pod);
+            stems.add(stem);
+        }
+        stemDao.insertAll(stems);
+
+        List<Root> roots = new ArrayList<>();
+        for(int idx = 0; idx < stems.size(); idx++){
+            Root root = new Root();
+            root.setNumber((long) idx);
+            root.setStem(stems.get(idx));
+            roots.add(root);
+        }
+        rootDao.insertAll(roots);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Stem> selectWithJoin(){
+        return stemDao.select();
+    }
+
+    @Benchmark
+    public List<Root> selectWithJoinOfJoin(){
+        return rootDao.select();
+    }
+}
@@ -0,0 +1,78 @@
+package org.hrorm.benchmarks;
+
+import org.hrorm.DaoBuilder;
+import org.hrorm.SqlBuilder;
+import org.hrorm.examples.join_with_children.DaoBuilders;
+import org.hrorm.examples.join_with_children.Pod;
+import org.hrorm.examples.join_with_children.Root;
+import org.hrorm.examples.join_with_children.Stem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The SQL of selects, inserts and updates that do not depend on a where clause,
+ * for roots, which join to stems, which join to pods. The cached benchmarks
+ * read the SQL from the builder shared by every <code>Dao</code>, as a
+ * <code>Dao</code> does, and the generated benchmarks from a new builder, which
+ * is what every call cost before the SQL was kept.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlBuilderBenchmark {
+
+    private DaoBuilder<Root> rootDaoBuilder;
+    private SqlBuilder<Root> sqlBuilder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder();
+        DaoBuilder<Stem> stemDaoBuilder = DaoBuilders.baseStemDaoBuilder(podDaoBuilder);
+        rootDaoBuilder = DaoBuilders.baseRootDaoBuilder(stemDaoBuilder);
+        sqlBuilder = rootDaoBuilder.sqlBuilder();
+    }
+
+    @Benchmark
+    public String cachedSelect(){
+        return sqlBuilder.select();
+    }
+
+    @Benchmark
+    public String cachedInsert(){
+        return sqlBuilder.insert();
+    }
+
+    @Benchmark
+    public String cachedUpdate(){
+        return sqlBuilder.update();
+    }
+
+    @Benchmark
+    public String generatedSelect(){
+        return new SqlBuilder<>(rootDaoBuilder).select();
+    }
+
+    @Benchmark
+    public String generatedInsert(){
+        return new SqlBuilder<>(rootDaoBuilder).insert();
+    }
+
+    @Benchmark
+    public String generatedUpdate(){
+        return new SqlBuilder<>(rootDaoBuilder).update();
+    }
+}
@@ -3,11 +3,17 @@ package org.hrorm;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * An abstract class that aids in creating full <code>Dao</code>
@@ -33,6 +39,19 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
     private final ColumnCollection<ENTITY, BUILDER> columnCollection;
 
     private final ChildSelectStrategy childSelectStrategy;
+    private final int batchSize;
+    private final int fetchSize;
+    private final QueryOptions queryOptions;
+    private final QueryListener queryListener;
+    private final SqlDialect dialect;
+    private final boolean changeTracking;
+    private final ChildSelectExecutor childSelectExecutor;
+    private final QueryCache queryCache;
+    // The tables whose writes make cached results stale
+    private final String[] cachedTables;
+
+    private List<FetchedChildren<ENTITY, ?, BUILDER, ?>> fetchedChildren;
+    private String joinFetchSelect;
 
     public AbstractDao(Connection connection,
                        KeylessDaoDescriptor<ENTITY, BUILDER> keylessDaoDescriptor){
@@ -41,9 +60,22 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
         this.columnCollection = keylessDaoDescriptor.getColumnCollection();
         this.supplier = keylessDaoDescriptor.supplier();
         this.buildFunction = keylessDaoDescriptor.buildFunction();
+        this.batchSize = keylessDaoDescriptor.batchSize();
+        this.fetchSize = keylessDaoDescriptor.fetchSize();
+        this.queryOptions = keylessDaoDescriptor.queryOptions();
+        this.queryListener = keylessDaoDescriptor.queryListener();
+        this.dialect = keylessDaoDescriptor.dialect();
+        this.changeTracking = keylessDaoDescriptor.changeTracking();
+        this.childSelectExecutor = keylessDaoDescriptor.childSelectExecutor();
+        this.queryCache = keylessDaoDescriptor.queryCache();
+        this.cachedTables = queryCache == null ? null : QueryCache.dependencies(keylessDaoDescriptor).toArray(new String[0]);
+        if( cachedTables != null ){
+            ChildrenDescriptor.checkCacheable(keylessDaoDescriptor, "a query cache");
+            TableVersions.track(Arrays.asList(cachedTables));
+        }
 
         this.childSelectStrategy = ChildSelectStrategy.Standard;
-        this.sqlBuilder = new SqlBuilder<>(keylessDaoDescriptor);
+        this.sqlBuilder = keylessDaoDescriptor.sqlBuilder();
         this.sqlRunner = new SqlRunner<>(connection, keylessDaoDescriptor);
     }
 
@@ -54,9 +86,22 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
         this.columnCollection = daoDescriptor.getColumnCollection();
         this.supplier = daoDescriptor.supplier();
         this.buildFunction = daoDescriptor.buildFunction();
+        this.batchSize = daoDescriptor.batchSize();
+        this.fetchSize = daoDescriptor.fetchSize();
+        this.queryOptions = daoDescriptor.queryOptions();
+        this.queryListener = daoDescriptor.queryListener();
+        this.dialect = daoDescriptor.dialect();
+        this.changeTracking = daoDescriptor.changeTracking();
+        this.childSelectExecutor = daoDescriptor.childSelectExecutor();
+        this.queryCache = daoDescriptor.queryCache();
+        this.cachedTables = queryCache == null ? null : QueryCache.dependencies(daoDescriptor).toArray(new String[0]);
+        if( cachedTables != null ){
+            ChildrenDescriptor.checkCacheable(daoDescriptor, "a query cache");
+            TableVersions.track(Arrays.asList(cachedTables));
+        }
 
         this.childSelectStrategy = daoDescriptor.childSelectStrategy();
-        this.sqlBuilder = new SqlBuilder<>(daoDescriptor);
+        this.sqlBuilder = daoDescriptor.sqlBuilder();
         this.sqlRunner = new SqlRunner<>(connection, daoDescriptor);
 
         daoDescriptor.validateConsistencyOfJoinedSelectStrategies();
@@ -66,6 +111,8 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
 
     public abstract Long insert(ENTITY item);
 
+    public abstract List<Long> insertAll(Collection<ENTITY> items);
+
     @Override
     public String tableName() {
         return tableName;
@@ -86,6 +133,51 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
         return columnCollection;
     }
 
+    @Override
+    public int batchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int fetchSize() {
+        return fetchSize;
+    }
+
+    @Override
+    public QueryOptions queryOptions() {
+        return queryOptions;
+    }
+
+    @Override
+    public QueryListener queryListener() {
+        return queryListener;
+    }
+
+    @Override
+    public SqlDialect dialect() {
+        return dialect;
+    }
+
+    @Override
+    public boolean changeTracking() {
+        return changeTracking;
+    }
+
+    @Override
+    public ChildSelectExecutor childSelectExecutor() {
+        return childSelectExecutor;
+    }
+
+    @Override
+    public QueryCache queryCache() {
+        return queryCache;
+    }
+
+    @Override
+    public SqlBuilder<ENTITY> sqlBuilder() {
+        return sqlBuilder;
+    }
+
     @Override
     public Long atomicInsert(ENTITY item) {
         Transactor transactor = new Transactor(connection);
@@ -96,17 +188,16 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
 
     @Override
     public List<ENTITY> select() {
-        String sql = sqlBuilder.select();
-        return doSelectAll(sql);
+        return doSelectAll(null);
     }
 
     @Override
     public List<ENTITY> select(Order order) {
-        String sql = sqlBuilder.select(order);
-        return doSelectAll(sql);
+        return doSelectAll(order);
     }
 
-    private List<ENTITY> doSelectAll(String sql){
+    private List<ENTITY> doSelectAll(Order order){
+        String sql = order == null ? sqlBuilder.select() : sqlBuilder.select(order);
         switch (childSelectStrategy) {
             case Standard:
                 List<BUILDER> bs = sqlRunner.selectStandard(sql, supplier, childrenDescriptors());
@@ -116,6 +207,8 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
                 SelectionInstruction selectionInstruction = SelectionInstruction.forSelectAll(sql, null);
                 List<Envelope<BUILDER>> ebs = sqlRunner.doSelection(selectionInstruction,  supplier, childrenDescriptors(), new StatementPopulator.Empty());
                 return mapEnvelopedBuilders(ebs);
+            case JoinFetch:
+                return joinFetch(render(order), new StatementPopulator.Empty(), queryOptions);
             default:
                 throw new HrormException("Unsupported child select strategy " + childSelectStrategy);
         }
@@ -123,41 +216,53 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
 
     @Override
     public ENTITY selectOne(ENTITY item, String ... columnNames){
-        List<ENTITY> items = select(item, columnNames);
+        // Two rows are enough to know there are too many
+        List<ENTITY> items = doSelectByColumns(item, null, queryOptions.withMaxRows(2), columnNames);
         return fromSingletonList(items);
     }
 
     @Override
     public ENTITY selectOne(Where where){
-        List<ENTITY> items = select(where);
+        return selectOne(where, queryOptions);
+    }
+
+    @Override
+    public ENTITY selectOne(Where where, QueryOptions options){
+        // Two rows are enough to know there are too many
+        List<ENTITY> items = doSelect(where, null, options.withMaxRows(2));
         return fromSingletonList(items);
     }
 
     @Override
     public List<ENTITY> select(ENTITY item, String ... columnNames) {
-        ColumnSelection columnSelection = select(columnNames);
-        String sql = sqlBuilder.selectByColumns(columnSelection);
-        return doSelectByColumns(item, sql, columnNames);
+        return doSelectByColumns(item, null, queryOptions, columnNames);
     }
 
     @Override
     public List<ENTITY> select(ENTITY item, Order order, String... columnNames) {
-        ColumnSelection columnSelection = select(columnNames);
-        String sql = sqlBuilder.selectByColumns(columnSelection, order);
-        return doSelectByColumns(item, sql, columnNames);
+        return doSelectByColumns(item, order, queryOptions, columnNames);
     }
 
-    private List<ENTITY> doSelectByColumns(ENTITY item, String sql, String ... columnNames){
-        switch (childSelectStrategy) {
+    private List<ENTITY> doSelectByColumns(ENTITY item, Order order, QueryOptions options, String ... columnNames){
+        ColumnSelection columnSelection = select(columnNames);
+        ChildSelectStrategy strategy = childSelectStrategy;
+        if( options.getMaxRows() > 0 && ChildSelectStrategy.JoinFetch.equals(strategy) ){
+            // The limit would cut off the rows of the children
+            strategy = ChildSelectStrategy.ByKeysInClause;
+        }
+        if( ChildSelectStrategy.JoinFetch.equals(strategy) ){
+            return joinFetch(columnSelection.whereClause() + render(order), columnSelection.buildPopulator(item), options);
+        }
+        String sql = order == null ? sqlBuilder.selectByColumns(columnSelection) : sqlBuilder.selectByColumns(columnSelection, order);
+        switch (strategy) {
             case Standard:
-                List<BUILDER> bs = sqlRunner.selectByColumnsStandard(sql, supplier, select(columnNames), childrenDescriptors(), item);
+                List<BUILDER> bs = sqlRunner.selectByColumnsStandard(sql, supplier, columnSelection, childrenDescriptors(), item, options);
                 return mapBuilders(bs);
             case ByKeysInClause:
-                ColumnSelection columnSelection = select(columnNames);
                 StatementPopulator populator = columnSelection.buildPopulator(item);
                 SelectionInstruction selectionInstruction = SelectionInstruction.simpleInstruction(
                         sql, ChildSelectStrategy.ByKeysInClause);
-                List<Envelope<BUILDER>> ebs = sqlRunner.doSelection(selectionInstruction, supplier, childrenDescriptors(), populator);
+                List<Envelope<BUILDER>> ebs = sqlRunner.doSelection(selectionInstruction, supplier, childrenDescriptors(), populator, options);
                 return mapEnvelopedBuilders(ebs);
             default:
                 throw new HrormException("Unsupported child select strategy " + childSelectStrategy);
@@ -169,7 +274,7 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
                                 String columnName,
                                 Where where) {
         String sql = sqlBuilder.selectFunction(function, columnName, where);
-        return sqlRunner.runLongFunction(sql, where);
+        return cached(sql, where, queryOptions, () -> sqlRunner.runLongFunction(sql, where));
     }
 
     @Override
@@ -177,43 +282,266 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
                                             String columnName,
                                             Where where) {
         String sql = sqlBuilder.selectFunction(function, columnName, where);
-        return sqlRunner.runBigDecimalFunction(sql, where);
+        return cached(sql, where, queryOptions, () -> sqlRunner.runBigDecimalFunction(sql, where));
     }
 
 
     @Override
     public <T> T foldingSelect(T identity, BiFunction<T,ENTITY,T> accumulator, Where where){
+        return foldingSelect(identity, accumulator, where, queryOptions);
+    }
+
+    @Override
+    public <T> T foldingSelect(T identity, BiFunction<T,ENTITY,T> accumulator, Where where, QueryOptions options){
         String sql = sqlBuilder.select(where) ;
-        return sqlRunner.foldingSelect(sql, where, supplier, childrenDescriptors(), buildFunction, identity, accumulator);
+        return sqlRunner.foldingSelect(sql, where, supplier, childrenDescriptors(), buildFunction, identity, accumulator, options);
     }
 
     @Override
-    public List<ENTITY> select(Where where) {
+    public List<ENTITY> select(Where where, Projection projection) {
+        return selectProjected(where, null, projection);
+    }
+
+    @Override
+    public List<ENTITY> select(Where where, Order order, Projection projection) {
+        return selectProjected(where, order, projection);
+    }
+
+    @Override
+    public <T> List<T> select(Where where, Projection projection, Function<Projection.Row, T> mapper) {
+        return selectProjected(where, null, projection, mapper);
+    }
+
+    @Override
+    public <T> List<T> select(Where where, Order order, Projection projection, Function<Projection.Row, T> mapper) {
+        return selectProjected(where, order, projection, mapper);
+    }
+
+    private List<ENTITY> selectProjected(Where where, Order order, Projection projection){
+        ProjectedColumns<ENTITY, BUILDER> projected = new ProjectedColumns<>(this, projection, true);
+        String sql = sqlBuilder.selectProjected(projected.selectExpressions(), projected.joinColumns(), where, order);
+        RowMapper.JoinedEntities joinedEntities = new RowMapper.JoinedEntities();
+        List<BUILDER> builders = sqlRunner.selectRows(sql, where, resultSet -> {
+            try {
+                return projected.populate(connection, resultSet, supplier, joinedEntities);
+            } catch (SQLException ex){
+                throw new HrormException(ex, sql);
+            }
+        }, queryOptions);
+        joinedEntities.resolveReferences(connection);
+        return builders.stream().map(buildFunction).collect(Collectors.toList());
+    }
+
+    private <T> List<T> selectProjected(Where where, Order order, Projection projection, Function<Projection.Row, T> mapper){
+        ProjectedColumns<ENTITY, BUILDER> projected = new ProjectedColumns<>(this, projection, false);
+        String sql = sqlBuilder.selectProjected(projected.selectExpressions(), projected.joinColumns(), where, order);
+        return sqlRunner.selectRows(sql, where, resultSet -> {
+            try {
+                return mapper.apply(projected.row(resultSet));
+            } catch (SQLException ex){
+                throw new HrormException(ex, sql);
+            }
+        }, queryOptions);
+    }
+
+    @Override
+    public Stream<ENTITY> stream(Where where) {
         String sql = sqlBuilder.select(where);
-        return doSelect(sql, where);
+        return sqlRunner.stream(sql, where, supplier, childrenDescriptors(), childSelectStrategy, buildFunction, fetchSize);
     }
 
     @Override
-    public List<ENTITY> select(Where where, Order order) {
+    public Stream<ENTITY> stream(Where where, Order order) {
         String sql = sqlBuilder.select(where, order);
-        return doSelect(sql, where);
+        return sqlRunner.stream(sql, where, supplier, childrenDescriptors(), childSelectStrategy, buildFunction, fetchSize);
+    }
+
+    /**
+     * Selects entities lazily, with the children named by the passed plan.
+     *
+     * @param where Predicates to drive selection of results
+     * @param order The ordering of the results, or null
+     * @param fetchPlan The children to select
+     * @return A stream of the matching entities, which must be closed.
+     */
+    protected Stream<ENTITY> doStream(Where where, Order order, FetchPlan fetchPlan) {
+        String sql = order == null ? sqlBuilder.select(where) : sqlBuilder.select(where, order);
+        return sqlRunner.stream(sql, where, supplier, fetchPlan.apply(childrenDescriptors()), childSelectStrategy, buildFunction, fetchSize);
+    }
+
+    @Override
+    public Page<ENTITY> selectPage(Where where, Order order, int limit, Cursor<ENTITY> after) {
+        if( limit < 1 ){
+            throw new HrormException("Page limit must be positive, but was " + limit);
+        }
+        Order pageOrder = uniqueOrder(order);
+        String orderSql = pageOrder.render();
+        List<Column<?, ?, ENTITY, BUILDER>> columns = new ArrayList<>();
+        for(String columnName : pageOrder.columnNames()){
+            columns.add(columnCollection.columnByName(columnName));
+        }
+        List<Object> afterValues = null;
+        if( after != null ){
+            after.checkOrder(orderSql);
+            afterValues = after.getValues();
+        }
+        KeysetPredicate<ENTITY, BUILDER> keysetPredicate = new KeysetPredicate<>(columns, pageOrder, dialect);
+        String sql = sqlBuilder.selectPage(where, keysetPredicate, afterValues, dialect);
+        List<Object> seekValues = afterValues;
+        StatementPopulator populator = statement -> {
+            int idx = where.populate(statement, 1);
+            if( seekValues != null ){
+                idx = keysetPredicate.populate(statement, idx, seekValues);
+            }
+            // One more row than asked for tells whether there is a next page
+            statement.setInt(idx, limit + 1);
+            return idx;
+        };
+
+        List<ENTITY> items = doSelectPage(sql, populator);
+        if( items.size() <= limit ){
+            return new Page<>(items, null);
+        }
+        List<ENTITY> pageItems = new ArrayList<>(items.subList(0, limit));
+        return new Page<>(pageItems, new Cursor<>(KeysetPredicate.values(columns, pageItems.get(limit - 1)), orderSql));
+    }
+
+    private Order uniqueOrder(Order order){
+        PrimaryKey<ENTITY, BUILDER> primaryKey = columnCollection.getPrimaryKey();
+        if( primaryKey == null || order.contains(primaryKey.getName()) ){
+            return order;
+        }
+        if( order.isAscending(order.columnNames().size() - 1) ){
+            return order.thenAscending(primaryKey.getName());
+        }
+        return order.thenDescending(primaryKey.getName());
     }
 
-    private List<ENTITY> doSelect(String sql, Where where){
+    private List<ENTITY> doSelectPage(String sql, StatementPopulator populator){
         switch (childSelectStrategy) {
             case Standard:
-                List<BUILDER> bs = sqlRunner.selectWhereStandard(sql, supplier, childrenDescriptors(), where);
-                return mapBuilders(bs);
+                List<ENTITY> items = sqlRunner.foldingSelect(sql, populator, supplier, childrenDescriptors(), buildFunction, new ArrayList<>(),
+                        (list, item) -> { list.add(item); return list; });
+                selected(items, true);
+                return items;
             case ByKeysInClause:
-                SelectionInstruction selectionInstruction =  SelectionInstruction.simpleInstruction(sql, childSelectStrategy);
-                List<Envelope<BUILDER>> ebs = sqlRunner.doSelection(selectionInstruction, supplier, childrenDescriptors(), where);
+            case SubSelectInClause:
+            case JoinFetch:
+                // The sub-select would find the children of rows past the limit,
+                // and the limit would cut off the rows of joined children
+                SelectionInstruction selectionInstruction =  SelectionInstruction.simpleInstruction(sql, ChildSelectStrategy.ByKeysInClause);
+                List<Envelope<BUILDER>> ebs = sqlRunner.doSelection(selectionInstruction, supplier, childrenDescriptors(), populator);
                 return mapEnvelopedBuilders(ebs);
+            default:
+                throw new HrormException("Unsupported child select strategy " + childSelectStrategy);
+        }
+    }
+
+    @Override
+    public List<ENTITY> select(Where where) {
+        return select(where, queryOptions);
+    }
+
+    @Override
+    public List<ENTITY> select(Where where, QueryOptions options) {
+        return doSelect(where, null, options);
+    }
+
+    @Override
+    public List<ENTITY> select(Where where, Order order) {
+        return select(where, order, queryOptions);
+    }
+
+    @Override
+    public List<ENTITY> select(Where where, Order order, QueryOptions options) {
+        return doSelect(where, order, options);
+    }
+
+    private List<ENTITY> doSelect(Where where, Order order, QueryOptions options){
+        QueryCache.Key key = cacheKey(order == null ? sqlBuilder.select(where) : sqlBuilder.select(where, order), where, options);
+        if( key == null ){
+            return doSelect(where, order, options, childrenDescriptors());
+        }
+        QueryCache.Entry entry = queryCache.get(key);
+        if( entry != null ){
+            List<ENTITY> items = new ArrayList<>(entry.<List<ENTITY>>getValue());
+            selected(items, true);
+            return items;
+        }
+        long[] versions = QueryCache.versions(cachedTables);
+        List<ENTITY> items = doSelect(where, order, options, childrenDescriptors());
+        queryCache.put(key, Collections.unmodifiableList(new ArrayList<>(items)), cachedTables, versions);
+        return items;
+    }
+
+    private QueryCache.Key cacheKey(String sql, StatementPopulator populator, QueryOptions options){
+        return queryCache == null ? null : QueryCache.key(sql, populator, options);
+    }
+
+    private <T> T cached(String sql, StatementPopulator populator, QueryOptions options, Supplier<T> select){
+        QueryCache.Key key = cacheKey(sql, populator, options);
+        if( key == null ){
+            return select.get();
+        }
+        QueryCache.Entry entry = queryCache.get(key);
+        if( entry != null ){
+            return entry.getValue();
+        }
+        long[] versions = QueryCache.versions(cachedTables);
+        T value = select.get();
+        queryCache.put(key, value, cachedTables, versions);
+        return value;
+    }
+
+    private <T> List<T> cachedList(String sql, StatementPopulator populator, QueryOptions options, Supplier<List<T>> select){
+        if( queryCache == null ){
+            return select.get();
+        }
+        // Each caller gets a list of its own
+        return new ArrayList<>(cached(sql, populator, options, () -> Collections.unmodifiableList(select.get())));
+    }
+
+    /**
+     * Selects the entities that match the passed where clause, with the
+     * children named by the passed plan.
+     *
+     * @param where Predicates to drive selection of results
+     * @param order The ordering of the results, or null
+     * @param options The options for the select
+     * @param fetchPlan The children to select
+     * @return The matching entities
+     */
+    protected List<ENTITY> doSelect(Where where, Order order, QueryOptions options, FetchPlan fetchPlan){
+        return doSelect(where, order, options, fetchPlan.apply(childrenDescriptors()));
+    }
+
+    private List<ENTITY> doSelect(Where where, Order order, QueryOptions options, List<ChildrenDescriptor<ENTITY,?, BUILDER,?>> children){
+        boolean complete = children == childrenDescriptors();
+        ChildSelectStrategy strategy = childSelectStrategy;
+        if( options.getMaxRows() > 0 && ( ChildSelectStrategy.SubSelectInClause.equals(strategy)
+                                            || ChildSelectStrategy.JoinFetch.equals(strategy) ) ){
+            // The sub-select would find the children of rows past the limit,
+            // and the limit would cut off the rows of joined children
+            strategy = ChildSelectStrategy.ByKeysInClause;
+        }
+        if( ChildSelectStrategy.JoinFetch.equals(strategy) ){
+            return joinFetch(where.render() + render(order), where, options, children);
+        }
+        String sql = order == null ? sqlBuilder.select(where) : sqlBuilder.select(where, order);
+        switch (strategy) {
+            case Standard:
+                List<BUILDER> bs = sqlRunner.selectWhereStandard(sql, supplier, children, where, options);
+                return mapBuilders(bs, complete);
+            case ByKeysInClause:
+                SelectionInstruction selectionInstruction =  SelectionInstruction.simpleInstruction(sql, strategy);
+                List<Envelope<BUILDER>> ebs = sqlRunner.doSelection(selectionInstruction, supplier, children, where, options);
+                return mapEnvelopedBuilders(ebs, complete);
             case SubSelectInClause:
                 String primaryKeySelector = sqlBuilder.selectPrimaryKey(where);
                 SelectionInstruction selectionInstructionSub = SelectionInstruction.withPrimaryKeySql(
-                        sql, primaryKeySelector, childSelectStrategy);
-                List<Envelope<BUILDER>> ebss = sqlRunner.doSelection(selectionInstructionSub, supplier, childrenDescriptors(), where);
-                return mapEnvelopedBuilders(ebss);
+                        sql, primaryKeySelector, strategy);
+                List<Envelope<BUILDER>> ebss = sqlRunner.doSelection(selectionInstructionSub, supplier, children, where, options);
+                return mapEnvelopedBuilders(ebss, complete);
             default:
                 throw new HrormException("Unsupported child select strategy " + childSelectStrategy);
         }
@@ -221,15 +549,25 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
 
     @Override
     public <T> List<T> selectDistinct(String columnName, Where where) {
+        return selectDistinct(columnName, where, queryOptions);
+    }
+
+    @Override
+    public <T> List<T> selectDistinct(String columnName, Where where, QueryOptions options) {
         String sql = sqlBuilder.selectDistinct(where, columnName);
         // This cast is unfortunate. But I do not see how to avoid it, except
         // by requiring the user to specify the column type in the Dao interface.
         Column<?,T,ENTITY, BUILDER> column = (Column<?,T,ENTITY,BUILDER>) columnCollection.columnByName(columnName);
-        return sqlRunner.selectDistinct(sql, where, column::fromResultSet);
+        return cachedList(sql, where, options, () -> sqlRunner.selectDistinct(sql, where, column::fromResultSet, options));
     }
 
     @Override
     public <T,U> List<Pair<T,U>> selectDistinct(String firstColumnName, String secondColumnName, Where where) {
+        return selectDistinct(firstColumnName, secondColumnName, where, queryOptions);
+    }
+
+    @Override
+    public <T,U> List<Pair<T,U>> selectDistinct(String firstColumnName, String secondColumnName, Where where, QueryOptions options) {
         String sql = sqlBuilder.selectDistinct(where, firstColumnName, secondColumnName);
         // Casting as above
         Column<?,T,ENTITY, BUILDER> firstColumn = (Column<?,T,ENTITY,BUILDER>) columnCollection.columnByName(firstColumnName);
@@ -240,11 +578,16 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
             U u = secondColumn.fromResultSet(rs);
             return new Pair<>(t, u);
         };
-        return sqlRunner.selectDistinct(sql, where, reader);
+        return cachedList(sql, where, options, () -> sqlRunner.selectDistinct(sql, where, reader, options));
     }
 
     @Override
     public <T, U, V> List<Triplet<T, U, V>> selectDistinct(String firstColumnName, String secondColumnName, String thirdColumnName, Where where) {
+        return selectDistinct(firstColumnName, secondColumnName, thirdColumnName, where, queryOptions);
+    }
+
+    @Override
+    public <T, U, V> List<Triplet<T, U, V>> selectDistinct(String firstColumnName, String secondColumnName, String thirdColumnName, Where where, QueryOptions options) {
         String sql = sqlBuilder.selectDistinct(where, firstColumnName, secondColumnName, thirdColumnName);
         // Casting as above
         Column<?,T,ENTITY, BUILDER> firstColumn = (Column<?,T,ENTITY,BUILDER>) columnCollection.columnByName(firstColumnName);
@@ -257,20 +600,84 @@ public abstract class AbstractDao<ENTITY, BUILDER> implements KeylessDaoDescript
             V v = thirdColumn.fromResultSet(rs);
             return new Triplet<>(t, u, v);
         };
-        return sqlRunner.selectDistinct(sql, where, reader);
+        return cachedList(sql, where, options, () -> sqlRunner.selectDistinct(sql, where, reader, options));
+    }
+
+    private List<ENTITY> joinFetch(String clauses, StatementPopulator populator, QueryOptions options){
+        return joinFetch(clauses, populator, options, childrenDescriptors());
+    }
+
+    private List<ENTITY> joinFetch(String clauses,
+                                   StatementPopulator populator,
+                                   QueryOptions options,
+                                   List<ChildrenDescriptor<ENTITY,?, BUILDER,?>> children){
+        List<FetchedChildren<ENTITY, ?, BUILDER, ?>> fetched;
+        String select;
+        if( children == childrenDescriptors() ){
+            if( fetchedChildren == null ){
+                fetchedChildren = FetchedChildren.forDescriptors(children);
+                joinFetchSelect = joinFetchSelect(fetchedChildren);
+            }
+            fetched = fetchedChildren;
+            select = joinFetchSelect;
+        } else {
+            // A fetch plan joins the tables of only the children it names
+            fetched = FetchedChildren.forDescriptors(children);
+            select = joinFetchSelect(fetched);
+        }
+        List<Envelope<BUILDER>> ebs = sqlRunner.selectJoinFetch(select + clauses, supplier, fetched, populator, options);
+        for(ChildrenDescriptor<ENTITY, ?, BUILDER, ?> childrenDescriptor : children){
+            if( childrenDescriptor.isLazy() ){
+                childrenDescriptor.populateChildren(connection, ebs, null);
+            }
+        }
+        return mapEnvelopedBuilders(ebs, children == childrenDescriptors());
+    }
+
+    private String joinFetchSelect(List<FetchedChildren<ENTITY, ?, BUILDER, ?>> fetched){
+        return sqlBuilder.selectJoinFetch(
+                fetched.stream().map(FetchedChildren::joinedDaoDescriptor).collect(Collectors.toList()));
+    }
+
+    private static String render(Order order){
+        // With the child tables joined, the columns must name their table
+        return order == null ? "" : order.render("a.");
+    }
+
+    /**
+     * Called with the entities read by each select that returns a list.
+     * Does nothing, unless overridden.
+     *
+     * @param items The entities read.
+     * @param complete Whether the entities were read with all their children,
+     *                 rather than with only those named by a <code>FetchPlan</code>.
+     */
+    protected void selected(List<ENTITY> items, boolean complete){
     }
 
     private List<ENTITY> mapBuilders(List<BUILDER> bs){
-        return bs.stream().map(buildFunction).collect(Collectors.toList());
+        return mapBuilders(bs, true);
+    }
+
+    private List<ENTITY> mapBuilders(List<BUILDER> bs, boolean complete){
+        List<ENTITY> items = bs.stream().map(buildFunction).collect(Collectors.toList());
+        selected(items, complete);
+        return items;
     }
 
     private List<ENTITY> mapEnvelopedBuilders(List<Envelope<BUILDER>> bs){
-        return bs.stream()
+        return mapEnvelopedBuilders(bs, true);
+    }
+
+    private List<ENTITY> mapEnvelopedBuilders(List<Envelope<BUILDER>> bs, boolean complete){
+        List<ENTITY> items = bs.stream()
                 .map(envelope -> {
                     BUILDER builder = envelope.getItem();
                     return buildFunction.apply(builder);
                 })
                 .collect(Collectors.toList());
+        selected(items, complete);
+        return items;
     }
 
 
@@ -1,6 +1,7 @@
 package org.hrorm;
 
 import java.sql.Connection;
+import java.time.Duration;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -18,6 +19,7 @@ public abstract class AbstractDaoBuilder<ENTITY, ENTITYBUILDER, BUILDER extends
         implements DaoDescriptor<ENTITY,ENTITYBUILDER>, SchemaDescriptor<ENTITY, ENTITYBUILDER> {
 
     private ChildSelectStrategy childSelectStrategy = ChildSelectStrategy.Standard;
+    private EntityCache<ENTITY> entityCache;
 
     public AbstractDaoBuilder(String tableName, Supplier<ENTITYBUILDER> supplier, Function<ENTITYBUILDER, ENTITY> buildFunction){
         super(tableName, supplier, buildFunction);
@@ -59,12 +61,48 @@ public abstract class AbstractDaoBuilder<ENTITY, ENTITYBUILDER, BUILDER extends
     public <CHILD,CHILDBUILDER> BUILDER withChildren(Function<ENTITY, List<CHILD>> getter,
                                                      BiConsumer<ENTITYBUILDER, List<CHILD>> setter,
                                                      DaoDescriptor<CHILD,CHILDBUILDER> childDaoDescriptor){
+        return withChildren(getter, setter, childDaoDescriptor, false);
+    }
+
+    /**
+     * Describes a relationship between the object <code>ENTITY</code> and its several
+     * child objects of type <code>U</code>, as {@link #withChildren(Function, BiConsumer, DaoDescriptor)}
+     * does, except that the children are not selected with the entity.
+     *
+     * Instead, each entity is given a list that selects the children when it
+     * is first used. Using the list of any one entity selects the children of
+     * all the entities read by the same select, by their keys, so reading the
+     * children of each entity in turn does not cost a select per entity. The
+     * children are selected on the connection of the <code>Dao</code>, which must
+     * still be open when they are first used.
+     *
+     * An entity whose list of children was never used is saved without
+     * changing its children.
+     *
+     * @param getter The function on <code>ENTITY</code> that returns the children.
+     * @param setter The function on <code>ENTITY</code> that consumes the children.
+     * @param childDaoDescriptor The description of how the mapping for the subordinate elements
+     *                      are persisted.
+     * @param <CHILD> The type of the child data elements.
+     * @param <CHILDBUILDER> The type of the builder of child data elements
+     * @return This instance.
+     */
+    public <CHILD,CHILDBUILDER> BUILDER withLazyChildren(Function<ENTITY, List<CHILD>> getter,
+                                                         BiConsumer<ENTITYBUILDER, List<CHILD>> setter,
+                                                         DaoDescriptor<CHILD,CHILDBUILDER> childDaoDescriptor){
+        return withChildren(getter, setter, childDaoDescriptor, true);
+    }
+
+    private <CHILD,CHILDBUILDER> BUILDER withChildren(Function<ENTITY, List<CHILD>> getter,
+                                                      BiConsumer<ENTITYBUILDER, List<CHILD>> setter,
+                                                      DaoDescriptor<CHILD,CHILDBUILDER> childDaoDescriptor,
+                                                      boolean lazy){
         if( ! childDaoDescriptor.hasParent() ){
             throw new HrormException("Children must have a parent column");
         }
 
         ChildrenDescriptor<ENTITY, CHILD, ENTITYBUILDER, CHILDBUILDER> childrenDescriptor
-                = new ChildrenDescriptor<>(getter, setter, childDaoDescriptor, primaryKey(), daoBuilderHelper.getBuildFunction());
+                = new ChildrenDescriptor<>(getter, setter, childDaoDescriptor, primaryKey(), daoBuilderHelper.getBuildFunction(), lazy);
 
         childrenDescriptors.add(childrenDescriptor);
         return (BUILDER) this;
@@ -159,6 +197,70 @@ public abstract class AbstractDaoBuilder<ENTITY, ENTITYBUILDER, BUILDER extends
         return (BUILDER) this;
     }
 
+    @Override
+    public EntityCache<ENTITY> entityCache() {
+        return entityCache;
+    }
+
+    /**
+     * Cache the entities selected by their primary keys, with
+     * <code>selectOne(long)</code> and <code>select(List)</code>, in a cache
+     * shared by every <code>Dao</code> built from this builder from now on.
+     * Keys that match no entity are not remembered.
+     *
+     * <p>
+     *     The cached entities are shared by every caller, on every connection
+     *     and thread, so they must be treated as immutable. To change one,
+     *     update a copy of it, which replaces it in the cache.
+     * </p>
+     *
+     * <p>
+     *     Entities with lazily loaded children, or whose joined entities or
+     *     children have them, cannot be cached, since their children would be
+     *     loaded on the connection that first selected them: building a
+     *     <code>Dao</code> from a builder with both throws an exception.
+     * </p>
+     *
+     * @param maximumSize The most entities to hold at once.
+     * @param timeToLive How long to hold each entity, or null to hold them
+     *                   until they are evicted or written.
+     * @return This instance.
+     */
+    public BUILDER withEntityCache(int maximumSize, Duration timeToLive){
+        return withEntityCache(maximumSize, timeToLive, false);
+    }
+
+    /**
+     * Cache the entities selected by their primary keys, with
+     * <code>selectOne(long)</code> and <code>select(List)</code>, in a cache
+     * shared by every <code>Dao</code> built from this builder from now on.
+     * The cache is available from {@link #entityCache()}, for its statistics.
+     *
+     * <p>
+     *     The cached entities are shared by every caller, on every connection
+     *     and thread, so they must be treated as immutable. To change one,
+     *     update a copy of it, which replaces it in the cache.
+     * </p>
+     *
+     * <p>
+     *     Entities with lazily loaded children, or whose joined entities or
+     *     children have them, cannot be cached, since their children would be
+     *     loaded on the connection that first selected them: building a
+     *     <code>Dao</code> from a builder with both throws an exception.
+     * </p>
+     *
+     * @param maximumSize The most entities to hold at once.
+     * @param timeToLive How long to hold each entity, or null to hold them
+     *                   until they are evicted or written.
+     * @param cacheMisses Whether to remember the keys that match no entity,
+     *                    so that selecting them again runs no SQL.
+     * @return This instance.
+     */
+    public BUILDER withEntityCache(int maximumSize, Duration timeToLive, boolean cacheMisses){
+        this.entityCache = new EntityCache<>(tableName(), maximumSize, timeToLive, cacheMisses);
+        return (BUILDER) this;
+    }
+
     @Override
     public List<ChildrenDescriptor<ENTITY, ?, ENTITYBUILDER, ?>> childrenDescriptors() {
         return childrenDescriptors;
@@ -171,6 +273,11 @@ public abstract class AbstractDaoBuilder<ENTITY, ENTITYBUILDER, BUILDER extends
 
     @Override
     public Queries buildQueries() {
-        return new SqlBuilder<>(this);
+        return sqlBuilder();
+    }
+
+    @Override
+    protected SqlBuilder<ENTITY> newSqlBuilder(){
+        return new SqlBuilder<>((DaoDescriptor<ENTITY, ENTITYBUILDER>) this);
     }
 }
@@ -1,9 +1,12 @@
 package org.hrorm;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -22,6 +25,18 @@ public abstract class AbstractKeylessDaoBuilder<ENTITY, ENTITYBUILDER, BUILDER e
     protected final DaoBuilderHelper<ENTITY, ENTITYBUILDER> daoBuilderHelper;
     protected final List<ChildrenDescriptor<ENTITY,?, ENTITYBUILDER,?>> childrenDescriptors = new ArrayList<>();
 
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private QueryOptions queryOptions = QueryOptions.DEFAULT;
+    private QueryListener queryListener;
+    private SqlDialect dialect = SqlDialect.Standard;
+    private boolean changeTracking;
+    private QueryCache queryCache;
+    private ChildSelectExecutor childSelectExecutor = ChildSelectExecutor.SEQUENTIAL;
+
+    private SqlBuilder<ENTITY> sqlBuilder;
+    private int sqlBuilderModificationCount;
+
     public AbstractKeylessDaoBuilder(String tableName, Supplier<ENTITYBUILDER> supplier, Function<ENTITYBUILDER, ENTITY> buildFunction){
         this.daoBuilderHelper = new DaoBuilderHelper<>(tableName, supplier, buildFunction);
     }
@@ -46,6 +61,67 @@ public abstract class AbstractKeylessDaoBuilder<ENTITY, ENTITYBUILDER, BUILDER e
         return daoBuilderHelper.getBuildFunction();
     }
 
+    @Override
+    public int batchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int fetchSize() {
+        return fetchSize;
+    }
+
+    @Override
+    public QueryOptions queryOptions() {
+        return queryOptions;
+    }
+
+    @Override
+    public QueryListener queryListener() {
+        return queryListener;
+    }
+
+    @Override
+    public SqlDialect dialect() {
+        return dialect;
+    }
+
+    @Override
+    public boolean changeTracking() {
+        return changeTracking;
+    }
+
+    @Override
+    public QueryCache queryCache() {
+        return queryCache;
+    }
+
+    @Override
+    public ChildSelectExecutor childSelectExecutor() {
+        return childSelectExecutor;
+    }
+
+    /**
+     * The SQL builder for this description. The same instance is shared
+     * by every <code>Dao</code> built from this builder, and is only
+     * replaced if more columns are described afterwards.
+     *
+     * @return the SQL builder
+     */
+    @Override
+    public synchronized SqlBuilder<ENTITY> sqlBuilder() {
+        int modificationCount = columnCollection.getModificationCount();
+        if( sqlBuilder == null || sqlBuilderModificationCount != modificationCount ){
+            sqlBuilder = newSqlBuilder();
+            sqlBuilderModificationCount = modificationCount;
+        }
+        return sqlBuilder;
+    }
+
+    protected SqlBuilder<ENTITY> newSqlBuilder(){
+        return new SqlBuilder<>(this);
+    }
+
     public BUILDER withStringColumn(String columnName,
                                     Function<ENTITY, String> getter,
                                     BiConsumer<ENTITYBUILDER, String> setter){
@@ -207,6 +283,39 @@ public abstract class AbstractKeylessDaoBuilder<ENTITY, ENTITYBUILDER, BUILDER e
         return (BUILDER) this;
     }
 
+    /**
+     * Describes a data element that is represented by an <code>Object</code> of some
+     * other type <code>U</code> with its own table for persistence, like
+     * {@link #withJoinColumn}, except that the other table is not joined into the
+     * selects of this entity.
+     *
+     * Only the foreign key is read with each row. Once the rows of a select have
+     * been read, the entities they reference are selected by their keys, with one
+     * select for each reference column, however many rows there are. This keeps
+     * the selects of entities at the end of long chains of joins narrow, at the
+     * cost of a further select for each reference.
+     *
+     * The referenced entities of an entity that is itself joined to another are
+     * selected as it is read.
+     *
+     * @param columnName The name of the column with the foreign key to the other table.
+     *                   This column must be an integer type and must reference the primary
+     *                   key of the other table.
+     * @param getter The function on <code>ENTITY</code> that returns the data element.
+     * @param setter The function on <code>ENTITY</code> that consumes the data element.
+     * @param daoDescriptor The description of how the mapping for the subordinate element
+     *                      is persisted. Both <code>Dao</code> and <code>DaoBuilder</code>
+     *                      objects implement the <code>DaoDescriptor</code> interface.
+     * @param <U> The type of the data element.
+     * @return This instance.
+     */
+    public <U> BUILDER withReferenceColumn(
+            String columnName, Function<ENTITY, U> getter, BiConsumer<ENTITYBUILDER,U> setter, DaoDescriptor<U,?> daoDescriptor){
+        ReferenceColumn<ENTITY,U, ENTITYBUILDER,?> referenceColumn = new ReferenceColumn<>(columnName, daoBuilderHelper.getPrefix(), getter, setter, daoDescriptor, true);
+        columnCollection.addDataColumn(referenceColumn);
+        return (BUILDER) this;
+    }
+
     /**
      * Sets the most recent column added to this DaoBuilder to prevent it allowing
      * nulls on inserts or updates.
@@ -299,4 +408,163 @@ public abstract class AbstractKeylessDaoBuilder<ENTITY, ENTITYBUILDER, BUILDER e
         return (BUILDER) this;
     }
 
+    /**
+     * Set the maximum number of records that will be sent to the database
+     * in a single JDBC batch when inserting several entities at once.
+     * Children of this entity are batched according to their own
+     * descriptor's batch size.
+     *
+     * @param batchSize The number of records per batch, which must be positive.
+     * @return This instance.
+     */
+    public BUILDER withBatchSize(int batchSize){
+        if( batchSize < 1 ){
+            throw new HrormException("Batch size must be positive, but was " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return (BUILDER) this;
+    }
+
+    /**
+     * Set the number of rows that will be fetched from the database at
+     * a time. When streaming entities, children selected using one of
+     * the bulk child select strategies are selected for this many
+     * entities at a time.
+     *
+     * @param fetchSize The number of rows per fetch, which must be positive.
+     * @return This instance.
+     */
+    public BUILDER withFetchSize(int fetchSize){
+        if( fetchSize < 1 ){
+            throw new HrormException("Fetch size must be positive, but was " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+        this.queryOptions = queryOptions.withFetchSize(fetchSize);
+        return (BUILDER) this;
+    }
+
+    /**
+     * Set the options used to execute selects for which no other options
+     * are passed. A fetch size in the options is also used when streaming.
+     *
+     * @param queryOptions The default options.
+     * @return This instance.
+     */
+    public BUILDER withQueryOptions(QueryOptions queryOptions){
+        if( queryOptions == null ){
+            throw new HrormException("Query options cannot be null");
+        }
+        this.queryOptions = queryOptions;
+        if( queryOptions.getFetchSize() > 0 ){
+            this.fetchSize = queryOptions.getFetchSize();
+        }
+        return (BUILDER) this;
+    }
+
+    /**
+     * Set the listener told about each statement run for this entity, in
+     * place of the global listener.
+     *
+     * @param queryListener The listener.
+     * @return This instance.
+     */
+    public BUILDER withQueryListener(QueryListener queryListener){
+        if( queryListener == null ){
+            throw new HrormException("Query listener cannot be null");
+        }
+        this.queryListener = queryListener;
+        return (BUILDER) this;
+    }
+
+    /**
+     * Set the dialect of SQL to generate where databases differ,
+     * for example when limiting the rows of a page.
+     *
+     * @param dialect The dialect of the database.
+     * @return This instance.
+     */
+    public BUILDER withDialect(SqlDialect dialect){
+        if( dialect == null ){
+            throw new HrormException("Dialect cannot be null");
+        }
+        this.dialect = dialect;
+        return (BUILDER) this;
+    }
+
+    /**
+     * Have each <code>Dao</code> remember the column values of the entities
+     * it selects, inserts and updates. An update of a remembered entity then
+     * writes only the columns that have changed, and skips the entity, and
+     * each of its children, entirely when nothing has.
+     *
+     * <p>
+     *     Snapshots are held for the life of the <code>Dao</code>, so this
+     *     suits a <code>Dao</code> used for a single unit of work. Entities
+     *     read through <code>stream</code> or <code>foldingSelect</code> are
+     *     not remembered.
+     * </p>
+     *
+     * @return This instance.
+     */
+    public BUILDER withChangeTracking(){
+        this.changeTracking = true;
+        return (BUILDER) this;
+    }
+
+    /**
+     * Cache the results of <code>select(Where)</code>, <code>selectDistinct</code>
+     * and the <code>run...Function</code> methods, by their SQL and the values
+     * bound to it, in a cache shared by every <code>Dao</code> built from this
+     * builder from now on. A result is read again once hrorm has written any
+     * table it depends on, or once its time to live has passed. Results are not
+     * cached while hrorm has written a table they depend on in a transaction
+     * that has not yet ended; see {@link QueryCache}.
+     *
+     * <p>
+     *     The cached entities are shared by every caller, on every connection
+     *     and thread, so they must be treated as immutable. To change one,
+     *     update a copy of it.
+     * </p>
+     *
+     * <p>
+     *     Entities with lazily loaded children, or whose joined entities or
+     *     children have them, cannot be cached, since their children would be
+     *     loaded on the connection that first selected them: building a
+     *     <code>Dao</code> from a builder with both throws an exception.
+     * </p>
+     *
+     * @param maximumSize The most results to hold at once.
+     * @param timeToLive How long to hold each result, which bounds how long
+     *                   writes made other than through hrorm go unseen, or
+     *                   null to hold results until they are stale.
+     * @return This instance.
+     */
+    public BUILDER withQueryCache(int maximumSize, Duration timeToLive){
+        this.queryCache = new QueryCache(maximumSize, timeToLive);
+        return (BUILDER) this;
+    }
+
+    /**
+     * Select the collections of children of the records read together, and
+     * those of the entities joined to them, at the same time rather than one
+     * after another. Every collection but the first is selected on a connection
+     * taken from the supplier, which is closed when the selection is done.
+     *
+     * <p>
+     *     This applies to the <code>ByKeysInClause</code> and
+     *     <code>SubSelectInClause</code> child select strategies. Since the
+     *     other connections cannot see what the connection of the
+     *     <code>Dao</code> has not committed, this suits reading data that
+     *     is not being changed in the same transaction.
+     * </p>
+     *
+     * @param connectionSupplier The source of connections for the selections.
+     * @param executor Runs the selections.
+     * @return This instance.
+     */
+    public BUILDER withParallelChildSelects(Supplier<Connection> connectionSupplier, Executor executor){
+        this.childSelectExecutor = ChildSelectExecutor.parallel(connectionSupplier, executor);
+        return (BUILDER) this;
+    }
+
 }
@@ -1,6 +1,8 @@
 package org.hrorm;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A DAO that can find and persist associations between entities.
@@ -45,6 +47,48 @@ public interface AssociationDao<LEFT,RIGHT> {
      */
     List<RIGHT> selectRightAssociates(LEFT left);
 
+    /**
+     * Finds the instances of <code>LEFT</code> entities associated with
+     * each of the <code>RIGHT</code> instances passed, with one select of
+     * the association table joined only to the <code>LEFT</code> table.
+     *
+     * @param rights The entity instances whose associates are to be selected
+     * @return The instances found for each of the passed instances, in the
+     *         order they were passed, with an empty list for those that have none
+     */
+    Map<RIGHT, List<LEFT>> selectLeftAssociates(Collection<RIGHT> rights);
+
+    /**
+     * Finds the instances of <code>RIGHT</code> entities associated with
+     * each of the <code>LEFT</code> instances passed, with one select of
+     * the association table joined only to the <code>RIGHT</code> table.
+     *
+     * @param lefts The entity instances whose associates are to be selected
+     * @return The instances found for each of the passed instances, in the
+     *         order they were passed, with an empty list for those that have none
+     */
+    Map<LEFT, List<RIGHT>> selectRightAssociates(Collection<LEFT> lefts);
+
+    /**
+     * Finds the primary keys of the <code>LEFT</code> entities associated
+     * with the <code>RIGHT</code> instance passed, reading only the
+     * association table.
+     *
+     * @param right The entity instance whose associates are to be found
+     * @return The keys found
+     */
+    long[] selectLeftAssociateIds(RIGHT right);
+
+    /**
+     * Finds the primary keys of the <code>RIGHT</code> entities associated
+     * with the <code>LEFT</code> instance passed, reading only the
+     * association table.
+     *
+     * @param left The entity instance whose associates are to be found
+     * @return The keys found
+     */
+    long[] selectRightAssociateIds(LEFT left);
+
     /**
      * Persist a new association between two entities.
      *
@@ -55,11 +99,41 @@ public interface AssociationDao<LEFT,RIGHT> {
     Long insertAssociation(LEFT left, RIGHT right);
 
     /**
-     * Remove an association from the underlying store
+     * Persist several new associations, in JDBC batches rather than
+     * one statement per association.
+     *
+     * @param associations the pairs of <code>LEFT</code> and <code>RIGHT</code> entities to be associated
+     * @return the primary keys of the association records, in the order the pairs were passed
+     */
+    List<Long> insertAssociations(Collection<Pair<LEFT, RIGHT>> associations);
+
+    /**
+     * Remove an association from the underlying store, with a single
+     * delete statement.
      *
      * @param left an instance of the <code>LEFT</code> entity whose association is to be broken
      * @param right and instance of the <code>RIGHT</code> entity whose association is to be broken
      */
     void deleteAssociation(LEFT left, RIGHT right);
 
+    /**
+     * Make the passed entities the only <code>LEFT</code> entities associated
+     * with the <code>RIGHT</code> entity. Only the associations that are missing
+     * are inserted, and only those that are no longer wanted are deleted.
+     *
+     * @param right The entity instance whose associates are to be set
+     * @param lefts The entity instances to be associated with it
+     */
+    void syncLeftAssociates(RIGHT right, Collection<LEFT> lefts);
+
+    /**
+     * Make the passed entities the only <code>RIGHT</code> entities associated
+     * with the <code>LEFT</code> entity. Only the associations that are missing
+     * are inserted, and only those that are no longer wanted are deleted.
+     *
+     * @param left The entity instance whose associates are to be set
+     * @param rights The entity instances to be associated with it
+     */
+    void syncRightAssociates(LEFT left, Collection<RIGHT> rights);
+
 }
@@ -20,6 +20,7 @@ public class AssociationDaoBuilder<LEFT, RIGHT>
     private final DaoDescriptor<LEFT, ?> leftDaoDescriptor;
     private final DaoDescriptor<RIGHT, ?> rightDaoDescriptor;
     private ChildSelectStrategy childSelectStrategy = ChildSelectStrategy.Standard;
+    private KeyAllocator keyAllocator = KeyAllocator.sequence();
 
     private String tableName;
     private String primaryKeyName;
@@ -28,6 +29,11 @@ public class AssociationDaoBuilder<LEFT, RIGHT>
     private String rightColumnName;
 
     private DaoBuilder<Association<LEFT, RIGHT>> internalDaoBuilder;
+    // Read the association table joined to one side only, or to neither,
+    // holding the keys of the sides not joined
+    private DaoBuilder<Association<Long, RIGHT>> rightSideDaoBuilder;
+    private DaoBuilder<Association<LEFT, Long>> leftSideDaoBuilder;
+    private DaoBuilder<Association<Long, Long>> keysDaoBuilder;
 
     /**
      * Construct a new builder instance.
@@ -56,7 +62,11 @@ public class AssociationDaoBuilder<LEFT, RIGHT>
         Dao<Association<LEFT, RIGHT>> internalDao = internalDaoBuilder.buildDao(connection);
 
         return new AssociationDaoImpl<>(
+                connection,
                 internalDao,
+                leftSideDaoBuilder.buildDao(connection),
+                rightSideDaoBuilder.buildDao(connection),
+                keysDaoBuilder.buildDao(connection),
                 leftColumnName,
                 rightColumnName,
                 leftDaoDescriptor.primaryKey(),
@@ -77,10 +87,31 @@ public class AssociationDaoBuilder<LEFT, RIGHT>
 
         internalDaoBuilder =
                 new DaoBuilder<Association<LEFT, RIGHT>>(tableName, Association::new)
-                        .withPrimaryKey(primaryKeyName, sequenceName, Association::getId, Association::setId)
+                        .withPrimaryKey(primaryKeyName, sequenceName, Association::getId, Association::setId, keyAllocator)
                         .withJoinColumn(leftColumnName, Association::getLeft, Association::setLeft, leftDaoDescriptor).notNull()
                         .withJoinColumn(rightColumnName, Association::getRight, Association::setRight, rightDaoDescriptor).notNull()
                         .withChildSelectStrategy(childSelectStrategy);
+        SqlDialect dialect = leftDaoDescriptor.dialect();
+        rightSideDaoBuilder =
+                new DaoBuilder<Association<Long, RIGHT>>(tableName, Association::new)
+                        .withPrimaryKey(primaryKeyName, sequenceName, Association::getId, Association::setId)
+                        .withLongColumn(leftColumnName, Association::getLeft, Association::setLeft)
+                        .withJoinColumn(rightColumnName, Association::getRight, Association::setRight, rightDaoDescriptor)
+                        .withChildSelectStrategy(childSelectStrategy)
+                        .withDialect(dialect);
+        leftSideDaoBuilder =
+                new DaoBuilder<Association<LEFT, Long>>(tableName, Association::new)
+                        .withPrimaryKey(primaryKeyName, sequenceName, Association::getId, Association::setId)
+                        .withJoinColumn(leftColumnName, Association::getLeft, Association::setLeft, leftDaoDescriptor)
+                        .withLongColumn(rightColumnName, Association::getRight, Association::setRight)
+                        .withChildSelectStrategy(childSelectStrategy)
+                        .withDialect(dialect);
+        keysDaoBuilder =
+                new DaoBuilder<Association<Long, Long>>(tableName, Association::new)
+                        .withPrimaryKey(primaryKeyName, sequenceName, Association::getId, Association::setId)
+                        .withLongColumn(leftColumnName, Association::getLeft, Association::setLeft)
+                        .withLongColumn(rightColumnName, Association::getRight, Association::setRight)
+                        .withDialect(dialect);
     }
 
     /**
@@ -146,6 +177,20 @@ public class AssociationDaoBuilder<LEFT, RIGHT>
         return this;
     }
 
+    /**
+     * The strategy for issuing the primary keys of new associations. A block
+     * allocator, such as <code>KeyAllocator.pooled(50)</code>, lets
+     * <code>insertAssociations</code> insert many associations without
+     * a round trip to the sequence for each.
+     *
+     * @param keyAllocator The strategy for issuing new keys.
+     * @return this
+     */
+    public AssociationDaoBuilder<LEFT, RIGHT> withKeyAllocator(KeyAllocator keyAllocator){
+        this.keyAllocator = keyAllocator;
+        return this;
+    }
+
     private List<String> findMissingFields(){
         List<String> missing = new ArrayList<>();
 
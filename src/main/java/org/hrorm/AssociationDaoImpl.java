@@ -1,6 +1,15 @@
 package org.hrorm;
 
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -19,17 +28,37 @@ import java.util.stream.Collectors;
 public class AssociationDaoImpl<LEFT, LEFTBUILDER, RIGHT, RIGHTBUILDER> implements AssociationDao<LEFT, RIGHT> {
 
     private final Dao<Association<LEFT, RIGHT>> internalDao;
+    private final Dao<Association<LEFT, Long>> leftSideDao;
+    private final Dao<Association<Long, RIGHT>> rightSideDao;
+    private final Dao<Association<Long, Long>> keysDao;
+    private final SqlDialect dialect;
+    private final SqlRunner<Association<Long, Long>, Association<Long, Long>> sqlRunner;
+    private final String deleteSql;
+    private final int batchSize;
     private final String leftColumnName;
     private final String rightColumnName;
     private final PrimaryKey<LEFT, LEFTBUILDER> leftPrimaryKey;
     private final PrimaryKey<RIGHT, RIGHTBUILDER> rightPrimaryKey;
 
-    public AssociationDaoImpl(Dao<Association<LEFT, RIGHT>> internalDao,
+    public AssociationDaoImpl(Connection connection,
+                              Dao<Association<LEFT, RIGHT>> internalDao,
+                              Dao<Association<LEFT, Long>> leftSideDao,
+                              Dao<Association<Long, RIGHT>> rightSideDao,
+                              Dao<Association<Long, Long>> keysDao,
                               String leftColumnName,
                               String rightColumnName,
                               PrimaryKey<LEFT, LEFTBUILDER> leftPrimaryKey,
                               PrimaryKey<RIGHT, RIGHTBUILDER> rightPrimaryKey){
         this.internalDao = internalDao;
+        this.leftSideDao = leftSideDao;
+        this.rightSideDao = rightSideDao;
+        this.keysDao = keysDao;
+        KeylessDaoDescriptor<Association<Long, Long>, Association<Long, Long>> keysDescriptor =
+                (KeylessDaoDescriptor<Association<Long, Long>, Association<Long, Long>>) keysDao;
+        this.dialect = keysDescriptor.dialect();
+        this.sqlRunner = new SqlRunner<>(connection, keysDescriptor);
+        this.deleteSql = "delete from " + keysDescriptor.tableName() + " where " + leftColumnName + " = ? and " + rightColumnName + " = ?";
+        this.batchSize = keysDescriptor.batchSize();
         this.leftColumnName = leftColumnName;
         this.rightColumnName = rightColumnName;
         this.leftPrimaryKey = leftPrimaryKey;
@@ -40,7 +69,7 @@ public class AssociationDaoImpl<LEFT, LEFTBUILDER, RIGHT, RIGHTBUILDER> implemen
     public List<LEFT> selectLeftAssociates(RIGHT right) {
         Long rightId = rightPrimaryKey.getKey(right);
         Where where = new Where(rightColumnName, Operator.EQUALS, rightId);
-        List<Association<LEFT, RIGHT>> associations = internalDao.select(where);
+        List<Association<LEFT, Long>> associations = leftSideDao.select(where);
         return associations.stream().map(Association::getLeft).collect(Collectors.toList());
     }
 
@@ -48,10 +77,64 @@ public class AssociationDaoImpl<LEFT, LEFTBUILDER, RIGHT, RIGHTBUILDER> implemen
     public List<RIGHT> selectRightAssociates(LEFT left) {
         Long leftId = leftPrimaryKey.getKey(left);
         Where where = new Where(leftColumnName, Operator.EQUALS, leftId);
-        List<Association<LEFT, RIGHT>> associations = internalDao.select(where);
+        List<Association<Long, RIGHT>> associations = rightSideDao.select(where);
         return associations.stream().map(Association::getRight).collect(Collectors.toList());
     }
 
+    @Override
+    public Map<RIGHT, List<LEFT>> selectLeftAssociates(Collection<RIGHT> rights) {
+        return selectAssociates(rights, rightPrimaryKey, rightColumnName, leftSideDao, Association::getRight, Association::getLeft);
+    }
+
+    @Override
+    public Map<LEFT, List<RIGHT>> selectRightAssociates(Collection<LEFT> lefts) {
+        return selectAssociates(lefts, leftPrimaryKey, leftColumnName, rightSideDao, Association::getLeft, Association::getRight);
+    }
+
+    /*
+     * Selects the associations of all the passed entities together, using the
+     * Dao that joins only the table of their associates, and sorts the
+     * associates by the keys of the passed entities, which the Dao reads as they are.
+     */
+    private <E, A, T> Map<E, List<A>> selectAssociates(Collection<E> entities,
+                                                       PrimaryKey<E, ?> primaryKey,
+                                                       String columnName,
+                                                       Dao<T> dao,
+                                                       Function<T, Long> keyGetter,
+                                                       Function<T, A> associateGetter){
+        Map<E, List<A>> associatesByEntity = new LinkedHashMap<>();
+        Map<Long, List<E>> entitiesByKey = new HashMap<>();
+        for(E entity : entities){
+            Long key = primaryKey.getKey(entity);
+            if( key == null ){
+                throw new HrormException("Cannot select the associates of an entity without a primary key");
+            }
+            associatesByEntity.put(entity, new ArrayList<>());
+            entitiesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(entity);
+        }
+        for(List<Long> chunk : KeyChunks.split(new ArrayList<>(entitiesByKey.keySet()), dialect)){
+            for(T association : dao.select(Where.inKeys(columnName, chunk, dialect))){
+                A associate = associateGetter.apply(association);
+                for(E entity : entitiesByKey.get(keyGetter.apply(association))){
+                    associatesByEntity.get(entity).add(associate);
+                }
+            }
+        }
+        return associatesByEntity;
+    }
+
+    @Override
+    public long[] selectLeftAssociateIds(RIGHT right) {
+        Where where = new Where(rightColumnName, Operator.EQUALS, rightPrimaryKey.getKey(right));
+        return keysDao.select(where).stream().mapToLong(Association::getLeft).toArray();
+    }
+
+    @Override
+    public long[] selectRightAssociateIds(LEFT left) {
+        Where where = new Where(leftColumnName, Operator.EQUALS, leftPrimaryKey.getKey(left));
+        return keysDao.select(where).stream().mapToLong(Association::getRight).toArray();
+    }
+
     @Override
     public Long insertAssociation(LEFT left, RIGHT right) {
         Association<LEFT, RIGHT> association = new Association<>();
@@ -60,13 +143,95 @@ public class AssociationDaoImpl<LEFT, LEFTBUILDER, RIGHT, RIGHTBUILDER> implemen
         return internalDao.insert(association);
     }
 
+    @Override
+    public List<Long> insertAssociations(Collection<Pair<LEFT, RIGHT>> associations) {
+        List<Association<LEFT, RIGHT>> items = new ArrayList<>(associations.size());
+        for(Pair<LEFT, RIGHT> pair : associations){
+            Association<LEFT, RIGHT> association = new Association<>();
+            association.setLeft(pair.getFirst());
+            association.setRight(pair.getSecond());
+            items.add(association);
+        }
+        return internalDao.insertAll(items);
+    }
+
     @Override
     public void deleteAssociation(LEFT left, RIGHT right) {
-        Long rightId = rightPrimaryKey.getKey(right);
-        Long leftId = leftPrimaryKey.getKey(left);
-        Where where = new Where(leftColumnName, Operator.EQUALS, leftId)
-                            .and(rightColumnName, Operator.EQUALS, rightId);
-        List<Association<LEFT, RIGHT>> associations = internalDao.select(where);
-        associations.forEach(internalDao::delete);
+        Long leftId = requireKey(leftPrimaryKey, left);
+        Long rightId = requireKey(rightPrimaryKey, right);
+        sqlRunner.runPreparedDelete(deleteSql, keysPopulator(leftId, rightId));
+    }
+
+    @Override
+    public void syncLeftAssociates(RIGHT right, Collection<LEFT> lefts) {
+        Long rightId = requireKey(rightPrimaryKey, right);
+        Set<Long> existing = new HashSet<>();
+        for(long leftId : selectLeftAssociateIds(right)){
+            existing.add(leftId);
+        }
+        Set<Long> wanted = new HashSet<>();
+        List<Pair<LEFT, RIGHT>> inserts = new ArrayList<>();
+        for(LEFT left : lefts){
+            Long leftId = requireKey(leftPrimaryKey, left);
+            if( wanted.add(leftId) && ! existing.contains(leftId) ){
+                inserts.add(new Pair<>(left, right));
+            }
+        }
+        List<StatementPopulator> deletes = new ArrayList<>();
+        for(Long leftId : existing){
+            if( ! wanted.contains(leftId) ){
+                deletes.add(keysPopulator(leftId, rightId));
+            }
+        }
+        deleteAssociations(deletes);
+        insertAssociations(inserts);
+    }
+
+    @Override
+    public void syncRightAssociates(LEFT left, Collection<RIGHT> rights) {
+        Long leftId = requireKey(leftPrimaryKey, left);
+        Set<Long> existing = new HashSet<>();
+        for(long rightId : selectRightAssociateIds(left)){
+            existing.add(rightId);
+        }
+        Set<Long> wanted = new HashSet<>();
+        List<Pair<LEFT, RIGHT>> inserts = new ArrayList<>();
+        for(RIGHT right : rights){
+            Long rightId = requireKey(rightPrimaryKey, right);
+            if( wanted.add(rightId) && ! existing.contains(rightId) ){
+                inserts.add(new Pair<>(left, right));
+            }
+        }
+        List<StatementPopulator> deletes = new ArrayList<>();
+        for(Long rightId : existing){
+            if( ! wanted.contains(rightId) ){
+                deletes.add(keysPopulator(leftId, rightId));
+            }
+        }
+        deleteAssociations(deletes);
+        insertAssociations(inserts);
+    }
+
+    private static <E> Long requireKey(PrimaryKey<E, ?> primaryKey, E entity){
+        Long key = primaryKey.getKey(entity);
+        if( key == null ){
+            throw new HrormException("An associated entity must have a primary key");
+        }
+        return key;
+    }
+
+    private static StatementPopulator keysPopulator(Long leftId, Long rightId){
+        return statement -> {
+            statement.setLong(1, leftId);
+            statement.setLong(2, rightId);
+            return 2;
+        };
+    }
+
+    private void deleteAssociations(List<StatementPopulator> deletes){
+        if( deletes.isEmpty() ){
+            return;
+        }
+        sqlRunner.runBatchDelete(deleteSql, deletes, batchSize);
     }
 }
@@ -0,0 +1,61 @@
+package org.hrorm;
+
+/**
+ * A snapshot of the counts of lookups of an {@link EntityCache} or
+ * a {@link QueryCache}.
+ */
+public final class CacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    CacheStatistics(long hitCount, long missCount, long evictionCount){
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * The number of lookups answered by the cache, including keys
+     * remembered to match no entity.
+     *
+     * @return The number of hits.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * The number of lookups that had to run their SQL.
+     *
+     * @return The number of misses.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * The number of entries forgotten to keep the cache within its maximum size.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * The share of lookups that were hits, or zero if there have been none.
+     *
+     * @return The hit rate, between zero and one.
+     */
+    public double hitRate(){
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + "}";
+    }
+}
@@ -0,0 +1,136 @@
+package org.hrorm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Remembers the column values of entities, and the keys of their children,
+ * as they were last read from or written to the database, so that an update
+ * can write only what has changed since.
+ *
+ * <p>
+ *     Each <code>Dao</code> built with change tracking owns one tracker.
+ *     Snapshots are kept until the <code>Dao</code> is discarded, so a
+ *     tracking <code>Dao</code> should live no longer than the unit of work
+ *     it serves. A tracker is not thread safe.
+ * </p>
+ *
+ * <p>
+ *
+ * Most users of hrorm will have no need to directly use this.
+ */
+class ChangeTracker {
+
+    private final Map<String, Map<Long, Object[]>> snapshotsByTable = new HashMap<>();
+    private final Map<ChildrenDescriptor<?,?,?,?>, Map<Long, Set<Long>>> childIdsByDescriptor = new HashMap<>();
+
+    /**
+     * Records the state of an entity and, recursively, of its children.
+     */
+    <ENTITY, BUILDER> void record(DaoDescriptor<ENTITY, BUILDER> descriptor, ENTITY item, Long id, Long parentId){
+        if( id == null ){
+            return;
+        }
+        List<Column<?, ?, ENTITY, BUILDER>> columns = trackedColumns(descriptor);
+        Object[] values = new Object[columns.size()];
+        for(int idx = 0; idx < columns.size(); idx++){
+            Column<?, ?, ENTITY, BUILDER> column = columns.get(idx);
+            values[idx] = column.isParentColumn() ? parentId : column.getValue(item);
+        }
+        snapshotsByTable.computeIfAbsent(descriptor.tableName(), t -> new HashMap<>()).put(id, values);
+
+        for(ChildrenDescriptor<ENTITY, ?, BUILDER, ?> childrenDescriptor : descriptor.childrenDescriptors()){
+            recordChildren(childrenDescriptor, item, id);
+        }
+    }
+
+    private <ENTITY, CHILD, BUILDER, CHILDBUILDER> void recordChildren(ChildrenDescriptor<ENTITY, CHILD, BUILDER, CHILDBUILDER> childrenDescriptor,
+                                                                        ENTITY item,
+                                                                        Long id){
+        if( childrenDescriptor.hasUnloadedChildren(item) ){
+            // Reading the children would load them, so they are left untracked
+            Map<Long, Set<Long>> childIds = childIdsByDescriptor.get(childrenDescriptor);
+            if( childIds != null ){
+                childIds.remove(id);
+            }
+            return;
+        }
+        DaoDescriptor<CHILD, CHILDBUILDER> childDescriptor = childrenDescriptor.childDaoDescriptor();
+        PrimaryKey<CHILD, CHILDBUILDER> childPrimaryKey = childDescriptor.primaryKey();
+        Set<Long> childIds = new HashSet<>();
+        for(CHILD child : childrenDescriptor.getChildren(item)){
+            Long childId = childPrimaryKey.getKey(child);
+            if( childId != null ){
+                childIds.add(childId);
+                record(childDescriptor, child, childId, id);
+            }
+        }
+        childIdsByDescriptor.computeIfAbsent(childrenDescriptor, d -> new HashMap<>()).put(id, childIds);
+    }
+
+    /**
+     * Forgets an entity, for example after it has been deleted.
+     */
+    void forget(String tableName, Long id){
+        Map<Long, Object[]> snapshots = snapshotsByTable.get(tableName);
+        if( snapshots != null ){
+            snapshots.remove(id);
+        }
+    }
+
+    boolean isTracked(String tableName, Long id){
+        Map<Long, Object[]> snapshots = snapshotsByTable.get(tableName);
+        return snapshots != null && snapshots.containsKey(id);
+    }
+
+    /**
+     * The keys of the children of the passed parent when it was recorded,
+     * or null if the parent is not tracked.
+     */
+    Set<Long> childIds(ChildrenDescriptor<?,?,?,?> childrenDescriptor, Long parentId){
+        Map<Long, Set<Long>> childIds = childIdsByDescriptor.get(childrenDescriptor);
+        if( childIds == null ){
+            return null;
+        }
+        Set<Long> ids = childIds.get(parentId);
+        return ids == null ? null : new HashSet<>(ids);
+    }
+
+    /**
+     * The columns whose values differ from those recorded for the entity in the
+     * passed envelope, or null if the entity is not tracked.
+     */
+    <ENTITY, BUILDER> List<Column<?, ?, ENTITY, BUILDER>> changedColumns(DaoDescriptor<ENTITY, BUILDER> descriptor, Envelope<ENTITY> envelope){
+        Map<Long, Object[]> snapshots = snapshotsByTable.get(descriptor.tableName());
+        Object[] values = snapshots == null ? null : snapshots.get(envelope.getId());
+        if( values == null ){
+            return null;
+        }
+        List<Column<?, ?, ENTITY, BUILDER>> columns = trackedColumns(descriptor);
+        List<Column<?, ?, ENTITY, BUILDER>> changed = new ArrayList<>();
+        for(int idx = 0; idx < columns.size(); idx++){
+            Column<?, ?, ENTITY, BUILDER> column = columns.get(idx);
+            Object value = column.isParentColumn() ? envelope.getParentId() : column.getValue(envelope.getItem());
+            if( ! Objects.equals(values[idx], value) ){
+                changed.add(column);
+            }
+        }
+        return Collections.unmodifiableList(changed);
+    }
+
+    private static <ENTITY, BUILDER> List<Column<?, ?, ENTITY, BUILDER>> trackedColumns(DaoDescriptor<ENTITY, BUILDER> descriptor){
+        List<Column<?, ?, ENTITY, BUILDER>> columns = new ArrayList<>();
+        for(Column<?, ?, ENTITY, BUILDER> column : descriptor.allColumns()){
+            if( ! column.isPrimaryKey() ){
+                columns.add(column);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,204 @@
+package org.hrorm;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the selects that populate independent collections of children,
+ * either one after another on the connection of the <code>Dao</code>, or
+ * at the same time on connections of their own.
+ *
+ * <p>
+ *     When run in parallel, the first collection is selected by the calling
+ *     thread on the connection of the <code>Dao</code>. Each of the others is
+ *     handed to the executor, which selects it on a connection taken from
+ *     the supplier and closes that connection afterwards. A selection the
+ *     executor has not yet started when the calling thread is free is run by
+ *     the calling thread instead, so nested selections cannot starve a small
+ *     executor. Each selection sets only its own collection, so the results
+ *     do not depend on the order in which the selections finish. Lazily
+ *     loaded children are built on the connection of the <code>Dao</code>,
+ *     since they are loaded on that connection once used.
+ * </p>
+ *
+ * <p>
+ *     Most users of hrorm will have no need to directly use this.
+ * </p>
+ */
+public class ChildSelectExecutor {
+
+    /**
+     * Selects every collection of children on the connection of the <code>Dao</code>.
+     */
+    public static final ChildSelectExecutor SEQUENTIAL = new ChildSelectExecutor(null, null);
+
+    private final Supplier<Connection> connectionSupplier;
+    private final Executor executor;
+
+    private ChildSelectExecutor(Supplier<Connection> connectionSupplier, Executor executor){
+        this.connectionSupplier = connectionSupplier;
+        this.executor = executor;
+    }
+
+    /**
+     * An executor that selects collections of children in parallel.
+     *
+     * @param connectionSupplier The source of the connections used for the selections
+     *                           run by the executor. These connections are closed when
+     *                           the selection is done.
+     * @param executor Runs the selections.
+     * @return the new instance
+     */
+    public static ChildSelectExecutor parallel(Supplier<Connection> connectionSupplier, Executor executor){
+        if( connectionSupplier == null || executor == null ){
+            throw new HrormException("Parallel child selects need both a connection supplier and an executor");
+        }
+        return new ChildSelectExecutor(connectionSupplier, executor);
+    }
+
+    /**
+     * Whether collections of children are selected at the same time.
+     *
+     * @return true if selections are run by an executor
+     */
+    public boolean isParallel(){
+        return executor != null;
+    }
+
+    /**
+     * Runs each of the passed selections, returning when all are done.
+     *
+     * @param connection The connection of the <code>Dao</code>.
+     * @param selections The selections to run.
+     */
+    void run(Connection connection, List<Consumer<Connection>> selections){
+        if( ! isParallel() || selections.size() < 2 ){
+            for(Consumer<Connection> selection : selections){
+                selection.accept(connection);
+            }
+            return;
+        }
+
+        List<Selection> submitted = new ArrayList<>();
+        for(Consumer<Connection> selection : selections.subList(1, selections.size())){
+            Selection task = new Selection(selection);
+            submitted.add(task);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ex){
+                // the calling thread will run it
+            }
+        }
+
+        RuntimeException failure = null;
+        try {
+            selections.get(0).accept(connection);
+        } catch (RuntimeException ex){
+            failure = ex;
+        }
+        for(Selection task : submitted){
+            if( task.claim() ){
+                task.runOn(connection);
+            }
+            RuntimeException taskFailure = task.await();
+            if( failure == null ){
+                failure = taskFailure;
+            }
+        }
+        if( failure != null ){
+            throw failure;
+        }
+    }
+
+    /**
+     * Runs each of the passed selections, returning when all are done. The
+     * selections that build lazily loaded children are run together on the
+     * connection of the <code>Dao</code>, since those children are loaded
+     * later on the connection that built them.
+     *
+     * @param connection The connection of the <code>Dao</code>.
+     * @param selections The selections that may run on connections of their own.
+     * @param lazySelections The selections that must run on the connection of
+     *                       the <code>Dao</code>.
+     */
+    void run(Connection connection, List<Consumer<Connection>> selections, List<Consumer<Connection>> lazySelections){
+        if( lazySelections.isEmpty() ){
+            run(connection, selections);
+            return;
+        }
+        List<Consumer<Connection>> all = new ArrayList<>();
+        // The first selection is run on the connection of the Dao
+        all.add(con -> {
+            for(Consumer<Connection> lazySelection : lazySelections){
+                lazySelection.accept(con);
+            }
+        });
+        all.addAll(selections);
+        run(connection, all);
+    }
+
+    private class Selection implements Runnable {
+
+        private final Consumer<Connection> selection;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile RuntimeException failure;
+
+        Selection(Consumer<Connection> selection){
+            this.selection = selection;
+        }
+
+        boolean claim(){
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public void run() {
+            if( ! claim() ){
+                return;
+            }
+            try {
+                Connection connection = connectionSupplier.get();
+                try {
+                    selection.accept(connection);
+                } finally {
+                    connection.close();
+                }
+            } catch (SQLException ex){
+                failure = new HrormException(ex);
+            } catch (RuntimeException ex){
+                failure = ex;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        void runOn(Connection connection){
+            try {
+                selection.accept(connection);
+            } catch (RuntimeException ex){
+                failure = ex;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        RuntimeException await(){
+            try {
+                done.await();
+            } catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                return new HrormException("Interrupted while selecting children");
+            }
+            return failure;
+        }
+    }
+}
@@ -24,5 +24,29 @@ public enum ChildSelectStrategy {
      *     SELECT * FROM CHILD WHERE PARENT_ID IN (SELECT ID FROM PARENT WHERE ...)
      * </code>
      */
-    SubSelectInClause
+    SubSelectInClause,
+    /**
+     * When reading a collection of entity records, left join each child
+     * table to the table of the entity, so that the entities and their
+     * children are read with a single select. E.g. generate SQL that
+     * looks something like
+     * <code>
+     *     SELECT * FROM PARENT P LEFT JOIN CHILD C ON C.PARENT_ID = P.ID WHERE ...
+     * </code>
+     * Each entity is repeated in a row for each of its children, and the
+     * rows multiply when there is more than one child table: an entity
+     * with ten records in each of two child tables is read in a hundred
+     * rows. This strategy suits entities with a single, small collection
+     * of children. The children of the children are selected as with
+     * {@link #ByKeysInClause}, as are the children of any selection that
+     * limits the number of rows read.
+     */
+    JoinFetch;
+
+    /**
+     * Whether the children of several records are selected together.
+     */
+    boolean isBulk(){
+        return this != Standard;
+    }
 }
@@ -4,12 +4,17 @@ import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Complete definition of how a child entity is related to its parent entity.
@@ -31,21 +36,66 @@ public class ChildrenDescriptor<PARENT,CHILD,PARENTBUILDER,CHILDBUILDER> {
 
     private final PrimaryKey<PARENT, PARENTBUILDER> parentPrimaryKey;
 
+    private final boolean lazy;
+
+    // The children of the children to select, which a fetch plan may narrow
+    private final List<ChildrenDescriptor<CHILD,?,CHILDBUILDER,?>> selectedGrandChildrenDescriptors;
+
     public ChildrenDescriptor(Function<PARENT, List<CHILD>> getter,
                               BiConsumer<PARENTBUILDER, List<CHILD>> setter,
                               DaoDescriptor<CHILD,CHILDBUILDER> childDaoDescriptor,
                               PrimaryKey<PARENT, PARENTBUILDER> parentPrimaryKey,
                               Function<PARENTBUILDER, PARENT> parentBuildFunction) {
+        this(getter, setter, childDaoDescriptor, parentPrimaryKey, parentBuildFunction, false);
+    }
+
+    public ChildrenDescriptor(Function<PARENT, List<CHILD>> getter,
+                              BiConsumer<PARENTBUILDER, List<CHILD>> setter,
+                              DaoDescriptor<CHILD,CHILDBUILDER> childDaoDescriptor,
+                              PrimaryKey<PARENT, PARENTBUILDER> parentPrimaryKey,
+                              Function<PARENTBUILDER, PARENT> parentBuildFunction,
+                              boolean lazy) {
+        this.lazy = lazy;
         this.getter = getter;
         this.setter = setter;
         this.childDaoDescriptor = childDaoDescriptor;
-        this.sqlBuilder = new SqlBuilder<>(childDaoDescriptor);
+        this.sqlBuilder = childDaoDescriptor.sqlBuilder();
         this.parentBuildFunction = parentBuildFunction;
 
         ParentColumn<CHILD, PARENT, CHILDBUILDER, PARENTBUILDER> parentColumn = childDaoDescriptor.parentColumn();
         parentColumn.setParentPrimaryKey(parentPrimaryKey);
         this.parentSetter = parentColumn.setter();
         this.parentPrimaryKey = parentPrimaryKey;
+        this.selectedGrandChildrenDescriptors = childDaoDescriptor.childrenDescriptors();
+    }
+
+    private ChildrenDescriptor(ChildrenDescriptor<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> original,
+                               boolean lazy,
+                               List<ChildrenDescriptor<CHILD,?,CHILDBUILDER,?>> selectedGrandChildrenDescriptors){
+        this.lazy = lazy;
+        this.getter = original.getter;
+        this.setter = original.setter;
+        this.childDaoDescriptor = original.childDaoDescriptor;
+        this.sqlBuilder = original.sqlBuilder;
+        this.parentBuildFunction = original.parentBuildFunction;
+        this.parentSetter = original.parentSetter;
+        this.parentPrimaryKey = original.parentPrimaryKey;
+        this.selectedGrandChildrenDescriptors = selectedGrandChildrenDescriptors;
+    }
+
+    /*
+     * This descriptor as it selects children for the passed fetch plan, where
+     * a null plan leaves the children unselected until they are used.
+     */
+    ChildrenDescriptor<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> planned(FetchPlan childPlan){
+        if( childPlan == null ){
+            return lazy ? this : new ChildrenDescriptor<>(this, true, selectedGrandChildrenDescriptors);
+        }
+        List<ChildrenDescriptor<CHILD,?,CHILDBUILDER,?>> grandChildren = childPlan.apply(selectedGrandChildrenDescriptors);
+        if( ! lazy && grandChildren == selectedGrandChildrenDescriptors ){
+            return this;
+        }
+        return new ChildrenDescriptor<>(this, false, grandChildren);
     }
 
     /*
@@ -57,27 +107,28 @@ public class ChildrenDescriptor<PARENT,CHILD,PARENTBUILDER,CHILDBUILDER> {
         // generate sql for the selection of children
         PARENT parent = parentBuildFunction.apply(parentBuilder);
         long parentId = parentPrimaryKey.getKey(parent);
+        if( lazy ){
+            lazyChildren(connection).add(new Envelope<>(parentBuilder, parentId));
+            return;
+        }
         Where where = new Where(parentChildColumnName(), Operator.EQUALS, parentId);
         String sql = sqlBuilder.select(where);
 
         // Run the SQL, passing in children of this child
         SqlRunner<CHILD,CHILDBUILDER> sqlRunner = new SqlRunner<>(connection, childDaoDescriptor);
-        List<ChildrenDescriptor<CHILD,?,CHILDBUILDER, ?>> childrenDescriptorsList = childDaoDescriptor.childrenDescriptors();
         Supplier<CHILDBUILDER> supplier = childDaoDescriptor.supplier();
         List<CHILDBUILDER> childrenBuilders = sqlRunner.selectWhereStandard(
                 sql,
                 supplier,
-                childrenDescriptorsList,
+                selectedGrandChildrenDescriptors,
                 where);
 
-        // build the child objects
+        // build the child objects, whose own children the select populated
+        Session session = Session.of(connection);
         List<CHILD> children = new ArrayList<>();
         for( CHILDBUILDER childrenBuilder : childrenBuilders ){
-            for( ChildrenDescriptor<CHILD,?,CHILDBUILDER,?> grandChildDescriptor : grandChildrenDescriptors() ){
-                grandChildDescriptor.populateChildren(connection, childrenBuilder);
-            }
             parentSetter.accept(childrenBuilder, parent);
-            CHILD c = childBuilder().apply(childrenBuilder);
+            CHILD c = keep(session, childBuilder().apply(childrenBuilder));
             children.add(c);
         }
 
@@ -98,40 +149,166 @@ public class ChildrenDescriptor<PARENT,CHILD,PARENTBUILDER,CHILDBUILDER> {
         if( parentBuilders.size() == 0 ){
             return;
         }
+        if( lazy ){
+            LazyChildren<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> lazyChildren = lazyChildren(connection);
+            for( Envelope<PARENTBUILDER> parentBuilderEnvelope : parentBuilders ){
+                lazyChildren.add(parentBuilderEnvelope);
+            }
+            return;
+        }
+
+        Map<Long, List<CHILD>> childrenMapByParentId = selectChildren(connection, parentBuilders, childrenSelector);
+        for( Envelope<PARENTBUILDER> parentBuilderEnvelope : parentBuilders){
+            long parentId = parentBuilderEnvelope.getId();
+            List<CHILD> children = childrenMapByParentId.get(parentId);
+            if( children == null ){
+                children = new ArrayList<>();
+            }
+            setter.accept(parentBuilderEnvelope.getItem(), children);
+        }
+    }
 
+    /*
+     * Selects the children of all the passed parents, mapped by the keys of their parents.
+     */
+    Map<Long, List<CHILD>> selectChildren(Connection connection,
+                                          List<Envelope<PARENTBUILDER>> parentBuilders,
+                                          ChildrenSelector<CHILD, CHILDBUILDER> childrenSelector){
         // Run the SQL and get the children builder objects
         SqlRunner<CHILD,CHILDBUILDER> sqlRunner = new SqlRunner<>(connection, childDaoDescriptor);
-        List<ChildrenDescriptor<CHILD,?,CHILDBUILDER, ?>> childrenDescriptorsList = childDaoDescriptor.childrenDescriptors();
         Supplier<CHILDBUILDER> supplier = childDaoDescriptor.supplier();
         List<Envelope<CHILDBUILDER>> childrenBuilders = childrenSelector.select(
                 sqlBuilder,
                 supplier,
                 sqlRunner,
                 parentChildColumnName(),
-                childrenDescriptorsList);
+                selectedGrandChildrenDescriptors);
 
-        // partition the children by their parent IDs and populate them onto the
-        // the parent builders
-        Map<Long, List<CHILD>> childrenMapByParentId =
-                buildChildrenMapByParentId(childrenBuilders, parentBuilders);
-        for( Envelope<PARENTBUILDER> parentBuilderEnvelope : parentBuilders){
-            long parentId = parentBuilderEnvelope.getId();
-            List<CHILD> children = childrenMapByParentId.get(parentId);
-            if( children == null ){
-                children = new ArrayList<>();
+        // partition the children by their parent IDs
+        return buildChildrenMapByParentId(Session.of(connection), childrenBuilders, parentBuilders);
+    }
+
+    /*
+     * Lazily loaded children for the parents read by one select.
+     */
+    LazyChildren<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> lazyChildren(Connection connection){
+        return new LazyChildren<>(connection, this);
+    }
+
+    /*
+     * For each of the passed descriptors, something that populates the children of
+     * one parent builder at a time. Lazily loaded children are gathered into one batch
+     * for all the parents passed to the same populator, so that they are loaded together.
+     */
+    static <PARENT, PARENTBUILDER> List<Consumer<PARENTBUILDER>> populators(
+            Connection connection,
+            List<? extends ChildrenDescriptor<PARENT, ?, PARENTBUILDER, ?>> childrenDescriptors){
+        List<Consumer<PARENTBUILDER>> populators = new ArrayList<>();
+        for( ChildrenDescriptor<PARENT, ?, PARENTBUILDER, ?> childrenDescriptor : childrenDescriptors ){
+            populators.add(childrenDescriptor.populator(connection));
+        }
+        return populators;
+    }
+
+    Consumer<PARENTBUILDER> populator(Connection connection){
+        if( ! lazy ){
+            return parentBuilder -> populateChildren(connection, parentBuilder);
+        }
+        LazyChildren<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> lazyChildren = lazyChildren(connection);
+        return parentBuilder -> {
+            PARENT parent = parentBuildFunction.apply(parentBuilder);
+            lazyChildren.add(new Envelope<>(parentBuilder, parentPrimaryKey.getKey(parent)));
+        };
+    }
+
+    /*
+     * Throws if the entities described, their joined entities, or any of their
+     * children have lazily loaded children, which the named cache cannot hold:
+     * they would be loaded on the connection that first selected them, whichever
+     * connection later used them.
+     */
+    static void checkCacheable(KeylessDaoDescriptor<?, ?> descriptor, String cacheName){
+        String lazyTableName = lazyChildTableName(descriptor, Collections.newSetFromMap(new IdentityHashMap<>()));
+        if( lazyTableName != null ){
+            throw new HrormException("Cannot give " + descriptor.tableName() + " " + cacheName
+                    + " because the children from " + lazyTableName + " are lazily loaded");
+        }
+    }
+
+    /*
+     * Whether the entities described, their joined entities, or any of their
+     * children have lazily loaded children.
+     */
+    static boolean hasLazyChildren(KeylessDaoDescriptor<?, ?> descriptor){
+        return lazyChildTableName(descriptor, Collections.newSetFromMap(new IdentityHashMap<>())) != null;
+    }
+
+    /*
+     * Whether selecting these children builds lazily loaded lists, for them,
+     * their joined entities, or any of their own children.
+     */
+    boolean selectsLazyChildren(){
+        if( lazy ){
+            return true;
+        }
+        for(JoinColumn<?, ?, ?, ?> joinColumn : childDaoDescriptor.joinColumns()){
+            if( hasLazyChildren(joinColumn.getJoinedDaoDescriptor()) ){
+                return true;
             }
-            setter.accept(parentBuilderEnvelope.getItem(), children);
         }
+        for(ChildrenDescriptor<CHILD, ?, CHILDBUILDER, ?> grandChildrenDescriptor : selectedGrandChildrenDescriptors){
+            if( grandChildrenDescriptor.selectsLazyChildren() ){
+                return true;
+            }
+        }
+        return false;
     }
 
-    private Map<Long, List<CHILD>> buildChildrenMapByParentId(List<Envelope<CHILDBUILDER>> childBuilders, List<Envelope<PARENTBUILDER>> parentBuilders){
+    private static String lazyChildTableName(KeylessDaoDescriptor<?, ?> descriptor, Set<KeylessDaoDescriptor<?, ?>> visited){
+        if( ! visited.add(descriptor) ){
+            return null;
+        }
+        for(JoinColumn<?, ?, ?, ?> joinColumn : descriptor.joinColumns()){
+            String lazyTableName = lazyChildTableName(joinColumn.getJoinedDaoDescriptor(), visited);
+            if( lazyTableName != null ){
+                return lazyTableName;
+            }
+        }
+        if( descriptor instanceof DaoDescriptor ){
+            for(ChildrenDescriptor<?, ?, ?, ?> childrenDescriptor : ((DaoDescriptor<?, ?>) descriptor).childrenDescriptors()){
+                if( childrenDescriptor.isLazy() ){
+                    return childrenDescriptor.childTableName();
+                }
+                String lazyTableName = lazyChildTableName(childrenDescriptor.childDaoDescriptor(), visited);
+                if( lazyTableName != null ){
+                    return lazyTableName;
+                }
+            }
+        }
+        return null;
+    }
+
+    void setChildren(PARENTBUILDER parentBuilder, List<CHILD> children){
+        setter.accept(parentBuilder, children);
+    }
+
+    /*
+     * Whether the children are selected only when they are first used.
+     */
+    public boolean isLazy(){
+        return lazy;
+    }
+
+    private Map<Long, List<CHILD>> buildChildrenMapByParentId(Session session,
+                                                              List<Envelope<CHILDBUILDER>> childBuilders,
+                                                              List<Envelope<PARENTBUILDER>> parentBuilders){
 
         Map<Long, PARENT> parentsByIds = generateParentMap(parentBuilders);
 
         Map<Long, List<CHILD>> childrenMapByParentId = new HashMap<>();
         for( Envelope<CHILDBUILDER> childBuilderEnvelope : childBuilders ) {
             CHILDBUILDER childBuilder = childBuilderEnvelope.getItem();
-            CHILD child = childBuilder().apply(childBuilder);
+            CHILD child = keep(session, childBuilder().apply(childBuilder));
             Long parentId = childBuilderEnvelope.getParentId();
             PARENT parent = parentsByIds.get(parentId);
             if (!childrenMapByParentId.containsKey(parentId)) {
@@ -144,6 +321,27 @@ public class ChildrenDescriptor<PARENT,CHILD,PARENTBUILDER,CHILDBUILDER> {
         return childrenMapByParentId;
     }
 
+    /*
+     * The child already kept by the session, if there is one, in place of the one just read.
+     */
+    private CHILD keep(Session session, CHILD child){
+        if( session == null ){
+            return child;
+        }
+        return session.canonical(childTableName(), childDaoDescriptor.primaryKey().getKey(child), child);
+    }
+
+    /*
+     * Removes every child, and every descendant, from the passed session, as
+     * their rows may have been deleted.
+     */
+    void forgetChildren(Session session){
+        session.removeAll(childTableName());
+        for( ChildrenDescriptor<CHILD,?,?,?> grandChildDescriptor : grandChildrenDescriptors()){
+            grandChildDescriptor.forgetChildren(session);
+        }
+    }
+
     private Map<Long, PARENT> generateParentMap(List<Envelope<PARENTBUILDER>> parentBuilders){
         Map<Long, PARENT> parentsByIds = new HashMap<>();
         for( Envelope<PARENTBUILDER> parentbuilderEnvelope : parentBuilders ) {
@@ -156,61 +354,245 @@ public class ChildrenDescriptor<PARENT,CHILD,PARENTBUILDER,CHILDBUILDER> {
     }
 
     public void saveChildren(Connection connection, Envelope<PARENT> envelope) {
+        saveChildren(connection, Collections.singletonList(envelope));
+    }
 
-        PrimaryKey<CHILD, CHILDBUILDER> childPrimaryKey = childDaoDescriptor.primaryKey();
+    /*
+     * Saves the children of several parents that may already have children in
+     * the database. The existing children are found with one select, new children
+     * are inserted and existing ones updated with JDBC batches, and the children
+     * that are no longer present are deleted, with all their descendants, using
+     * one statement per table.
+     */
+    public void saveChildren(Connection connection, List<Envelope<PARENT>> parentEnvelopes) {
+        saveChildren(connection, parentEnvelopes, null);
+    }
+
+    /*
+     * As above, but when a change tracker is passed, the children of tracked parents
+     * are known without a select, and tracked children are only written when their
+     * columns have changed, and then only the changed columns.
+     */
+    public void saveChildren(Connection connection, List<Envelope<PARENT>> parentEnvelopes, ChangeTracker changeTracker) {
+        // Lazily loaded children that were never used cannot have been changed
+        parentEnvelopes = parentEnvelopes.stream()
+                .filter(envelope -> ! hasUnloadedChildren(envelope.getItem()))
+                .collect(Collectors.toList());
+        if( parentEnvelopes.isEmpty() ){
+            return;
+        }
 
-        PARENT item = envelope.getItem();
+        PrimaryKey<CHILD, CHILDBUILDER> childPrimaryKey = childDaoDescriptor.primaryKey();
 
         SqlRunner<CHILD,CHILDBUILDER> sqlRunner = new SqlRunner<>(connection, childDaoDescriptor);
 
-        List<CHILD> children = getter.apply(item);
-
-        if( children == null ){
-            children = Collections.emptyList();
+        Set<Long> existingIds = new HashSet<>();
+        List<Long> untrackedParentIds = new ArrayList<>();
+        for(Envelope<PARENT> parentEnvelope : parentEnvelopes){
+            Set<Long> trackedIds = changeTracker == null ? null : changeTracker.childIds(this, parentEnvelope.getId());
+            if( trackedIds == null ){
+                untrackedParentIds.add(parentEnvelope.getId());
+            } else {
+                existingIds.addAll(trackedIds);
+            }
+        }
+        if( ! untrackedParentIds.isEmpty() ){
+            existingIds.addAll(findExistingChildrenIds(connection, untrackedParentIds));
         }
-        Long parentId = envelope.getId();
 
-        Set<Long> existingIds = findExistingChildrenIds(connection, parentId);
+        List<Envelope<CHILD>> newChildren = new ArrayList<>();
+        List<Envelope<CHILD>> existingChildren = new ArrayList<>();
+        List<Envelope<CHILD>> changedChildren = new ArrayList<>();
+        Map<List<Column<?, ?, CHILD, CHILDBUILDER>>, List<Envelope<CHILD>>> partlyChangedChildren = new LinkedHashMap<>();
 
-        for(CHILD child : children){
-            Long childId = childPrimaryKey.getKey(child);
-            if( childId == null ) {
-                childId = sqlRunner.runSequenceNextValue(sqlBuilder.nextSequence());
-                childPrimaryKey.optimisticSetKey(child, childId);
-                String sql = sqlBuilder.insert();
-                Envelope<CHILD> childEnvelope = new Envelope<>(child, childId, parentId);
-                sqlRunner.insert(sql, childEnvelope);
-            } else {
-                existingIds.remove(childId);
-                String sql = sqlBuilder.update();
-                Envelope<CHILD> childEnvelope = new Envelope<>(child, childId, parentId);
-                sqlRunner.update(sql, childEnvelope);
+        for(Envelope<PARENT> parentEnvelope : parentEnvelopes){
+            List<CHILD> children = getter.apply(parentEnvelope.getItem());
+            if( children == null ){
+                continue;
             }
-            for(ChildrenDescriptor<CHILD,?,?,?> grandchildrenDescriptor : grandChildrenDescriptors()){
-                grandchildrenDescriptor.saveChildren(connection, new Envelope<>(child, childId));
+            Long parentId = parentEnvelope.getId();
+            for(CHILD child : children){
+                Long childId = childPrimaryKey.getKey(child);
+                if( childId == null ) {
+                    childId = nextChildPrimaryKey(sqlRunner);
+                    childPrimaryKey.optimisticSetKey(child, childId);
+                    newChildren.add(new Envelope<>(child, childId, parentId));
+                } else {
+                    existingIds.remove(childId);
+                    Envelope<CHILD> childEnvelope = new Envelope<>(child, childId, parentId);
+                    existingChildren.add(childEnvelope);
+                    List<Column<?, ?, CHILD, CHILDBUILDER>> changedColumns = changeTracker == null ?
+                            null : changeTracker.changedColumns(childDaoDescriptor, childEnvelope);
+                    if( changedColumns == null ){
+                        changedChildren.add(childEnvelope);
+                    } else if ( ! changedColumns.isEmpty() ){
+                        partlyChangedChildren.computeIfAbsent(changedColumns, c -> new ArrayList<>()).add(childEnvelope);
+                    }
+                }
             }
         }
+
+        int batchSize = childDaoDescriptor.batchSize();
+        sqlRunner.insertBatch(sqlBuilder.insert(), newChildren, batchSize);
+        sqlRunner.updateBatch(sqlBuilder.update(), changedChildren, batchSize);
+        for(Map.Entry<List<Column<?, ?, CHILD, CHILDBUILDER>>, List<Envelope<CHILD>>> entry : partlyChangedChildren.entrySet()){
+            sqlRunner.updateColumnsBatch(sqlBuilder.update(entry.getKey()), entry.getKey(), entry.getValue(), batchSize);
+        }
+        keepAll(connection, newChildren, existingChildren);
+
+        for(ChildrenDescriptor<CHILD,?,?,?> grandchildrenDescriptor : grandChildrenDescriptors()){
+            grandchildrenDescriptor.insertChildren(connection, newChildren);
+            grandchildrenDescriptor.saveChildren(connection, existingChildren, changeTracker);
+        }
         deleteOrphans(connection, existingIds);
+    }
+
+    /*
+     * Bulk saving of the children of several newly inserted parents. Because the
+     * parents are new, there are no existing children to find and no orphans
+     * to delete. The children are written with JDBC batches, one set of
+     * batches for this child table, before moving on to the grandchildren.
+     */
+    public void insertChildren(Connection connection, List<Envelope<PARENT>> parentEnvelopes) {
+
+        PrimaryKey<CHILD, CHILDBUILDER> childPrimaryKey = childDaoDescriptor.primaryKey();
+
+        SqlRunner<CHILD,CHILDBUILDER> sqlRunner = new SqlRunner<>(connection, childDaoDescriptor);
+
+        List<Envelope<CHILD>> newChildren = new ArrayList<>();
+        List<Envelope<CHILD>> existingChildren = new ArrayList<>();
+
+        for(Envelope<PARENT> parentEnvelope : parentEnvelopes){
+            List<CHILD> children = getter.apply(parentEnvelope.getItem());
+            if( children == null ){
+                continue;
+            }
+            Long parentId = parentEnvelope.getId();
+            for(CHILD child : children){
+                Long childId = childPrimaryKey.getKey(child);
+                if( childId == null ) {
+                    childId = nextChildPrimaryKey(sqlRunner);
+                    childPrimaryKey.optimisticSetKey(child, childId);
+                    newChildren.add(new Envelope<>(child, childId, parentId));
+                } else {
+                    existingChildren.add(new Envelope<>(child, childId, parentId));
+                }
+            }
+        }
+
+        int batchSize = childDaoDescriptor.batchSize();
+        sqlRunner.insertBatch(sqlBuilder.insert(), newChildren, batchSize);
+        sqlRunner.updateBatch(sqlBuilder.update(), existingChildren, batchSize);
+        keepAll(connection, newChildren, existingChildren);
 
+        for(ChildrenDescriptor<CHILD,?,?,?> grandchildrenDescriptor : grandChildrenDescriptors()){
+            grandchildrenDescriptor.insertChildren(connection, newChildren);
+            // children that already existed may already have children of their own
+            grandchildrenDescriptor.saveChildren(connection, existingChildren);
+        }
     }
 
-    private Set<Long> findExistingChildrenIds(Connection connection, Long parentId){
-        String sql = sqlBuilder.selectChildIds();
-        SqlRunner<PARENT,PARENTBUILDER> sqlRunner = new SqlRunner(connection);
-        return sqlRunner.runSelectChildIds(sql, parentId);
+    private void keepAll(Connection connection, List<Envelope<CHILD>> newChildren, List<Envelope<CHILD>> existingChildren){
+        Session session = Session.of(connection);
+        if( session == null ){
+            return;
+        }
+        for( Envelope<CHILD> envelope : newChildren ){
+            session.put(childTableName(), envelope.getId(), envelope.getItem());
+        }
+        for( Envelope<CHILD> envelope : existingChildren ){
+            session.put(childTableName(), envelope.getId(), envelope.getItem());
+        }
     }
 
-    private void deleteOrphans(Connection connection, Set<Long> badChildrenIds) {
-        String preparedSql = sqlBuilder.delete();
-        SqlRunner<CHILD, CHILDBUILDER> sqlRunner = new SqlRunner<>(connection);
+    private long nextChildPrimaryKey(SqlRunner<CHILD,CHILDBUILDER> sqlRunner){
+        String sql = sqlBuilder.nextSequence();
+        KeyAllocator keyAllocator = childDaoDescriptor.primaryKey().getKeyAllocator();
+        return keyAllocator.nextKey(() -> sqlRunner.runSequenceNextValue(sql));
+    }
 
-        for(Long badId : badChildrenIds) {
+    private Set<Long> findExistingChildrenIds(Connection connection, List<Long> parentIds){
+        SqlRunner<CHILD,CHILDBUILDER> sqlRunner = new SqlRunner<>(connection, childDaoDescriptor);
+        Set<Long> childIds = new HashSet<>();
+        for(List<Long> chunk : KeyChunks.split(parentIds)){
+            List<Long> ids = KeyChunks.pad(chunk);
+            String sql = sqlBuilder.selectChildIds(parameters(ids.size()));
+            childIds.addAll(sqlRunner.runSelectChildIds(sql, idPopulator(ids)));
+        }
+        return childIds;
+    }
+
+    private void deleteOrphans(Connection connection, Set<Long> badChildrenIds) {
+        if( badChildrenIds.isEmpty() ){
+            return;
+        }
+        SqlRunner<CHILD, CHILDBUILDER> sqlRunner = new SqlRunner<>(connection, childDaoDescriptor);
+        for(List<Long> chunk : KeyChunks.split(badChildrenIds)){
+            List<Long> ids = KeyChunks.pad(chunk);
+            String idSql = parameters(ids.size());
+            StatementPopulator populator = idPopulator(ids);
+            // descendants go first, so no foreign key is left dangling
             for( ChildrenDescriptor<CHILD,?,?,?> grandChildDescriptor : grandChildrenDescriptors()){
-                Set<Long> badGranchildIds = grandChildDescriptor.findExistingChildrenIds(connection, badId);
-                grandChildDescriptor.deleteOrphans(connection, badGranchildIds);
+                grandChildDescriptor.deleteChildrenOf(connection, idSql, populator);
             }
-            sqlRunner.runPreparedDelete(preparedSql, badId);
+            sqlRunner.runPreparedDelete(sqlBuilder.deleteByIds(idSql), populator);
+        }
+        Session session = Session.of(connection);
+        if( session != null ){
+            for( Long id : badChildrenIds ){
+                session.remove(childTableName(), id);
+            }
+            for( ChildrenDescriptor<CHILD,?,?,?> grandChildDescriptor : grandChildrenDescriptors()){
+                grandChildDescriptor.forgetChildren(session);
+            }
+        }
+    }
+
+    /*
+     * Deletes all the children, and their descendants, of the parents whose keys
+     * are found by the passed SQL, which is either a list of parameters or a
+     * sub-select nested once more for each generation.
+     */
+    private void deleteChildrenOf(Connection connection, String parentIdSql, StatementPopulator populator){
+        String childIdSql = sqlBuilder.selectChildIds(parentIdSql);
+        for( ChildrenDescriptor<CHILD,?,?,?> grandChildDescriptor : grandChildrenDescriptors()){
+            grandChildDescriptor.deleteChildrenOf(connection, childIdSql, populator);
         }
+        SqlRunner<CHILD, CHILDBUILDER> sqlRunner = new SqlRunner<>(connection, childDaoDescriptor);
+        sqlRunner.runPreparedDelete(sqlBuilder.deleteByParentIds(parentIdSql), populator);
+    }
+
+    private static String parameters(int count){
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static StatementPopulator idPopulator(List<Long> ids){
+        return statement -> {
+            int idx = 1;
+            for(Long id : ids){
+                statement.setLong(idx++, id);
+            }
+            return ids.size();
+        };
+    }
+
+    /*
+     * Whether the children of the passed parent are lazily loaded and not yet used.
+     */
+    boolean hasUnloadedChildren(PARENT parent){
+        return LazyChildren.isUnloaded(getter.apply(parent));
+    }
+
+    /*
+     * The children of the passed parent, or an empty list if there are none.
+     */
+    List<CHILD> getChildren(PARENT parent){
+        List<CHILD> children = getter.apply(parent);
+        return children == null ? Collections.emptyList() : children;
+    }
+
+    DaoDescriptor<CHILD, CHILDBUILDER> childDaoDescriptor(){
+        return childDaoDescriptor;
     }
 
     public String parentChildColumnName(){
@@ -219,6 +601,10 @@ public class ChildrenDescriptor<PARENT,CHILD,PARENTBUILDER,CHILDBUILDER> {
 
     public String childTableName() { return childDaoDescriptor.tableName(); }
 
+    List<ChildrenDescriptor<CHILD,?,CHILDBUILDER,?>> selectedGrandChildrenDescriptors(){
+        return selectedGrandChildrenDescriptors;
+    }
+
     private List<ChildrenDescriptor<CHILD,?,CHILDBUILDER,?>> grandChildrenDescriptors(){
         return childDaoDescriptor.childrenDescriptors();
     }
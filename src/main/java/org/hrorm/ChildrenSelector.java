@@ -1,5 +1,6 @@
 package org.hrorm;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -84,11 +85,16 @@ public interface ChildrenSelector<CHILD, CHILDBUILDER> {
                 SqlRunner<CHILD, CHILDBUILDER> sqlRunner,
                 String parentChildColumnName,
                 List<ChildrenDescriptor<CHILD,?,CHILDBUILDER, ?>> childrenDescriptorsList) {
-            Where where = Where.inLong(parentChildColumnName, parentIdsSource.get());
-            String sql = sqlBuilder.select(where);
-            SelectionInstruction selectionInstruction = SelectionInstruction.withParentColumnName(
-                    sql, parentChildColumnName, ChildSelectStrategy.ByKeysInClause);
-            return sqlRunner.doSelection(selectionInstruction, supplier, childrenDescriptorsList, where);
+            SqlDialect dialect = sqlRunner.dialect();
+            List<Envelope<CHILDBUILDER>> children = new ArrayList<>();
+            for(List<Long> parentIds : KeyChunks.split(parentIdsSource.get(), dialect)) {
+                Where where = Where.inKeys(parentChildColumnName, parentIds, dialect);
+                String sql = sqlBuilder.select(where);
+                SelectionInstruction selectionInstruction = SelectionInstruction.withParentColumnName(
+                        sql, parentChildColumnName, ChildSelectStrategy.ByKeysInClause);
+                children.addAll(sqlRunner.doSelection(selectionInstruction, supplier, childrenDescriptorsList, where));
+            }
+            return children;
         }
     }
 
@@ -102,7 +108,8 @@ public interface ChildrenSelector<CHILD, CHILDBUILDER> {
             if( selectAll ){
                 return new SelectAllChildren<>();
             } else {
-                if (ChildSelectStrategy.ByKeysInClause.equals(childSelectStrategy)) {
+                if (ChildSelectStrategy.ByKeysInClause.equals(childSelectStrategy)
+                        || ChildSelectStrategy.JoinFetch.equals(childSelectStrategy)) {
                     return new SelectByIds<>(parentIdsSource);
                 } else if (ChildSelectStrategy.SubSelectInClause.equals(childSelectStrategy)) {
                     return new SubSelectChildren<>(primaryKeySqlSource, statementPopulator);
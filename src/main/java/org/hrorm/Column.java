@@ -51,6 +51,32 @@ public interface Column<DBTYPE, CLASSTYPE, ENTITY, BUILDER> {
      */
     void setValue(ENTITY item, int index, PreparedStatement preparedStatement) throws SQLException;
 
+    /**
+     * Reads the value of this column from the passed object, in the form
+     * it would be written to the database. Values read at different times
+     * can be compared with <code>equals</code> to tell whether the column
+     * has changed.
+     *
+     * @param item The object to read the data from.
+     * @return The value, which may be null.
+     */
+    default Object getValue(ENTITY item){
+        throw new HrormException("Cannot read a value for column " + getName());
+    }
+
+    /**
+     * Sets a value, in the form read by {@link #getValue(Object)}, onto the
+     * prepared statement.
+     *
+     * @param value The value to set, which may be null.
+     * @param index Where in the prepared statement to set the value
+     * @param preparedStatement The statement being populated
+     * @throws SQLException allowed for <code>PreparedStatement</code> operations
+     */
+    default void bindValue(Object value, int index, PreparedStatement preparedStatement) throws SQLException {
+        preparedStatement.setObject(index, value);
+    }
+
     /**
      * Flag indicating whether or not this column is the primary key of the table
      *
@@ -92,6 +118,20 @@ public interface Column<DBTYPE, CLASSTYPE, ENTITY, BUILDER> {
      */
     PopulateResult populate(BUILDER constructor, ResultSet resultSet) throws SQLException;
 
+    /**
+     * Populates the passed builder object with the value found at a known
+     * position in the result set. Columns that cannot read by position
+     * fall back to reading by their label.
+     *
+     * @param constructor The object being populated
+     * @param resultSet The result set being read
+     * @param columnIndex The position of this column in the result set
+     * @throws SQLException allowed for <code>ResultSet</code> operations
+     */
+    default void populate(BUILDER constructor, ResultSet resultSet, int columnIndex) throws SQLException {
+        populate(constructor, resultSet);
+    }
+
 
     /**
      * Make a new instance of the column, identical to this instance, except with a
@@ -23,6 +23,7 @@ public class ColumnCollection<ENTITY,BUILDER> {
     private List<JoinColumn<ENTITY, ?, BUILDER, ?>> joinColumns;
 
     private Column<?, ?, ENTITY, BUILDER> lastColumnAdded;
+    private int modificationCount;
 
     private final List<List<String>> uniquenessConstraints = new ArrayList<>();
 
@@ -44,11 +45,13 @@ public class ColumnCollection<ENTITY,BUILDER> {
     public void addJoinColumn(JoinColumn<ENTITY, ?, BUILDER, ?> joinColumn) {
         lastColumnAdded = joinColumn;
         joinColumns.add(joinColumn);
+        modificationCount++;
     }
 
     public void addDataColumn(Column<?, ?, ENTITY, BUILDER> dataColumn) {
         lastColumnAdded = dataColumn;
         dataColumns.add(dataColumn);
+        modificationCount++;
     }
 
     public PrimaryKey<ENTITY, BUILDER> getPrimaryKey() {
@@ -61,6 +64,7 @@ public class ColumnCollection<ENTITY,BUILDER> {
         }
         lastColumnAdded = primaryKey;
         this.primaryKey = primaryKey;
+        modificationCount++;
     }
 
     public ParentColumn<ENTITY, ?, BUILDER, ?> getParentColumn() {
@@ -73,6 +77,17 @@ public class ColumnCollection<ENTITY,BUILDER> {
         }
         lastColumnAdded = parentColumn;
         this.parentColumn = parentColumn;
+        modificationCount++;
+    }
+
+    /**
+     * A count of the columns added to this collection, used to tell
+     * whether SQL generated from an earlier state is still valid.
+     *
+     * @return the number of modifications made
+     */
+    public int getModificationCount() {
+        return modificationCount;
     }
 
     public List<Column<?, ?, ENTITY, BUILDER>> getDataColumns() {
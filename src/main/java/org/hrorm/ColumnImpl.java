@@ -82,6 +82,24 @@ public class ColumnImpl<DBTYPE, CLASSTYPE, ENTITY, BUILDER> implements Column<DB
         }
     }
 
+    @Override
+    public Object getValue(ENTITY item) {
+        CLASSTYPE value = getter.apply(item);
+        if ( value == null ){
+            return null;
+        }
+        return converter.from(value);
+    }
+
+    @Override
+    public void bindValue(Object value, int index, PreparedStatement preparedStatement) throws SQLException {
+        if ( value == null ) {
+            preparedStatement.setNull(index, genericColumn.sqlType());
+        } else {
+            genericColumn.setPreparedStatement(preparedStatement, index, (DBTYPE) value);
+        }
+    }
+
     @Override
     public PopulateResult populate(BUILDER builder, ResultSet resultSet) throws SQLException {
         DBTYPE dbValue = genericColumn.fromResultSet(resultSet, prefix  + name);
@@ -93,6 +111,20 @@ public class ColumnImpl<DBTYPE, CLASSTYPE, ENTITY, BUILDER> implements Column<DB
         return PopulateResult.Ignore;
     }
 
+    @Override
+    public void populate(BUILDER builder, ResultSet resultSet, int columnIndex) throws SQLException {
+        if ( ! genericColumn.readsByIndex() ){
+            populate(builder, resultSet);
+            return;
+        }
+        DBTYPE dbValue = genericColumn.fromResultSet(resultSet, columnIndex);
+        CLASSTYPE value = null;
+        if ( dbValue != null ) {
+            value = converter.to(dbValue);
+        }
+        setter.accept(builder, value);
+    }
+
     @Override
     public String getName() {
         return name;
@@ -55,6 +55,7 @@ public class ColumnSelection<ENTITY, BUILDER> {
                 column.setValue(entity, index, preparedStatement);
                 index++;
             }
+            return index - 1;
         };
     }
 
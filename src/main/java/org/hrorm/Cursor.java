@@ -0,0 +1,46 @@
+package org.hrorm;
+
+import java.util.List;
+
+/**
+ * Marks a position in an ordered list of entities, so that a following
+ * page can be selected by seeking past it rather than by counting rows.
+ *
+ * <p>
+ *     A cursor is made from the last row of a {@link Page} and remembers
+ *     the values of the columns the page was ordered by, as they were when
+ *     the page was selected, so changing that entity afterwards does not
+ *     move the cursor. It can only be used to select further pages with
+ *     the same ordering.
+ * </p>
+ *
+ * @param <ENTITY> The type of the entities paged through.
+ */
+public final class Cursor<ENTITY> {
+
+    private final List<Object> values;
+    private final String orderSql;
+
+    Cursor(List<Object> values, String orderSql) {
+        this.values = values;
+        this.orderSql = orderSql;
+    }
+
+    /**
+     * The values of the ordering columns in the last row, in their order.
+     */
+    List<Object> getValues() {
+        return values;
+    }
+
+    void checkOrder(String orderSql){
+        if( ! this.orderSql.equals(orderSql) ){
+            throw new HrormException("Cursor was made for a different ordering: " + this.orderSql);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Cursor{" + orderSql + "}";
+    }
+}
@@ -1,6 +1,7 @@
 package org.hrorm;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * A <code>Dao</code> is an interface that allows basic CRUD operations to be performed.
@@ -26,6 +27,59 @@ public interface Dao<ENTITY> extends KeylessDao<ENTITY> {
      */
     List<ENTITY> select(List<Long> ids);
 
+    /**
+     * Read a record from the database by its primary key, together with
+     * the children named by the passed plan.
+     *
+     * @param id The primary key of the record desired.
+     * @param fetchPlan The children to select.
+     * @return The populated instance of type ENTITY.
+     */
+    ENTITY selectOne(long id, FetchPlan fetchPlan);
+
+    /**
+     * Select a single record from the database by some search criteria,
+     * together with the children named by the passed plan.
+     *
+     * @param where Predicates to drive selection of results
+     * @param fetchPlan The children to select.
+     * @return The populated instance of type ENTITY matching the criteria,
+     *         or null if none does.
+     */
+    ENTITY selectOne(Where where, FetchPlan fetchPlan);
+
+    /**
+     * Select matching records from the database, together with the
+     * children named by the passed plan. Children that are not named
+     * are selected only if they are used. See {@link FetchPlan}.
+     *
+     * @param where Predicates to drive selection of results
+     * @param fetchPlan The children to select.
+     * @return A list of populated instances of type ENTITY.
+     */
+    List<ENTITY> select(Where where, FetchPlan fetchPlan);
+
+    /**
+     * Select matching records from the database, in the passed order,
+     * together with the children named by the passed plan.
+     *
+     * @param where Predicates to drive selection of results
+     * @param order The ordering of the results
+     * @param fetchPlan The children to select.
+     * @return A list of populated instances of type ENTITY.
+     */
+    List<ENTITY> select(Where where, Order order, FetchPlan fetchPlan);
+
+    /**
+     * Selects entities lazily, as {@link #stream(Where)} does, together
+     * with the children named by the passed plan.
+     *
+     * @param where Predicates to drive selection of results
+     * @param fetchPlan The children to select.
+     * @return A stream of the matching entities, which must be closed.
+     */
+    Stream<ENTITY> stream(Where where, FetchPlan fetchPlan);
+
     /**
      * Run an update statement to change the values in the database associated
      * with an existing record. Updates are applied by primary key.
@@ -35,6 +89,16 @@ public interface Dao<ENTITY> extends KeylessDao<ENTITY> {
      */
     void update(ENTITY item);
 
+    /**
+     * Run an update statement that writes only the passed columns of an
+     * existing record. Children of the item are not saved.
+     *
+     * @param item An instance of the class with a populated primary key field
+     *             and updated field values.
+     * @param columnNames The names of the columns to write.
+     */
+    void update(ENTITY item, String... columnNames);
+
     /**
      * Run a delete statement in the database. Deletion is done by primary key.
      *
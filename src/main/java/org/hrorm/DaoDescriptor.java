@@ -52,6 +52,21 @@ public interface DaoDescriptor<ENTITY, ENTITYBUILDER> extends KeylessDaoDescript
 
     ChildSelectStrategy childSelectStrategy();
 
+    /**
+     * The cache of entities by their primary keys, shared by every
+     * <code>Dao</code> built from this description.
+     *
+     * @return the cache, or null if entities are not cached
+     */
+    default EntityCache<ENTITY> entityCache(){
+        return null;
+    }
+
+    @Override
+    default SqlBuilder<ENTITY> sqlBuilder(){
+        return new SqlBuilder<>(this);
+    }
+
     default String parentColumnName() {
         if ( hasParent() ){
             return parentColumn().getName();
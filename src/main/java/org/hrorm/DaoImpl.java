@@ -1,7 +1,15 @@
 package org.hrorm;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * The {@link Dao} implementation.
@@ -22,6 +30,10 @@ public class DaoImpl<ENTITY, PARENT, BUILDER, PARENTBUILDER> extends AbstractDao
     private final ParentColumn<ENTITY, PARENT, BUILDER, PARENTBUILDER> parentColumn;
     private final List<ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors;
     private final ChildSelectStrategy childSelectStrategy;
+    private final ChangeTracker changeTracker;
+    private final EntityCache<ENTITY> entityCache;
+    // The session that created this Dao, if any
+    private final Session session;
 
     public DaoImpl(Connection connection,
                    DaoDescriptor<ENTITY, BUILDER> daoDescriptor){
@@ -33,6 +45,12 @@ public class DaoImpl<ENTITY, PARENT, BUILDER, PARENTBUILDER> extends AbstractDao
         }
         this.primaryKey = daoDescriptor.primaryKey();
         this.parentColumn = daoDescriptor.parentColumn();
+        this.changeTracker = daoDescriptor.changeTracking() ? new ChangeTracker() : null;
+        this.entityCache = daoDescriptor.entityCache();
+        if( entityCache != null ){
+            ChildrenDescriptor.checkCacheable(daoDescriptor, "an entity cache");
+        }
+        this.session = Session.of(connection);
     }
 
     @Override
@@ -48,43 +66,262 @@ public class DaoImpl<ENTITY, PARENT, BUILDER, PARENTBUILDER> extends AbstractDao
     @Override
     public Long insert(ENTITY item) {
         String sql = sqlBuilder.insert();
-        long id = sqlRunner.runSequenceNextValue(sqlBuilder.nextSequence());
+        long id = nextPrimaryKey();
         primaryKey.optimisticSetKey(item, id);
         Envelope<ENTITY> envelope = newEnvelope(item, id);
         sqlRunner.insert(sql, envelope);
         for(ChildrenDescriptor<ENTITY,?, BUILDER,?> childrenDescriptor : childrenDescriptors){
             childrenDescriptor.saveChildren(connection, envelope);
         }
+        track(envelope);
+        written(envelope);
         return id;
     }
 
+    @Override
+    public List<Long> insertAll(Collection<ENTITY> items) {
+        String sql = sqlBuilder.insert();
+        List<Envelope<ENTITY>> envelopes = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for(ENTITY item : items){
+            long id = nextPrimaryKey();
+            primaryKey.optimisticSetKey(item, id);
+            envelopes.add(newEnvelope(item, id));
+            ids.add(id);
+        }
+        sqlRunner.insertBatch(sql, envelopes, batchSize());
+        for(ChildrenDescriptor<ENTITY,?, BUILDER,?> childrenDescriptor : childrenDescriptors){
+            childrenDescriptor.insertChildren(connection, envelopes);
+        }
+        for(Envelope<ENTITY> envelope : envelopes){
+            track(envelope);
+            written(envelope);
+        }
+        return ids;
+    }
+
     @Override
     public void update(ENTITY item) {
-        String sql = sqlBuilder.update();
         Envelope<ENTITY> envelope = newEnvelope(item, primaryKey.getKey(item));
-        sqlRunner.update(sql, envelope);
+        List<Column<?, ?, ENTITY, BUILDER>> changedColumns = changeTracker == null ?
+                null : changeTracker.changedColumns(this, envelope);
+        if( changedColumns == null ){
+            sqlRunner.update(sqlBuilder.update(), envelope);
+        } else if ( ! changedColumns.isEmpty() ){
+            sqlRunner.updateColumns(sqlBuilder.update(changedColumns), changedColumns, envelope);
+        }
+        List<Envelope<ENTITY>> envelopes = Collections.singletonList(envelope);
         for(ChildrenDescriptor<ENTITY,?, BUILDER,?> childrenDescriptor : childrenDescriptors){
-            childrenDescriptor.saveChildren(connection, envelope);
+            childrenDescriptor.saveChildren(connection, envelopes, changeTracker);
         }
+        track(envelope);
+        written(envelope);
+    }
+
+    @Override
+    public void update(ENTITY item, String... columnNames) {
+        if( columnNames.length == 0 ){
+            throw new HrormException("Must provide at least one column to update");
+        }
+        List<Column<?, ?, ENTITY, BUILDER>> columns = new ArrayList<>();
+        for(String columnName : columnNames){
+            Column<?, ?, ENTITY, BUILDER> column = getColumnCollection().columnByName(columnName);
+            if( column.isPrimaryKey() ){
+                throw new HrormException("Cannot update the primary key " + columnName);
+            }
+            columns.add(column);
+        }
+        Envelope<ENTITY> envelope = newEnvelope(item, primaryKey.getKey(item));
+        sqlRunner.updateColumns(sqlBuilder.update(columns), columns, envelope);
+        if( changeTracker != null ){
+            // only part of the entity was written, so it can no longer be compared
+            changeTracker.forget(tableName(), envelope.getId());
+        }
+        written(envelope);
     }
 
     @Override
     public void delete(ENTITY item) {
         String sql = sqlBuilder.delete();
-        sqlRunner.runPreparedDelete(sql, primaryKey.getKey(item));
+        Long id = primaryKey.getKey(item);
+        sqlRunner.runPreparedDelete(sql, id);
+        if( changeTracker != null ){
+            changeTracker.forget(tableName(), id);
+        }
+        if( entityCache != null ){
+            entityCache.invalidate(id);
+        }
+        Session session = session();
+        if( session != null ){
+            session.remove(tableName(), id);
+            for(ChildrenDescriptor<ENTITY,?, BUILDER,?> childrenDescriptor : childrenDescriptors){
+                childrenDescriptor.forgetChildren(session);
+            }
+        }
+    }
+
+    @Override
+    protected void selected(List<ENTITY> items, boolean complete) {
+        Session session = session();
+        if( session != null ){
+            // Rows read before are replaced by the instances already kept, and
+            // entities missing some of their children are not kept
+            for(int idx = 0; idx < items.size(); idx++){
+                ENTITY item = items.get(idx);
+                Long id = primaryKey.getKey(item);
+                ENTITY kept = complete ? session.canonical(tableName(), id, item) : session.get(tableName(), id);
+                if( kept != null && kept != item ){
+                    items.set(idx, kept);
+                }
+            }
+        }
+        if( changeTracker != null ){
+            for(ENTITY item : items){
+                Long parentId = parentColumn == null ? null : (Long) parentColumn.getValue(item);
+                changeTracker.record(this, item, primaryKey.getKey(item), parentId);
+            }
+        }
+    }
+
+    private void written(Envelope<ENTITY> envelope){
+        if( entityCache != null ){
+            entityCache.invalidate(envelope.getId());
+        }
+        Session session = session();
+        if( session != null ){
+            session.put(tableName(), envelope.getId(), envelope.getItem());
+        }
+    }
+
+    private void track(Envelope<ENTITY> envelope){
+        if( changeTracker != null ){
+            changeTracker.record(this, envelope.getItem(), envelope.getId(), envelope.getParentId());
+        }
     }
 
     @Override
     public ENTITY selectOne(long id) {
+        Session session = session();
+        if( session != null ){
+            ENTITY kept = session.get(tableName(), id);
+            if( kept != null ){
+                return kept;
+            }
+        }
+        if( entityCache == null ){
+            return selectById(id);
+        }
+        EntityCache.Entry<ENTITY> cached = entityCache.get(id);
+        if( cached != null ){
+            return fromCache(cached.getItem());
+        }
+        long stamp = entityCache.stamp();
+        ENTITY item = selectById(id);
+        entityCache.put(id, item, stamp);
+        return item;
+    }
+
+    private ENTITY selectById(long id){
         Where where = new Where(primaryKey.getName(), Operator.EQUALS, id);
         List<ENTITY> items = select(where);
         return KeylessDaoImpl.fromSingletonList(items);
     }
 
+    private Session session(){
+        return session != null && session.isOpen() ? session : null;
+    }
+
+    /*
+     * An entity found in the cache is handled as though it had just been selected,
+     * so that the session keeps it and the changes made to it are tracked.
+     */
+    private ENTITY fromCache(ENTITY item){
+        if( item == null ){
+            return null;
+        }
+        List<ENTITY> items = new ArrayList<>(1);
+        items.add(item);
+        selected(items, true);
+        return items.get(0);
+    }
+
+    @Override
+    public ENTITY selectOne(long id, FetchPlan fetchPlan) {
+        Where where = new Where(primaryKey.getName(), Operator.EQUALS, id);
+        return selectOne(where, fetchPlan);
+    }
+
+    @Override
+    public ENTITY selectOne(Where where, FetchPlan fetchPlan) {
+        // Two rows are enough to know there are too many
+        List<ENTITY> items = doSelect(where, null, queryOptions().withMaxRows(2), fetchPlan);
+        return KeylessDaoImpl.fromSingletonList(items);
+    }
+
+    @Override
+    public List<ENTITY> select(Where where, FetchPlan fetchPlan) {
+        return doSelect(where, null, queryOptions(), fetchPlan);
+    }
+
+    @Override
+    public List<ENTITY> select(Where where, Order order, FetchPlan fetchPlan) {
+        return doSelect(where, order, queryOptions(), fetchPlan);
+    }
+
+    @Override
+    public Stream<ENTITY> stream(Where where, FetchPlan fetchPlan) {
+        return doStream(where, null, fetchPlan);
+    }
+
     @Override
     public List<ENTITY> select(List<Long> ids) {
-        Where where = Where.inLong(primaryKey.getName(), ids);
-        return select(where);
+        Session session = session();
+        if( session == null && entityCache == null ){
+            return selectByKeys(ids);
+        }
+        Set<Long> keys = new LinkedHashSet<>(ids);
+        Map<Long, ENTITY> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for(Long id : keys){
+            ENTITY kept = session == null ? null : session.get(tableName(), id);
+            EntityCache.Entry<ENTITY> cached = kept != null || entityCache == null ? null : entityCache.get(id);
+            if( kept != null ){
+                found.put(id, kept);
+            } else if ( cached != null ){
+                found.put(id, fromCache(cached.getItem()));
+            } else {
+                missing.add(id);
+            }
+        }
+        if( ! missing.isEmpty() ){
+            long stamp = entityCache == null ? 0 : entityCache.stamp();
+            for(ENTITY item : selectByKeys(missing)){
+                found.put(primaryKey.getKey(item), item);
+            }
+            if( entityCache != null ){
+                for(Long id : missing){
+                    entityCache.put(id, found.get(id), stamp);
+                }
+            }
+        }
+        List<ENTITY> items = new ArrayList<>();
+        for(Long id : keys){
+            ENTITY item = found.get(id);
+            if( item != null ){
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private List<ENTITY> selectByKeys(List<Long> ids){
+        SqlDialect dialect = dialect();
+        List<ENTITY> items = new ArrayList<>();
+        for(List<Long> chunk : KeyChunks.split(ids, dialect)){
+            Where where = Where.inKeys(primaryKey.getName(), chunk, dialect);
+            items.addAll(select(where));
+        }
+        return items;
     }
 
     @Override
@@ -113,6 +350,16 @@ public class DaoImpl<ENTITY, PARENT, BUILDER, PARENTBUILDER> extends AbstractDao
         return childSelectStrategy;
     }
 
+    @Override
+    public EntityCache<ENTITY> entityCache() {
+        return entityCache;
+    }
+
+    private long nextPrimaryKey(){
+        String sql = sqlBuilder.nextSequence();
+        return primaryKey.getKeyAllocator().nextKey(() -> sqlRunner.runSequenceNextValue(sql));
+    }
+
     private Envelope<ENTITY> newEnvelope(ENTITY item, long id){
         if( parentColumn != null ){
             Long parentId = parentColumn.getParentId(item);
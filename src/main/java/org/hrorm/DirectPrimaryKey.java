@@ -25,6 +25,7 @@ public class DirectPrimaryKey<ENTITY> implements PrimaryKey<ENTITY, ENTITY> {
     private final String sequenceName;
     private final BiConsumer<ENTITY, Long> setter;
     private final Function<ENTITY, Long> getter;
+    private final KeyAllocator keyAllocator;
 
     private String sqlTypeName = "integer";
 
@@ -33,11 +34,21 @@ public class DirectPrimaryKey<ENTITY> implements PrimaryKey<ENTITY, ENTITY> {
                             String sequenceName,
                             Function<ENTITY, Long> getter,
                             BiConsumer<ENTITY, Long> setter) {
+        this(prefix, name, sequenceName, getter, setter, KeyAllocator.sequence());
+    }
+
+    public DirectPrimaryKey(String prefix,
+                            String name,
+                            String sequenceName,
+                            Function<ENTITY, Long> getter,
+                            BiConsumer<ENTITY, Long> setter,
+                            KeyAllocator keyAllocator) {
         this.prefix = prefix;
         this.name = name;
         this.sequenceName = sequenceName;
         this.setter = setter;
         this.getter = getter;
+        this.keyAllocator = keyAllocator;
     }
 
     @Override
@@ -53,11 +64,21 @@ public class DirectPrimaryKey<ENTITY> implements PrimaryKey<ENTITY, ENTITY> {
         return sequenceName;
     }
 
+    @Override
+    public KeyAllocator getKeyAllocator() {
+        return keyAllocator;
+    }
+
     @Override
     public void optimisticSetKey(ENTITY item, Long id) {
         setter.accept(item, id);
     }
 
+    @Override
+    public void setKey(ENTITY builder, long id) {
+        setter.accept(builder, id);
+    }
+
     @Override
     public String getName() {
         return name;
@@ -79,6 +100,11 @@ public class DirectPrimaryKey<ENTITY> implements PrimaryKey<ENTITY, ENTITY> {
 
     }
 
+    @Override
+    public Object getValue(ENTITY item) {
+        return getter.apply(item);
+    }
+
     @Override
     public void setValue(ENTITY item, int index, PreparedStatement preparedStatement) throws SQLException {
         Long value = getter.apply(item);
@@ -91,7 +117,7 @@ public class DirectPrimaryKey<ENTITY> implements PrimaryKey<ENTITY, ENTITY> {
 
     @Override
     public Column<Long, Long, ENTITY, ENTITY> withPrefix(String newPrefix, Prefixer prefixer) {
-        return new DirectPrimaryKey<>(newPrefix, name, sequenceName, getter, setter);
+        return new DirectPrimaryKey<>(newPrefix, name, sequenceName, getter, setter, keyAllocator);
     }
 
     @Override
@@ -0,0 +1,206 @@
+package org.hrorm;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of entities by their primary keys, shared by every <code>Dao</code>
+ * built from the same <code>DaoBuilder</code>, whatever their connections.
+ * It serves <code>selectOne(long)</code> and <code>select(List)</code>, which
+ * then only select the keys the cache cannot answer, and forgets an entity
+ * whenever it is inserted, updated or deleted by one of those <code>Dao</code>s.
+ *
+ * <p>
+ *     The cache holds at most its maximum number of entities, forgetting the
+ *     ones cached first when it is full, and forgets each entity once its time
+ *     to live has passed. It may also remember the keys that matched nothing,
+ *     so that looking them up again runs no SQL.
+ * </p>
+ *
+ * <p>
+ *     Nothing is cached from a select that ran while hrorm had written the
+ *     table in a transaction that has not yet ended, on any connection, nor
+ *     from one during which such a transaction ended, since it might have
+ *     read rows that are rolled back, or missed rows about to be committed.
+ *     See {@link QueryCache} for when hrorm sees a transaction end.
+ * </p>
+ *
+ * <p>
+ *     Cached entities, with their joined entities and children, are shared by
+ *     every caller, on every connection and thread, so they must be treated as
+ *     immutable: to change one, update a copy of it. Changes
+ *     made to the tables by other means, including through the <code>Dao</code>s
+ *     of joined or child entities, are not seen until the cached entity expires
+ *     or {@link #clear()} is called.
+ * </p>
+ *
+ * <p>
+ *     This class is thread safe.
+ * </p>
+ *
+ * @param <ENTITY> The type of the entities cached.
+ */
+public final class EntityCache<ENTITY> {
+
+    /**
+     * A cached entity, or the memory that none matched the key.
+     */
+    static final class Entry<ENTITY> {
+        private final long id;
+        private final ENTITY item;
+        private final long expiresAt;
+
+        private Entry(long id, ENTITY item, long expiresAt){
+            this.id = id;
+            this.item = item;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * The cached entity, or null if no entity had the key.
+         */
+        ENTITY getItem() {
+            return item;
+        }
+    }
+
+    private final String tableName;
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final boolean cacheMisses;
+
+    private final ConcurrentMap<Long, Entry<ENTITY>> entries = new ConcurrentHashMap<>();
+    // The entries in the order they were cached, including some since replaced
+    private final Queue<Entry<ENTITY>> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger orderSize = new AtomicInteger();
+    // Counts the writes, so that a select that started before one is not cached after it
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param tableName The table the entities are selected from.
+     * @param maximumSize The most entities to hold at once.
+     * @param timeToLive How long each entity is held, or null to hold them until
+     *                   they are evicted or written.
+     * @param cacheMisses Whether to remember the keys that matched no entity.
+     */
+    EntityCache(String tableName, int maximumSize, Duration timeToLive, boolean cacheMisses){
+        if( maximumSize < 1 ){
+            throw new HrormException("The maximum size of a cache must be positive, not " + maximumSize);
+        }
+        if( timeToLive != null && ( timeToLive.isNegative() || timeToLive.isZero() ) ){
+            throw new HrormException("The time to live of a cache must be positive, not " + timeToLive);
+        }
+        this.tableName = tableName;
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive == null ? 0 : timeToLive.toNanos();
+        this.cacheMisses = cacheMisses;
+        TableVersions.track(Collections.singletonList(tableName));
+    }
+
+    /**
+     * The cached entry for the key, or null if the key must be selected.
+     */
+    Entry<ENTITY> get(long id){
+        Entry<ENTITY> entry = entries.get(id);
+        if( entry != null && timeToLiveNanos > 0 && System.nanoTime() - entry.expiresAt > 0 ){
+            entries.remove(id, entry);
+            entry = null;
+        }
+        if( entry == null ){
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Marks the start of a select, whose results are cached only if
+     * nothing is written before they are.
+     */
+    long stamp(){
+        // Both only grow, so their sum is unchanged only if neither changed
+        return invalidations.get() + TableVersions.current(tableName);
+    }
+
+    /**
+     * Caches what a select found for the key, which is null if it found nothing.
+     */
+    void put(long id, ENTITY item, long stamp){
+        if( ( item == null && ! cacheMisses ) || TableVersions.isPending(tableName) ){
+            return;
+        }
+        Entry<ENTITY> entry = new Entry<>(id, item, System.nanoTime() + timeToLiveNanos);
+        entries.put(id, entry);
+        if( stamp() != stamp ){
+            // Something was written or a transaction ended during the select,
+            // which may have read it
+            entries.remove(id, entry);
+            return;
+        }
+        order.add(entry);
+        if( orderSize.incrementAndGet() > maximumSize ){
+            evict();
+        }
+    }
+
+    private void evict(){
+        while( orderSize.get() > maximumSize ){
+            Entry<ENTITY> oldest = order.poll();
+            if( oldest == null ){
+                return;
+            }
+            orderSize.decrementAndGet();
+            if( entries.remove(oldest.id, oldest) ){
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Forgets the entity with the key, which has been written.
+     */
+    void invalidate(long id){
+        invalidations.incrementAndGet();
+        entries.remove(id);
+    }
+
+    /**
+     * Forgets every cached entity.
+     */
+    public void clear(){
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * The number of keys cached, including those that matched no entity.
+     *
+     * @return The size of the cache.
+     */
+    public int size(){
+        return entries.size();
+    }
+
+    /**
+     * The number of lookups served by the cache, and not, so far.
+     *
+     * @return The statistics of the cache.
+     */
+    public CacheStatistics statistics(){
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum());
+    }
+}
@@ -0,0 +1,142 @@
+package org.hrorm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Names which of the children of an entity, and of their children in turn,
+ * are selected along with it by one select. A <code>Dao</code> that
+ * serves both a list of entities, which needs none of their children,
+ * and a single entity with all its descendants, can then be used for both.
+ *
+ * <p>
+ *     Children are named by their table. Children that are not named are
+ *     given lazily loaded lists, as though they were described by
+ *     {@link AbstractDaoBuilder#withLazyChildren}: they are selected, for all
+ *     the entities read by the same select, only if they are used. Since an
+ *     unused list of lazily loaded children cannot have been changed, an
+ *     entity read without some of its children can still be updated without
+ *     losing them.
+ * </p>
+ *
+ * <p>
+ *     Fetch plans are immutable. For example, this plan selects the children
+ *     in the <code>child_table</code>, but none of their children:
+ *     <code>
+ *         FetchPlan.NONE.with("child_table", FetchPlan.NONE)
+ *     </code>
+ * </p>
+ */
+public final class FetchPlan {
+
+    /**
+     * Selects the children, and their children, as they were described
+     * when the <code>Dao</code> was built.
+     */
+    public static final FetchPlan ALL = new FetchPlan(null);
+
+    /**
+     * Selects none of the children.
+     */
+    public static final FetchPlan NONE = new FetchPlan(Collections.emptyMap());
+
+    // null for all the children
+    private final Map<String, FetchPlan> childPlans;
+
+    private FetchPlan(Map<String, FetchPlan> childPlans){
+        this.childPlans = childPlans;
+    }
+
+    /**
+     * A plan that selects the children in the named tables, with all their
+     * descendants, and no other children.
+     *
+     * @param childTableNames The tables of the children to select.
+     * @return The new plan.
+     */
+    public static FetchPlan children(String ... childTableNames){
+        FetchPlan plan = NONE;
+        for(String childTableName : childTableNames){
+            plan = plan.with(childTableName);
+        }
+        return plan;
+    }
+
+    /**
+     * A plan that also selects the children in the named table, with all
+     * their descendants.
+     *
+     * @param childTableName The table of the children to select.
+     * @return The new plan.
+     */
+    public FetchPlan with(String childTableName){
+        return with(childTableName, ALL);
+    }
+
+    /**
+     * A plan that also selects the children in the named table, with
+     * those of their own children named by the passed plan.
+     *
+     * @param childTableName The table of the children to select.
+     * @param childPlan The plan for the children of those children.
+     * @return The new plan.
+     */
+    public FetchPlan with(String childTableName, FetchPlan childPlan){
+        if( childTableName == null || childPlan == null ){
+            throw new HrormException("A fetch plan needs a child table and a plan for its children");
+        }
+        Map<String, FetchPlan> plans = new LinkedHashMap<>();
+        if( childPlans != null ){
+            plans.putAll(childPlans);
+        }
+        plans.put(key(childTableName), childPlan);
+        return new FetchPlan(Collections.unmodifiableMap(plans));
+    }
+
+    /**
+     * The children to select, as described by this plan, in place of the
+     * passed children.
+     */
+    <ENTITY, BUILDER> List<ChildrenDescriptor<ENTITY, ?, BUILDER, ?>> apply(List<ChildrenDescriptor<ENTITY, ?, BUILDER, ?>> childrenDescriptors){
+        if( childPlans == null ){
+            return childrenDescriptors;
+        }
+        List<String> unknownTables = new ArrayList<>(childPlans.keySet());
+        List<ChildrenDescriptor<ENTITY, ?, BUILDER, ?>> planned = new ArrayList<>();
+        for(ChildrenDescriptor<ENTITY, ?, BUILDER, ?> childrenDescriptor : childrenDescriptors){
+            String key = key(childrenDescriptor.childTableName());
+            unknownTables.remove(key);
+            planned.add(childrenDescriptor.planned(childPlans.get(key)));
+        }
+        if( ! unknownTables.isEmpty() ){
+            throw new HrormException("Fetch plan names children that are not described: " + unknownTables);
+        }
+        return planned;
+    }
+
+    private static String key(String tableName){
+        return tableName.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FetchPlan fetchPlan = (FetchPlan) o;
+        return childPlans == null ? fetchPlan.childPlans == null : childPlans.equals(fetchPlan.childPlans);
+    }
+
+    @Override
+    public int hashCode() {
+        return childPlans == null ? 0 : childPlans.hashCode() + 1;
+    }
+
+    @Override
+    public String toString() {
+        return childPlans == null ? "ALL" : childPlans.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package org.hrorm;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The children of one <code>ChildrenDescriptor</code>, read from the same rows
+ * as their parents when the {@link ChildSelectStrategy#JoinFetch} strategy
+ * is used.
+ *
+ * <p>
+ *     The child table is given prefixes of its own, so that its columns can be
+ *     selected alongside those of the parent and anything joined to either.
+ * </p>
+ *
+ * @param <PARENT> The type of the parent entity.
+ * @param <CHILD> The type of the child entity.
+ * @param <PARENTBUILDER> The type that builds the parent entity.
+ * @param <CHILDBUILDER> The type that builds the child entity.
+ */
+class FetchedChildren<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> {
+
+    /**
+     * Collects the children found in the rows of one select.
+     *
+     * @param <PARENTBUILDER> The type that builds the parent entity.
+     */
+    interface Reader<PARENTBUILDER> {
+        /**
+         * Reads the child in the current row, unless there is none or it was read before.
+         */
+        void read(Connection connection, ResultSet resultSet) throws SQLException;
+
+        /**
+         * Selects the children of the children read, and sets the children onto their parents.
+         */
+        void populateChildren(Connection connection, List<Envelope<PARENTBUILDER>> parents);
+    }
+
+    private final ChildrenDescriptor<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> childrenDescriptor;
+    private final DaoDescriptor<CHILD, CHILDBUILDER> joinedDaoDescriptor;
+    private final RowMapper<CHILD, CHILDBUILDER> rowMapper;
+
+    private FetchedChildren(ChildrenDescriptor<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> childrenDescriptor, String prefixStem){
+        Prefixer prefixer = new Prefixer(prefixStem);
+        this.childrenDescriptor = childrenDescriptor;
+        this.joinedDaoDescriptor = new RelativeDaoDescriptor<>(childrenDescriptor.childDaoDescriptor(), prefixer.nextPrefix(), prefixer);
+        this.rowMapper = new RowMapper<>(joinedDaoDescriptor);
+    }
+
+    /**
+     * The fetched children for each of the passed descriptors, each with a distinct prefix.
+     * Lazily loaded children are not fetched.
+     */
+    static <PARENT, PARENTBUILDER> List<FetchedChildren<PARENT, ?, PARENTBUILDER, ?>> forDescriptors(
+            List<ChildrenDescriptor<PARENT, ?, PARENTBUILDER, ?>> childrenDescriptors){
+        List<FetchedChildren<PARENT, ?, PARENTBUILDER, ?>> fetchedChildren = new ArrayList<>();
+        for(ChildrenDescriptor<PARENT, ?, PARENTBUILDER, ?> childrenDescriptor : childrenDescriptors){
+            if( childrenDescriptor.isLazy() ){
+                continue;
+            }
+            fetchedChildren.add(new FetchedChildren<>(childrenDescriptor, "j" + fetchedChildren.size() + "_"));
+        }
+        return fetchedChildren;
+    }
+
+    DaoDescriptor<CHILD, CHILDBUILDER> joinedDaoDescriptor(){
+        return joinedDaoDescriptor;
+    }
+
+    Reader<PARENTBUILDER> reader(ResultSet resultSet) throws SQLException {
+        return new ChildReader(rowMapper.columnIndexes(resultSet));
+    }
+
+    private class ChildReader implements Reader<PARENTBUILDER> {
+
+        private final int[] indexes;
+        // Each child is repeated in the rows for the children of other tables
+        private final Map<Long, Envelope<CHILDBUILDER>> children = new LinkedHashMap<>();
+        private final JoinedChildrenSelector<CHILD, CHILDBUILDER> joinedChildrenSelector =
+                new JoinedChildrenSelector<>(joinedDaoDescriptor, ChildSelectStrategy.ByKeysInClause, false);
+        private final RowMapper.JoinedEntities joinedEntities = new RowMapper.JoinedEntities();
+
+        ChildReader(int[] indexes){
+            this.indexes = indexes;
+        }
+
+        @Override
+        public void read(Connection connection, ResultSet resultSet) throws SQLException {
+            long key = rowMapper.primaryKey(resultSet, indexes);
+            if( key == 0 || children.containsKey(key) ){
+                // nothing was joined, or the child was already read
+                return;
+            }
+            Envelope<CHILDBUILDER> envelope = rowMapper.populate(
+                    connection, resultSet, indexes, joinedDaoDescriptor.supplier(), true, joinedChildrenSelector, joinedEntities);
+            children.put(key, envelope);
+        }
+
+        @Override
+        public void populateChildren(Connection connection, List<Envelope<PARENTBUILDER>> parents) {
+            List<Envelope<CHILDBUILDER>> childBuilders = new ArrayList<>(children.values());
+            joinedChildrenSelector.populateChildren(connection, new StatementPopulator.Empty());
+            joinedEntities.resolveReferences(connection);
+            for(ChildrenDescriptor<CHILD, ?, CHILDBUILDER, ?> grandchildrenDescriptor : childrenDescriptor.selectedGrandChildrenDescriptors()){
+                populateByKeys(connection, grandchildrenDescriptor, childBuilders);
+            }
+            childrenDescriptor.populateChildren(connection, parents,
+                    (sqlBuilder, supplier, sqlRunner, parentChildColumnName, childrenDescriptorsList) -> childBuilders);
+        }
+    }
+
+    private static <P, C, PB, CB> void populateByKeys(Connection connection,
+                                                      ChildrenDescriptor<P, C, PB, CB> childrenDescriptor,
+                                                      List<Envelope<PB>> parents){
+        List<Long> parentIds = parents.stream().map(Envelope::getId).collect(Collectors.toList());
+        childrenDescriptor.populateChildren(connection, parents, new ChildrenSelector.SelectByIds<>(() -> parentIds));
+    }
+}
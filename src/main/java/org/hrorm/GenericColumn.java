@@ -68,31 +68,31 @@ public class GenericColumn<TYPE> {
      * An instance that supports <code>Long</code> or <code>long</code> data elements.
      */
     public static GenericColumn<Long> LONG =
-            new GenericColumn<>(PreparedStatement::setLong, ResultSet::getLong, Types.INTEGER, "integer", ColumnTypes.IntegerTypes);
+            new GenericColumn<>(PreparedStatement::setLong, ResultSet::getLong, ResultSet::getLong, Types.INTEGER, "integer", ColumnTypes.IntegerTypes);
 
     /**
      * An instance that supports <code>BigDecimal</code> data elements.
      */
     public static GenericColumn<BigDecimal> BIG_DECIMAL =
-            new GenericColumn<>(PreparedStatement::setBigDecimal, ResultSet::getBigDecimal, Types.DECIMAL, "decimal", ColumnTypes.DecimalTypes);
+            new GenericColumn<>(PreparedStatement::setBigDecimal, ResultSet::getBigDecimal, ResultSet::getBigDecimal, Types.DECIMAL, "decimal", ColumnTypes.DecimalTypes);
 
     /**
      * An instance that supports <code>Boolean</code> or <code>boolean</code> data elements.
      */
     public static GenericColumn<Boolean> BOOLEAN =
-            new GenericColumn<>(PreparedStatement::setBoolean, ResultSet::getBoolean, Types.BOOLEAN, "boolean", ColumnTypes.BooleanTypes);
+            new GenericColumn<>(PreparedStatement::setBoolean, ResultSet::getBoolean, ResultSet::getBoolean, Types.BOOLEAN, "boolean", ColumnTypes.BooleanTypes);
 
     /**
      * An instance that supports <code>String</code> data elements.
      */
     public static GenericColumn<String> STRING =
-            new GenericColumn<>(PreparedStatement::setString, ResultSet::getString, Types.VARCHAR, "text", ColumnTypes.StringTypes);
+            new GenericColumn<>(PreparedStatement::setString, ResultSet::getString, ResultSet::getString, Types.VARCHAR, "text", ColumnTypes.StringTypes);
 
     /**
      * An instance that supports <code>Timestamp</code> data elements.
      */
     public static GenericColumn<Timestamp> TIMESTAMP =
-            new GenericColumn<>(PreparedStatement::setTimestamp, ResultSet::getTimestamp, Types.TIMESTAMP, "timestamp", ColumnTypes.InstantTypes);
+            new GenericColumn<>(PreparedStatement::setTimestamp, ResultSet::getTimestamp, ResultSet::getTimestamp, Types.TIMESTAMP, "timestamp", ColumnTypes.InstantTypes);
 
     // extension types
 
@@ -100,31 +100,53 @@ public class GenericColumn<TYPE> {
      * An instance that supports <code>Integer</code> or <code>int</code> data elements.
      */
     public static GenericColumn<Integer> INTEGER =
-            new GenericColumn<>(PreparedStatement::setInt, ResultSet::getInt, Types.INTEGER, "integer", ColumnTypes.IntegerTypes);
+            new GenericColumn<>(PreparedStatement::setInt, ResultSet::getInt, ResultSet::getInt, Types.INTEGER, "integer", ColumnTypes.IntegerTypes);
 
     /**
      * An instance that supports <code>Byte</code> or <code>byte</code> data elements.
      */
     public static GenericColumn<Byte> BYTE =
-            new GenericColumn<>(PreparedStatement::setByte, ResultSet::getByte, Types.TINYINT, "tinyint", ColumnTypes.IntegerTypes);
+            new GenericColumn<>(PreparedStatement::setByte, ResultSet::getByte, ResultSet::getByte, Types.TINYINT, "tinyint", ColumnTypes.IntegerTypes);
 
     /**
      * An instance that supports <code>Float</code> or <code>float</code> data elements.
      */
     public static GenericColumn<Float> FLOAT =
-            new GenericColumn<>(PreparedStatement::setFloat, ResultSet::getFloat, Types.FLOAT, "float", ColumnTypes.DecimalTypes);
+            new GenericColumn<>(PreparedStatement::setFloat, ResultSet::getFloat, ResultSet::getFloat, Types.FLOAT, "float", ColumnTypes.DecimalTypes);
 
     /**
      * An instance that supports <code>Double</code> or <code>double</code> data elements.
      */
     public static GenericColumn<Double> DOUBLE =
-            new GenericColumn<>(PreparedStatement::setDouble, ResultSet::getDouble, Types.DOUBLE, "double", ColumnTypes.DecimalTypes);
+            new GenericColumn<>(PreparedStatement::setDouble, ResultSet::getDouble, ResultSet::getDouble, Types.DOUBLE, "double", ColumnTypes.DecimalTypes);
 
     private final Integer sqlType;
     private final Set<Integer> supportedTypes;
     private final String sqlTypeName;
     private final PreparedStatementSetter<TYPE> preparedStatementSetter;
     private final ResultSetReader<TYPE> resultReader;
+    private final IndexedReader<TYPE> indexedResultReader;
+
+    // Reads a value by its position, which is much cheaper than by its label.
+    // Only the built in types know how to do this.
+    @FunctionalInterface
+    interface IndexedReader<TYPE> {
+        TYPE read(ResultSet resultSet, int columnIndex) throws SQLException;
+    }
+
+    private GenericColumn(PreparedStatementSetter<TYPE> preparedStatementSetter,
+                          ResultSetReader<TYPE> resultReader,
+                          IndexedReader<TYPE> indexedResultReader,
+                          int sqlType,
+                          String sqlTypeName,
+                          Set<Integer> supportedTypes){
+        this.sqlType = sqlType;
+        this.preparedStatementSetter = preparedStatementSetter;
+        this.resultReader = resultReader;
+        this.indexedResultReader = indexedResultReader;
+        this.sqlTypeName = sqlTypeName;
+        this.supportedTypes = Collections.unmodifiableSet(supportedTypes);
+    }
 
     /**
      * Create a generic column instance to support the <code>TYPE</code>.
@@ -140,6 +162,7 @@ public class GenericColumn<TYPE> {
         this.sqlType = sqlType;
         this.preparedStatementSetter = preparedStatementSetter;
         this.resultReader = resultReader;
+        this.indexedResultReader = null;
         this.sqlTypeName = "UNSET";
         this.supportedTypes = Collections.singleton(sqlType);
     }
@@ -160,6 +183,7 @@ public class GenericColumn<TYPE> {
         this.sqlType = sqlType;
         this.preparedStatementSetter = preparedStatementSetter;
         this.resultReader = resultReader;
+        this.indexedResultReader = null;
         this.sqlTypeName = sqlTypeName;
         this.supportedTypes = Collections.singleton(sqlType);
     }
@@ -183,6 +207,7 @@ public class GenericColumn<TYPE> {
         this.sqlType = sqlType;
         this.preparedStatementSetter = preparedStatementSetter;
         this.resultReader = resultReader;
+        this.indexedResultReader = null;
         this.sqlTypeName = sqlTypeName;
         this.supportedTypes = Collections.unmodifiableSet(supportedTypes);
     }
@@ -199,6 +224,7 @@ public class GenericColumn<TYPE> {
     public GenericColumn<TYPE> withTypeName(String sqlTypeName){
         return new GenericColumn<>(this.preparedStatementSetter,
                 this.resultReader,
+                this.indexedResultReader,
                 this.sqlType,
                 sqlTypeName,
                 this.supportedTypes);
@@ -212,6 +238,32 @@ public class GenericColumn<TYPE> {
         return value;
     }
 
+    /**
+     * Indicates whether this column can read its value by position.
+     *
+     * @return true if {@link #fromResultSet(ResultSet, int)} may be called.
+     */
+    public boolean readsByIndex(){
+        return indexedResultReader != null;
+    }
+
+    /**
+     * Reads the value at a position in the result set. Only valid when
+     * {@link #readsByIndex()} is true.
+     *
+     * @param resultSet The result set being read.
+     * @param columnIndex The position of the column, starting from one.
+     * @return the value read, or null
+     * @throws SQLException allowed for <code>ResultSet</code> operations
+     */
+    public TYPE fromResultSet(ResultSet resultSet, int columnIndex) throws SQLException {
+        TYPE value = indexedResultReader.read(resultSet, columnIndex);
+        if( resultSet.wasNull() ){
+            return null;
+        }
+        return value;
+    }
+
     public void setPreparedStatement(PreparedStatement preparedStatement, int index, TYPE value) throws SQLException {
         if ( value == null ) {
             preparedStatement.setNull(index,sqlType());
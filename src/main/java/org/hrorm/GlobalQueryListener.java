@@ -0,0 +1,11 @@
+package org.hrorm;
+
+/**
+ * Holds the listener set by {@link QueryListener#setGlobal(QueryListener)}.
+ */
+class GlobalQueryListener {
+
+    static volatile QueryListener listener = QueryListener.NONE;
+
+    private GlobalQueryListener(){}
+}
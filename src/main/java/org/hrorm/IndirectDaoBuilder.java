@@ -49,4 +49,23 @@ public class IndirectDaoBuilder<ENTITY, BUILDER>
         columnCollection.setPrimaryKey(key);
         return this;
     }
+
+    /**
+     * Set data about the primary key of the table for this type, along with the strategy
+     * for issuing new keys from the sequence. Using a block allocator, like
+     * <code>KeyAllocator.pooled(50)</code>, avoids a round trip to the database for
+     * most new keys, but the sequence must be declared to match the allocator.
+     *
+     * @param columnName The name of the column in the table that holds the primary key.
+     * @param sequenceName The name of the sequence that will provide new keys.
+     * @param getter The function to call to get the primary key value from an object instance.
+     * @param setter The function to call to set the primary key value to an object instance.
+     * @param keyAllocator The strategy for issuing new keys.
+     * @return This instance.
+     */
+    public IndirectDaoBuilder<ENTITY, BUILDER> withPrimaryKey(String columnName, String sequenceName, Function<ENTITY, Long> getter, BiConsumer<BUILDER, Long> setter, KeyAllocator keyAllocator){
+        PrimaryKey<ENTITY, BUILDER> key = new IndirectPrimaryKey<>(daoBuilderHelper.getPrefix(), columnName, sequenceName, getter, setter, keyAllocator);
+        columnCollection.setPrimaryKey(key);
+        return this;
+    }
 }
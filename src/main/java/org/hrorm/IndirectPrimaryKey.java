@@ -26,6 +26,7 @@ public class IndirectPrimaryKey<ENTITY, BUILDER> implements PrimaryKey<ENTITY, B
     private final String sequenceName;
     private final BiConsumer<BUILDER, Long> setter;
     private final Function<ENTITY, Long> getter;
+    private final KeyAllocator keyAllocator;
     private String sqlTypeName = "integer";
 
     public IndirectPrimaryKey(String prefix,
@@ -33,11 +34,21 @@ public class IndirectPrimaryKey<ENTITY, BUILDER> implements PrimaryKey<ENTITY, B
                               String sequenceName,
                               Function<ENTITY, Long> getter,
                               BiConsumer<BUILDER, Long> setter) {
+        this(prefix, name, sequenceName, getter, setter, KeyAllocator.sequence());
+    }
+
+    public IndirectPrimaryKey(String prefix,
+                              String name,
+                              String sequenceName,
+                              Function<ENTITY, Long> getter,
+                              BiConsumer<BUILDER, Long> setter,
+                              KeyAllocator keyAllocator) {
         this.prefix = prefix;
         this.name = name;
         this.sequenceName = sequenceName;
         this.setter = setter;
         this.getter = getter;
+        this.keyAllocator = keyAllocator;
     }
 
     @Override
@@ -53,6 +64,11 @@ public class IndirectPrimaryKey<ENTITY, BUILDER> implements PrimaryKey<ENTITY, B
         return sequenceName;
     }
 
+    @Override
+    public KeyAllocator getKeyAllocator() {
+        return keyAllocator;
+    }
+
     @Override
     public void optimisticSetKey(ENTITY item, Long id) {
         // nothing to do in this case
@@ -60,6 +76,11 @@ public class IndirectPrimaryKey<ENTITY, BUILDER> implements PrimaryKey<ENTITY, B
         // access to the entity itself
     }
 
+    @Override
+    public void setKey(BUILDER builder, long id) {
+        setter.accept(builder, id);
+    }
+
     @Override
     public String getName() {
         return name;
@@ -81,6 +102,11 @@ public class IndirectPrimaryKey<ENTITY, BUILDER> implements PrimaryKey<ENTITY, B
 
     }
 
+    @Override
+    public Object getValue(ENTITY item) {
+        return getter.apply(item);
+    }
+
     @Override
     public void setValue(ENTITY item, int index, PreparedStatement preparedStatement) throws SQLException {
         Long value = getter.apply(item);
@@ -93,7 +119,7 @@ public class IndirectPrimaryKey<ENTITY, BUILDER> implements PrimaryKey<ENTITY, B
 
     @Override
     public Column<Long, Long, ENTITY, BUILDER> withPrefix(String newPrefix, Prefixer prefixer) {
-        return new IndirectPrimaryKey<>(newPrefix, name, sequenceName, getter, setter);
+        return new IndirectPrimaryKey<>(newPrefix, name, sequenceName, getter, setter, keyAllocator);
     }
 
     @Override
@@ -78,6 +78,10 @@ public class JoinColumn<ENTITY, JOINED, ENTITYBUILDER, JOINEDBUILDER> implements
         return name;
     }
 
+    public BiConsumer<ENTITYBUILDER, JOINED> setter(){
+        return setter;
+    }
+
     public String getJoinedTablePrefix(){
         return joinedTablePrefix;
     }
@@ -106,8 +110,7 @@ public class JoinColumn<ENTITY, JOINED, ENTITYBUILDER, JOINEDBUILDER> implements
             subResults.put(joinColumn.getName(), subResult);
         }
 
-        if (ChildSelectStrategy.ByKeysInClause.equals(joinedDaoDescriptor.childSelectStrategy())
-                || ChildSelectStrategy.SubSelectInClause.equals(joinedDaoDescriptor.childSelectStrategy())){
+        if (joinedDaoDescriptor.childSelectStrategy().isBulk()){
             JOINED joinedItem = joinBuilder.apply(joinedBuilder);
             setter.accept(builder, joinedItem);
             long primaryKey = joinedDaoDescriptor.primaryKey().getKeyPrimitive(joinedItem);
@@ -131,6 +134,15 @@ public class JoinColumn<ENTITY, JOINED, ENTITYBUILDER, JOINEDBUILDER> implements
         );
     }
 
+    @Override
+    public Object getValue(ENTITY item) {
+        JOINED value = getter.apply(item);
+        if( value == null ){
+            return null;
+        }
+        return joinedDaoDescriptor.primaryKey().getKey(value);
+    }
+
     @Override
     public void setValue(ENTITY item, int index, PreparedStatement preparedStatement) throws SQLException {
         JOINED value = getter.apply(item);
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -35,15 +36,10 @@ public class JoinedChildrenSelector<ENTITY, BUILDER> {
         }
 
         /**
-         * Adds a record to the cache, and records of any successive joins.
+         * Adds a record to the cache.
          */
-        void addRecord(Envelope<JOINED> joinedObject, Map<String,PopulateResult> subResults){
+        void addRecord(Envelope<JOINED> joinedObject){
             this.joinedRecords.add(joinedObject);
-            for( String name : subResults.keySet()){
-                PopulateResult populateResult = subResults.get(name);
-                Envelope envelope = populateResult.getJoinedItem();
-                selector.addJoinedInstanceAndItsJoins(name, envelope, populateResult.getSubResults());
-            }
         }
 
         void populateChildren(Connection connection, StatementPopulator statementPopulator){
@@ -69,12 +65,14 @@ public class JoinedChildrenSelector<ENTITY, BUILDER> {
     private final ChildSelectStrategy childSelectStrategy;
     private final boolean selectAll;
     private final SqlBuilder<ENTITY> sqlBuilder;
+    private final ChildSelectExecutor childSelectExecutor;
     private final Map<String, JoinedRecordsHolder<ENTITY, BUILDER, ?>> joinedRecordsMap = new HashMap<>();
 
     public JoinedChildrenSelector(KeylessDaoDescriptor<ENTITY, BUILDER> keylessDaoDescriptor, ChildSelectStrategy childSelectStrategy, boolean selectAll){
         this.childSelectStrategy = childSelectStrategy;
         this.selectAll = selectAll;
-        this.sqlBuilder = new SqlBuilder<>(keylessDaoDescriptor);
+        this.sqlBuilder = keylessDaoDescriptor.sqlBuilder();
+        this.childSelectExecutor = keylessDaoDescriptor.childSelectExecutor();
         for(JoinColumn<ENTITY,?,BUILDER,?> jc : keylessDaoDescriptor.joinColumns()){
             String columnName = jc.getName();
             KeylessDaoDescriptor joinedDaoDescriptor = jc.getJoinedDaoDescriptor();
@@ -86,31 +84,58 @@ public class JoinedChildrenSelector<ENTITY, BUILDER> {
         }
     }
 
-    public <JOINED> void addJoinedInstanceAndItsJoins(String columnName, Envelope<JOINED> joinedObject, Map<String,PopulateResult> subResults){
-        if( ! joinedRecordsMap.containsKey(columnName)){
+    public <JOINED> void addJoinedInstance(String columnName, Envelope<JOINED> joinedObject){
+        JoinedRecordsHolder<ENTITY, BUILDER, JOINED> joinedRecordsHolder =
+                (JoinedRecordsHolder<ENTITY, BUILDER, JOINED>) holder(columnName);
+        joinedRecordsHolder.addRecord(joinedObject);
+    }
+
+    /**
+     * The selector that caches the records joined to those of the named column.
+     */
+    public JoinedChildrenSelector<?, ?> joinedSelector(String columnName){
+        return holder(columnName).selector;
+    }
+
+    private JoinedRecordsHolder<ENTITY, BUILDER, ?> holder(String columnName){
+        JoinedRecordsHolder<ENTITY, BUILDER, ?> joinedRecordsHolder = joinedRecordsMap.get(columnName);
+        if( joinedRecordsHolder == null ){
             throw new HrormException("Problem. This column name is unrecognized: "  + columnName);
         }
-
-        JoinedRecordsHolder<ENTITY, BUILDER, JOINED> joinedRecordsHolder =
-                (JoinedRecordsHolder<ENTITY, BUILDER, JOINED>) joinedRecordsMap.get(columnName);
-        joinedRecordsHolder.addRecord(joinedObject, subResults);
+        return joinedRecordsHolder;
     }
 
     public void populateChildren(Connection connection, StatementPopulator statementPopulator){
+        List<Consumer<Connection>> selections = new ArrayList<>();
+        List<Consumer<Connection>> lazySelections = new ArrayList<>();
         for ( Map.Entry<String, JoinedRecordsHolder<ENTITY, BUILDER, ?>> holderEntry : joinedRecordsMap.entrySet()){
-            JoinedRecordsHolder holder = holderEntry.getValue();
-            holder.populateChildren(connection, statementPopulator);
-            Supplier<List<Long>> parentIdsSupplier = holder::getParentIds;
-            Supplier<String> primaryKeySqlSupplier = () -> sqlBuilder.selectPrimaryKeyOfJoinedColumn(statementPopulator, holderEntry.getKey());
-
-            ChildrenSelector<?,?> childrenSelector = ChildrenSelector.Factory.create(
-                    childSelectStrategy,
-                    selectAll,
-                    parentIdsSupplier,
-                    primaryKeySqlSupplier,
-                    statementPopulator);
-
-            holder.populateChildrenDescriptors(connection, childrenSelector);
+            Consumer<Connection> selection = con -> populateChildren(con, statementPopulator, holderEntry);
+            if( childSelectExecutor.isParallel()
+                    && ChildrenDescriptor.hasLazyChildren(holderEntry.getValue().joinColumn.getJoinedDaoDescriptor()) ){
+                // Lazy children are loaded later, on this connection
+                lazySelections.add(selection);
+            } else {
+                selections.add(selection);
+            }
         }
+        childSelectExecutor.run(connection, selections, lazySelections);
+    }
+
+    private void populateChildren(Connection connection,
+                                  StatementPopulator statementPopulator,
+                                  Map.Entry<String, JoinedRecordsHolder<ENTITY, BUILDER, ?>> holderEntry){
+        JoinedRecordsHolder holder = holderEntry.getValue();
+        holder.populateChildren(connection, statementPopulator);
+        Supplier<List<Long>> parentIdsSupplier = holder::getParentIds;
+        Supplier<String> primaryKeySqlSupplier = () -> sqlBuilder.selectPrimaryKeyOfJoinedColumn(statementPopulator, holderEntry.getKey());
+
+        ChildrenSelector<?,?> childrenSelector = ChildrenSelector.Factory.create(
+                childSelectStrategy,
+                selectAll,
+                parentIdsSupplier,
+                primaryKeySqlSupplier,
+                statementPopulator);
+
+        holder.populateChildrenDescriptors(connection, childrenSelector);
     }
 }
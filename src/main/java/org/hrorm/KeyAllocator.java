@@ -0,0 +1,144 @@
+package org.hrorm;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A strategy for issuing new primary keys from a database sequence.
+ *
+ * <p>
+ *     The default allocator runs one <code>select nextval(...)</code>
+ *     for every new record. The block allocators reserve a range of keys
+ *     with each call to the sequence, and hand keys out of that range
+ *     from memory, so most inserts need no extra round trip for the key.
+ *     The block allocators are thread safe and are shared by every
+ *     <code>Dao</code> built from the same builder.
+ * </p>
+ *
+ * <p>
+ *     The database sequence must agree with the allocator. The
+ *     {@link Schema} class will generate sequences with the appropriate
+ *     <code>INCREMENT BY</code> clause.
+ * </p>
+ */
+public interface KeyAllocator {
+
+    /**
+     * Issue a new primary key.
+     *
+     * @param sequenceSource A source of fresh values from the database sequence.
+     * @return the key
+     */
+    long nextKey(LongSupplier sequenceSource);
+
+    /**
+     * The amount the database sequence should increase with each call.
+     *
+     * @return the sequence increment
+     */
+    default int sequenceIncrement(){
+        return 1;
+    }
+
+    /**
+     * Creates an allocator that uses each value of the sequence as
+     * a primary key. This is the default.
+     *
+     * @return the new allocator
+     */
+    static KeyAllocator sequence(){
+        return new Sequence();
+    }
+
+    /**
+     * Creates an allocator that reserves <code>blockSize</code> keys with each
+     * call to the database sequence, which must be declared with
+     * <code>INCREMENT BY blockSize</code>. Each value read from the sequence
+     * is the first key of its block. Other clients that simply call
+     * <code>nextval</code> on the same sequence will not collide with keys
+     * issued by this allocator.
+     *
+     * @param blockSize The number of keys to reserve at once.
+     * @return the new allocator
+     */
+    static KeyAllocator pooled(int blockSize){
+        return new Pooled(blockSize);
+    }
+
+    /**
+     * Creates an allocator that reserves <code>blockSize</code> keys with each
+     * call to a database sequence that increments by one. The keys issued
+     * for sequence value <code>hi</code> are <code>hi * blockSize</code> up to
+     * <code>(hi + 1) * blockSize - 1</code>. Every client writing to the
+     * table must use the same allocation.
+     *
+     * @param blockSize The number of keys to reserve at once.
+     * @return the new allocator
+     */
+    static KeyAllocator hiLo(int blockSize){
+        return new HiLo(blockSize);
+    }
+
+    class Sequence implements KeyAllocator {
+        @Override
+        public long nextKey(LongSupplier sequenceSource) {
+            return sequenceSource.getAsLong();
+        }
+    }
+
+    abstract class Block implements KeyAllocator {
+
+        protected final int blockSize;
+
+        private long next;
+        private long limit;
+
+        protected Block(int blockSize){
+            if( blockSize < 1 ){
+                throw new HrormException("Block size must be positive, but was " + blockSize);
+            }
+            this.blockSize = blockSize;
+        }
+
+        protected abstract long firstKeyOfBlock(long sequenceValue);
+
+        @Override
+        public synchronized long nextKey(LongSupplier sequenceSource) {
+            while( next >= limit ){
+                next = firstKeyOfBlock(sequenceSource.getAsLong());
+                limit = next + blockSize;
+                // zero is never a valid key for hrorm
+                if( next == 0 ){
+                    next = 1;
+                }
+            }
+            return next++;
+        }
+    }
+
+    class Pooled extends Block {
+        public Pooled(int blockSize){
+            super(blockSize);
+        }
+
+        @Override
+        protected long firstKeyOfBlock(long sequenceValue) {
+            return sequenceValue;
+        }
+
+        @Override
+        public int sequenceIncrement() {
+            return blockSize;
+        }
+    }
+
+    class HiLo extends Block {
+        public HiLo(int blockSize){
+            super(blockSize);
+        }
+
+        @Override
+        protected long firstKeyOfBlock(long sequenceValue) {
+            return sequenceValue * blockSize;
+        }
+    }
+}
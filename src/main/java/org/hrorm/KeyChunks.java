@@ -0,0 +1,90 @@
+package org.hrorm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Splits the keys hrorm selects by into lists small enough to bind to a
+ * single statement, and pads those lists to a few fixed lengths, so that
+ * the SQL of their <code>IN</code> clauses repeats and can be reused by
+ * the database and by a {@link StatementCache}.
+ */
+final class KeyChunks {
+
+    /**
+     * The most keys bound to one <code>IN</code> clause.
+     */
+    static final int MAX_CHUNK_SIZE = 1024;
+
+    private static final int MIN_CHUNK_SIZE = 8;
+
+    private KeyChunks(){}
+
+    /**
+     * Splits the passed keys, ignoring any repeats, into lists of at most
+     * {@link #MAX_CHUNK_SIZE} keys. Keys bound as an array are not split.
+     *
+     * @return the lists of keys, none if there were no keys
+     */
+    static List<List<Long>> split(List<Long> keys, SqlDialect dialect){
+        if( dialect.supportsArrayParameters() ){
+            List<Long> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+            return distinctKeys.isEmpty() ? Collections.emptyList() : Collections.singletonList(distinctKeys);
+        }
+        return split(keys);
+    }
+
+    /**
+     * Splits the passed keys, ignoring any repeats, into lists of at most
+     * {@link #MAX_CHUNK_SIZE} keys, for binding one parameter per key.
+     *
+     * @return the lists of keys, none if there were no keys
+     */
+    static List<List<Long>> split(Collection<Long> keys){
+        List<Long> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        if( distinctKeys.isEmpty() ){
+            return Collections.emptyList();
+        }
+        if( distinctKeys.size() <= MAX_CHUNK_SIZE ){
+            return Collections.singletonList(distinctKeys);
+        }
+        List<List<Long>> chunks = new ArrayList<>();
+        for(int start = 0; start < distinctKeys.size(); start += MAX_CHUNK_SIZE){
+            int end = Math.min(start + MAX_CHUNK_SIZE, distinctKeys.size());
+            chunks.add(distinctKeys.subList(start, end));
+        }
+        return chunks;
+    }
+
+    /**
+     * Pads the passed keys to the next power of two, by repeating the last
+     * key. Repeating a key does not change what an <code>IN</code> clause
+     * matches.
+     *
+     * @return the padded keys
+     */
+    static List<Long> pad(List<Long> keys){
+        int size = paddedSize(keys.size());
+        if( keys.isEmpty() || size == keys.size() ){
+            return keys;
+        }
+        List<Long> padded = new ArrayList<>(size);
+        padded.addAll(keys);
+        Long last = keys.get(keys.size() - 1);
+        while( padded.size() < size ){
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    static int paddedSize(int count){
+        int size = MIN_CHUNK_SIZE;
+        while( size < count ){
+            size <<= 1;
+        }
+        return size;
+    }
+}
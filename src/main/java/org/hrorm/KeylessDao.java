@@ -1,8 +1,11 @@
 package org.hrorm;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * A <code>KeylessDao</code> supports some operations for inserting
@@ -34,6 +37,16 @@ public interface KeylessDao<ENTITY> {
      */
     List<ENTITY> select(Where where);
 
+    /**
+     * Run a select in the data store for entities matching the given where predicates,
+     * executed according to the passed options.
+     *
+     * @param where The predicates to drive selection.
+     * @param options How the query should be executed.
+     * @return The matching results.
+     */
+    List<ENTITY> select(Where where, QueryOptions options);
+
     /**
      * Read all the records in the database of type ENTITY in the
      * required order.
@@ -56,6 +69,17 @@ public interface KeylessDao<ENTITY> {
      */
     List<ENTITY> select(Where where, Order order);
 
+    /**
+     * Run a select in the data store for entities matching the given where predicates
+     * returned in the order specified, executed according to the passed options.
+     *
+     * @param where The predicates to drive selection.
+     * @param order The ordering to use
+     * @param options How the query should be executed.
+     * @return The matching results.
+     */
+    List<ENTITY> select(Where where, Order order, QueryOptions options);
+
     /**
      * Select multiple records from the database by some search criteria.
      *
@@ -105,6 +129,22 @@ public interface KeylessDao<ENTITY> {
      */
     ENTITY selectOne(Where where);
 
+    /**
+     * Select a single record from the database by some search criteria, executed
+     * according to the passed options. No more than two rows are read, whatever
+     * the passed options say.
+     *
+     * <p>
+     * If multiple records are found that match the given criteria, an exception will be thrown.
+     * If no records are found, <code>null</code> will be returned.
+     * </p>
+     *
+     * @param where The predicates to drive selection.
+     * @param options How the query should be executed.
+     * @return The populated instance of type ENTITY matching the given criteria
+     */
+    ENTITY selectOne(Where where, QueryOptions options);
+
     /**
      * Select a single record from the database by some search criteria.
      *
@@ -135,6 +175,139 @@ public interface KeylessDao<ENTITY> {
      */
     <T> T foldingSelect(T identity, BiFunction<T,ENTITY,T> accumulator, Where where);
 
+    /**
+     * Computes a result based on the entities found by a select statement
+     * executed according to the passed options. See
+     * {@link #foldingSelect(Object, BiFunction, Where)}.
+     *
+     * @param identity The identity element of the return type.
+     * @param accumulator A function that computes the desired value based on
+     *                    the values seen thus far and the next instance
+     *                    of the entity found in the result set.
+     * @param where Predicates to drive selection of results
+     * @param options How the query should be executed.
+     * @param <T> The type of the value to be computed.
+     * @return The computed value based on the results found in the underlying store.
+     */
+    <T> T foldingSelect(T identity, BiFunction<T,ENTITY,T> accumulator, Where where, QueryOptions options);
+
+    /**
+     * Selects entities lazily. Rows are read from an open result set, a fetch
+     * size at a time, as the stream is consumed, so that very large selections
+     * can be processed without holding them all in memory.
+     *
+     * <p>
+     *     The stream holds a statement open, and must be closed, preferably
+     *     using a try-with-resources block. If the connection is in auto-commit
+     *     mode it is taken out of that mode while the stream is open, so that
+     *     drivers such as Postgres will read through a cursor. Closing the
+     *     stream restores auto-commit mode.
+     * </p>
+     *
+     * <p>
+     *     Children selected using a bulk child select strategy are selected for
+     *     each fetched chunk of entities, using the keys of that chunk.
+     * </p>
+     *
+     * @param where Predicates to drive selection of results
+     * @return A stream of the matching entities, which must be closed.
+     */
+    Stream<ENTITY> stream(Where where);
+
+    /**
+     * Selects entities lazily, in the passed order. See {@link #stream(Where)}.
+     *
+     * @param where Predicates to drive selection of results
+     * @param order The ordering of the results
+     * @return A stream of the matching entities, which must be closed.
+     */
+    Stream<ENTITY> stream(Where where, Order order);
+
+    /**
+     * Selects one page of the entities that match the passed where clause,
+     * in the passed order.
+     *
+     * <p>
+     *     Rather than skipping rows with an offset, the next page is found by
+     *     seeking past the last entity of the previous one, so each page costs
+     *     about the same to read however deep into the results it is. To make
+     *     the ordering unique, the primary key, if there is one, is added to it
+     *     when it is not already present. NULLs in a nullable column come
+     *     before every value when ascending, and after every value when
+     *     descending; ordering by a column declared not null lets the database
+     *     read the rows in the order of an index on it.
+     * </p>
+     *
+     * <p>
+     *     The syntax used to limit the rows read depends on the
+     *     {@link SqlDialect} of the <code>Dao</code>.
+     * </p>
+     *
+     * @param where Predicates to drive selection of results
+     * @param order The ordering of the results
+     * @param limit The most entities to put on the page
+     * @param after The cursor of the previous page, or null for the first page
+     * @return The page of entities
+     */
+    Page<ENTITY> selectPage(Where where, Order order, int limit, Cursor<ENTITY> after);
+
+    /**
+     * Run a select in the data store for entities matching the given where predicates,
+     * reading only the columns named by the passed projection, and joining only the
+     * tables those columns belong to.
+     *
+     * <p>
+     *     Only the projected fields of the entities, and of the entities joined to
+     *     them, are set, along with their keys. Their children are not selected.
+     *     Since the other fields are left empty, the entities should not be passed
+     *     to <code>update</code>, except to update only projected columns.
+     * </p>
+     *
+     * @param where The predicates to drive selection.
+     * @param projection The columns to read.
+     * @return The matching results, partially populated.
+     */
+    List<ENTITY> select(Where where, Projection projection);
+
+    /**
+     * Run a select in the data store for entities matching the given where predicates,
+     * returned in the order specified, reading only the columns named by the passed
+     * projection. See {@link #select(Where, Projection)}.
+     *
+     * @param where The predicates to drive selection.
+     * @param order The ordering to use
+     * @param projection The columns to read.
+     * @return The matching results, partially populated.
+     */
+    List<ENTITY> select(Where where, Order order, Projection projection);
+
+    /**
+     * Run a select in the data store for the rows matching the given where predicates,
+     * reading only the columns named by the passed projection, and mapping the values
+     * read from each row with the passed function. No entities are built.
+     *
+     * @param where The predicates to drive selection.
+     * @param projection The columns to read.
+     * @param mapper Makes a result from the values of one row.
+     * @param <T> The type of the results.
+     * @return The results made from the matching rows.
+     */
+    <T> List<T> select(Where where, Projection projection, Function<Projection.Row, T> mapper);
+
+    /**
+     * Run a select in the data store for the rows matching the given where predicates,
+     * in the order specified, mapping the values of the projected columns of each row
+     * with the passed function. See {@link #select(Where, Projection, Function)}.
+     *
+     * @param where The predicates to drive selection.
+     * @param order The ordering to use
+     * @param projection The columns to read.
+     * @param mapper Makes a result from the values of one row.
+     * @param <T> The type of the results.
+     * @return The results made from the matching rows.
+     */
+    <T> List<T> select(Where where, Order order, Projection projection, Function<Projection.Row, T> mapper);
+
     /**
      * Insert a record into the database.
      *
@@ -160,6 +333,22 @@ public interface KeylessDao<ENTITY> {
      */
     Long atomicInsert(ENTITY item);
 
+    /**
+     * Insert several records into the database. Rather than issuing
+     * one statement per record, the records are bound to a single
+     * <code>PreparedStatement</code> and sent to the database in JDBC
+     * batches. The size of the batches can be set with
+     * <code>withBatchSize()</code> on the <code>DaoBuilder</code>.
+     *
+     * <p>Children of the inserted records are batched in the same way,
+     * one set of batches per child table.</p>
+     *
+     * @param items The instances to be inserted.
+     * @return The newly issued primary keys of the records, in the order
+     * the items were passed, if there are any. Else, an empty list.
+     */
+    List<Long> insertAll(Collection<ENTITY> items);
+
     /**
      * Computes an aggregated <code>Long</code> value, based on the select criteria specified
      * and the given <code>SqlFunction</code> and column name.
@@ -216,6 +405,19 @@ public interface KeylessDao<ENTITY> {
      */
     <T> List<T> selectDistinct(String columnName, Where where);
 
+    /**
+     * Select unique values from the database for a particular column, executed
+     * according to the passed options. See {@link #selectDistinct(String, Where)}.
+     *
+     * @param columnName The column to search for unique values.
+     * @param where Filters on the search.
+     * @param options How the query should be executed.
+     * @param <T> The type that this column represents, on the <code>ENTITY</code>,
+     *           not necessarily the type of the database column.
+     * @return The distinct values found.
+     */
+    <T> List<T> selectDistinct(String columnName, Where where, QueryOptions options);
+
     /**
      * Select unique value pairs from the database for a particular pair of columns.
      *
@@ -235,6 +437,23 @@ public interface KeylessDao<ENTITY> {
      */
     <T,U> List<Pair<T,U>> selectDistinct(String firstColumnName, String secondColumnName, Where where);
 
+    /**
+     * Select unique value pairs from the database for a particular pair of columns,
+     * executed according to the passed options. See
+     * {@link #selectDistinct(String, String, Where)}.
+     *
+     * @param firstColumnName The column name for to search for <code>T</code> values.
+     * @param secondColumnName The column name for to search for <code>U</code> values.
+     * @param where Filters on the search.
+     * @param options How the query should be executed.
+     * @param <T> The type that the first column represents, on the <code>ENTITY</code>,
+     *           not necessarily the type of the database column.
+     * @param <U> The type that the second column represents, on the <code>ENTITY</code>,
+     *           not necessarily the type of the database column.
+     * @return The distinct values found.
+     */
+    <T,U> List<Pair<T,U>> selectDistinct(String firstColumnName, String secondColumnName, Where where, QueryOptions options);
+
     /**
      * Select unique value triplets from the database for a particular triplet of columns.
      *
@@ -256,4 +475,24 @@ public interface KeylessDao<ENTITY> {
      * @return The distinct values found.
      */
     <T,U,V> List<Triplet<T,U,V>> selectDistinct(String firstColumnName, String secondColumnName, String thirdColumnName, Where where);
+
+    /**
+     * Select unique value triplets from the database for a particular triplet of columns,
+     * executed according to the passed options. See
+     * {@link #selectDistinct(String, String, String, Where)}.
+     *
+     * @param firstColumnName The column name for to search for <code>T</code> values.
+     * @param secondColumnName The column name for to search for <code>U</code> values.
+     * @param thirdColumnName The column name for to search for <code>V</code> values.
+     * @param where Filters on the search.
+     * @param options How the query should be executed.
+     * @param <T> The type that the first column represents, on the <code>ENTITY</code>,
+     *           not necessarily the type of the database column.
+     * @param <U> The type that the second column represents, on the <code>ENTITY</code>,
+     *           not necessarily the type of the database column.
+     * @param <V> The type that the third column represents, on the <code>ENTITY</code>,
+     *           not necessarily the type of the database column.
+     * @return The distinct values found.
+     */
+    <T,U,V> List<Triplet<T,U,V>> selectDistinct(String firstColumnName, String secondColumnName, String thirdColumnName, Where where, QueryOptions options);
 }
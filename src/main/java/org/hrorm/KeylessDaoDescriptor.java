@@ -21,6 +21,18 @@ import java.util.function.Supplier;
  */
 public interface KeylessDaoDescriptor<ENTITY, ENTITYBUILDER> {
 
+    /**
+     * The number of records sent to the database in a single JDBC batch,
+     * unless some other value is specified.
+     */
+    int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * The number of rows fetched from the database at a time when
+     * streaming results, unless some other value is specified.
+     */
+    int DEFAULT_FETCH_SIZE = 1000;
+
     /**
      * The name of the table that is used to persist type <code>ENTITY</code>
      *
@@ -96,4 +108,93 @@ public interface KeylessDaoDescriptor<ENTITY, ENTITYBUILDER> {
         return getColumnCollection().joinedSelectStrategies();
     }
 
+    /**
+     * The maximum number of records that will be sent to the database
+     * in a single JDBC batch when several entities are inserted at once.
+     *
+     * @return the batch size
+     */
+    default int batchSize(){
+        return DEFAULT_BATCH_SIZE;
+    }
+
+    /**
+     * The number of rows fetched from the database at a time when
+     * results are streamed.
+     *
+     * @return the fetch size
+     */
+    default int fetchSize(){
+        return DEFAULT_FETCH_SIZE;
+    }
+
+    /**
+     * The options used to execute selects, unless others are passed
+     * with the select.
+     *
+     * @return the default query options
+     */
+    default QueryOptions queryOptions(){
+        return QueryOptions.DEFAULT;
+    }
+
+    /**
+     * The listener told about the statements run for this entity.
+     *
+     * @return the listener, or null if the global listener should be told
+     */
+    default QueryListener queryListener(){
+        return null;
+    }
+
+    /**
+     * The dialect of SQL to generate where databases differ.
+     *
+     * @return the dialect
+     */
+    default SqlDialect dialect(){
+        return SqlDialect.Standard;
+    }
+
+    /**
+     * Whether a <code>Dao</code> should remember the entities it reads and
+     * writes, so that updates write only what has changed.
+     *
+     * @return true if changes are tracked
+     */
+    default boolean changeTracking(){
+        return false;
+    }
+
+    /**
+     * The cache of the results of selects, shared by every <code>Dao</code>
+     * built from this description.
+     *
+     * @return the cache, or null if results are not cached
+     */
+    default QueryCache queryCache(){
+        return null;
+    }
+
+    /**
+     * How the independent collections of children are selected when
+     * several records are read together.
+     *
+     * @return the executor of child selects
+     */
+    default ChildSelectExecutor childSelectExecutor(){
+        return ChildSelectExecutor.SEQUENTIAL;
+    }
+
+    /**
+     * The generator of the SQL used to persist <code>ENTITY</code> objects.
+     * Implementations may return the same instance each time, so that
+     * the SQL is only generated once.
+     *
+     * @return the SQL builder
+     */
+    default SqlBuilder<ENTITY> sqlBuilder(){
+        return new SqlBuilder<>(this);
+    }
+
 }
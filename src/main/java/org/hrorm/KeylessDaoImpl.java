@@ -1,6 +1,8 @@
 package org.hrorm;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -30,6 +32,17 @@ public class KeylessDaoImpl<ENTITY, BUILDER> extends AbstractDao<ENTITY, BUILDER
         return null;
     }
 
+    @Override
+    public List<Long> insertAll(Collection<ENTITY> items) {
+        String sql = sqlBuilder.insert();
+        List<Envelope<ENTITY>> envelopes = new ArrayList<>();
+        for(ENTITY item : items){
+            envelopes.add(new Envelope<>(item));
+        }
+        sqlRunner.insertBatch(sql, envelopes, batchSize());
+        return Collections.emptyList();
+    }
+
     @Override
     protected List<ChildrenDescriptor<ENTITY, ?, BUILDER, ?>> childrenDescriptors() {
         return Collections.emptyList();
@@ -0,0 +1,218 @@
+package org.hrorm;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The ordering of a page, and the predicate that seeks past the last row of
+ * the page before it: it matches the rows that come after given values of
+ * the columns of the ordering.
+ *
+ * <p>
+ *     When every column is ordered in the same direction, none is nullable,
+ *     and the dialect allows it, a row value comparison like
+ *     <code>(a.X, a.Y) &gt; (?, ?)</code> is generated. Otherwise the comparison
+ *     is spelled out column by column: <code>(a.X &gt; ? or (a.X = ? and a.Y &lt; ?))</code>.
+ * </p>
+ *
+ * <p>
+ *     Since databases disagree about where NULLs sort, a nullable column is
+ *     ordered by whether it is NULL before its value, so that NULLs come
+ *     before every value when ascending and after every value when descending.
+ *     A NULL in the last row is sought past with <code>IS NULL</code> and
+ *     <code>IS NOT NULL</code> rather than by binding it. Ordering that way
+ *     keeps the database from reading the rows in the order of an index on
+ *     the column, so columns that cannot be NULL are best declared not null.
+ * </p>
+ *
+ * <p>
+ *
+ * Most users of hrorm will have no need to directly use this.
+ *
+ * @param <ENTITY> The type of the entities compared.
+ * @param <BUILDER> The builder type of the entities.
+ */
+class KeysetPredicate<ENTITY, BUILDER> {
+
+    private final List<Column<?, ?, ENTITY, BUILDER>> columns;
+    private final Order order;
+    private final boolean rowValue;
+
+    KeysetPredicate(List<Column<?, ?, ENTITY, BUILDER>> columns, Order order, SqlDialect dialect) {
+        this.columns = columns;
+        this.order = order;
+        this.rowValue = columns.size() > 1
+                && dialect.supportsRowValueComparison()
+                && sameDirection(order, columns.size())
+                && noneNullable(columns);
+    }
+
+    private static boolean sameDirection(Order order, int size){
+        for(int idx = 1; idx < size; idx++){
+            if( order.isAscending(idx) != order.isAscending(0) ){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean noneNullable(List<? extends Column<?, ?, ?, ?>> columns){
+        for(Column<?, ?, ?, ?> column : columns){
+            if( column.isNullable() ){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String operator(int index){
+        return order.isAscending(index) ? " > " : " < ";
+    }
+
+    private String direction(int index){
+        return order.isAscending(index) ? " ASC" : " DESC";
+    }
+
+    /**
+     * The values of the ordering columns in the passed entity, which a
+     * cursor remembers.
+     */
+    static <ENTITY, BUILDER> List<Object> values(List<Column<?, ?, ENTITY, BUILDER>> columns, ENTITY last){
+        List<Object> values = new ArrayList<>(columns.size());
+        for(Column<?, ?, ENTITY, BUILDER> column : columns){
+            values.add(column.getValue(last));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * The order by clause of a page.
+     */
+    String renderOrder(){
+        StringBuilder buf = new StringBuilder();
+        buf.append(" ORDER BY ");
+        for(int idx = 0; idx < columns.size(); idx++){
+            if( idx > 0 ){
+                buf.append(", ");
+            }
+            String name = "a." + columns.get(idx).getName();
+            if( columns.get(idx).isNullable() ){
+                buf.append("CASE WHEN ");
+                buf.append(name);
+                buf.append(" IS NULL THEN 0 ELSE 1 END");
+                buf.append(direction(idx));
+                buf.append(", ");
+            }
+            buf.append(name);
+            buf.append(direction(idx));
+        }
+        return buf.toString();
+    }
+
+    /*
+     * Whether any row comes after the passed value of the indexed column:
+     * nothing comes after a NULL in descending order.
+     */
+    private boolean hasRowsAfter(int index, List<Object> values){
+        return values.get(index) != null || order.isAscending(index);
+    }
+
+    /**
+     * The predicate matching the rows after the passed values of the ordering columns.
+     */
+    String render(List<Object> values){
+        StringBuilder buf = new StringBuilder();
+        if( rowValue ){
+            buf.append("(");
+            for(int idx = 0; idx < columns.size(); idx++){
+                if( idx > 0 ){
+                    buf.append(", ");
+                }
+                buf.append("a.");
+                buf.append(columns.get(idx).getName());
+            }
+            buf.append(")");
+            buf.append(operator(0));
+            buf.append("(");
+            for(int idx = 0; idx < columns.size(); idx++){
+                if( idx > 0 ){
+                    buf.append(", ");
+                }
+                buf.append("?");
+            }
+            buf.append(")");
+            return buf.toString();
+        }
+        buf.append("(");
+        boolean first = true;
+        for(int idx = 0; idx < columns.size(); idx++){
+            if( ! hasRowsAfter(idx, values) ){
+                continue;
+            }
+            if( ! first ){
+                buf.append(" or ");
+            }
+            first = false;
+            buf.append("(");
+            for(int equalIdx = 0; equalIdx < idx; equalIdx++){
+                buf.append("a.");
+                buf.append(columns.get(equalIdx).getName());
+                buf.append(values.get(equalIdx) == null ? " IS NULL and " : " = ? and ");
+            }
+            String name = "a." + columns.get(idx).getName();
+            if( values.get(idx) == null ){
+                buf.append(name);
+                buf.append(" IS NOT NULL");
+            } else if ( columns.get(idx).isNullable() && ! order.isAscending(idx) ){
+                buf.append("(");
+                buf.append(name);
+                buf.append(operator(idx));
+                buf.append("? or ");
+                buf.append(name);
+                buf.append(" IS NULL)");
+            } else {
+                buf.append(name);
+                buf.append(operator(idx));
+                buf.append("?");
+            }
+            buf.append(")");
+        }
+        if( first ){
+            // The last row had nothing after it
+            buf.append("1 = 0");
+        }
+        buf.append(")");
+        return buf.toString();
+    }
+
+    /**
+     * Sets the passed values of the ordering columns starting at the passed
+     * parameter index, for the predicate rendered with the same values.
+     *
+     * @return the index of the next parameter after those set
+     */
+    int populate(PreparedStatement preparedStatement, int startIndex, List<Object> values) throws SQLException {
+        int parameterIndex = startIndex;
+        if( rowValue ){
+            for(int idx = 0; idx < columns.size(); idx++){
+                columns.get(idx).bindValue(values.get(idx), parameterIndex++, preparedStatement);
+            }
+            return parameterIndex;
+        }
+        for(int idx = 0; idx < columns.size(); idx++){
+            if( ! hasRowsAfter(idx, values) ){
+                continue;
+            }
+            for(int valueIdx = 0; valueIdx <= idx; valueIdx++){
+                Object value = values.get(valueIdx);
+                if( value != null ){
+                    columns.get(valueIdx).bindValue(value, parameterIndex++, preparedStatement);
+                }
+            }
+        }
+        return parameterIndex;
+    }
+}
@@ -0,0 +1,138 @@
+package org.hrorm;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * The lazily loaded children, of one <code>ChildrenDescriptor</code>, of all
+ * the parents read by one select.
+ *
+ * <p>
+ *     Each parent is given a list that is empty of children until it is first
+ *     used. Using any one of those lists selects the children of every parent
+ *     in the batch at once, by the keys of the parents, so reading the children
+ *     of each parent in turn costs one select rather than one per parent.
+ *     The children are selected on the connection that selected the parents,
+ *     which must still be open when they are loaded.
+ * </p>
+ *
+ * @param <PARENT> The type of the parent entity.
+ * @param <CHILD> The type of the child entity.
+ * @param <PARENTBUILDER> The type that builds the parent entity.
+ * @param <CHILDBUILDER> The type that builds the child entity.
+ */
+class LazyChildren<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> {
+
+    private final Connection connection;
+    private final ChildrenDescriptor<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> childrenDescriptor;
+    private final List<Envelope<PARENTBUILDER>> parents = new ArrayList<>();
+    private final Map<Long, ChildList<CHILD>> listsByParentId = new LinkedHashMap<>();
+    private boolean loaded = false;
+
+    LazyChildren(Connection connection, ChildrenDescriptor<PARENT, CHILD, PARENTBUILDER, CHILDBUILDER> childrenDescriptor){
+        this.connection = connection;
+        this.childrenDescriptor = childrenDescriptor;
+    }
+
+    /**
+     * Sets a lazily loaded list of children onto the passed parent.
+     */
+    void add(Envelope<PARENTBUILDER> parent){
+        ChildList<CHILD> children = listsByParentId.get(parent.getId());
+        if( children == null ){
+            children = new ChildList<>(this);
+            listsByParentId.put(parent.getId(), children);
+            parents.add(parent);
+        }
+        childrenDescriptor.setChildren(parent.getItem(), children);
+    }
+
+    private synchronized void load(){
+        if( loaded ){
+            return;
+        }
+        try {
+            if( connection.isClosed() ){
+                throw new HrormException("Cannot load the children from " + childrenDescriptor.childTableName()
+                        + " because the connection that selected their parents is closed");
+            }
+        } catch (SQLException ex){
+            throw new HrormException(ex);
+        }
+        List<Long> parentIds = new ArrayList<>(listsByParentId.keySet());
+        Map<Long, List<CHILD>> childrenByParentId = childrenDescriptor.selectChildren(
+                connection, parents, new ChildrenSelector.SelectByIds<>(() -> parentIds));
+        for(Map.Entry<Long, ChildList<CHILD>> entry : listsByParentId.entrySet()){
+            List<CHILD> children = childrenByParentId.get(entry.getKey());
+            entry.getValue().children = children == null ? new ArrayList<>() : children;
+        }
+        loaded = true;
+    }
+
+    /**
+     * Whether the passed list is a lazily loaded list of children that
+     * has not yet been used, and so cannot have been changed.
+     */
+    static boolean isUnloaded(List<?> children){
+        if( children instanceof ChildList ){
+            ChildList<?> childList = (ChildList<?>) children;
+            synchronized (childList.lazyChildren){
+                return childList.children == null;
+            }
+        }
+        return false;
+    }
+
+    private static class ChildList<CHILD> extends AbstractList<CHILD> implements RandomAccess {
+
+        private final LazyChildren<?, CHILD, ?, ?> lazyChildren;
+        private List<CHILD> children;
+
+        ChildList(LazyChildren<?, CHILD, ?, ?> lazyChildren){
+            this.lazyChildren = lazyChildren;
+        }
+
+        private List<CHILD> children(){
+            synchronized (lazyChildren){
+                if( children == null ){
+                    lazyChildren.load();
+                }
+                return children;
+            }
+        }
+
+        @Override
+        public CHILD get(int index) {
+            return children().get(index);
+        }
+
+        @Override
+        public int size() {
+            return children().size();
+        }
+
+        @Override
+        public CHILD set(int index, CHILD element) {
+            return children().set(index, element);
+        }
+
+        @Override
+        public void add(int index, CHILD element) {
+            children().add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public CHILD remove(int index) {
+            CHILD removed = children().remove(index);
+            modCount++;
+            return removed;
+        }
+    }
+}
@@ -55,6 +55,11 @@ public class NoBackReferenceParentColumn<ENTITY, PARENT, BUILDER, PARENTBUILDER>
         return PopulateResult.ParentColumn;
     }
 
+    @Override
+    public Object getValue(ENTITY item) {
+        return null;
+    }
+
     @Override
     public void setValue(ENTITY item, int index, PreparedStatement preparedStatement) {
         throw new UnsupportedOperationException();
@@ -1,10 +1,18 @@
 package org.hrorm;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Describes how to order entities during select.
+ *
+ * <p>
+ *     Each column carries its own direction, so orderings that mix
+ *     directions can be made by appending columns with
+ *     {@link #thenAscending(String...)} and {@link #thenDescending(String...)}.
+ * </p>
  */
 public class Order {
 
@@ -12,8 +20,8 @@ public class Order {
         ASC, DESC
     }
 
-    private final Direction direction;
     private final List<String> columnNames;
+    private final List<Direction> directions;
 
     /**
      * To order things in an increasing direction by the passed columns.
@@ -22,7 +30,7 @@ public class Order {
      * @return The new object
      */
     public static Order ascending(String ... columnNames){
-        return new Order(Direction.ASC, columnNames);
+        return new Order(Collections.emptyList(), Collections.emptyList(), Direction.ASC, columnNames);
     }
 
     /**
@@ -32,15 +40,60 @@ public class Order {
      * @return The new object
      */
     public static Order descending(String ... columnNames){
-        return new Order(Direction.DESC, columnNames);
+        return new Order(Collections.emptyList(), Collections.emptyList(), Direction.DESC, columnNames);
     }
 
-    private Order(Direction direction, String ... columnNames){
+    private Order(List<String> priorColumnNames, List<Direction> priorDirections, Direction direction, String ... columnNames){
         if ( columnNames.length == 0 ){
             throw new HrormException("Must provide at least one column to sort by");
         }
-        this.direction = direction;
-        this.columnNames = Arrays.asList(columnNames);
+        List<String> names = new ArrayList<>(priorColumnNames);
+        names.addAll(Arrays.asList(columnNames));
+        List<Direction> dirs = new ArrayList<>(priorDirections);
+        for(int idx=0; idx<columnNames.length; idx++){
+            dirs.add(direction);
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+        this.directions = Collections.unmodifiableList(dirs);
+    }
+
+    /**
+     * A new ordering that orders by the passed columns in an increasing
+     * direction after the columns of this ordering.
+     *
+     * @param columnNames The column names to add to the ordering
+     * @return The new object
+     */
+    public Order thenAscending(String ... columnNames){
+        return new Order(this.columnNames, directions, Direction.ASC, columnNames);
+    }
+
+    /**
+     * A new ordering that orders by the passed columns in a decreasing
+     * direction after the columns of this ordering.
+     *
+     * @param columnNames The column names to add to the ordering
+     * @return The new object
+     */
+    public Order thenDescending(String ... columnNames){
+        return new Order(this.columnNames, directions, Direction.DESC, columnNames);
+    }
+
+    List<String> columnNames(){
+        return columnNames;
+    }
+
+    boolean isAscending(int index){
+        return directions.get(index) == Direction.ASC;
+    }
+
+    boolean contains(String columnName){
+        for(String name : columnNames){
+            if( name.equalsIgnoreCase(columnName) ){
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -49,17 +102,21 @@ public class Order {
      * @return the SQL fragment
      */
     public String render(){
+        return render("");
+    }
+
+    String render(String prefix){
         StringBuilder buf = new StringBuilder();
         buf.append(" ORDER BY ");
         for(int idx=0; idx<columnNames.size() ; idx++ ){
-            String name = columnNames.get(idx);
-            buf.append(name);
+            buf.append(prefix);
+            buf.append(columnNames.get(idx));
+            buf.append(" ");
+            buf.append(directions.get(idx));
             if( idx < columnNames.size() - 1){
                 buf.append(", ");
             }
         }
-        buf.append(" ");
-        buf.append(direction);
         return buf.toString();
     }
 
@@ -0,0 +1,48 @@
+package org.hrorm;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of the entities found by a select, and a {@link Cursor}
+ * for selecting the next.
+ *
+ * @param <ENTITY> The type of the entities on the page.
+ */
+public final class Page<ENTITY> {
+
+    private final List<ENTITY> items;
+    private final Cursor<ENTITY> nextCursor;
+
+    Page(List<ENTITY> items, Cursor<ENTITY> nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * The entities on this page, in order.
+     *
+     * @return the entities
+     */
+    public List<ENTITY> getItems() {
+        return items;
+    }
+
+    /**
+     * Whether more entities follow this page.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * The cursor to pass to select the next page.
+     *
+     * @return the cursor, or null if this is the last page
+     */
+    public Cursor<ENTITY> getNextCursor() {
+        return nextCursor;
+    }
+}
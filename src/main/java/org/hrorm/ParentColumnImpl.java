@@ -28,7 +28,7 @@ public class ParentColumnImpl<CHILD, PARENT, CHILDBUILDER, PARENTBUILDER> implem
     private final Function<CHILD, PARENT> getter;
     private PrimaryKey<PARENT, PARENTBUILDER> parentPrimaryKey;
     private boolean nullable;
-    private String sqlTypeName;
+    private String sqlTypeName = "integer";
 
     public ParentColumnImpl(String name, String prefix, Function<CHILD, PARENT> getter, BiConsumer<CHILDBUILDER, PARENT> setter) {
         this.name = name;
@@ -63,6 +63,15 @@ public class ParentColumnImpl<CHILD, PARENT, CHILDBUILDER, PARENTBUILDER> implem
         return PopulateResult.ParentColumn;
     }
 
+    @Override
+    public Object getValue(CHILD item) {
+        PARENT parent = getter.apply(item);
+        if( parent == null ){
+            return null;
+        }
+        return parentPrimaryKey.getKey(parent);
+    }
+
     @Override
     public void setValue(CHILD item, int index, PreparedStatement preparedStatement) {
         throw new UnsupportedOperationException();
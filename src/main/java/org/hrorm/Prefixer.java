@@ -12,9 +12,24 @@ public class Prefixer {
     private static String[] prefixes = new String[] {"a","b","c","d","e","f","g","h","i","j","k","l","m","n",
                                                 "o","p","q","r","s","t","u","v","w","x","y","z"};
 
+    private final String stem;
     private int index = 0;
 
+    public Prefixer(){
+        this("");
+    }
+
+    /**
+     * A prefixer whose prefixes all start with the passed stem, so
+     * they cannot clash with those of a prefixer with another stem.
+     *
+     * @param stem The start of every prefix.
+     */
+    public Prefixer(String stem){
+        this.stem = stem;
+    }
+
     public String nextPrefix(){
-        return prefixes[index++];
+        return stem + prefixes[index++];
     }
 }
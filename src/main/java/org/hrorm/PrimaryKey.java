@@ -20,6 +20,14 @@ public interface PrimaryKey<ENTITY, BUILDER> extends Column<Long, Long, ENTITY,
      */
     void optimisticSetKey(ENTITY item, Long id);
 
+    /**
+     * Sets the key onto the object that is building an entity.
+     *
+     * @param builder the object being populated
+     * @param id the primary key read from the database
+     */
+    void setKey(BUILDER builder, long id);
+
 
     /**
      * Reads the value of the primary key from the passed entity object.
@@ -36,6 +44,15 @@ public interface PrimaryKey<ENTITY, BUILDER> extends Column<Long, Long, ENTITY,
      */
     String getSequenceName();
 
+    /**
+     * The strategy used to issue new keys from the sequence.
+     *
+     * @return the key allocator
+     */
+    default KeyAllocator getKeyAllocator() {
+        return KeyAllocator.sequence();
+    }
+
     /**
      * Reads the value of the primary key from the passed entity object.
      * Will throw a NullPointerException if the key has not been set.
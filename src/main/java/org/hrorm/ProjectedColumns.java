@@ -0,0 +1,279 @@
+package org.hrorm;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The columns a {@link Projection} names, found among those of an entity
+ * and the entities joined to it, together with the joins needed to read them.
+ *
+ * <p>
+ *     The key of a joined entity is read from the foreign key of the entity
+ *     it is joined to, so a table is only joined when some other column
+ *     of it is read.
+ * </p>
+ *
+ * @param <ENTITY> The type of the entity being read.
+ * @param <BUILDER> The type of object that can construct new <code>ENTITY</code> instances.
+ */
+class ProjectedColumns<ENTITY, BUILDER> {
+
+    /**
+     * The entity, or one of the entities joined to it, as read by the projection.
+     */
+    private static class Node {
+        // null for the entity itself
+        private final JoinColumn<?, ?, ?, ?> joinColumn;
+        private final int ownerIndex;
+        private final KeylessDaoDescriptor<Object, Object> descriptor;
+        private final List<Column<?, ?, Object, Object>> columns = new ArrayList<>();
+        private final List<Integer> positions = new ArrayList<>();
+        private boolean joined;
+        private int keyPosition;
+
+        Node(JoinColumn<?, ?, ?, ?> joinColumn, int ownerIndex, KeylessDaoDescriptor<?, ?> descriptor){
+            this.joinColumn = joinColumn;
+            this.ownerIndex = ownerIndex;
+            this.descriptor = (KeylessDaoDescriptor<Object, Object>) descriptor;
+        }
+    }
+
+    private final String tableName;
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<String> selectExpressions = new ArrayList<>();
+    private final Map<Object, Integer> positionsByColumn = new IdentityHashMap<>();
+    private final Map<String, Integer> rowIndexes = new HashMap<>();
+    private final int[] rowPositions;
+    private final Column<?, ?, ?, ?>[] rowColumns;
+
+    /**
+     * Finds the columns the passed projection names.
+     *
+     * @param descriptor The description of the entity.
+     * @param projection The columns to read.
+     * @param forEntities Whether the columns are read into entities, which
+     *                    are also given their keys, or only into rows.
+     */
+    ProjectedColumns(KeylessDaoDescriptor<ENTITY, BUILDER> descriptor, Projection projection, boolean forEntities){
+        this.tableName = descriptor.tableName();
+        Node entity = new Node(null, -1, descriptor);
+        entity.joined = true;
+        nodes.add(entity);
+        PrimaryKey<ENTITY, BUILDER> primaryKey = descriptor.getColumnCollection().getPrimaryKey();
+        if( forEntities && primaryKey != null ){
+            entity.keyPosition = select(primaryKey, primaryKey.getPrefix());
+        }
+
+        List<String> columnNames = projection.columnNames();
+        this.rowPositions = new int[columnNames.size()];
+        this.rowColumns = new Column[columnNames.size()];
+        for(int idx = 0; idx < columnNames.size(); idx++){
+            String columnName = columnNames.get(idx);
+            rowIndexes.put(columnName, idx);
+            find(columnName, idx, forEntities);
+        }
+    }
+
+    private void find(String columnName, int rowIndex, boolean forEntities){
+        String[] path = columnName.split("\\.");
+        int nodeIndex = 0;
+        for(int idx = 0; idx < path.length; idx++){
+            Node node = nodes.get(nodeIndex);
+            String name = path[idx];
+            boolean last = idx == path.length - 1;
+            JoinColumn<?, ?, ?, ?> joinColumn = findJoinColumn(node, name);
+            if( joinColumn != null ){
+                // The table of the owner must be joined to read its foreign key
+                node.joined = true;
+                nodeIndex = joinedNode(nodeIndex, joinColumn);
+                if( last ){
+                    Node joinedNode = nodes.get(nodeIndex);
+                    rowPositions[rowIndex] = joinedNode.keyPosition;
+                }
+                continue;
+            }
+            if( ! last ){
+                throw new HrormException("No join column named " + name + " found for the projection of " + tableName);
+            }
+            Column<?, ?, Object, Object> column = findColumn(node, name);
+            if( column == null ){
+                throw new HrormException("No column named " + columnName + " found for the projection of " + tableName);
+            }
+            if( column.isPrimaryKey() && node.joinColumn != null ){
+                // The key of a joined entity is its foreign key
+                rowPositions[rowIndex] = node.keyPosition;
+                continue;
+            }
+            node.joined = true;
+            int position = select(column, column.getPrefix());
+            if( forEntities && ! column.isPrimaryKey() && ! node.columns.contains(column) ){
+                node.columns.add(column);
+                node.positions.add(position);
+            }
+            rowPositions[rowIndex] = position;
+            rowColumns[rowIndex] = column;
+        }
+    }
+
+    private int joinedNode(int ownerIndex, JoinColumn<?, ?, ?, ?> joinColumn){
+        for(int idx = 0; idx < nodes.size(); idx++){
+            if( nodes.get(idx).joinColumn == joinColumn ){
+                return idx;
+            }
+        }
+        Node node = new Node(joinColumn, ownerIndex, joinColumn.getJoinedDaoDescriptor());
+        node.keyPosition = select(joinColumn, joinColumn.getJoinedTablePrefix());
+        nodes.add(node);
+        return nodes.size() - 1;
+    }
+
+    private static JoinColumn<?, ?, ?, ?> findJoinColumn(Node node, String name){
+        for(JoinColumn<?, ?, ?, ?> joinColumn : node.descriptor.joinColumns()){
+            if( joinColumn.getName().equalsIgnoreCase(name) ){
+                return joinColumn;
+            }
+        }
+        return null;
+    }
+
+    private static Column<?, ?, Object, Object> findColumn(Node node, String name){
+        for(Column<?, ?, Object, Object> column : node.descriptor.nonJoinColumns()){
+            if( column.getName().equalsIgnoreCase(name) ){
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private int select(Object column, String tablePrefix){
+        Integer position = positionsByColumn.get(column);
+        if( position == null ){
+            String name = ((Column<?, ?, ?, ?>) column).getName();
+            selectExpressions.add(tablePrefix + "." + name + " as " + tablePrefix + name);
+            position = selectExpressions.size();
+            positionsByColumn.put(column, position);
+        }
+        return position;
+    }
+
+    /**
+     * The columns to select, each with its table prefix and an alias.
+     */
+    List<String> selectExpressions(){
+        return Collections.unmodifiableList(selectExpressions);
+    }
+
+    /**
+     * The joins needed to read the columns, each after the join of
+     * the entity it belongs to.
+     */
+    List<JoinColumn<?, ?, ?, ?>> joinColumns(){
+        List<JoinColumn<?, ?, ?, ?>> joinColumns = new ArrayList<>();
+        for(Node node : nodes){
+            if( node.joinColumn != null && node.joined ){
+                joinColumns.add(node.joinColumn);
+            }
+        }
+        return joinColumns;
+    }
+
+    /**
+     * Reads the current row into a new builder, setting only the projected
+     * columns, and the keys, of the entity and the entities joined to it.
+     * The keys read by reference columns of the entity are collected by the
+     * passed <code>JoinedEntities</code>; those of joined entities are
+     * selected immediately.
+     */
+    BUILDER populate(Connection connection,
+                     ResultSet resultSet,
+                     Supplier<BUILDER> supplier,
+                     RowMapper.JoinedEntities joinedEntities) throws SQLException {
+        Object[] builders = new Object[nodes.size()];
+        for(int idx = 0; idx < nodes.size(); idx++){
+            Node node = nodes.get(idx);
+            if( idx > 0 && builders[node.ownerIndex] == null ){
+                continue;
+            }
+            Object builder;
+            if( idx == 0 ){
+                builder = supplier.get();
+                if( node.keyPosition > 0 ){
+                    node.descriptor.getColumnCollection().getPrimaryKey().setKey(builder, resultSet.getLong(node.keyPosition));
+                }
+            } else {
+                long key = resultSet.getLong(node.keyPosition);
+                if( key == 0 ){
+                    // nothing was joined
+                    continue;
+                }
+                builder = node.descriptor.supplier().get();
+                node.descriptor.getColumnCollection().getPrimaryKey().setKey(builder, key);
+            }
+            RowMapper.JoinedEntities references = idx == 0 ? joinedEntities : new RowMapper.JoinedEntities();
+            for(int columnIndex = 0; columnIndex < node.columns.size(); columnIndex++){
+                Column<?, ?, Object, Object> column = node.columns.get(columnIndex);
+                int position = node.positions.get(columnIndex);
+                if( column instanceof ReferenceColumn ){
+                    long key = resultSet.getLong(position);
+                    if( key != 0 ){
+                        references.addReference((ReferenceColumn<?, ?, Object, ?>) column, builder, key);
+                    }
+                } else if ( ! column.isParentColumn() ){
+                    column.populate(builder, resultSet, position);
+                }
+            }
+            if( references != joinedEntities ){
+                references.resolveReferences(connection);
+            }
+            builders[idx] = builder;
+        }
+        // Joined entities are built before the entities they are joined to
+        for(int idx = nodes.size() - 1; idx > 0; idx--){
+            if( builders[idx] == null ){
+                continue;
+            }
+            Node node = nodes.get(idx);
+            Function<Object, Object> buildFunction = node.descriptor.buildFunction();
+            BiConsumer<Object, Object> setter = (BiConsumer<Object, Object>) node.joinColumn.setter();
+            setter.accept(builders[node.ownerIndex], buildFunction.apply(builders[idx]));
+        }
+        return (BUILDER) builders[0];
+    }
+
+    /**
+     * Reads the values of the projected columns from the current row.
+     */
+    Projection.Row row(ResultSet resultSet) throws SQLException {
+        Object[] values = new Object[rowPositions.length];
+        for(int idx = 0; idx < rowPositions.length; idx++){
+            values[idx] = readValue(resultSet, rowColumns[idx], rowPositions[idx]);
+        }
+        return new Projection.Row(rowIndexes, values);
+    }
+
+    private static <DBTYPE> Object readValue(ResultSet resultSet, Column<DBTYPE, ?, ?, ?> column, int position) throws SQLException {
+        if( column == null || column.isPrimaryKey() || column.isParentColumn() || column instanceof ReferenceColumn ){
+            // A key
+            long key = resultSet.getLong(position);
+            return resultSet.wasNull() ? null : key;
+        }
+        GenericColumn<DBTYPE> genericColumn = column.asGenericColumn();
+        DBTYPE dbValue;
+        if( genericColumn.readsByIndex() ){
+            dbValue = genericColumn.fromResultSet(resultSet, position);
+        } else {
+            dbValue = genericColumn.fromResultSet(resultSet, column.getPrefix() + column.getName());
+        }
+        return dbValue == null ? null : column.toClassType(dbValue);
+    }
+}
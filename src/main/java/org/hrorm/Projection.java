@@ -0,0 +1,136 @@
+package org.hrorm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Names the columns read by a select that reads only some of the columns
+ * of an entity. Tables with wide columns, most of which are not needed to
+ * list their entities, can then be read cheaply.
+ *
+ * <p>
+ *     Columns are named as they were described to the <code>Dao</code>.
+ *     A column of a joined entity is named by the path of join columns that
+ *     leads to it, separated by dots. For example, where a city is joined to
+ *     its state by the column <code>state_id</code>, the projection
+ *     <code>Projection.of("name", "state_id.name")</code> reads the name of
+ *     each city and the name of its state, and joins no other tables.
+ *     Naming a join column reads the key of the joined entity.
+ * </p>
+ *
+ * <p>
+ *     Projections are immutable.
+ * </p>
+ */
+public final class Projection {
+
+    private final List<String> columnNames;
+
+    private Projection(List<String> columnNames){
+        this.columnNames = columnNames;
+    }
+
+    /**
+     * A projection of the named columns.
+     *
+     * @param columnNames The names of the columns to read.
+     * @return The new projection.
+     */
+    public static Projection of(String ... columnNames){
+        if( columnNames == null || columnNames.length == 0 ){
+            throw new HrormException("A projection needs at least one column");
+        }
+        List<String> names = new ArrayList<>();
+        for(String columnName : columnNames){
+            if( columnName == null ){
+                throw new HrormException("A projection cannot name a null column");
+            }
+            String key = key(columnName);
+            if( ! names.contains(key) ){
+                names.add(key);
+            }
+        }
+        return new Projection(Collections.unmodifiableList(names));
+    }
+
+    /**
+     * The names of the columns to read, in the order they were given.
+     *
+     * @return The column names.
+     */
+    public List<String> columnNames(){
+        return columnNames;
+    }
+
+    static String key(String columnName){
+        return columnName.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Projection that = (Projection) o;
+        return columnNames.equals(that.columnNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return columnNames.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Projection" + columnNames;
+    }
+
+    /**
+     * The values of the projected columns read from one row, as they
+     * would be set on the entity.
+     */
+    public static final class Row {
+
+        private final Map<String, Integer> indexes;
+        private final Object[] values;
+
+        Row(Map<String, Integer> indexes, Object[] values){
+            this.indexes = indexes;
+            this.values = values;
+        }
+
+        /**
+         * The value of the named column.
+         *
+         * @param columnName The name of the column, as given to the projection.
+         * @param <T> The type of the value.
+         * @return The value, which may be null.
+         */
+        public <T> T get(String columnName){
+            Integer index = indexes.get(key(columnName));
+            if( index == null ){
+                throw new HrormException("No column named " + columnName + " was projected");
+            }
+            return (T) values[index];
+        }
+
+        /**
+         * The value of the column at the passed position in the projection.
+         *
+         * @param index The position of the column, starting from zero.
+         * @param <T> The type of the value.
+         * @return The value, which may be null.
+         */
+        public <T> T get(int index){
+            return (T) values[index];
+        }
+
+        @Override
+        public String toString() {
+            return "Row" + Arrays.toString(values);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.hrorm;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of the results of selects, keyed by their SQL and the values bound
+ * to it, shared by every <code>Dao</code> built from the same
+ * <code>DaoBuilder</code>, whatever their connections. It serves
+ * <code>select(Where)</code>, <code>selectDistinct</code> and the
+ * <code>run...Function</code> methods.
+ *
+ * <p>
+ *     Each result remembers how many times hrorm had written each table it
+ *     depends on, which are the table of the entity and those of its joined
+ *     entities, children and references, when it was read. Any write made
+ *     through hrorm to any of those tables, by any <code>Dao</code>, makes the
+ *     result stale. Writes made by other means are only seen once the time to
+ *     live of the result has passed, so the time to live should be no longer
+ *     than the results may safely be out of date.
+ * </p>
+ *
+ * <p>
+ *     While a table has been written by hrorm on a connection whose transaction
+ *     has not ended, no result read from it is cached, on that connection or any
+ *     other, since it might hold rows that will be rolled back, or miss rows about
+ *     to be committed. hrorm sees a transaction end when it is committed or rolled
+ *     back by a {@link Transactor}, including with {@link Transactor#commit(Connection)}
+ *     and {@link Transactor#rollback(Connection)}, when the connection is closed,
+ *     or when it next writes in auto-commit mode. A transaction ended directly on
+ *     the connection cannot be seen, so its tables are cached again once it has
+ *     written nothing for thirty seconds. Writes made in auto-commit mode are
+ *     committed at once.
+ * </p>
+ *
+ * <p>
+ *     The cache holds at most its maximum number of results, forgetting the
+ *     ones cached first when it is full. Cached entities are shared by every
+ *     caller, on every connection and thread, so they must be treated as
+ *     immutable: to change one, update a copy of it.
+ * </p>
+ *
+ * <p>
+ *     This class is thread safe.
+ * </p>
+ */
+public final class QueryCache {
+
+    /**
+     * The SQL of a select, and the values bound to it.
+     */
+    static final class Key {
+        private final String sql;
+        private final int maxRows;
+        private final List<Object> values;
+
+        private Key(String sql, int maxRows, List<Object> values){
+            this.sql = sql;
+            this.maxRows = maxRows;
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return maxRows == key.maxRows && sql.equals(key.sql) && values.equals(key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, maxRows, values);
+        }
+    }
+
+    /**
+     * A cached result, with the versions of the tables it was read from.
+     */
+    static final class Entry {
+        private final Key key;
+        private final Object value;
+        private final String[] tables;
+        private final long[] versions;
+        private final long expiresAt;
+
+        private Entry(Key key, Object value, String[] tables, long[] versions, long expiresAt){
+            this.key = key;
+            this.value = value;
+            this.tables = tables;
+            this.versions = versions;
+            this.expiresAt = expiresAt;
+        }
+
+        <T> T getValue() {
+            return (T) value;
+        }
+
+        private boolean isCurrent(){
+            for(int idx = 0; idx < tables.length; idx++){
+                if( TableVersions.current(tables[idx]) != versions[idx] ){
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    // The entries in the order they were cached, including some since replaced
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger orderSize = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize The most results to hold at once.
+     * @param timeToLive How long each result is held, or null to hold them
+     *                   until they are evicted or made stale.
+     */
+    QueryCache(int maximumSize, Duration timeToLive){
+        if( maximumSize < 1 ){
+            throw new HrormException("The maximum size of a cache must be positive, not " + maximumSize);
+        }
+        if( timeToLive != null && ( timeToLive.isNegative() || timeToLive.isZero() ) ){
+            throw new HrormException("The time to live of a cache must be positive, not " + timeToLive);
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive == null ? 0 : timeToLive.toNanos();
+    }
+
+    /**
+     * The tables whose writes make the results of selects of the described
+     * entity stale: its own, and those of its joined entities, children and
+     * references, and theirs in turn.
+     */
+    static Set<String> dependencies(KeylessDaoDescriptor<?, ?> descriptor){
+        Set<String> tables = new LinkedHashSet<>();
+        addDependencies(descriptor, tables);
+        return tables;
+    }
+
+    private static void addDependencies(KeylessDaoDescriptor<?, ?> descriptor, Set<String> tables){
+        if( ! tables.add(descriptor.tableName().toLowerCase(Locale.ROOT)) ){
+            return;
+        }
+        for(JoinColumn<?, ?, ?, ?> joinColumn : descriptor.joinColumns()){
+            addDependencies(joinColumn.getJoinedDaoDescriptor(), tables);
+        }
+        for(Column<?, ?, ?, ?> column : descriptor.nonJoinColumns()){
+            if( column instanceof ReferenceColumn ){
+                addDependencies(((ReferenceColumn<?, ?, ?, ?>) column).referencedDaoDescriptor(), tables);
+            }
+        }
+        if( descriptor instanceof DaoDescriptor ){
+            for(ChildrenDescriptor<?, ?, ?, ?> childrenDescriptor : ((DaoDescriptor<?, ?>) descriptor).childrenDescriptors()){
+                addDependencies(childrenDescriptor.childDaoDescriptor(), tables);
+            }
+        }
+    }
+
+    /**
+     * The key of a select, or null if the values it binds cannot be compared,
+     * so that its result cannot be cached.
+     */
+    static Key key(String sql, StatementPopulator populator, QueryOptions options){
+        List<Object> values = new ArrayList<>();
+        boolean[] comparable = { true };
+        PreparedStatement recorder = (PreparedStatement) Proxy.newProxyInstance(
+                QueryCache.class.getClassLoader(),
+                new Class<?>[]{ PreparedStatement.class },
+                (proxy, method, args) -> {
+                    if( method.getName().startsWith("set") && args != null && args.length > 1 ){
+                        for(int idx = 1; idx < args.length; idx++){
+                            Object value = args[idx];
+                            if( value instanceof byte[] ){
+                                value = ByteBuffer.wrap(((byte[]) value).clone());
+                            } else if ( value instanceof InputStream || value instanceof Reader
+                                    || value instanceof java.sql.Blob || value instanceof java.sql.Clob
+                                    || value instanceof java.sql.Array ){
+                                comparable[0] = false;
+                            }
+                            values.add(value);
+                        }
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        try {
+            populator.populate(recorder);
+        } catch (SQLException | UnsupportedOperationException ex){
+            return null;
+        }
+        return comparable[0] ? new Key(sql, options.getMaxRows(), values) : null;
+    }
+
+    /**
+     * The cached result of the select, or null if it must be run.
+     */
+    Entry get(Key key){
+        Entry entry = entries.get(key);
+        if( entry != null
+                && ( ( timeToLiveNanos > 0 && System.nanoTime() - entry.expiresAt > 0 ) || ! entry.isCurrent() ) ){
+            entries.remove(key, entry);
+            entry = null;
+        }
+        if( entry == null ){
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * The versions of the tables, taken before a select is run, so that
+     * a write made while it runs makes its result stale, or null if any of
+     * them has been written in a transaction that has not yet ended, so that
+     * the result must not be cached.
+     */
+    static long[] versions(String[] tables){
+        if( TableVersions.isPending(tables) ){
+            return null;
+        }
+        long[] versions = new long[tables.length];
+        for(int idx = 0; idx < tables.length; idx++){
+            versions[idx] = TableVersions.current(tables[idx]);
+        }
+        return versions;
+    }
+
+    /**
+     * Caches the result of a select, read when the tables had the passed versions,
+     * unless they were pending.
+     */
+    void put(Key key, Object value, String[] tables, long[] versions){
+        if( versions == null ){
+            return;
+        }
+        Entry entry = new Entry(key, value, tables, versions, System.nanoTime() + timeToLiveNanos);
+        entries.put(key, entry);
+        order.add(entry);
+        if( orderSize.incrementAndGet() > maximumSize ){
+            evict();
+        }
+    }
+
+    private void evict(){
+        while( orderSize.get() > maximumSize ){
+            Entry oldest = order.poll();
+            if( oldest == null ){
+                return;
+            }
+            orderSize.decrementAndGet();
+            if( entries.remove(oldest.key, oldest) ){
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Forgets every cached result.
+     */
+    public void clear(){
+        entries.clear();
+    }
+
+    /**
+     * The number of results cached, some of which may be stale.
+     *
+     * @return The size of the cache.
+     */
+    public int size(){
+        return entries.size();
+    }
+
+    /**
+     * The number of selects served by the cache, and not, so far.
+     *
+     * @return The statistics of the cache.
+     */
+    public CacheStatistics statistics(){
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum());
+    }
+}
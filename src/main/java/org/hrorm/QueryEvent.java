@@ -0,0 +1,82 @@
+package org.hrorm;
+
+/**
+ * The details of one SQL statement run by hrorm, passed to
+ * a {@link QueryListener}.
+ */
+public class QueryEvent {
+
+    private final String sql;
+    private final String tableName;
+    private final int bindCount;
+    private final long rowCount;
+    private final long elapsedNanos;
+
+    public QueryEvent(String sql, String tableName, int bindCount, long rowCount, long elapsedNanos) {
+        this.sql = sql;
+        this.tableName = tableName;
+        this.bindCount = bindCount;
+        this.rowCount = rowCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * The SQL that was run.
+     *
+     * @return the SQL
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * The table of the <code>Dao</code> that ran the statement.
+     *
+     * @return the table name, or null if the statement was not run for a <code>Dao</code>
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * The number of values bound to the statement. For a batch, this is
+     * the number bound for each of its records.
+     *
+     * @return the number of values bound
+     */
+    public int getBindCount() {
+        return bindCount;
+    }
+
+    /**
+     * The number of rows the statement read, or for inserts, updates and
+     * deletes, the number of rows it affected.
+     *
+     * @return the number of rows
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * The time taken to run the statement and read the rows it selected.
+     * When children are selected while the rows are read, the time taken
+     * for those selects is included.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryEvent{" +
+                "sql='" + sql + '\'' +
+                ", tableName='" + tableName + '\'' +
+                ", bindCount=" + bindCount +
+                ", rowCount=" + rowCount +
+                ", elapsedNanos=" + elapsedNanos +
+                '}';
+    }
+}
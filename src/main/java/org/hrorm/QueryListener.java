@@ -0,0 +1,82 @@
+package org.hrorm;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Receives an event for each SQL statement hrorm runs.
+ *
+ * <p>
+ *     A listener can be set for each <code>Dao</code> using
+ *     {@link AbstractKeylessDaoBuilder#withQueryListener(QueryListener)}.
+ *     Statements run for a <code>Dao</code> without its own listener are
+ *     reported to the global listener, set using {@link #setGlobal(QueryListener)}.
+ *     Statements that select children or joined entities are reported to the
+ *     listener of the builder for the child or joined entity.
+ * </p>
+ *
+ * <p>
+ *     By default, there is no listener, and statements are run without
+ *     timing them or creating events. The SQL that used to be logged for
+ *     every statement can be logged again using {@link #logging()}.
+ * </p>
+ *
+ * <p>
+ *     Listeners are called on the thread that ran the statement, and should
+ *     return quickly.
+ * </p>
+ */
+@FunctionalInterface
+public interface QueryListener {
+
+    /**
+     * A listener that ignores every event. Events are not even created
+     * for statements reported to this listener.
+     */
+    QueryListener NONE = event -> {};
+
+    /**
+     * Called after a statement has been run, and any rows it selected have been read.
+     *
+     * @param event The details of the statement.
+     */
+    void queryExecuted(QueryEvent event);
+
+    /**
+     * Creates a listener that logs the SQL of every statement to the
+     * <code>org.hrorm</code> logger, at the <code>INFO</code> level.
+     *
+     * @return the new listener
+     */
+    static QueryListener logging(){
+        Logger logger = Logger.getLogger("org.hrorm");
+        return event -> {
+            if( logger.isLoggable(Level.INFO) ){
+                logger.info(event.getSql());
+            }
+        };
+    }
+
+    /**
+     * Sets the listener for statements run by a <code>Dao</code> that was not
+     * given its own listener.
+     *
+     * @param listener The listener, or {@link #NONE} to stop listening.
+     */
+    static void setGlobal(QueryListener listener){
+        if( listener == null ){
+            throw new HrormException("Query listener cannot be null");
+        }
+        GlobalQueryListener.listener = listener;
+    }
+
+    /**
+     * The listener for statements run by a <code>Dao</code> that was not
+     * given its own listener.
+     *
+     * @return the global listener
+     */
+    static QueryListener global(){
+        return GlobalQueryListener.listener;
+    }
+}
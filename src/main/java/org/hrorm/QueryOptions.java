@@ -0,0 +1,149 @@
+package org.hrorm;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Hints about how a select should be executed: how many rows the driver
+ * should fetch at a time, the most rows to read, how long the query may
+ * run, and whether the cursor should be forward-only and read-only.
+ *
+ * <p>
+ *     Options are immutable. Each <code>with</code> method returns a new
+ *     instance, so instances may be shared freely. A value of zero means
+ *     the driver default is used.
+ * </p>
+ *
+ * <p>
+ *     Default options can be set for every select of a <code>Dao</code> using
+ *     {@link AbstractKeylessDaoBuilder#withQueryOptions(QueryOptions)}.
+ * </p>
+ */
+public class QueryOptions {
+
+    /**
+     * Options that leave every setting to the driver.
+     */
+    public static final QueryOptions DEFAULT = new QueryOptions(0, 0, 0, false);
+
+    private final int fetchSize;
+    private final int maxRows;
+    private final int queryTimeoutSeconds;
+    private final boolean readOnlyCursor;
+
+    private QueryOptions(int fetchSize, int maxRows, int queryTimeoutSeconds, boolean readOnlyCursor){
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.readOnlyCursor = readOnlyCursor;
+    }
+
+    /**
+     * Options with the passed number of rows to fetch from the database at a time.
+     *
+     * @param fetchSize The number of rows, or zero for the driver default.
+     * @return The new options
+     */
+    public QueryOptions withFetchSize(int fetchSize){
+        checkNotNegative("Fetch size", fetchSize);
+        return new QueryOptions(fetchSize, maxRows, queryTimeoutSeconds, readOnlyCursor);
+    }
+
+    /**
+     * Options that read at most the passed number of rows. Any further
+     * rows are silently dropped by the driver.
+     *
+     * @param maxRows The limit on rows read, or zero for no limit.
+     * @return The new options
+     */
+    public QueryOptions withMaxRows(int maxRows){
+        checkNotNegative("Max rows", maxRows);
+        return new QueryOptions(fetchSize, maxRows, queryTimeoutSeconds, readOnlyCursor);
+    }
+
+    /**
+     * Options with the passed limit on how long a query may run.
+     *
+     * @param queryTimeoutSeconds The limit in seconds, or zero for no limit.
+     * @return The new options
+     */
+    public QueryOptions withQueryTimeout(int queryTimeoutSeconds){
+        checkNotNegative("Query timeout", queryTimeoutSeconds);
+        return new QueryOptions(fetchSize, maxRows, queryTimeoutSeconds, readOnlyCursor);
+    }
+
+    /**
+     * Options that explicitly request a forward-only, read-only cursor.
+     *
+     * @return The new options
+     */
+    public QueryOptions withReadOnlyCursor(){
+        return new QueryOptions(fetchSize, maxRows, queryTimeoutSeconds, true);
+    }
+
+    private static void checkNotNegative(String name, int value){
+        if( value < 0 ){
+            throw new HrormException(name + " cannot be negative, but was " + value);
+        }
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+
+    public boolean isReadOnlyCursor() {
+        return readOnlyCursor;
+    }
+
+    /**
+     * Prepares a statement according to these options.
+     *
+     * <p>
+     *     Every setting is applied, even those left to the driver default,
+     *     so that a statement reused from a {@link StatementCache} does not
+     *     keep the settings of an earlier query.
+     * </p>
+     *
+     * @param connection The connection to prepare the statement with.
+     * @param sql The SQL of the statement
+     * @return The prepared statement
+     * @throws SQLException allowed for <code>Connection</code> and <code>PreparedStatement</code> operations
+     */
+    PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement;
+        if( readOnlyCursor ){
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        } else {
+            statement = connection.prepareStatement(sql);
+        }
+        try {
+            statement.setFetchSize(fetchSize);
+            statement.setMaxRows(maxRows);
+            statement.setQueryTimeout(queryTimeoutSeconds);
+        } catch (SQLException ex){
+            statement.close();
+            throw ex;
+        }
+        return statement;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryOptions{" +
+                "fetchSize=" + fetchSize +
+                ", maxRows=" + maxRows +
+                ", queryTimeoutSeconds=" + queryTimeoutSeconds +
+                ", readOnlyCursor=" + readOnlyCursor +
+                '}';
+    }
+}
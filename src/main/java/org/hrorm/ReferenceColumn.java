@@ -0,0 +1,180 @@
+package org.hrorm;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Represents a column that holds the foreign key of some other entity,
+ * which, unlike the entity of a {@link JoinColumn}, is not joined into
+ * the select. Only the key is read with the row; the entities referenced
+ * by all the rows of a select are selected afterwards, by their keys.
+ *
+ * <p>
+ *
+ * Most users of hrorm will have no need to directly use this.
+ *
+ * @param <ENTITY> the entity this column belongs to
+ * @param <REFERENCED> the entity being referenced
+ * @param <ENTITYBUILDER> the class that can construct new entity instances
+ * @param <REFERENCEDBUILDER> the class that can construct instances of the referenced entity
+ */
+public class ReferenceColumn<ENTITY, REFERENCED, ENTITYBUILDER, REFERENCEDBUILDER> implements Column<Long, Long, ENTITY, ENTITYBUILDER> {
+
+    private final String name;
+    private final String prefix;
+    private final Function<ENTITY, REFERENCED> getter;
+    private final BiConsumer<ENTITYBUILDER, REFERENCED> setter;
+    private final DaoDescriptor<REFERENCED, REFERENCEDBUILDER> referencedDaoDescriptor;
+    private boolean nullable;
+
+    private String sqlTypeName = "integer";
+
+    public ReferenceColumn(String name,
+                           String prefix,
+                           Function<ENTITY, REFERENCED> getter,
+                           BiConsumer<ENTITYBUILDER, REFERENCED> setter,
+                           DaoDescriptor<REFERENCED, REFERENCEDBUILDER> referencedDaoDescriptor,
+                           boolean nullable){
+        this.name = name;
+        this.prefix = prefix;
+        this.getter = getter;
+        this.setter = setter;
+        this.referencedDaoDescriptor = referencedDaoDescriptor;
+        this.nullable = nullable;
+    }
+
+    public String getTable(){
+        return referencedDaoDescriptor.tableName();
+    }
+
+    DaoDescriptor<REFERENCED, REFERENCEDBUILDER> referencedDaoDescriptor(){
+        return referencedDaoDescriptor;
+    }
+
+    public String getReferencedTablePrimaryKeyName(){
+        return referencedDaoDescriptor.primaryKey().getName();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public PopulateResult populate(ENTITYBUILDER builder, ResultSet resultSet) throws SQLException {
+        // The key is read by the RowMapper, which selects the referenced
+        // entities once all the rows have been read.
+        return PopulateResult.Ignore;
+    }
+
+    /**
+     * Reads the key of the referenced entity from the current row.
+     *
+     * @param resultSet The result set being read.
+     * @param columnIndex The position of this column, or zero to read it by its label.
+     * @return The key, or zero if there is none.
+     * @throws SQLException allowed for <code>ResultSet</code> operations
+     */
+    long readKey(ResultSet resultSet, int columnIndex) throws SQLException {
+        if( columnIndex > 0 ){
+            return resultSet.getLong(columnIndex);
+        }
+        return resultSet.getLong(prefix + name);
+    }
+
+    /**
+     * Selects the entities with the passed keys, and sets each onto the
+     * builders that reference it. Keys that match no entity leave their
+     * builders without one, as an unmatched join would.
+     */
+    void resolve(Connection connection, Map<Long, List<ENTITYBUILDER>> buildersByKey){
+        Dao<REFERENCED> dao = new DaoImpl<>(connection, referencedDaoDescriptor);
+        PrimaryKey<REFERENCED, REFERENCEDBUILDER> primaryKey = referencedDaoDescriptor.primaryKey();
+        for(REFERENCED referenced : dao.select(new ArrayList<>(buildersByKey.keySet()))){
+            List<ENTITYBUILDER> builders = buildersByKey.get(primaryKey.getKey(referenced));
+            if( builders == null ){
+                continue;
+            }
+            for(ENTITYBUILDER builder : builders){
+                setter.accept(builder, referenced);
+            }
+        }
+    }
+
+    @Override
+    public Object getValue(ENTITY item) {
+        REFERENCED value = getter.apply(item);
+        if( value == null ){
+            return null;
+        }
+        return referencedDaoDescriptor.primaryKey().getKey(value);
+    }
+
+    @Override
+    public void setValue(ENTITY item, int index, PreparedStatement preparedStatement) throws SQLException {
+        REFERENCED value = getter.apply(item);
+        if( value == null ){
+            if ( nullable ) {
+                preparedStatement.setNull(index, Types.INTEGER);
+            } else {
+                throw new HrormException("Tried to set a null value for " + prefix + "." + name + " which was set not nullable.");
+            }
+        } else {
+            Long id = referencedDaoDescriptor.primaryKey().getKey(value);
+            preparedStatement.setLong(index, id);
+        }
+    }
+
+    @Override
+    public ReferenceColumn<ENTITY, REFERENCED, ENTITYBUILDER, REFERENCEDBUILDER> withPrefix(String newPrefix, Prefixer prefixer) {
+        ReferenceColumn<ENTITY, REFERENCED, ENTITYBUILDER, REFERENCEDBUILDER> column =
+                new ReferenceColumn<>(name, newPrefix, getter, setter, referencedDaoDescriptor, nullable);
+        column.setSqlTypeName(sqlTypeName);
+        return column;
+    }
+
+    @Override
+    public void notNull() {
+        nullable = false;
+    }
+
+    @Override
+    public Set<Integer> supportedTypes() { return ColumnTypes.IntegerTypes; }
+
+    @Override
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    @Override
+    public String getSqlTypeName() { return sqlTypeName; }
+
+    @Override
+    public void setSqlTypeName(String sqlTypeName) {
+        this.sqlTypeName = sqlTypeName;
+    }
+
+    @Override
+    public Long toClassType(Long dbType) {
+        return dbType;
+    }
+
+    @Override
+    public GenericColumn<Long> asGenericColumn() {
+        return new GenericColumn<>(PreparedStatement::setLong, ResultSet::getLong, Types.INTEGER, sqlTypeName, ColumnTypes.IntegerTypes);
+    }
+}
@@ -27,6 +27,15 @@ public class RelativeDaoDescriptor<ENTITY, PARENT, ENTITYBUILDER> implements Dao
     private final List<ChildrenDescriptor<ENTITY,?, ENTITYBUILDER,?>> childrenDescriptors;
     private final Function<ENTITYBUILDER, ENTITY> buildFunction;
     private final ChildSelectStrategy childSelectStrategy;
+    private final int batchSize;
+    private final int fetchSize;
+    private final QueryOptions queryOptions;
+    private final QueryListener queryListener;
+    private final SqlDialect dialect;
+    private final boolean changeTracking;
+    private final ChildSelectExecutor childSelectExecutor;
+
+    private SqlBuilder<ENTITY> sqlBuilder;
 
     public RelativeDaoDescriptor(DaoDescriptor<ENTITY, ENTITYBUILDER> originalDaoDescriptor, String newPrefix, Prefixer prefixer){
         this.tableName = originalDaoDescriptor.tableName();
@@ -34,6 +43,13 @@ public class RelativeDaoDescriptor<ENTITY, PARENT, ENTITYBUILDER> implements Dao
         this.childrenDescriptors = originalDaoDescriptor.childrenDescriptors();
         this.buildFunction = originalDaoDescriptor.buildFunction();
         this.childSelectStrategy = originalDaoDescriptor.childSelectStrategy();
+        this.batchSize = originalDaoDescriptor.batchSize();
+        this.fetchSize = originalDaoDescriptor.fetchSize();
+        this.queryOptions = originalDaoDescriptor.queryOptions();
+        this.queryListener = originalDaoDescriptor.queryListener();
+        this.dialect = originalDaoDescriptor.dialect();
+        this.changeTracking = originalDaoDescriptor.changeTracking();
+        this.childSelectExecutor = originalDaoDescriptor.childSelectExecutor();
 
         List<Column<?, ?, ENTITY, ENTITYBUILDER>> dataColumns = originalDaoDescriptor.dataColumns().stream().map(c -> c.withPrefix(newPrefix, prefixer)).collect(Collectors.toList());
         List<JoinColumn<ENTITY,?,ENTITYBUILDER,?>> joinColumns = resetColumnPrefixes(prefixer, newPrefix, originalDaoDescriptor.joinColumns());
@@ -90,4 +106,47 @@ public class RelativeDaoDescriptor<ENTITY, PARENT, ENTITYBUILDER> implements Dao
     public ChildSelectStrategy childSelectStrategy() {
         return childSelectStrategy;
     }
+
+    @Override
+    public int batchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int fetchSize() {
+        return fetchSize;
+    }
+
+    @Override
+    public QueryOptions queryOptions() {
+        return queryOptions;
+    }
+
+    @Override
+    public QueryListener queryListener() {
+        return queryListener;
+    }
+
+    @Override
+    public SqlDialect dialect() {
+        return dialect;
+    }
+
+    @Override
+    public boolean changeTracking() {
+        return changeTracking;
+    }
+
+    @Override
+    public ChildSelectExecutor childSelectExecutor() {
+        return childSelectExecutor;
+    }
+
+    @Override
+    public synchronized SqlBuilder<ENTITY> sqlBuilder() {
+        if( sqlBuilder == null ){
+            sqlBuilder = new SqlBuilder<>(this);
+        }
+        return sqlBuilder;
+    }
 }
@@ -0,0 +1,236 @@
+package org.hrorm;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pulls entities out of an open <code>ResultSet</code> as they are requested,
+ * so that a selection can be consumed as a <code>Stream</code> without
+ * holding all of its results in memory.
+ *
+ * <p>
+ *     Rows are read in chunks of the fetch size. When the entity uses one
+ *     of the bulk child select strategies, the children of each chunk are
+ *     selected together, by their parent keys, before any entity of the chunk
+ *     is handed out. Otherwise the children of each entity are selected as
+ *     it is read.
+ * </p>
+ *
+ * <p>
+ *
+ * Most users of hrorm will have no need to directly use this.
+ *
+ * @param <ENTITY> The type of the entity being streamed.
+ * @param <BUILDER> The type of object that can construct new <code>ENTITY</code> instances.
+ */
+public class ResultSetSpliterator<ENTITY, BUILDER> implements Spliterator<ENTITY>, AutoCloseable {
+
+    private final Connection connection;
+    private final String sql;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final boolean restoreAutoCommit;
+
+    private final KeylessDaoDescriptor<ENTITY, BUILDER> descriptor;
+    private final RowMapper<ENTITY, BUILDER> rowMapper;
+    private final int[] columnIndexes;
+    private final Supplier<BUILDER> supplier;
+    private final List<? extends ChildrenDescriptor<ENTITY, ?, BUILDER, ?>> childrenDescriptors;
+    private final boolean bulkChildSelect;
+    private final Function<BUILDER, ENTITY> buildFunction;
+    private final int fetchSize;
+
+    private final Deque<ENTITY> buffer = new ArrayDeque<>();
+    private boolean exhausted;
+    private boolean closed;
+    private long rowCount;
+
+    public ResultSetSpliterator(Connection connection,
+                                String sql,
+                                PreparedStatement statement,
+                                ResultSet resultSet,
+                                boolean restoreAutoCommit,
+                                KeylessDaoDescriptor<ENTITY, BUILDER> descriptor,
+                                RowMapper<ENTITY, BUILDER> rowMapper,
+                                Supplier<BUILDER> supplier,
+                                List<? extends ChildrenDescriptor<ENTITY, ?, BUILDER, ?>> childrenDescriptors,
+                                ChildSelectStrategy childSelectStrategy,
+                                Function<BUILDER, ENTITY> buildFunction,
+                                int fetchSize) throws SQLException {
+        this.connection = connection;
+        this.sql = sql;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.restoreAutoCommit = restoreAutoCommit;
+        this.descriptor = descriptor;
+        this.rowMapper = rowMapper;
+        this.columnIndexes = rowMapper.columnIndexes(resultSet);
+        this.supplier = supplier;
+        this.childrenDescriptors = childrenDescriptors;
+        this.bulkChildSelect = ! ChildSelectStrategy.Standard.equals(childSelectStrategy);
+        this.buildFunction = buildFunction;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ENTITY> action) {
+        if( buffer.isEmpty() && ! exhausted ){
+            try {
+                fill();
+            } catch (SQLException ex){
+                throw new HrormException(ex, sql);
+            }
+        }
+        ENTITY item = buffer.poll();
+        if( item == null ){
+            return false;
+        }
+        action.accept(item);
+        return true;
+    }
+
+    private void fill() throws SQLException {
+        if( closed ){
+            throw new HrormException("Stream was already closed");
+        }
+        if( bulkChildSelect ){
+            fillWithBulkChildren();
+        } else {
+            fillWithStandardChildren();
+        }
+    }
+
+    private void fillWithStandardChildren() throws SQLException {
+        int count = 0;
+        List<Consumer<BUILDER>> childrenPopulators = ChildrenDescriptor.populators(connection, childrenDescriptors);
+        RowMapper.JoinedEntities joinedEntities = new RowMapper.JoinedEntities();
+        List<BUILDER> builders = new ArrayList<>();
+        while( count < fetchSize && resultSet.next() ){
+            BUILDER builder = rowMapper.populate(connection, resultSet, columnIndexes, supplier, joinedEntities);
+            for(Consumer<BUILDER> childrenPopulator : childrenPopulators){
+                childrenPopulator.accept(builder);
+            }
+            builders.add(builder);
+            count++;
+        }
+        joinedEntities.resolveReferences(connection);
+        for(BUILDER builder : builders){
+            buffer.add(buildFunction.apply(builder));
+        }
+        rowCount += count;
+        if( count < fetchSize ){
+            exhausted = true;
+        }
+    }
+
+    private void fillWithBulkChildren() throws SQLException {
+        // A sub-select cannot be limited to one chunk of parents, so
+        // children are always selected by the keys of the chunk.
+        JoinedChildrenSelector<ENTITY, BUILDER> joinedChildrenSelector =
+                new JoinedChildrenSelector<>(descriptor, ChildSelectStrategy.ByKeysInClause, false);
+        List<Envelope<BUILDER>> chunk = new ArrayList<>();
+        RowMapper.JoinedEntities joinedEntities = new RowMapper.JoinedEntities();
+        while( chunk.size() < fetchSize && resultSet.next() ){
+            chunk.add(rowMapper.populate(connection, resultSet, columnIndexes, supplier, false, joinedChildrenSelector, joinedEntities));
+        }
+        rowCount += chunk.size();
+        if( chunk.size() < fetchSize ){
+            exhausted = true;
+        }
+        if( chunk.isEmpty() ){
+            return;
+        }
+
+        joinedChildrenSelector.populateChildren(connection, new StatementPopulator.Empty());
+        joinedEntities.resolveReferences(connection);
+
+        ChildrenSelector childrenSelector = ChildrenSelector.Factory.create(
+                ChildSelectStrategy.ByKeysInClause,
+                false,
+                () -> chunk.stream().map(Envelope::getId).collect(Collectors.toList()),
+                () -> null,
+                new StatementPopulator.Empty());
+        for(ChildrenDescriptor<ENTITY, ?, BUILDER, ?> childrenDescriptor : childrenDescriptors){
+            childrenDescriptor.populateChildren(connection, chunk, childrenSelector);
+        }
+
+        for(Envelope<BUILDER> envelope : chunk){
+            buffer.add(buildFunction.apply(envelope.getItem()));
+        }
+    }
+
+    @Override
+    public Spliterator<ENTITY> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * The number of rows read from the result set so far.
+     *
+     * @return the row count
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the result set and statement, and restores the auto-commit
+     * mode of the connection if it was changed for streaming.
+     */
+    @Override
+    public void close() {
+        if( closed ){
+            return;
+        }
+        closed = true;
+        buffer.clear();
+        close(connection, statement, resultSet, restoreAutoCommit);
+    }
+
+    static void close(Connection connection, PreparedStatement statement, ResultSet resultSet, boolean restoreAutoCommit){
+        try {
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+            } finally {
+                try {
+                    if (statement != null) {
+                        statement.close();
+                    }
+                } finally {
+                    if (restoreAutoCommit) {
+                        connection.setAutoCommit(true);
+                    }
+                }
+            }
+        } catch (SQLException se){
+            throw new HrormException(se);
+        }
+    }
+}
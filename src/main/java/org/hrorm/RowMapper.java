@@ -0,0 +1,499 @@
+package org.hrorm;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reads the rows of a <code>ResultSet</code> into builders for an entity and
+ * any entities joined to it.
+ *
+ * <p>
+ *     The layout of the columns, including those of joined entities, is worked
+ *     out once when the mapper is created. The position of each column is then
+ *     found once for each <code>ResultSet</code> using its metadata, after
+ *     which every value is read by index. If the metadata cannot be read,
+ *     values are read by their labels instead.
+ * </p>
+ *
+ * <p>
+ *
+ * Most users of hrorm will have no need to directly use this.
+ *
+ * @param <ENTITY> The type of the entity being read.
+ * @param <BUILDER> The type of object that can construct new <code>ENTITY</code> instances.
+ */
+public class RowMapper<ENTITY, BUILDER> {
+
+    private final Supplier<BUILDER> supplier;
+    private final Function<BUILDER, ENTITY> buildFunction;
+
+    private final PrimaryKey<ENTITY, BUILDER> primaryKey;
+    private final int primaryKeySlot;
+    private final String primaryKeyLabel;
+    private final int parentColumnSlot;
+    private final String parentColumnLabel;
+    private final List<Column<?, ?, ENTITY, BUILDER>> dataColumns = new ArrayList<>();
+    private final int[] dataColumnSlots;
+    private final List<ReferenceColumn<ENTITY, ?, BUILDER, ?>> referenceColumns = new ArrayList<>();
+    private final int[] referenceColumnSlots;
+    private final List<RowMapper<?, ?>> joinedMappers = new ArrayList<>();
+
+    // Only set for the mappers of joined entities
+    private final JoinColumn<?, ENTITY, ?, BUILDER> joinColumn;
+    private final List<ChildrenDescriptor<ENTITY, ?, BUILDER, ?>> childrenDescriptors;
+    private final boolean bulkChildSelect;
+
+    // The labels of every column in the tree of joins, indexed by slot
+    private final String[] labels;
+
+    public RowMapper(KeylessDaoDescriptor<ENTITY, BUILDER> descriptor){
+        List<String> labelList = new ArrayList<>();
+        this.supplier = descriptor.supplier();
+        this.buildFunction = descriptor.buildFunction();
+        this.joinColumn = null;
+        this.childrenDescriptors = null;
+        this.bulkChildSelect = false;
+
+        PrimaryKey<ENTITY, BUILDER> key = null;
+        int keySlot = -1;
+        Column<?, ?, ENTITY, BUILDER> parentColumn = null;
+        int parentSlot = -1;
+        List<Integer> slots = new ArrayList<>();
+        List<Integer> referenceSlots = new ArrayList<>();
+        for(Column<?, ?, ENTITY, BUILDER> column : descriptor.nonJoinColumns()){
+            int slot = addLabel(labelList, column);
+            if( column.isPrimaryKey() ){
+                key = (PrimaryKey<ENTITY, BUILDER>) column;
+                keySlot = slot;
+            } else if ( column.isParentColumn() ){
+                parentColumn = column;
+                parentSlot = slot;
+            } else if ( column instanceof ReferenceColumn ){
+                referenceColumns.add((ReferenceColumn<ENTITY, ?, BUILDER, ?>) column);
+                referenceSlots.add(slot);
+            } else {
+                dataColumns.add(column);
+                slots.add(slot);
+            }
+        }
+        this.primaryKey = key;
+        this.primaryKeySlot = keySlot;
+        this.primaryKeyLabel = label(key);
+        this.parentColumnSlot = parentSlot;
+        this.parentColumnLabel = label(parentColumn);
+        this.dataColumnSlots = toArray(slots);
+        this.referenceColumnSlots = toArray(referenceSlots);
+
+        for(JoinColumn<ENTITY, ?, BUILDER, ?> column : descriptor.joinColumns()){
+            joinedMappers.add(new RowMapper<>(column, labelList));
+        }
+        this.labels = labelList.toArray(new String[0]);
+    }
+
+    private RowMapper(JoinColumn<?, ENTITY, ?, BUILDER> joinColumn, List<String> labelList){
+        DaoDescriptor<ENTITY, BUILDER> descriptor = joinColumn.getJoinedDaoDescriptor();
+        this.supplier = descriptor.supplier();
+        this.buildFunction = descriptor.buildFunction();
+        this.joinColumn = joinColumn;
+        this.childrenDescriptors = descriptor.childrenDescriptors();
+        this.bulkChildSelect = descriptor.childSelectStrategy().isBulk();
+        this.parentColumnSlot = -1;
+        this.parentColumnLabel = null;
+        this.labels = null;
+
+        PrimaryKey<ENTITY, BUILDER> key = null;
+        int keySlot = -1;
+        List<Integer> slots = new ArrayList<>();
+        List<Integer> referenceSlots = new ArrayList<>();
+        for(Column<?, ?, ENTITY, BUILDER> column : descriptor.nonJoinColumns()){
+            if( column.isPrimaryKey() ){
+                key = (PrimaryKey<ENTITY, BUILDER>) column;
+                keySlot = addLabel(labelList, column);
+            } else if ( column instanceof ReferenceColumn ){
+                referenceColumns.add((ReferenceColumn<ENTITY, ?, BUILDER, ?>) column);
+                referenceSlots.add(addLabel(labelList, column));
+            } else if ( ! column.isParentColumn() ){
+                dataColumns.add(column);
+                slots.add(addLabel(labelList, column));
+            }
+        }
+        this.primaryKey = key;
+        this.primaryKeySlot = keySlot;
+        this.primaryKeyLabel = label(key);
+        this.dataColumnSlots = toArray(slots);
+        this.referenceColumnSlots = toArray(referenceSlots);
+
+        for(JoinColumn<ENTITY, ?, BUILDER, ?> column : descriptor.joinColumns()){
+            joinedMappers.add(new RowMapper<>(column, labelList));
+        }
+    }
+
+    private static int addLabel(List<String> labelList, Column<?, ?, ?, ?> column){
+        labelList.add(label(column));
+        return labelList.size() - 1;
+    }
+
+    private static String label(Column<?, ?, ?, ?> column){
+        if( column == null ){
+            return null;
+        }
+        return column.getPrefix() + column.getName();
+    }
+
+    private static int[] toArray(List<Integer> slots){
+        int[] array = new int[slots.size()];
+        for(int idx = 0; idx < array.length; idx++){
+            array[idx] = slots.get(idx);
+        }
+        return array;
+    }
+
+    /**
+     * Finds the position of every column this mapper reads.
+     *
+     * @param resultSet The result set about to be read.
+     * @return The position of each column, or zero where the position
+     * is unknown and the value must be read by label.
+     * @throws SQLException allowed for <code>ResultSet</code> operations
+     */
+    public int[] columnIndexes(ResultSet resultSet) throws SQLException {
+        int[] indexes = new int[labels.length];
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        if( metaData == null ){
+            return indexes;
+        }
+        int columnCount = metaData.getColumnCount();
+        Map<String, Integer> positions = new HashMap<>();
+        for(int idx = columnCount; idx > 0; idx--){
+            String label = metaData.getColumnLabel(idx);
+            if( label != null ){
+                positions.put(label.toLowerCase(), idx);
+            }
+        }
+        for(int slot = 0; slot < labels.length; slot++){
+            Integer position = positions.get(labels[slot].toLowerCase());
+            if( position != null ){
+                indexes[slot] = position;
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Reads the primary key of the current row.
+     *
+     * @param resultSet The result set, positioned at the row to read.
+     * @param indexes The column positions found by {@link #columnIndexes(ResultSet)}.
+     * @return the key, or zero if it is null
+     * @throws SQLException allowed for <code>ResultSet</code> operations
+     */
+    long primaryKey(ResultSet resultSet, int[] indexes) throws SQLException {
+        return readLong(resultSet, indexes, primaryKeySlot, primaryKeyLabel);
+    }
+
+    /**
+     * Reads the current row into a new builder. Joined entities are read too,
+     * and those that use the standard child select strategy have their children
+     * selected immediately.
+     *
+     * @param connection The connection used to select children of joined entities.
+     * @param resultSet The result set, positioned at the row to read.
+     * @param indexes The column positions found by {@link #columnIndexes(ResultSet)}.
+     * @param supplier Creates the builder to populate.
+     * @return the populated builder
+     * @throws SQLException allowed for <code>ResultSet</code> operations
+     */
+    public BUILDER populate(Connection connection, ResultSet resultSet, int[] indexes, Supplier<BUILDER> supplier) throws SQLException {
+        return populate(connection, resultSet, indexes, supplier, (JoinedEntities) null);
+    }
+
+    /**
+     * Reads the current row into a new builder, as above, except that each
+     * joined entity already read into the passed <code>JoinedEntities</code>
+     * is shared rather than built again.
+     *
+     * @param connection The connection used to select children of joined entities.
+     * @param resultSet The result set, positioned at the row to read.
+     * @param indexes The column positions found by {@link #columnIndexes(ResultSet)}.
+     * @param supplier Creates the builder to populate.
+     * @param joinedEntities The joined entities read by the same select, or null.
+     * @return the populated builder
+     * @throws SQLException allowed for <code>ResultSet</code> operations
+     */
+    public BUILDER populate(Connection connection,
+                            ResultSet resultSet,
+                            int[] indexes,
+                            Supplier<BUILDER> supplier,
+                            JoinedEntities joinedEntities) throws SQLException {
+        BUILDER builder = supplier.get();
+        if( primaryKey != null ){
+            primaryKey.setKey(builder, readLong(resultSet, indexes, primaryKeySlot, primaryKeyLabel));
+        }
+        populateDataAndJoins(connection, builder, resultSet, indexes, null, joinedEntities);
+        readReferences(connection, builder, resultSet, indexes, joinedEntities);
+        return builder;
+    }
+
+    /**
+     * Reads the current row into a new builder, packaged with its key and, if
+     * requested, the key of its parent. Joined entities that use a bulk child
+     * select strategy are handed to the <code>JoinedChildrenSelector</code>
+     * so their children can be selected together later.
+     *
+     * @param connection The connection used to select children of joined entities.
+     * @param resultSet The result set, positioned at the row to read.
+     * @param indexes The column positions found by {@link #columnIndexes(ResultSet)}.
+     * @param supplier Creates the builder to populate.
+     * @param readParentId Whether the parent key should be read.
+     * @param joinedChildrenSelector Collects the joined entities.
+     * @return the populated builder in an envelope
+     * @throws SQLException allowed for <code>ResultSet</code> operations
+     */
+    public Envelope<BUILDER> populate(Connection connection,
+                                      ResultSet resultSet,
+                                      int[] indexes,
+                                      Supplier<BUILDER> supplier,
+                                      boolean readParentId,
+                                      JoinedChildrenSelector<?, ?> joinedChildrenSelector) throws SQLException {
+        return populate(connection, resultSet, indexes, supplier, readParentId, joinedChildrenSelector, null);
+    }
+
+    /**
+     * Reads the current row into a new builder in an envelope, as above, except
+     * that each joined entity already read into the passed <code>JoinedEntities</code>
+     * is shared rather than built again, and is handed to the
+     * <code>JoinedChildrenSelector</code> only once.
+     *
+     * @param connection The connection used to select children of joined entities.
+     * @param resultSet The result set, positioned at the row to read.
+     * @param indexes The column positions found by {@link #columnIndexes(ResultSet)}.
+     * @param supplier Creates the builder to populate.
+     * @param readParentId Whether the parent key should be read.
+     * @param joinedChildrenSelector Collects the joined entities.
+     * @param joinedEntities The joined entities read by the same select, or null.
+     * @return the populated builder in an envelope
+     * @throws SQLException allowed for <code>ResultSet</code> operations
+     */
+    public Envelope<BUILDER> populate(Connection connection,
+                                      ResultSet resultSet,
+                                      int[] indexes,
+                                      Supplier<BUILDER> supplier,
+                                      boolean readParentId,
+                                      JoinedChildrenSelector<?, ?> joinedChildrenSelector,
+                                      JoinedEntities joinedEntities) throws SQLException {
+        BUILDER builder = supplier.get();
+        Long itemId = null;
+        Long parentId = null;
+        if( primaryKey != null ){
+            itemId = readLong(resultSet, indexes, primaryKeySlot, primaryKeyLabel);
+            primaryKey.setKey(builder, itemId);
+        }
+        if( readParentId && parentColumnSlot >= 0 ){
+            parentId = readLong(resultSet, indexes, parentColumnSlot, parentColumnLabel);
+        }
+        populateDataAndJoins(connection, builder, resultSet, indexes, joinedChildrenSelector, joinedEntities);
+        readReferences(connection, builder, resultSet, indexes, joinedEntities);
+        return new Envelope<>(builder, itemId, parentId);
+    }
+
+    private void populateDataAndJoins(Connection connection,
+                                      BUILDER builder,
+                                      ResultSet resultSet,
+                                      int[] indexes,
+                                      JoinedChildrenSelector<?, ?> joinedChildrenSelector,
+                                      JoinedEntities joinedEntities) throws SQLException {
+        for(int idx = 0; idx < dataColumns.size(); idx++){
+            Column<?, ?, ENTITY, BUILDER> column = dataColumns.get(idx);
+            int index = indexes[dataColumnSlots[idx]];
+            if( index > 0 ){
+                column.populate(builder, resultSet, index);
+            } else {
+                column.populate(builder, resultSet);
+            }
+        }
+        for(RowMapper<?, ?> joinedMapper : joinedMappers){
+            joinedMapper.populateJoined(connection, builder, resultSet, indexes, joinedChildrenSelector, joinedEntities);
+        }
+    }
+
+    private void readReferences(Connection connection,
+                                BUILDER builder,
+                                ResultSet resultSet,
+                                int[] indexes,
+                                JoinedEntities joinedEntities) throws SQLException {
+        if( referenceColumns.isEmpty() ){
+            return;
+        }
+        JoinedEntities references = joinedEntities == null ? new JoinedEntities() : joinedEntities;
+        for(int idx = 0; idx < referenceColumns.size(); idx++){
+            ReferenceColumn<ENTITY, ?, BUILDER, ?> column = referenceColumns.get(idx);
+            long key = column.readKey(resultSet, indexes[referenceColumnSlots[idx]]);
+            if( key != 0 ){
+                references.addReference(column, builder, key);
+            }
+        }
+        if( references != joinedEntities ){
+            // Nothing collects the references of the other rows
+            references.resolveReferences(connection);
+        }
+    }
+
+    /**
+     * Whether the builders read by this mapper reference entities that are
+     * not set until {@link JoinedEntities#resolveReferences(Connection)} is called.
+     *
+     * @return true if the entity has reference columns
+     */
+    boolean readsReferences(){
+        return ! referenceColumns.isEmpty();
+    }
+
+    private <OWNERBUILDER> void populateJoined(Connection connection,
+                                               OWNERBUILDER ownerBuilder,
+                                               ResultSet resultSet,
+                                               int[] indexes,
+                                               JoinedChildrenSelector<?, ?> ownerSelector,
+                                               JoinedEntities joinedEntities) throws SQLException {
+        long key = readLong(resultSet, indexes, primaryKeySlot, primaryKeyLabel);
+        if( key == 0 ){
+            // nothing was joined
+            return;
+        }
+        BiConsumer<OWNERBUILDER, ENTITY> setter = (BiConsumer<OWNERBUILDER, ENTITY>) joinColumn.setter();
+        if( joinedEntities != null ){
+            ENTITY known = joinedEntities.get(this, key);
+            if( known != null ){
+                // read already, with its joins and children
+                setter.accept(ownerBuilder, known);
+                return;
+            }
+        }
+        Session session = Session.of(connection);
+        if( session != null ){
+            ENTITY kept = session.get(joinColumn.getTable(), key);
+            if( kept != null ){
+                // read already by an earlier select of the session
+                setter.accept(ownerBuilder, kept);
+                if( joinedEntities != null ){
+                    joinedEntities.put(this, key, kept);
+                }
+                return;
+            }
+        }
+        BUILDER builder = supplier.get();
+        primaryKey.setKey(builder, key);
+
+        JoinedChildrenSelector<?, ?> selector = null;
+        if( bulkChildSelect && ownerSelector != null ){
+            selector = ownerSelector.joinedSelector(joinColumn.getName());
+        }
+        populateDataAndJoins(connection, builder, resultSet, indexes, selector, joinedEntities);
+        // The joined entity is built now, so its references cannot wait for the rest of the rows
+        readReferences(connection, builder, resultSet, indexes, null);
+
+        if( ! bulkChildSelect ){
+            for(ChildrenDescriptor<ENTITY, ?, BUILDER, ?> childrenDescriptor : childrenDescriptors){
+                if( joinedEntities != null ){
+                    // Lazily loaded children of every row are loaded together
+                    joinedEntities.populator(connection, childrenDescriptor).accept(builder);
+                } else {
+                    childrenDescriptor.populateChildren(connection, builder);
+                }
+            }
+        }
+
+        ENTITY item = buildFunction.apply(builder);
+        setter.accept(ownerBuilder, item);
+        if( joinedEntities != null ){
+            joinedEntities.put(this, key, item);
+        }
+        if( session != null ){
+            session.put(joinColumn.getTable(), key, item);
+        }
+
+        if( bulkChildSelect && ownerSelector != null ){
+            ownerSelector.addJoinedInstance(joinColumn.getName(), new Envelope<>(item, key));
+        }
+    }
+
+    /**
+     * The entities joined to the rows read by one select, by their keys, so
+     * that an entity joined to many rows is built, and has its children
+     * selected, only once, and is shared by all those rows. Entities are
+     * shared only when they are reached by the same path of joins.
+     *
+     * <p>
+     *     The keys read by the reference columns of those rows are collected
+     *     too, so that the entities they reference can be selected together,
+     *     one select for each column, once the rows have been read.
+     * </p>
+     *
+     * <p>
+     *     An instance belongs to one select and is not thread safe.
+     * </p>
+     */
+    public static class JoinedEntities {
+
+        private final Map<RowMapper<?, ?>, Map<Long, Object>> entitiesByMapper = new IdentityHashMap<>();
+        private final Map<ReferenceColumn<?, ?, ?, ?>, Map<Long, List<Object>>> referencesByColumn = new LinkedHashMap<>();
+        private final Map<ChildrenDescriptor<?, ?, ?, ?>, Consumer<?>> populatorsByDescriptor = new IdentityHashMap<>();
+
+        <E> E get(RowMapper<E, ?> mapper, long key){
+            Map<Long, Object> entities = entitiesByMapper.get(mapper);
+            return entities == null ? null : (E) entities.get(key);
+        }
+
+        <E> void put(RowMapper<E, ?> mapper, long key, E entity){
+            entitiesByMapper.computeIfAbsent(mapper, m -> new HashMap<>()).put(key, entity);
+        }
+
+        /**
+         * The populator of the children of the entities joined by the rows of
+         * one select, shared by all those rows.
+         */
+        <B> Consumer<B> populator(Connection connection, ChildrenDescriptor<?, ?, B, ?> childrenDescriptor){
+            return (Consumer<B>) populatorsByDescriptor.computeIfAbsent(
+                    childrenDescriptor, d -> childrenDescriptor.populator(connection));
+        }
+
+        <B> void addReference(ReferenceColumn<?, ?, B, ?> column, B builder, long key){
+            referencesByColumn.computeIfAbsent(column, c -> new LinkedHashMap<>())
+                    .computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(builder);
+        }
+
+        /**
+         * Selects the entities referenced by the rows read so far, and
+         * sets them onto the builders of those rows.
+         *
+         * @param connection The connection to select the referenced entities on.
+         */
+        void resolveReferences(Connection connection){
+            for(Map.Entry<ReferenceColumn<?, ?, ?, ?>, Map<Long, List<Object>>> entry : referencesByColumn.entrySet()){
+                ReferenceColumn<?, ?, Object, ?> column = (ReferenceColumn<?, ?, Object, ?>) entry.getKey();
+                column.resolve(connection, entry.getValue());
+            }
+            referencesByColumn.clear();
+        }
+    }
+
+    private static long readLong(ResultSet resultSet, int[] indexes, int slot, String label) throws SQLException {
+        int index = indexes[slot];
+        if( index > 0 ){
+            return resultSet.getLong(index);
+        }
+        return resultSet.getLong(label);
+    }
+}
@@ -64,6 +64,18 @@ public class Schema {
             );
             constraints.add(constraint);
         }
+        for( Column<?,?,?,?> column : descriptor.dataColumns() ) {
+            if( column instanceof ReferenceColumn ){
+                ReferenceColumn<?,?,?,?> referenceColumn = (ReferenceColumn<?,?,?,?>) column;
+                String constraint = foreignKeyConstraint(
+                        descriptor.tableName(),
+                        referenceColumn.getName(),
+                        referenceColumn.getTable(),
+                        referenceColumn.getReferencedTablePrimaryKeyName()
+                );
+                constraints.add(constraint);
+            }
+        }
         return constraints.stream();
     }
 
@@ -189,11 +201,16 @@ public class Schema {
      */
     public List<String> sequences(){
         return descriptors.stream()
-                .map(d -> createSequenceSql(d.primaryKey().getSequenceName()))
+                .map(d -> createSequenceSql(d.primaryKey()))
                 .collect(Collectors.toList());
     }
 
-    private String createSequenceSql(String sequenceName){
+    private String createSequenceSql(PrimaryKey<?,?> primaryKey){
+        String sequenceName = primaryKey.getSequenceName();
+        int increment = primaryKey.getKeyAllocator().sequenceIncrement();
+        if( increment > 1 ){
+            return "create sequence " + sequenceName + " increment by " + increment + ";";
+        }
         return "create sequence " + sequenceName + ";";
     }
 
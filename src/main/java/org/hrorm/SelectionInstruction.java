@@ -64,9 +64,7 @@ public class SelectionInstruction {
     }
 
     public boolean isBulkChildSelectStrategy(){
-        return selectAll ||
-                childSelectStrategy.equals(ChildSelectStrategy.SubSelectInClause) ||
-                childSelectStrategy.equals(ChildSelectStrategy.ByKeysInClause);
+        return selectAll || childSelectStrategy.isBulk();
     }
 
     public boolean isSelectAll() {
@@ -0,0 +1,180 @@
+package org.hrorm;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A unit of work on one <code>Connection</code>, which keeps one instance
+ * of each entity it reads, by table and primary key.
+ *
+ * <p>
+ *     Only the <code>Dao</code>s created by {@link #dao(DaoDescriptor)} share
+ *     the map of entities of a session, along with the selects they make of
+ *     joined entities and children. Other <code>Dao</code>s, even on the same
+ *     connection, are not affected by it. Selecting an entity by its key, with
+ *     <code>selectOne(long)</code> or <code>select(List)</code>, returns the
+ *     instance already read without running any SQL, and only the keys not yet
+ *     read are selected. Other selects still run their SQL, but return the
+ *     instances already read in place of the rows they find, and the same is
+ *     true of joined entities and children. Entities inserted or updated
+ *     through the <code>Dao</code>s of the session are added to the map, and
+ *     those deleted are removed from it.
+ * </p>
+ *
+ * <p>
+ *     An instance in the map is not refreshed when its row is read again, so
+ *     changes made to the database by other means are not seen until
+ *     {@link #clear()} is called. Entities read by a projection, or through a
+ *     stream, are not kept, and neither are those read with a
+ *     <code>FetchPlan</code> that leaves some of their children unselected,
+ *     so that an entity found by its key always has all its children.
+ * </p>
+ *
+ * <p>
+ *     Closing a session forgets its entities, and its <code>Dao</code>s then
+ *     behave as any other. Sessions are not thread safe, but neither are
+ *     connections.
+ * </p>
+ *
+ * <pre>{@code
+ * try (Session session = new Session(connection)) {
+ *     Dao<Person> personDao = session.dao(personDaoBuilder);
+ *     Person person = personDao.selectOne(id);
+ *     // no SQL is run, and the same instance is returned
+ *     Person same = personDao.selectOne(id);
+ * }}</pre>
+ */
+public class Session implements AutoCloseable {
+
+    /**
+     * The connection given to the <code>Dao</code>s of a session, which
+     * carries the session to the selects and writes they make.
+     */
+    interface SessionConnection extends Connection {
+        Session session();
+    }
+
+    private final Connection connection;
+    private final SessionConnection sessionConnection;
+    private final Map<String, Map<Long, Object>> entitiesByTable = new HashMap<>();
+    private boolean open = true;
+
+    /**
+     * Opens a session on the passed connection, which the session does
+     * not close.
+     *
+     * @param connection The connection to read and write entities with.
+     */
+    public Session(Connection connection){
+        if( connection == null ){
+            throw new HrormException("A session needs a connection");
+        }
+        this.connection = connection;
+        this.sessionConnection = (SessionConnection) Proxy.newProxyInstance(
+                Session.class.getClassLoader(),
+                new Class<?>[]{ SessionConnection.class },
+                (proxy, method, args) -> {
+                    if( method.getDeclaringClass() == SessionConnection.class ){
+                        return this;
+                    }
+                    if( method.getDeclaringClass() == Object.class ){
+                        switch (method.getName()) {
+                            case "equals": return proxy == args[0];
+                            case "hashCode": return System.identityHashCode(proxy);
+                            default: return "Session connection on " + connection;
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex){
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    /**
+     * The open session whose <code>Dao</code>s were given the passed
+     * connection, if there is one.
+     */
+    static Session of(Connection connection){
+        if( connection instanceof SessionConnection ){
+            Session session = ((SessionConnection) connection).session();
+            return session.isOpen() ? session : null;
+        }
+        return null;
+    }
+
+    /**
+     * Creates a <code>Dao</code> for the described entity on the
+     * connection of this session, which shares the entities of this session.
+     *
+     * @param daoDescriptor The description of the entity, often a <code>DaoBuilder</code>.
+     * @param <ENTITY> The type of the entity.
+     * @param <BUILDER> The type of object that can build an <code>ENTITY</code> instance.
+     * @return The new <code>Dao</code>.
+     */
+    public <ENTITY, BUILDER> Dao<ENTITY> dao(DaoDescriptor<ENTITY, BUILDER> daoDescriptor){
+        return new DaoImpl<>(sessionConnection, daoDescriptor);
+    }
+
+    boolean isOpen(){
+        return open;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Forgets every entity read or written so far.
+     */
+    public void clear(){
+        entitiesByTable.clear();
+    }
+
+    /**
+     * Closes the session, forgetting its entities. The connection is left open.
+     */
+    @Override
+    public void close() {
+        open = false;
+        clear();
+    }
+
+    <ENTITY> ENTITY get(String table, long id){
+        Map<Long, Object> entities = entitiesByTable.get(key(table));
+        return entities == null ? null : (ENTITY) entities.get(id);
+    }
+
+    void put(String table, long id, Object entity){
+        entitiesByTable.computeIfAbsent(key(table), t -> new HashMap<>()).put(id, entity);
+    }
+
+    /**
+     * The instance already kept for the passed key, or else the passed
+     * entity, which is kept from now on.
+     */
+    <ENTITY> ENTITY canonical(String table, long id, ENTITY entity){
+        Map<Long, Object> entities = entitiesByTable.computeIfAbsent(key(table), t -> new HashMap<>());
+        return (ENTITY) entities.computeIfAbsent(id, i -> entity);
+    }
+
+    void remove(String table, long id){
+        Map<Long, Object> entities = entitiesByTable.get(key(table));
+        if( entities != null ){
+            entities.remove(id);
+        }
+    }
+
+    void removeAll(String table){
+        entitiesByTable.remove(key(table));
+    }
+
+    private static String key(String table){
+        return table.toLowerCase(Locale.ROOT);
+    }
+}
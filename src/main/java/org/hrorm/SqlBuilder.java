@@ -1,6 +1,7 @@
 package org.hrorm;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -23,6 +24,20 @@ public class SqlBuilder<ENTITY> implements Queries {
     private final PrimaryKey<ENTITY,?> primaryKey;
     private final String parentColumnName;
 
+    // The SQL that does not depend on a where clause or an ordering is
+    // generated on first use and then reused. One instance is shared by
+    // every Dao built from the same builder, possibly across threads.
+    // Generating the same string twice in a race is harmless.
+    private volatile List<JoinColumn> flattenedJoinColumns;
+    private volatile String select;
+    private volatile String insert;
+    private volatile String update;
+    private volatile String delete;
+    private volatile String selectChildIds;
+    private volatile String selectByParentSubSelectPrefix;
+    private volatile String selectPrimaryKeyByParentPrefix;
+    private volatile String nextSequence;
+
     public SqlBuilder(DaoDescriptor<ENTITY,?> daoDescriptor){
         this.primaryKey = daoDescriptor.primaryKey();
         this.table = daoDescriptor.tableName();
@@ -53,9 +68,28 @@ public class SqlBuilder<ENTITY> implements Queries {
     }
 
     public String select(){
+        String sql = select;
+        if( sql == null ){
+            sql = buildSelect();
+            select = sql;
+        }
+        return sql;
+    }
+
+    private String buildSelect(){
         StringBuilder buf = new StringBuilder();
         buf.append("select ");
-        buf.append(columnsAsString("a", true, nonJoinColumns));
+        appendSelectColumns(buf, "a");
+        buf.append(" from ");
+        buf.append(table);
+        buf.append(" a");
+        appendJoinInstructions(buf);
+
+        return buf.toString();
+    }
+
+    private void appendSelectColumns(StringBuilder buf, String prefix){
+        buf.append(columnsAsString(prefix, true, nonJoinColumns));
         for(JoinColumn<?, ?, ?, ?> joinColumn : flattenedJoinColumns()) {
             buf.append(", ");
             buf.append(columnsAsString(
@@ -64,14 +98,49 @@ public class SqlBuilder<ENTITY> implements Queries {
                     joinColumn.getNonJoinColumns()
             ));
         }
+    }
+
+    private void appendJoinInstructions(StringBuilder buf){
+        for(JoinColumn joinColumn : flattenedJoinColumns()) {
+            buf.append(joinInstruction(joinColumn));
+        }
+    }
+
+    /**
+     * SQL to select the entity together with its children. Each child table
+     * is left joined on its parent column, so an entity is repeated in a row
+     * for each of its children. The passed descriptors of the children must
+     * have prefixes that are unique within the statement.
+     */
+    public String selectJoinFetch(List<? extends DaoDescriptor<?, ?>> childDaoDescriptors){
+        if( primaryKey == null ){
+            throw new HrormException("Cannot join children to an entity with no primary key");
+        }
+        StringBuilder buf = new StringBuilder();
+        buf.append("select ");
+        appendSelectColumns(buf, "a");
+        for(DaoDescriptor<?, ?> childDaoDescriptor : childDaoDescriptors){
+            buf.append(", ");
+            childDaoDescriptor.sqlBuilder().appendSelectColumns(buf, childDaoDescriptor.primaryKey().getPrefix());
+        }
         buf.append(" from ");
         buf.append(table);
         buf.append(" a");
-        List<JoinColumn> flattenedJoinColumns = flattenedJoinColumns();
-        for(JoinColumn joinColumn : flattenedJoinColumns) {
-            buf.append(joinInstruction(joinColumn));
+        appendJoinInstructions(buf);
+        for(DaoDescriptor<?, ?> childDaoDescriptor : childDaoDescriptors){
+            String prefix = childDaoDescriptor.primaryKey().getPrefix();
+            buf.append(" LEFT JOIN ");
+            buf.append(childDaoDescriptor.tableName());
+            buf.append(" ");
+            buf.append(prefix);
+            buf.append(" ON ");
+            buf.append(prefix);
+            buf.append(".");
+            buf.append(childDaoDescriptor.parentColumnName());
+            buf.append("=a.");
+            buf.append(primaryKey.getName());
+            childDaoDescriptor.sqlBuilder().appendJoinInstructions(buf);
         }
-
         return buf.toString();
     }
 
@@ -94,31 +163,55 @@ public class SqlBuilder<ENTITY> implements Queries {
         return buf.toString();
     }
 
-    public String selectPrimaryKey(Where where){
+    /**
+     * SQL to select only the passed columns, joining only the tables of the
+     * passed join columns, which must each come after the join of the table
+     * they belong to.
+     */
+    String selectProjected(List<String> selectExpressions, List<JoinColumn<?, ?, ?, ?>> projectedJoinColumns, Where where, Order order){
         StringBuilder buf = new StringBuilder();
         buf.append("select ");
-        buf.append(primaryKey.getName());
+        buf.append(String.join(", ", selectExpressions));
         buf.append(" from ");
         buf.append(table);
-        buf.append(where.renderNoPrefix());
+        buf.append(" a");
+        for(JoinColumn<?, ?, ?, ?> joinColumn : projectedJoinColumns){
+            buf.append(joinInstruction(joinColumn));
+        }
+        buf.append(where.render());
+        if( order != null ){
+            buf.append(order.render("a."));
+        }
         return buf.toString();
     }
 
-    public String selectPrimaryKey(String subselect){
+    public String selectPrimaryKey(Where where){
         StringBuilder buf = new StringBuilder();
         buf.append("select ");
         buf.append(primaryKey.getName());
         buf.append(" from ");
         buf.append(table);
-        buf.append(" where ");
-        buf.append(parentColumnName);
-        buf.append(" in (");
-        buf.append(subselect);
-        buf.append(")");
-
+        buf.append(where.renderNoPrefix());
         return buf.toString();
     }
 
+    public String selectPrimaryKey(String subselect){
+        String prefix = selectPrimaryKeyByParentPrefix;
+        if( prefix == null ){
+            StringBuilder buf = new StringBuilder();
+            buf.append("select ");
+            buf.append(primaryKey.getName());
+            buf.append(" from ");
+            buf.append(table);
+            buf.append(" where ");
+            buf.append(parentColumnName);
+            buf.append(" in (");
+            prefix = buf.toString();
+            selectPrimaryKeyByParentPrefix = prefix;
+        }
+        return prefix + subselect + ")";
+    }
+
     private JoinColumn findJoinColumn(String columnName){
         for (JoinColumn joinColumn : joinColumns){
             if (columnName.equals(joinColumn.getName())){
@@ -163,6 +256,19 @@ public class SqlBuilder<ENTITY> implements Queries {
         return select(where) + order.render();
     }
 
+    public String selectPage(Where where, KeysetPredicate<ENTITY, ?> keysetPredicate, List<Object> after, SqlDialect dialect){
+        StringBuilder buf = new StringBuilder();
+        buf.append(select());
+        if( after == null ){
+            buf.append(where.render());
+        } else {
+            buf.append(where.renderAnd(keysetPredicate.render(after)));
+        }
+        buf.append(keysetPredicate.renderOrder());
+        buf.append(dialect.limitClause());
+        return buf.toString();
+    }
+
     public String selectDistinct(Where where, String ... columnNames){
         StringBuilder buf = new StringBuilder();
         buf.append("select distinct ");
@@ -192,9 +298,14 @@ public class SqlBuilder<ENTITY> implements Queries {
     }
 
     private List<JoinColumn> flattenedJoinColumns(){
-        List<JoinColumn> flatJoinColumnList = new ArrayList<>();
-        for(JoinColumn joinColumn : joinColumns){
-            prependColumnsRecursively(flatJoinColumnList, joinColumn);
+        List<JoinColumn> flatJoinColumnList = flattenedJoinColumns;
+        if( flatJoinColumnList == null ){
+            List<JoinColumn> tmp = new ArrayList<>();
+            for(JoinColumn joinColumn : joinColumns){
+                prependColumnsRecursively(tmp, joinColumn);
+            }
+            flatJoinColumnList = Collections.unmodifiableList(tmp);
+            flattenedJoinColumns = flatJoinColumnList;
         }
         return flatJoinColumnList;
     }
@@ -214,6 +325,15 @@ public class SqlBuilder<ENTITY> implements Queries {
     }
 
     public String insert(){
+        String sql = insert;
+        if( sql == null ){
+            sql = buildInsert();
+            insert = sql;
+        }
+        return sql;
+    }
+
+    private String buildInsert(){
         StringBuilder bldr = new StringBuilder();
         bldr.append("insert into ");
         bldr.append(table);
@@ -239,6 +359,15 @@ public class SqlBuilder<ENTITY> implements Queries {
 
 
     public String selectChildIds(){
+        String sql = selectChildIds;
+        if( sql == null ){
+            sql = buildSelectChildIds();
+            selectChildIds = sql;
+        }
+        return sql;
+    }
+
+    private String buildSelectChildIds(){
 
         if( primaryKey == null ){
             throw new HrormException("Cannot find children for an entity with no primary key");
@@ -257,21 +386,62 @@ public class SqlBuilder<ENTITY> implements Queries {
         return buf.toString();
     }
 
-    public String selectByParentSubSelect(String subSelect){
+    /**
+     * SQL to find the primary keys of the children of several parents. The
+     * parent keys are given either as parameters, like <code>?, ?, ?</code>,
+     * or as a sub-select.
+     */
+    public String selectChildIds(String parentIdSql){
+        if( primaryKey == null ){
+            throw new HrormException("Cannot find children for an entity with no primary key");
+        }
+        return "select " + primaryKey.getName() + " from " + table
+                + " where " + parentColumnName + " in (" + parentIdSql + ")";
+    }
 
-        StringBuilder buf = new StringBuilder();
+    /**
+     * SQL to delete several records by primary key, given either as parameters
+     * or as a sub-select.
+     */
+    public String deleteByIds(String idSql){
+        if( primaryKey == null ){
+            throw new HrormException("Cannot perform delete for entity with no primary key");
+        }
+        return "delete from " + table + " where " + primaryKey.getName() + " in (" + idSql + ")";
+    }
 
-        buf.append(select());
-        buf.append(" where a.");
-        buf.append(parentColumnName);
-        buf.append(" in (");
-        buf.append(subSelect);
-        buf.append(")");
+    /**
+     * SQL to delete the children of several parents, whose keys are given
+     * either as parameters or as a sub-select.
+     */
+    public String deleteByParentIds(String parentIdSql){
+        return "delete from " + table + " where " + parentColumnName + " in (" + parentIdSql + ")";
+    }
 
-        return buf.toString();
+    public String selectByParentSubSelect(String subSelect){
+        String prefix = selectByParentSubSelectPrefix;
+        if( prefix == null ){
+            StringBuilder buf = new StringBuilder();
+            buf.append(select());
+            buf.append(" where a.");
+            buf.append(parentColumnName);
+            buf.append(" in (");
+            prefix = buf.toString();
+            selectByParentSubSelectPrefix = prefix;
+        }
+        return prefix + subSelect + ")";
     }
 
     public String update(){
+        String sql = update;
+        if( sql == null ){
+            sql = buildUpdate();
+            update = sql;
+        }
+        return sql;
+    }
+
+    private String buildUpdate(){
         if( primaryKey == null ){
             throw new HrormException("Cannot perform update on entity with no primary key");
         }
@@ -295,7 +465,36 @@ public class SqlBuilder<ENTITY> implements Queries {
         return sql.toString();
     }
 
+    /**
+     * SQL to update only the passed columns of a record, found by its primary key.
+     */
+    public String update(List<? extends Column<?, ?, ENTITY, ?>> columns){
+        if( primaryKey == null ){
+            throw new HrormException("Cannot perform update on entity with no primary key");
+        }
+        StringBuilder sql = new StringBuilder("update ");
+        sql.append(table);
+        sql.append(" set ");
+        List<String> entries = columns.stream()
+                .map(c -> c.getName() + "= ?")
+                .collect(Collectors.toList());
+        sql.append(String.join(", ", entries));
+        sql.append(" where ");
+        sql.append(primaryKey.getName());
+        sql.append( " = ?");
+        return sql.toString();
+    }
+
     public String delete(){
+        String sql = delete;
+        if( sql == null ){
+            sql = buildDelete();
+            delete = sql;
+        }
+        return sql;
+    }
+
+    private String buildDelete(){
         if( primaryKey == null ){
             throw new HrormException("Cannot perform delete for entity with no primary key");
         }
@@ -311,9 +510,14 @@ public class SqlBuilder<ENTITY> implements Queries {
     }
 
     public String nextSequence(){
-        if ( primaryKey == null ){
-            throw new HrormException("Cannot get sequence value without primary key");
+        String sql = nextSequence;
+        if( sql == null ){
+            if ( primaryKey == null ){
+                throw new HrormException("Cannot get sequence value without primary key");
+            }
+            sql = "select nextval('" + primaryKey.getSequenceName() + "')";
+            nextSequence = sql;
         }
-        return "select nextval('" + primaryKey.getSequenceName() + "')";
+        return sql;
     }
 }
@@ -0,0 +1,73 @@
+package org.hrorm;
+
+/**
+ * The variations in SQL syntax between databases that hrorm needs to
+ * know about. Most SQL hrorm generates is the same for every database,
+ * so only a few statements, such as those that limit the number of
+ * rows read, depend on the dialect.
+ */
+public enum SqlDialect {
+    /**
+     * The default dialect. Limits rows with the SQL:2008
+     * <code>FETCH FIRST ? ROWS ONLY</code> clause, compares orderings
+     * one column at a time, and binds each key of an <code>IN</code>
+     * clause separately.
+     */
+    Standard(" FETCH FIRST ? ROWS ONLY", false, false),
+    /**
+     * For H2. Limits rows with a <code>LIMIT ?</code> clause,
+     * compares row values, e.g. <code>(A, B) &gt; (?, ?)</code>, and
+     * binds keys as a single array, e.g. <code>ID = ANY(?)</code>.
+     */
+    H2(" LIMIT ?", true, true),
+    /**
+     * For PostgreSQL. Limits rows with a <code>LIMIT ?</code> clause,
+     * compares row values, e.g. <code>(A, B) &gt; (?, ?)</code>, and
+     * binds keys as a single array, e.g. <code>ID = ANY(?)</code>.
+     */
+    Postgres(" LIMIT ?", true, true),
+    /**
+     * For MySQL and MariaDB. Limits rows with a <code>LIMIT ?</code> clause and
+     * compares row values, e.g. <code>(A, B) &gt; (?, ?)</code>.
+     */
+    MySql(" LIMIT ?", true, false);
+
+    private final String limitClause;
+    private final boolean rowValueComparison;
+    private final boolean arrayParameters;
+
+    SqlDialect(String limitClause, boolean rowValueComparison, boolean arrayParameters){
+        this.limitClause = limitClause;
+        this.rowValueComparison = rowValueComparison;
+        this.arrayParameters = arrayParameters;
+    }
+
+    /**
+     * The clause appended to a select to limit the number of rows read.
+     * The number of rows is bound as a parameter.
+     *
+     * @return the SQL fragment
+     */
+    public String limitClause(){
+        return limitClause;
+    }
+
+    /**
+     * Whether the database compares row values, as in <code>(A, B) &gt; (?, ?)</code>.
+     *
+     * @return true if row values may be compared
+     */
+    public boolean supportsRowValueComparison(){
+        return rowValueComparison;
+    }
+
+    /**
+     * Whether a list of keys can be bound as a single array parameter,
+     * as in <code>ID = ANY(?)</code>.
+     *
+     * @return true if keys may be bound as an array
+     */
+    public boolean supportsArrayParameters(){
+        return arrayParameters;
+    }
+}
@@ -9,14 +9,17 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class does the heavy lifting of creating <code>Statement</code>s,
@@ -31,18 +34,24 @@ import java.util.stream.Collectors;
  */
 public class SqlRunner<ENTITY, BUILDER> {
 
-    private static final Logger logger = Logger.getLogger("org.hrorm");
-
     private final Connection connection;
     private final List<Column<?, ?,ENTITY, BUILDER>> allColumns;
     private final List<JoinColumn<ENTITY,?,BUILDER,?>> joinColumns;
     private final KeylessDaoDescriptor<ENTITY, BUILDER> keylessDaoDescriptor;
+    private final QueryOptions queryOptions;
+    private final QueryListener queryListener;
+    private final String tableName;
+
+    private RowMapper<ENTITY, BUILDER> rowMapper;
 
     public SqlRunner(Connection connection){
         this.connection = connection;
         this.allColumns = Collections.emptyList();
         this.joinColumns = Collections.emptyList();
         this.keylessDaoDescriptor = null;
+        this.queryOptions = QueryOptions.DEFAULT;
+        this.queryListener = null;
+        this.tableName = null;
     }
 
     public SqlRunner(Connection connection, KeylessDaoDescriptor<ENTITY, BUILDER> daoDescriptor) {
@@ -50,6 +59,9 @@ public class SqlRunner<ENTITY, BUILDER> {
         this.allColumns = daoDescriptor.allColumns();
         this.joinColumns = daoDescriptor.joinColumns();
         this.keylessDaoDescriptor = daoDescriptor;
+        this.queryOptions = daoDescriptor.queryOptions();
+        this.queryListener = daoDescriptor.queryListener();
+        this.tableName = daoDescriptor.tableName();
     }
 
     public List<BUILDER> selectStandard(String sql, Supplier<BUILDER> supplier, List<ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors){
@@ -61,6 +73,15 @@ public class SqlRunner<ENTITY, BUILDER> {
                                                  ColumnSelection<ENTITY,BUILDER> columnSelection,
                                                  List<? extends ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors,
                                                  ENTITY item){
+        return selectByColumnsStandard(sql, supplier, columnSelection, childrenDescriptors, item, queryOptions);
+    }
+
+    public List<BUILDER> selectByColumnsStandard(String sql,
+                                                 Supplier<BUILDER> supplier,
+                                                 ColumnSelection<ENTITY,BUILDER> columnSelection,
+                                                 List<? extends ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors,
+                                                 ENTITY item,
+                                                 QueryOptions options){
         BiFunction<List<BUILDER>, BUILDER, List<BUILDER>> accumulator =
                 (list, b) -> { list.add(b); return list; };
         StatementPopulator populator = columnSelection.buildPopulator(item);
@@ -71,7 +92,8 @@ public class SqlRunner<ENTITY, BUILDER> {
                 childrenDescriptors,
                 b -> b,
                 new ArrayList<>(),
-                accumulator
+                accumulator,
+                options
         );
     }
 
@@ -79,6 +101,14 @@ public class SqlRunner<ENTITY, BUILDER> {
                                                Supplier<BUILDER> supplier,
                                                List<? extends ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors,
                                                StatementPopulator statementPopulator) {
+        return doSelection(selectionInstruction, supplier, childrenDescriptors, statementPopulator, queryOptions);
+    }
+
+    public List<Envelope<BUILDER>> doSelection(SelectionInstruction selectionInstruction,
+                                               Supplier<BUILDER> supplier,
+                                               List<? extends ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors,
+                                               StatementPopulator statementPopulator,
+                                               QueryOptions options) {
 
         if( ! selectionInstruction.isBulkChildSelectStrategy() ){
             throw new HrormException("BUG. Called doSelection with a standard select strategy. This is a bug in hrorm.");
@@ -87,10 +117,11 @@ public class SqlRunner<ENTITY, BUILDER> {
         ResultSet resultSet = null;
         PreparedStatement statement = null;
         try {
-            statement = connection.prepareStatement(selectionInstruction.getSelectSql());
-            statementPopulator.populate(statement);
+            statement = options.prepareStatement(connection, selectionInstruction.getSelectSql());
+            int bindCount = statementPopulator.populate(statement);
 
-            logger.info(selectionInstruction.getSelectSql());
+            QueryListener listener = listener();
+            long start = startTime(listener);
             resultSet = statement.executeQuery();
 
             List<Envelope<BUILDER>> builders = new ArrayList<>();
@@ -98,13 +129,19 @@ public class SqlRunner<ENTITY, BUILDER> {
             JoinedChildrenSelector joinedChildrenSelector = new JoinedChildrenSelector(keylessDaoDescriptor, selectionInstruction.getChildSelectStrategy(), selectionInstruction.isSelectAll());
 
             // Step 1: Run the select on the entity itself, with all its joins, and make a list of builders
+            RowMapper<ENTITY, BUILDER> mapper = rowMapper();
+            int[] columnIndexes = mapper.columnIndexes(resultSet);
+            RowMapper.JoinedEntities joinedEntities = new RowMapper.JoinedEntities();
+            boolean readParentId = selectionInstruction.getParentColumnName() != null;
             while (resultSet.next()) {
-                Envelope<BUILDER> builder = populate(resultSet, supplier, selectionInstruction.getParentColumnName(), joinedChildrenSelector);
+                Envelope<BUILDER> builder = mapper.populate(connection, resultSet, columnIndexes, supplier, readParentId, joinedChildrenSelector, joinedEntities);
                 builders.add(builder);
             }
+            report(listener, selectionInstruction.getSelectSql(), bindCount, builders.size(), start);
 
-            // Step 2: do the population for joined objects.
+            // Step 2: do the population for joined and referenced objects.
             joinedChildrenSelector.populateChildren(connection, statementPopulator);
+            joinedEntities.resolveReferences(connection);
 
             // Step 3: For the children of this entity, recursively do the necessary selections.
             // Maybe this can be moved? it's not really sql running?
@@ -115,9 +152,21 @@ public class SqlRunner<ENTITY, BUILDER> {
                     () -> selectionInstruction.getPrimaryKeySql(),
                     statementPopulator);
 
+            ChildSelectExecutor childSelectExecutor = keylessDaoDescriptor.childSelectExecutor();
+            List<Consumer<Connection>> childSelections = new ArrayList<>();
+            List<Consumer<Connection>> lazySelections = new ArrayList<>();
             for (ChildrenDescriptor<ENTITY, ?, BUILDER, ?> descriptor : childrenDescriptors) {
-                descriptor.populateChildren(connection, builders, childrenSelector);
+                if( descriptor.isLazy() ){
+                    // Lazy children are loaded later, on this connection
+                    descriptor.populateChildren(connection, builders, childrenSelector);
+                } else if ( childSelectExecutor.isParallel() && descriptor.selectsLazyChildren() ){
+                    // So are the lazy children of these children
+                    lazySelections.add(con -> descriptor.populateChildren(con, builders, childrenSelector));
+                } else {
+                    childSelections.add(con -> descriptor.populateChildren(con, builders, childrenSelector));
+                }
             }
+            childSelectExecutor.run(connection, childSelections, lazySelections);
 
             return builders;
 
@@ -137,10 +186,87 @@ public class SqlRunner<ENTITY, BUILDER> {
         }
     }
 
+    /**
+     * Runs a select that joins the tables of the passed children, reading each
+     * entity once, however many rows it is repeated in, together with its children.
+     */
+    List<Envelope<BUILDER>> selectJoinFetch(String sql,
+                                            Supplier<BUILDER> supplier,
+                                            List<FetchedChildren<ENTITY, ?, BUILDER, ?>> fetchedChildren,
+                                            StatementPopulator statementPopulator,
+                                            QueryOptions options) {
+        ResultSet resultSet = null;
+        PreparedStatement statement = null;
+        try {
+            statement = options.prepareStatement(connection, sql);
+            int bindCount = statementPopulator.populate(statement);
+
+            QueryListener listener = listener();
+            long start = startTime(listener);
+            resultSet = statement.executeQuery();
+
+            JoinedChildrenSelector<ENTITY, BUILDER> joinedChildrenSelector =
+                    new JoinedChildrenSelector<>(keylessDaoDescriptor, ChildSelectStrategy.ByKeysInClause, false);
+            RowMapper<ENTITY, BUILDER> mapper = rowMapper();
+            int[] columnIndexes = mapper.columnIndexes(resultSet);
+            RowMapper.JoinedEntities joinedEntities = new RowMapper.JoinedEntities();
+            List<FetchedChildren.Reader<BUILDER>> readers = new ArrayList<>();
+            for(FetchedChildren<ENTITY, ?, BUILDER, ?> fetched : fetchedChildren){
+                readers.add(fetched.reader(resultSet));
+            }
+
+            // The entity is repeated in a row for each of its children
+            Map<Long, Envelope<BUILDER>> builders = new LinkedHashMap<>();
+            long rowCount = 0;
+            while (resultSet.next()) {
+                rowCount++;
+                long key = mapper.primaryKey(resultSet, columnIndexes);
+                if( ! builders.containsKey(key) ){
+                    builders.put(key, mapper.populate(connection, resultSet, columnIndexes, supplier, false, joinedChildrenSelector, joinedEntities));
+                }
+                for(FetchedChildren.Reader<BUILDER> reader : readers){
+                    reader.read(connection, resultSet);
+                }
+            }
+            report(listener, sql, bindCount, rowCount, start);
+
+            joinedChildrenSelector.populateChildren(connection, statementPopulator);
+            joinedEntities.resolveReferences(connection);
+
+            List<Envelope<BUILDER>> envelopes = new ArrayList<>(builders.values());
+            for(FetchedChildren.Reader<BUILDER> reader : readers){
+                reader.populateChildren(connection, envelopes);
+            }
+            return envelopes;
+
+        } catch (SQLException ex){
+            throw new HrormException(ex, sql);
+        } finally {
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                if (statement != null) {
+                    statement.close();
+                }
+            } catch (SQLException se){
+                throw new HrormException(se);
+            }
+        }
+    }
+
     public List<BUILDER> selectWhereStandard(String sql,
                                              Supplier<BUILDER> supplier,
                                              List<? extends ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors,
                                              Where where){
+        return selectWhereStandard(sql, supplier, childrenDescriptors, where, queryOptions);
+    }
+
+    public List<BUILDER> selectWhereStandard(String sql,
+                                             Supplier<BUILDER> supplier,
+                                             List<? extends ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors,
+                                             Where where,
+                                             QueryOptions options){
         BiFunction<List<BUILDER>, BUILDER, List<BUILDER>> accumulator =
                 (list, b) -> { list.add(b); return list; };
         return foldingSelect(
@@ -150,7 +276,8 @@ public class SqlRunner<ENTITY, BUILDER> {
                 childrenDescriptors,
                 b -> b,
                 new ArrayList<>(),
-                accumulator
+                accumulator,
+                options
         );
     }
 
@@ -161,23 +288,55 @@ public class SqlRunner<ENTITY, BUILDER> {
                                Function<BUILDER, X> buildFunction,
                                T identity,
                                BiFunction<T,X,T> accumulator){
+        return foldingSelect(sql, statementPopulator, supplier, childrenDescriptors, buildFunction, identity, accumulator, queryOptions);
+    }
+
+    public <T,X> T foldingSelect(String sql,
+                               StatementPopulator statementPopulator,
+                               Supplier<BUILDER> supplier,
+                               List<? extends ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors,
+                               Function<BUILDER, X> buildFunction,
+                               T identity,
+                               BiFunction<T,X,T> accumulator,
+                               QueryOptions options){
 
         ResultSet resultSet = null;
         PreparedStatement statement = null;
         try {
-            statement = connection.prepareStatement(sql);
-            statementPopulator.populate(statement);
+            statement = options.prepareStatement(connection, sql);
+            int bindCount = statementPopulator.populate(statement);
 
-            logger.info(sql);
+            QueryListener listener = listener();
+            long start = startTime(listener);
             resultSet = statement.executeQuery();
 
             T result = identity;
-
+            long rowCount = 0;
+
+            RowMapper<ENTITY, BUILDER> mapper = rowMapper();
+            int[] columnIndexes = mapper.columnIndexes(resultSet);
+            RowMapper.JoinedEntities joinedEntities = new RowMapper.JoinedEntities();
+            List<Consumer<BUILDER>> childrenPopulators = ChildrenDescriptor.populators(connection, childrenDescriptors);
+            // Builders that reference other entities wait for them to be selected
+            List<BUILDER> unresolved = new ArrayList<>();
+            boolean readsReferences = mapper.readsReferences();
             while (resultSet.next()) {
-                BUILDER bldr = populate(resultSet, supplier);
-                for(ChildrenDescriptor<ENTITY,?, BUILDER,?> descriptor : childrenDescriptors){
-                    descriptor.populateChildren(connection, bldr);
+                BUILDER bldr = mapper.populate(connection, resultSet, columnIndexes, supplier, joinedEntities);
+                for(Consumer<BUILDER> childrenPopulator : childrenPopulators){
+                    childrenPopulator.accept(bldr);
+                }
+                if( readsReferences ){
+                    unresolved.add(bldr);
+                } else {
+                    X item = buildFunction.apply(bldr);
+                    result = accumulator.apply(result, item);
                 }
+                rowCount++;
+            }
+            report(listener, sql, bindCount, rowCount, start);
+
+            joinedEntities.resolveReferences(connection);
+            for(BUILDER bldr : unresolved){
                 X item = buildFunction.apply(bldr);
                 result = accumulator.apply(result, item);
             }
@@ -200,6 +359,65 @@ public class SqlRunner<ENTITY, BUILDER> {
         }
     }
 
+    public Stream<ENTITY> stream(String sql,
+                                 StatementPopulator statementPopulator,
+                                 Supplier<BUILDER> supplier,
+                                 List<? extends ChildrenDescriptor<ENTITY,?, BUILDER,?>> childrenDescriptors,
+                                 ChildSelectStrategy childSelectStrategy,
+                                 Function<BUILDER, ENTITY> buildFunction,
+                                 int fetchSize){
+        if( fetchSize < 1 ){
+            throw new HrormException("Fetch size must be positive, but was " + fetchSize);
+        }
+
+        boolean restoreAutoCommit = false;
+        ResultSet resultSet = null;
+        PreparedStatement statement = null;
+        try {
+            // Some drivers, notably Postgres, only read through a cursor
+            // when not in auto-commit mode.
+            if( connection.getAutoCommit() ){
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            statement = queryOptions.withFetchSize(fetchSize).withReadOnlyCursor().prepareStatement(connection, sql);
+            int bindCount = statementPopulator.populate(statement);
+
+            QueryListener listener = listener();
+            long start = startTime(listener);
+            resultSet = statement.executeQuery();
+
+            ResultSetSpliterator<ENTITY, BUILDER> spliterator = new ResultSetSpliterator<>(
+                    connection,
+                    sql,
+                    statement,
+                    resultSet,
+                    restoreAutoCommit,
+                    keylessDaoDescriptor,
+                    rowMapper(),
+                    supplier,
+                    childrenDescriptors,
+                    childSelectStrategy,
+                    buildFunction,
+                    fetchSize);
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                boolean wasOpen = ! spliterator.isClosed();
+                spliterator.close();
+                if( wasOpen ){
+                    report(listener, sql, bindCount, spliterator.getRowCount(), start);
+                }
+            });
+
+        } catch (SQLException ex){
+            try {
+                ResultSetSpliterator.close(connection, statement, resultSet, restoreAutoCommit);
+            } catch (HrormException he){
+                ex.addSuppressed(he);
+            }
+            throw new HrormException(ex, sql);
+        }
+    }
+
     private <T> T runFunction(String sql,
                               Where where,
                               Function<ResultSet, T> reader) {
@@ -207,14 +425,18 @@ public class SqlRunner<ENTITY, BUILDER> {
         PreparedStatement statement = null;
         try {
             statement = connection.prepareStatement(sql);
-            where.populate(statement);
+            int bindCount = where.populate(statement);
 
-            logger.info(sql);
+            QueryListener listener = listener();
+            long start = startTime(listener);
             resultSet = statement.executeQuery();
 
             if (resultSet.next()) {
-                return reader.apply(resultSet);
+                T value = reader.apply(resultSet);
+                report(listener, sql, bindCount, 1, start);
+                return value;
             } else {
+                report(listener, sql, bindCount, 0, start);
                 return null;
             }
         } catch (SQLException ex){
@@ -258,20 +480,33 @@ public class SqlRunner<ENTITY, BUILDER> {
     }
 
     public <T> List<T> selectDistinct(String sql, Where where, Function<ResultSet, T> resultParser){
+        return selectDistinct(sql, where, resultParser, queryOptions);
+    }
+
+    public <T> List<T> selectDistinct(String sql, Where where, Function<ResultSet, T> resultParser, QueryOptions options){
+        return selectRows(sql, where, resultParser, options);
+    }
+
+    /**
+     * Runs a select, reading each row with the passed parser.
+     */
+    <T> List<T> selectRows(String sql, Where where, Function<ResultSet, T> resultParser, QueryOptions options){
         ResultSet resultSet = null;
         PreparedStatement statement = null;
         List<T> values = new ArrayList<>();
         try {
-            statement = connection.prepareStatement(sql);
-            where.populate(statement);
+            statement = options.prepareStatement(connection, sql);
+            int bindCount = where.populate(statement);
 
-            logger.info(sql);
+            QueryListener listener = listener();
+            long start = startTime(listener);
             resultSet = statement.executeQuery();
 
             while(resultSet.next()){
                 T value = resultParser.apply(resultSet);
                 values.add(value);
             }
+            report(listener, sql, bindCount, values.size(), start);
             return values;
         } catch (SQLException ex){
             throw new HrormException(ex, sql);
@@ -290,41 +525,110 @@ public class SqlRunner<ENTITY, BUILDER> {
     }
 
     public void insert(String sql, Envelope<ENTITY> envelope) {
-        runInsertOrUpdate(sql, envelope, false);
+        runInsertOrUpdate(sql, envelope, (statement, e) -> setInsertOrUpdateValues(statement, e, false));
     }
 
     public void update(String sql, Envelope<ENTITY> envelope) {
-        runInsertOrUpdate(sql, envelope, true);
+        runInsertOrUpdate(sql, envelope, (statement, e) -> setInsertOrUpdateValues(statement, e, true));
+    }
+
+    public void insertBatch(String sql, List<Envelope<ENTITY>> envelopes, int batchSize) {
+        runBatchInsertOrUpdate(sql, envelopes, batchSize, (statement, e) -> setInsertOrUpdateValues(statement, e, false));
+    }
+
+    public void updateBatch(String sql, List<Envelope<ENTITY>> envelopes, int batchSize) {
+        runBatchInsertOrUpdate(sql, envelopes, batchSize, (statement, e) -> setInsertOrUpdateValues(statement, e, true));
+    }
+
+    /*
+     * Updates only the passed columns, using SQL from SqlBuilder.update(columns).
+     */
+    public void updateColumns(String sql, List<Column<?, ?, ENTITY, BUILDER>> columns, Envelope<ENTITY> envelope) {
+        runInsertOrUpdate(sql, envelope, (statement, e) -> setColumnValues(statement, e, columns));
+    }
+
+    public void updateColumnsBatch(String sql, List<Column<?, ?, ENTITY, BUILDER>> columns, List<Envelope<ENTITY>> envelopes, int batchSize) {
+        runBatchInsertOrUpdate(sql, envelopes, batchSize, (statement, e) -> setColumnValues(statement, e, columns));
+    }
+
+    // Binders return the number of parameters they set
+    private interface EnvelopeBinder<T> {
+        int bind(PreparedStatement preparedStatement, Envelope<T> envelope) throws SQLException;
     }
 
-    private void runInsertOrUpdate(String sql, Envelope<ENTITY> envelope, boolean isUpdate){
+    private interface BatchBinder<T> {
+        int bind(PreparedStatement preparedStatement, T item) throws SQLException;
+    }
+
+    private void runInsertOrUpdate(String sql, Envelope<ENTITY> envelope, EnvelopeBinder<ENTITY> binder){
 
         PreparedStatement preparedStatement = null;
 
         try {
             preparedStatement = connection.prepareStatement(sql);
 
-            int idx = 1;
-            for(Column<?, ?, ENTITY, BUILDER> column : allColumns){
-                if( column.isPrimaryKey() ) {
-                    if ( ! isUpdate ) {
-                        preparedStatement.setLong(idx, envelope.getId());
-                        idx++;
-                    }
-                } else if ( column.isParentColumn() ){
-                    preparedStatement.setLong(idx, envelope.getParentId());
-                    idx++;
-                } else if ( ! column.isPrimaryKey()  ){
-                    column.setValue(envelope.getItem(), idx, preparedStatement);
-                    idx++;
+            int bindCount = binder.bind(preparedStatement, envelope);
+
+            QueryListener listener = listener();
+            long start = startTime(listener);
+            preparedStatement.execute();
+            reportUpdate(listener, sql, bindCount, preparedStatement, start);
+            written();
+
+        } catch (SQLException se){
+            throw new HrormException(se, sql);
+        } finally {
+            try {
+                if (preparedStatement != null) {
+                    preparedStatement.close();
                 }
+            } catch (SQLException se){
+                throw new HrormException(se);
             }
-            if( isUpdate ){
-                preparedStatement.setLong(idx, envelope.getId());
-            }
+        }
 
-            logger.info(sql);
-            preparedStatement.execute();
+    }
+
+    private void runBatchInsertOrUpdate(String sql, List<Envelope<ENTITY>> envelopes, int batchSize, EnvelopeBinder<ENTITY> binder){
+        runBatch(sql, envelopes, batchSize, binder::bind);
+    }
+
+    /**
+     * Runs a delete statement once for each populator, in JDBC batches.
+     */
+    public void runBatchDelete(String sql, List<StatementPopulator> populators, int batchSize){
+        runBatch(sql, populators, batchSize, (statement, populator) -> populator.populate(statement));
+    }
+
+    private <T> void runBatch(String sql, List<T> items, int batchSize, BatchBinder<T> binder){
+        // Avoid preparing a statement that would never be executed
+        if( items.isEmpty() ){
+            return;
+        }
+        if( batchSize < 1 ){
+            throw new HrormException("Batch size must be positive, but was " + batchSize);
+        }
+
+        PreparedStatement preparedStatement = null;
+
+        try {
+            preparedStatement = connection.prepareStatement(sql);
+
+            QueryListener listener = listener();
+            int count = 0;
+            int bindCount = 0;
+            for(T item : items){
+                bindCount = binder.bind(preparedStatement, item);
+                preparedStatement.addBatch();
+                count++;
+                if( count % batchSize == 0 ){
+                    executeBatch(listener, sql, bindCount, preparedStatement);
+                }
+            }
+            if( count % batchSize != 0 ){
+                executeBatch(listener, sql, bindCount, preparedStatement);
+            }
+            written();
 
         } catch (SQLException se){
             throw new HrormException(se, sql);
@@ -337,14 +641,75 @@ public class SqlRunner<ENTITY, BUILDER> {
                 throw new HrormException(se);
             }
         }
+    }
+
+    private void executeBatch(QueryListener listener, String sql, int bindCount, PreparedStatement preparedStatement) throws SQLException {
+        long start = startTime(listener);
+        int[] counts = preparedStatement.executeBatch();
+        if( listener != QueryListener.NONE ){
+            long rowCount = 0;
+            for(int count : counts){
+                // Drivers may not know how many rows each record affected
+                rowCount += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+            report(listener, sql, bindCount, rowCount, start);
+        }
+    }
+
+    private int setInsertOrUpdateValues(PreparedStatement preparedStatement, Envelope<ENTITY> envelope, boolean isUpdate)
+            throws SQLException {
+        int idx = 1;
+        for(Column<?, ?, ENTITY, BUILDER> column : allColumns){
+            if( column.isPrimaryKey() ) {
+                if ( ! isUpdate ) {
+                    preparedStatement.setLong(idx, envelope.getId());
+                    idx++;
+                }
+            } else if ( column.isParentColumn() ){
+                preparedStatement.setLong(idx, envelope.getParentId());
+                idx++;
+            } else if ( ! column.isPrimaryKey()  ){
+                column.setValue(envelope.getItem(), idx, preparedStatement);
+                idx++;
+            }
+        }
+        if( isUpdate ){
+            preparedStatement.setLong(idx, envelope.getId());
+            idx++;
+        }
+        return idx - 1;
+    }
 
+    private int setColumnValues(PreparedStatement preparedStatement, Envelope<ENTITY> envelope, List<Column<?, ?, ENTITY, BUILDER>> columns)
+            throws SQLException {
+        int idx = 1;
+        for(Column<?, ?, ENTITY, BUILDER> column : columns){
+            if ( column.isParentColumn() ){
+                preparedStatement.setLong(idx, envelope.getParentId());
+            } else {
+                column.setValue(envelope.getItem(), idx, preparedStatement);
+            }
+            idx++;
+        }
+        preparedStatement.setLong(idx, envelope.getId());
+        return idx;
     }
 
     public void runPreparedDelete(String sql, Long id){
+        runPreparedDelete(sql, statement -> {
+            statement.setLong(1, id);
+            return 1;
+        });
+    }
+
+    public void runPreparedDelete(String sql, StatementPopulator statementPopulator){
         try (PreparedStatement preparedStatement = connection.prepareStatement(sql)){
-            preparedStatement.setLong(1, id);
-            logger.info(sql);
+            int bindCount = statementPopulator.populate(preparedStatement);
+            QueryListener listener = listener();
+            long start = startTime(listener);
             preparedStatement.execute();
+            reportUpdate(listener, sql, bindCount, preparedStatement, start);
+            written();
         } catch (SQLException ex){
             throw new HrormException(ex, sql);
         }
@@ -356,10 +721,13 @@ public class SqlRunner<ENTITY, BUILDER> {
         ResultSet resultSet = null;
         try {
             statement = connection.createStatement();
-            logger.info(sql);
+            QueryListener listener = listener();
+            long start = startTime(listener);
             resultSet = statement.executeQuery(sql);
             resultSet.next();
-            return resultSet.getLong(1);
+            long value = resultSet.getLong(1);
+            report(listener, sql, 0, 1, start);
+            return value;
         } catch (SQLException ex){
             throw new HrormException(ex, sql);
         } finally {
@@ -377,18 +745,29 @@ public class SqlRunner<ENTITY, BUILDER> {
     }
 
     public Set<Long> runSelectChildIds(String sql, Long id){
+        return runSelectChildIds(sql, statement -> {
+            statement.setLong(1, id);
+            return 1;
+        });
+    }
+
+    public Set<Long> runSelectChildIds(String sql, StatementPopulator statementPopulator){
         PreparedStatement statement = null;
         ResultSet resultSet = null;
 
         try {
             Set<Long> longs = new HashSet<>();
-            logger.info(sql);
             statement = connection.prepareStatement(sql);
-            statement.setLong(1, id);
+            int bindCount = statementPopulator.populate(statement);
+            QueryListener listener = listener();
+            long start = startTime(listener);
             resultSet = statement.executeQuery();
+            long rowCount = 0;
             while (resultSet.next()) {
                 longs.add(resultSet.getLong(1));
+                rowCount++;
             }
+            report(listener, sql, bindCount, rowCount, start);
             return longs;
         } catch (SQLException ex){
             throw new HrormException(ex, sql);
@@ -407,45 +786,54 @@ public class SqlRunner<ENTITY, BUILDER> {
     }
 
 
-    private BUILDER populate(ResultSet resultSet, Supplier<BUILDER> supplier)
-            throws SQLException {
-        BUILDER item = supplier.get();
-
-        for (Column<?, ?, ENTITY, BUILDER> column: allColumns) {
-            PopulateResult populateResult = column.populate(item, resultSet);
-            populateResult.populateChildren(connection);
+    /**
+     * The dialect of the entity this runner supports.
+     */
+    SqlDialect dialect(){
+        if( keylessDaoDescriptor == null ){
+            return SqlDialect.Standard;
         }
+        return keylessDaoDescriptor.dialect();
+    }
 
-        return item;
+    private void written(){
+        if( tableName != null ){
+            TableVersions.written(connection, tableName);
+        }
     }
 
-    private Envelope<BUILDER> populate(ResultSet resultSet, Supplier<BUILDER> supplier, String parentColumName, JoinedChildrenSelector joinedChildrenSelector)
-            throws SQLException {
-        BUILDER item = supplier.get();
-        Long parentId = null;
-        Long itemId = null;
+    private QueryListener listener(){
+        if( queryListener != null ){
+            return queryListener;
+        }
+        return QueryListener.global();
+    }
 
-        // MAYBE: Too complicated. The join columns should just be handled separately from the data columns.
+    private static long startTime(QueryListener listener){
+        // Avoid even reading the clock when nobody is listening
+        if( listener == QueryListener.NONE ){
+            return 0L;
+        }
+        return System.nanoTime();
+    }
 
-        for (Column<?, ?, ENTITY, BUILDER> column: allColumns) {
-            PopulateResult populateResult = column.populate(item, resultSet);
+    private void report(QueryListener listener, String sql, int bindCount, long rowCount, long start){
+        if( listener != QueryListener.NONE ){
+            listener.queryExecuted(new QueryEvent(sql, tableName, bindCount, rowCount, System.nanoTime() - start));
+        }
+    }
 
-            if ( populateResult.isJoinedItemResult() ){
-                Envelope<?> envelope = populateResult.getJoinedItem();
-                Map<String,PopulateResult> subResults = populateResult.getSubResults();
-                joinedChildrenSelector.addJoinedInstanceAndItsJoins(column.getName(),envelope, subResults);
-            } else {
-                populateResult.populateChildren(connection);
-            }
-            if( column.getName().equalsIgnoreCase(parentColumName)){
-                parentId  = resultSet.getLong(column.getPrefix() + column.getName());
-            }
-            if( column.isPrimaryKey() ){
-                itemId = resultSet.getLong(column.getPrefix() + column.getName());
-            }
+    private void reportUpdate(QueryListener listener, String sql, int bindCount, PreparedStatement preparedStatement, long start) throws SQLException {
+        if( listener != QueryListener.NONE ){
+            report(listener, sql, bindCount, Math.max(preparedStatement.getUpdateCount(), 0), start);
         }
+    }
 
-        return new Envelope<>(item, itemId, parentId);
+    private RowMapper<ENTITY, BUILDER> rowMapper(){
+        if( rowMapper == null ){
+            rowMapper = new RowMapper<>(keylessDaoDescriptor);
+        }
+        return rowMapper;
     }
 
 }
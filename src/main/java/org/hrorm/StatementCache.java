@@ -0,0 +1,242 @@
+package org.hrorm;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of <code>PreparedStatement</code> objects, keyed by their SQL text,
+ * that belongs to a single <code>Connection</code>.
+ *
+ * <p>
+ *     Hrorm prepares a statement for every query it runs and closes it
+ *     afterwards. To reuse statements instead, wrap a connection using
+ *     {@link #cachingConnection(Connection, int)} and build your
+ *     <code>Dao</code> objects with the wrapper. Every <code>Dao</code>
+ *     sharing the wrapped connection shares its cache. Closing a statement
+ *     returns it to the cache, where it stays until it is evicted as the
+ *     least recently used entry or the connection is closed. A statement
+ *     returned to the cache is cleared of its parameters, any batched rows
+ *     that were never executed and its warnings.
+ * </p>
+ *
+ * <p>
+ *     A statement is never handed out twice at once. If the same SQL is
+ *     prepared again while an earlier statement is still open, a new
+ *     statement is created for it.
+ * </p>
+ */
+public class StatementCache {
+
+    private interface CacheHolder {
+        StatementCache statementCache();
+    }
+
+    private final Connection connection;
+    private final int maxSize;
+    private final LinkedHashMap<List<Object>, PreparedStatement> statements;
+
+    private Connection cachingConnection;
+    private long hits;
+    private long misses;
+
+    private StatementCache(Connection connection, int maxSize){
+        if( maxSize < 1 ){
+            throw new HrormException("Statement cache size must be positive, but was " + maxSize);
+        }
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Wraps a connection so that the prepared statements created through it
+     * are cached and reused.
+     *
+     * @param connection The connection to wrap.
+     * @param maxSize The maximum number of idle statements to keep.
+     * @return A connection that caches its prepared statements.
+     */
+    public static Connection cachingConnection(Connection connection, int maxSize){
+        StatementCache cache = new StatementCache(connection, maxSize);
+        cache.cachingConnection = (Connection) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[]{ Connection.class, CacheHolder.class },
+                cache.connectionHandler());
+        return cache.cachingConnection;
+    }
+
+    /**
+     * Finds the cache belonging to a connection created by
+     * {@link #cachingConnection(Connection, int)}.
+     *
+     * @param connection A connection.
+     * @return The cache of the connection, or null if it has none.
+     */
+    public static StatementCache forConnection(Connection connection){
+        if( connection instanceof CacheHolder ){
+            return ((CacheHolder) connection).statementCache();
+        }
+        return null;
+    }
+
+    /**
+     * The number of times a cached statement was reused.
+     *
+     * @return the count of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * The number of times a new statement had to be prepared.
+     *
+     * @return the count of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * The number of idle statements currently held.
+     *
+     * @return the size of the cache
+     */
+    public synchronized int size(){
+        return statements.size();
+    }
+
+    private InvocationHandler connectionHandler(){
+        return (proxy, method, args) -> {
+            String name = method.getName();
+            if( name.equals("statementCache") && method.getDeclaringClass().equals(CacheHolder.class) ){
+                return this;
+            }
+            if( name.equals("prepareStatement") && isCacheable(method) ){
+                return checkOut(Arrays.asList(args));
+            }
+            if( name.equals("close") && method.getParameterCount() == 0 ){
+                closeAll();
+            }
+            return invoke(connection, method, args);
+        };
+    }
+
+    private static boolean isCacheable(Method method){
+        Class<?>[] types = method.getParameterTypes();
+        if( types.length == 1 ){
+            return types[0].equals(String.class);
+        }
+        return types.length == 3
+                && types[0].equals(String.class)
+                && types[1].equals(int.class)
+                && types[2].equals(int.class);
+    }
+
+    private PreparedStatement checkOut(List<Object> key) throws SQLException {
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = statements.remove(key);
+            if( statement != null ){
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if( statement == null ){
+            statement = prepare(key);
+        }
+        return wrap(key, statement);
+    }
+
+    private PreparedStatement prepare(List<Object> key) throws SQLException {
+        String sql = (String) key.get(0);
+        if( key.size() == 1 ){
+            return connection.prepareStatement(sql);
+        }
+        return connection.prepareStatement(sql, (Integer) key.get(1), (Integer) key.get(2));
+    }
+
+    private void checkIn(List<Object> key, PreparedStatement statement) throws SQLException {
+        try {
+            // Rows batched by a caller that failed before executing them
+            // must not be executed by the next user of the statement
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+        } catch (SQLException ex){
+            statement.close();
+            throw ex;
+        }
+        List<PreparedStatement> toClose = new ArrayList<>();
+        synchronized (this) {
+            if( statements.containsKey(key) ){
+                toClose.add(statement);
+            } else {
+                statements.put(key, statement);
+                while( statements.size() > maxSize ){
+                    Map.Entry<List<Object>, PreparedStatement> eldest = statements.entrySet().iterator().next();
+                    statements.remove(eldest.getKey());
+                    toClose.add(eldest.getValue());
+                }
+            }
+        }
+        for(PreparedStatement closeable : toClose){
+            closeable.close();
+        }
+    }
+
+    private void closeAll() throws SQLException {
+        List<PreparedStatement> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        for(PreparedStatement statement : toClose){
+            statement.close();
+        }
+    }
+
+    private PreparedStatement wrap(List<Object> key, PreparedStatement statement){
+        boolean[] closed = { false };
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if( name.equals("close") && method.getParameterCount() == 0 ){
+                if( ! closed[0] ){
+                    closed[0] = true;
+                    checkIn(key, statement);
+                }
+                return null;
+            }
+            if( name.equals("isClosed") && method.getParameterCount() == 0 ){
+                return closed[0] || statement.isClosed();
+            }
+            if( name.equals("getConnection") && method.getParameterCount() == 0 ){
+                return cachingConnection;
+            }
+            return invoke(statement, method, args);
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[]{ PreparedStatement.class },
+                handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex){
+            throw ex.getCause();
+        }
+    }
+}
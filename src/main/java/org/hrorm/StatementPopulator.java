@@ -11,14 +11,21 @@ import java.sql.SQLException;
  * Most users of hrorm will have no need to directly use this.
  */
 public interface StatementPopulator {
-    void populate(PreparedStatement preparedStatement) throws SQLException;
+    /**
+     * Sets the variables of the statement.
+     *
+     * @param preparedStatement The statement to set the variables of
+     * @return the number of parameters set
+     * @throws SQLException if setting a variable fails
+     */
+    int populate(PreparedStatement preparedStatement) throws SQLException;
 
     default String render() { return ""; }
 
     public class Empty implements StatementPopulator {
         @Override
-        public void populate(PreparedStatement preparedStatement) throws SQLException {
-
+        public int populate(PreparedStatement preparedStatement) throws SQLException {
+            return 0;
         }
     }
 
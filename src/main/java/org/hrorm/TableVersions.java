@@ -0,0 +1,197 @@
+package org.hrorm;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the writes hrorm makes to each table that some cache depends on,
+ * so that a cached result can tell whether any table it was read from has
+ * been written since. Writes are counted from when the first <code>Dao</code>
+ * with a cache depending on the table is built; writes to other tables are
+ * not counted.
+ *
+ * <p>
+ *     The tables written by a connection that is not in auto-commit mode are
+ *     also remembered as pending, so that no result read from them before the
+ *     writes are committed or rolled back is cached. They stop being pending
+ *     when hrorm sees the transaction end, through a {@link Transactor}, when
+ *     the connection is closed or next writes in auto-commit mode, or, since a
+ *     transaction ended directly on the connection cannot be seen, once the
+ *     connection has written nothing for the pending timeout. Ceasing to be
+ *     pending counts as writing the tables again. A transaction that stays
+ *     open for longer than the timeout after its last write is not protected:
+ *     what it reads, and what others read of the tables it wrote, may be cached.
+ * </p>
+ *
+ * Most users of hrorm will have no need to directly use this.
+ */
+final class TableVersions {
+
+    /**
+     * How long the tables written in a transaction stay pending after the
+     * last write, if hrorm does not see the transaction end.
+     */
+    static final Duration PENDING_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final class Pending {
+        private final Set<String> tables = new HashSet<>();
+        private long lastWrite;
+    }
+
+    private static final Set<String> tracked = ConcurrentHashMap.newKeySet();
+    private static final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    // The tables written by each connection in a transaction that has not yet ended,
+    // forgotten when a connection is discarded without hrorm seeing it end
+    private static final Map<Connection, Pending> pending = new WeakHashMap<>();
+    // Lets reads skip the lock while nothing is pending, which is most of the time
+    private static volatile boolean anyPending = false;
+    private static volatile long pendingTimeoutNanos = PENDING_TIMEOUT.toNanos();
+
+    private TableVersions(){}
+
+    /**
+     * Starts counting the writes to the tables, which a cache depends on.
+     */
+    static void track(Collection<String> tableNames){
+        for(String tableName : tableNames){
+            tracked.add(key(tableName));
+        }
+    }
+
+    /**
+     * Notes that the table has been written on the connection.
+     */
+    static void written(Connection connection, String tableName){
+        String table = key(tableName);
+        if( ! tracked.contains(table) ){
+            return;
+        }
+        version(table).incrementAndGet();
+        if( connection == null ){
+            return;
+        }
+        if( isAutoCommit(connection) ){
+            // Turning auto-commit on committed any earlier transaction
+            if( anyPending ){
+                ended(connection);
+            }
+            return;
+        }
+        synchronized (pending){
+            Pending written = pending.computeIfAbsent(unwrap(connection), c -> new Pending());
+            written.tables.add(table);
+            written.lastWrite = System.nanoTime();
+            anyPending = true;
+        }
+    }
+
+    /**
+     * Notes that the transaction of the connection has been committed or
+     * rolled back, so that the tables it wrote are no longer pending.
+     */
+    static void ended(Connection connection){
+        Pending ended;
+        synchronized (pending){
+            ended = pending.remove(unwrap(connection));
+            anyPending = ! pending.isEmpty();
+        }
+        if( ended != null ){
+            bump(ended.tables);
+        }
+    }
+
+    /**
+     * Whether any connection has written any of the tables in a
+     * transaction that has not yet ended.
+     */
+    static boolean isPending(String... tableNames){
+        if( ! anyPending ){
+            return false;
+        }
+        boolean isPending = false;
+        long now = System.nanoTime();
+        synchronized (pending){
+            Iterator<Map.Entry<Connection, Pending>> entries = pending.entrySet().iterator();
+            while( entries.hasNext() ){
+                Map.Entry<Connection, Pending> entry = entries.next();
+                Pending written = entry.getValue();
+                if( now - written.lastWrite > pendingTimeoutNanos || isClosed(entry.getKey()) ){
+                    entries.remove();
+                    bump(written.tables);
+                    continue;
+                }
+                for(String tableName : tableNames){
+                    if( written.tables.contains(key(tableName)) ){
+                        isPending = true;
+                    }
+                }
+            }
+            anyPending = ! pending.isEmpty();
+        }
+        return isPending;
+    }
+
+    /**
+     * The number of times the table has been written.
+     */
+    static long current(String tableName){
+        return version(tableName).get();
+    }
+
+    /**
+     * Changes the pending timeout, which tests shorten.
+     */
+    static void setPendingTimeout(Duration timeout){
+        pendingTimeoutNanos = timeout.toNanos();
+    }
+
+    private static void bump(Set<String> tables){
+        for(String table : tables){
+            version(table).incrementAndGet();
+        }
+    }
+
+    private static AtomicLong version(String tableName){
+        return versions.computeIfAbsent(key(tableName), t -> new AtomicLong());
+    }
+
+    private static String key(String tableName){
+        return tableName.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAutoCommit(Connection connection){
+        try {
+            return connection.getAutoCommit();
+        } catch (SQLException ex){
+            // Without knowing, the write is treated as uncommitted
+            return false;
+        }
+    }
+
+    private static boolean isClosed(Connection connection){
+        try {
+            return connection == null || connection.isClosed();
+        } catch (SQLException ex){
+            return false;
+        }
+    }
+
+    private static Connection unwrap(Connection connection){
+        // The Daos of a session share its connection
+        if( connection instanceof Session.SessionConnection ){
+            return ((Session.SessionConnection) connection).session().getConnection();
+        }
+        return connection;
+    }
+}
@@ -95,12 +95,12 @@ public class Transactor {
         try {
             connection = connectionSupplier.get();
             action.accept(connection);
-            connection.commit();
+            endTransaction(connection, true);
         } catch (SQLException ex){
-            connection.rollback();
+            endTransaction(connection, false);
             throw ex;
         } catch (Exception ex) {
-            connection.rollback();
+            endTransaction(connection, false);
             throw ex;
         } finally {
             if( connection != null ) {
@@ -114,13 +114,13 @@ public class Transactor {
         try {
             connection = connectionSupplier.get();
             RESULT result = function.apply(connection);
-            connection.commit();
+            endTransaction(connection, true);
             return result;
         } catch (SQLException ex){
-            connection.rollback();
+            endTransaction(connection, false);
             throw ex;
         } catch (Exception ex) {
-            connection.rollback();
+            endTransaction(connection, false);
             throw ex;
         } finally {
             if (connection != null) {
@@ -128,4 +128,49 @@ public class Transactor {
             }
         }
     }
+
+    /**
+     * Commits the transaction of the connection, which is left open. Ending
+     * a transaction this way, rather than directly on the connection, lets
+     * the query caches know at once that the tables it wrote may be cached
+     * again, rather than after they have gone unwritten for a time.
+     *
+     * @param connection The connection whose transaction is committed.
+     */
+    public static void commit(Connection connection){
+        try {
+            endTransaction(connection, true);
+        } catch (SQLException ex){
+            throw new HrormException(ex);
+        }
+    }
+
+    /**
+     * Rolls back the transaction of the connection, which is left open. Ending
+     * a transaction this way, rather than directly on the connection, lets
+     * the query caches know at once that the tables it wrote may be cached
+     * again, rather than after they have gone unwritten for a time.
+     *
+     * @param connection The connection whose transaction is rolled back.
+     */
+    public static void rollback(Connection connection){
+        try {
+            endTransaction(connection, false);
+        } catch (SQLException ex){
+            throw new HrormException(ex);
+        }
+    }
+
+    private static void endTransaction(Connection connection, boolean commit) throws SQLException {
+        try {
+            if( commit ){
+                connection.commit();
+            } else {
+                connection.rollback();
+            }
+        } finally {
+            // Even a failed commit leaves the rows read from now on to another transaction
+            TableVersions.ended(connection);
+        }
+    }
 }
@@ -250,6 +250,19 @@ public class Where implements StatementPopulator {
         return new Where(columnName, GenericColumn.LONG::setPreparedStatement, elements, true);
     }
 
+    /**
+     * An <code>IN</code> clause for keys that hrorm selects by, such as those
+     * of the parents of children. Where the dialect allows, the keys are bound
+     * as a single array. Otherwise the list is padded by {@link KeyChunks#pad(List)},
+     * so that lists of similar length share the same SQL.
+     */
+    static Where inKeys(String columnName, List<Long> keys, SqlDialect dialect){
+        if( dialect.supportsArrayParameters() ){
+            return new Where(WherePredicate.forLongArray(columnName, keys));
+        }
+        return inLong(columnName, KeyChunks.pad(keys));
+    }
+
     /**
      * Generates an <code>IN</code> clause applying to the specified column and
      * including the passed list of strings.
@@ -599,12 +612,33 @@ public class Where implements StatementPopulator {
         return " where " + tree.render("");
     }
 
+    /**
+     * The where clause with a further predicate joined to it by a logical and.
+     * The predicates of this object are grouped parenthetically.
+     */
+    String renderAnd(String predicate){
+        if ( tree.isEmpty() ){
+            return " where " + predicate;
+        }
+        return " where (" + tree.render("a.") + ") and " + predicate;
+    }
+
     @Override
-    public void populate(PreparedStatement preparedStatement) throws SQLException {
-        int idx = 1;
+    public int populate(PreparedStatement preparedStatement) throws SQLException {
+        return populate(preparedStatement, 1) - 1;
+    }
+
+    /**
+     * Sets the values of the predicates starting at the passed parameter index.
+     *
+     * @return the index of the next parameter after those set
+     */
+    int populate(PreparedStatement preparedStatement, int startIndex) throws SQLException {
+        int idx = startIndex;
         for(WherePredicate atom : this.tree.asList()){
             int cnt = atom.setValue(idx, preparedStatement);
             idx += cnt;
         }
+        return idx;
     }
 }
@@ -1,6 +1,7 @@
 package org.hrorm;
 
 import java.math.BigDecimal;
+import java.sql.Array;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -50,6 +51,14 @@ public class WherePredicate<T> {
         return new WherePredicate<>(name, operator, value, column::setPreparedStatement);
     }
 
+    /**
+     * A predicate matching any of the passed numbers, which are bound
+     * as a single array parameter.
+     */
+    static WherePredicate<Long> forLongArray(String columnName, List<Long> elements){
+        return new WherePredicate<>(columnName, elements);
+    }
+
     private final String columnName;
     private final Operator operator;
     private final List<T> values;
@@ -57,6 +66,7 @@ public class WherePredicate<T> {
 
     private final Boolean nullityCheck;
     private final Boolean inClause;
+    private final boolean arrayParameter;
 
     public WherePredicate(String columnName, boolean nullityCheck){
         this.columnName = columnName;
@@ -65,6 +75,7 @@ public class WherePredicate<T> {
         this.setter = (preparedStatement, index, t) -> {};
         this.nullityCheck = nullityCheck;
         this.inClause = null;
+        this.arrayParameter = false;
     }
 
     public WherePredicate(String columnName, Operator operator, T value, PreparedStatementSetter<T> setter) {
@@ -74,6 +85,7 @@ public class WherePredicate<T> {
         this.setter = setter;
         this.nullityCheck = null;
         this.inClause = null;
+        this.arrayParameter = false;
     }
 
     public WherePredicate(String columnName, PreparedStatementSetter<T> setter, List<T> elements, boolean in){
@@ -83,6 +95,17 @@ public class WherePredicate<T> {
         this.nullityCheck = null;
         this.setter = setter;
         this.inClause = in;
+        this.arrayParameter = false;
+    }
+
+    private WherePredicate(String columnName, List<T> elements){
+        this.columnName = columnName;
+        this.operator = null;
+        this.values = elements;
+        this.nullityCheck = null;
+        this.setter = (preparedStatement, index, t) -> {};
+        this.inClause = null;
+        this.arrayParameter = true;
     }
 
     /**
@@ -100,6 +123,10 @@ public class WherePredicate<T> {
             return prefix + columnName + " IS NOT NULL ";
         }
 
+        if ( arrayParameter ){
+            return prefix + columnName + " = ANY(?) ";
+        }
+
         if ( inClause != null ){
             StringBuilder buf = new StringBuilder();
             buf.append(prefix);
@@ -128,6 +155,11 @@ public class WherePredicate<T> {
      * @throws SQLException on an error
      */
     public int setValue(int index, PreparedStatement statement) throws SQLException {
+        if( arrayParameter ){
+            Array array = statement.getConnection().createArrayOf("BIGINT", values.toArray());
+            statement.setArray(index, array);
+            return 1;
+        }
         for(T value : values){
             setter.apply(statement, index, value);
             index++;
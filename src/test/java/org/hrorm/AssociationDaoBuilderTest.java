@@ -49,4 +49,20 @@ public class AssociationDaoBuilderTest {
         Assert.assertTrue(daoBuilder.ready());
     }
 
+    @Test
+    public void testKeyAllocatorSetsSequenceIncrement(){
+        AssociationDaoBuilder<Movie, Actor> daoBuilder =
+                new AssociationDaoBuilder<>(MediaDaoBuilders.MOVIE_DAO_BUILDER, MediaDaoBuilders.ACTOR_DAO_BUILDER)
+                        .withTableName("actor_movie_association")
+                        .withRightColumnName("movie_id")
+                        .withLeftColumnName("actor_id")
+                        .withPrimaryKeyName("id")
+                        .withSequenceName("actor_movie_sequence")
+                        .withKeyAllocator(KeyAllocator.pooled(50));
+
+        Assert.assertEquals(50, daoBuilder.primaryKey().getKeyAllocator().sequenceIncrement());
+        Assert.assertEquals("create sequence actor_movie_sequence increment by 50;",
+                new Schema(daoBuilder).sequences().get(0));
+    }
+
 }
@@ -0,0 +1,262 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.Columns;
+import org.hrorm.examples.EnumeratedColor;
+import org.hrorm.examples.EnumeratedColorConverter;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Grandchild;
+import org.hrorm.examples.parentage.Parent;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+public class ChangeTrackingTest {
+
+    private static Helper parentsHelper = HelperFactory.forSchema("parents");
+    private static Helper columnsHelper = HelperFactory.forSchema("columns");
+
+    @BeforeClass
+    public static void setUpDb(){
+        parentsHelper.initializeSchema();
+        columnsHelper.initializeSchema();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        parentsHelper.dropSchema();
+        columnsHelper.dropSchema();
+    }
+
+    private static DaoBuilder<Parent> trackingParentDaoBuilder(){
+        DaoBuilder<Grandchild> grandchildDaoBuilder = new DaoBuilder<>("grandchild_table", Grandchild::new)
+                .withPrimaryKey("id", "grandchild_seq", Grandchild::getId, Grandchild::setId)
+                .withParentColumn("child_table_id", Grandchild::getChild, Grandchild::setChild)
+                .withConvertingStringColumn("color", Grandchild::getColor, Grandchild::setColor, new EnumeratedColorConverter());
+        DaoBuilder<Child> childDaoBuilder = new DaoBuilder<>("child_table", Child::new)
+                .withPrimaryKey("id", "child_seq", Child::getId, Child::setId)
+                .withLongColumn("number", Child::getNumber, Child::setNumber)
+                .withParentColumn("parent_table_id", Child::getParent, Child::setParent)
+                .withChildren(Child::getGrandchildList, Child::setGrandchildList, grandchildDaoBuilder);
+        return new DaoBuilder<>("parent_table", Parent::new)
+                .withPrimaryKey("id", "parent_seq", Parent::getId, Parent::setId)
+                .withStringColumn("name", Parent::getName, Parent::setName)
+                .withChildren(Parent::getChildList, Parent::setChildList, childDaoBuilder)
+                .withChangeTracking();
+    }
+
+    private static Parent newParent(String name){
+        List<Child> children = new ArrayList<>();
+        for(long idx = 0; idx < 3; idx++){
+            Grandchild grandchild = new Grandchild();
+            grandchild.setColor(EnumeratedColor.Green);
+            Child child = new Child();
+            child.setNumber(idx);
+            child.setGrandchildList(new ArrayList<>(Arrays.asList(grandchild)));
+            children.add(child);
+        }
+        Parent parent = new Parent();
+        parent.setName(name);
+        parent.setChildList(children);
+        return parent;
+    }
+
+    private static List<QueryEvent> listen(Runnable runnable){
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            runnable.run();
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        return events;
+    }
+
+    private static List<String> statements(List<QueryEvent> events){
+        return events.stream()
+                .map(e -> e.getSql().toLowerCase().substring(0, 6) + " " + e.getTableName())
+                .collect(Collectors.toList());
+    }
+
+    private void withSelectedParent(String name, BiConsumer<Dao<Parent>, Long> test) throws SQLException {
+        Connection connection = parentsHelper.connect();
+        Dao<Parent> insertingDao = trackingParentDaoBuilder().buildDao(connection);
+        Parent parent = newParent(name);
+        insertingDao.insert(parent);
+        try {
+            test.accept(trackingParentDaoBuilder().buildDao(connection), parent.getId());
+        } finally {
+            connection.rollback();
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testUnchangedEntityIsNotWritten() throws SQLException {
+        withSelectedParent("unchanged", (dao, id) -> {
+            Parent parent = dao.selectOne(Where.where("name", Operator.EQUALS, "unchanged"));
+            List<QueryEvent> events = listen(() -> dao.update(parent));
+            Assert.assertEquals(statements(events).toString(), 0, events.size());
+        });
+    }
+
+    @Test
+    public void testInsertedEntityIsTracked() throws SQLException {
+        Connection connection = parentsHelper.connect();
+        Dao<Parent> dao = trackingParentDaoBuilder().buildDao(connection);
+        Parent parent = newParent("inserted");
+        dao.insert(parent);
+
+        List<QueryEvent> events = listen(() -> dao.update(parent));
+        Assert.assertEquals(0, events.size());
+
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    public void testOnlyChangedColumnIsWritten() throws SQLException {
+        withSelectedParent("changed", (dao, id) -> {
+            Parent parent = dao.selectOne(Where.where("name", Operator.EQUALS, "changed"));
+            parent.setName("changed again");
+            List<QueryEvent> events = listen(() -> dao.update(parent));
+
+            Assert.assertEquals(1, events.size());
+            QueryEvent event = events.get(0);
+            Assert.assertEquals("parent_table", event.getTableName());
+            Assert.assertEquals(2, event.getBindCount());
+
+            Parent reread = dao.selectOne(parent.getId());
+            Assert.assertEquals("changed again", reread.getName());
+            Assert.assertEquals(3, reread.getChildList().size());
+        });
+    }
+
+    @Test
+    public void testOnlyChangedChildIsWritten() throws SQLException {
+        withSelectedParent("changed child", (dao, id) -> {
+            Parent parent = dao.selectOne(Where.where("name", Operator.EQUALS, "changed child"));
+            Child child = parent.getChildByNumber(1L);
+            child.setNumber(11L);
+            child.getGrandchildList().get(0).setColor(EnumeratedColor.Red);
+
+            List<QueryEvent> events = listen(() -> dao.update(parent));
+
+            Assert.assertEquals(Arrays.asList("update child_table", "update grandchild_table"), statements(events));
+
+            Parent reread = dao.selectOne(parent.getId());
+            Child rereadChild = reread.getChildByNumber(11L);
+            Assert.assertNotNull(rereadChild);
+            Assert.assertEquals(EnumeratedColor.Red, rereadChild.getGrandchildList().get(0).getColor());
+            Assert.assertNotNull(reread.getChildByNumber(0L));
+            Assert.assertNotNull(reread.getChildByNumber(2L));
+        });
+    }
+
+    @Test
+    public void testRemovedAndAddedChildren() throws SQLException {
+        withSelectedParent("removed child", (dao, id) -> {
+            Parent parent = dao.selectOne(Where.where("name", Operator.EQUALS, "removed child"));
+            List<Child> children = new ArrayList<>(parent.getChildList());
+            children.remove(parent.getChildByNumber(0L));
+            Child added = new Child();
+            added.setNumber(7L);
+            children.add(added);
+            parent.setChildList(children);
+
+            List<QueryEvent> events = listen(() -> dao.update(parent));
+            List<String> statements = statements(events);
+
+            // the existing children are known without asking the database
+            Assert.assertFalse(events.stream().anyMatch(e -> e.getSql().startsWith("select id from child_table")));
+            Assert.assertTrue(statements.contains("insert child_table"));
+            Assert.assertTrue(statements.contains("delete child_table"));
+            Assert.assertTrue(statements.contains("delete grandchild_table"));
+            Assert.assertFalse(statements.contains("update child_table"));
+
+            Parent reread = dao.selectOne(parent.getId());
+            Assert.assertEquals(3, reread.getChildList().size());
+            Assert.assertNull(reread.getChildByNumber(0L));
+            Assert.assertNotNull(reread.getChildByNumber(7L));
+
+            // a second update has nothing left to do
+            Assert.assertEquals(0, listen(() -> dao.update(reread)).size());
+        });
+    }
+
+    @Test
+    public void testUntrackedEntityIsWrittenInFull() throws SQLException {
+        withSelectedParent("untracked", (dao, id) -> {
+            Parent parent = new Parent();
+            parent.setId(id);
+            parent.setName("untracked renamed");
+            parent.setChildList(new ArrayList<>());
+
+            // never read by this dao, so the existing children must be found and removed
+            List<QueryEvent> events = listen(() -> dao.update(parent));
+            List<String> statements = statements(events);
+            Assert.assertTrue(statements.contains("update parent_table"));
+            Assert.assertTrue(events.stream().anyMatch(e -> e.getSql().startsWith("select id from child_table")));
+            Assert.assertTrue(statements.contains("delete child_table"));
+            Assert.assertEquals(0, dao.selectOne(id).getChildList().size());
+        });
+    }
+
+    private static DaoBuilder<Columns> columnsDaoBuilder(){
+        return new DaoBuilder<>("columns_table", Columns::new)
+                .withPrimaryKey("id", "columns_seq", Columns::getId, Columns::setId)
+                .withStringColumn("string_column", Columns::getStringThing, Columns::setStringThing)
+                .withLongColumn("integer_column", Columns::getIntegerThing, Columns::setIntegerThing)
+                .withConvertingStringColumn("color_column", Columns::getColorThing, Columns::setColorThing, new EnumeratedColorConverter());
+    }
+
+    @Test
+    public void testExplicitPartialUpdate() throws SQLException {
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = columnsDaoBuilder().buildDao(connection);
+
+        Columns columns = new Columns();
+        columns.setStringThing("before");
+        columns.setIntegerThing(1L);
+        columns.setColorThing(EnumeratedColor.Blue);
+        dao.insert(columns);
+
+        columns.setStringThing("after");
+        columns.setIntegerThing(2L);
+        columns.setColorThing(EnumeratedColor.Red);
+        dao.update(columns, "string_column", "color_column");
+
+        Columns reread = dao.selectOne(columns.getId());
+        Assert.assertEquals("after", reread.getStringThing());
+        Assert.assertEquals(EnumeratedColor.Red, reread.getColorThing());
+        Assert.assertEquals(1L, (long) reread.getIntegerThing());
+
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    public void testPartialUpdateOfPrimaryKeyRejected() throws SQLException {
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = columnsDaoBuilder().buildDao(connection);
+        Columns columns = new Columns();
+        columns.setId(1L);
+        try {
+            dao.update(columns, "id");
+            Assert.fail("Should not update the primary key");
+        } catch (HrormException expected){
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.join_with_children.DaoBuilders;
+import org.hrorm.examples.join_with_children.Pea;
+import org.hrorm.examples.join_with_children.Pod;
+import org.hrorm.examples.join_with_children.Root;
+import org.hrorm.examples.join_with_children.Stem;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class EntityCacheTest {
+
+    private static Helper helper = HelperFactory.forSchema("entity_caches");
+
+    @BeforeClass
+    public static void setUpDb() {
+        DaoBuilder<Pea> peaDaoBuilder = DaoBuilders.basePeaDaoBuilder();
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder();
+        DaoBuilder<Stem> stemDaoBuilder = DaoBuilders.baseStemDaoBuilder(podDaoBuilder);
+        DaoBuilder<Root> rootDaoBuilder = DaoBuilders.baseRootDaoBuilder(stemDaoBuilder);
+        helper.initializeSchemaFromSql(new Schema(peaDaoBuilder, rootDaoBuilder, stemDaoBuilder, podDaoBuilder).sql());
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static List<QueryEvent> selects(Runnable runnable){
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            runnable.run();
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        return events.stream()
+                .filter(e -> e.getSql().toLowerCase().startsWith("select"))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> insertStems(DaoBuilder<Stem> daoBuilder, String ... tags) throws SQLException {
+        Connection connection = helper.connect();
+        Pod pod = new Pod();
+        pod.setMark("cached");
+        pod.setPeas(new ArrayList<>());
+        DaoBuilders.basePodDaoBuilder().buildDao(connection).insert(pod);
+        Dao<Stem> dao = daoBuilder.buildDao(connection);
+        List<Long> ids = new ArrayList<>();
+        for(String tag : tags){
+            Stem stem = new Stem();
+            stem.setTag(tag);
+            stem.setPod(pod);
+            ids.add(dao.insert(stem));
+        }
+        connection.commit();
+        connection.close();
+        return ids;
+    }
+
+    private static DaoBuilder<Stem> stemDaoBuilder(){
+        return DaoBuilders.baseStemDaoBuilder(DaoBuilders.basePodDaoBuilder());
+    }
+
+    @Test
+    public void testSelectOneIsSharedAcrossConnections() throws SQLException {
+        DaoBuilder<Stem> daoBuilder = stemDaoBuilder().withEntityCache(100, Duration.ofMinutes(5));
+        long id = insertStems(daoBuilder, "shared").get(0);
+
+        Connection connection = helper.connect();
+        Stem stem = daoBuilder.buildDao(connection).selectOne(id);
+        Assert.assertEquals("cached", stem.getPod().getMark());
+        connection.close();
+
+        Connection other = helper.connect();
+        Dao<Stem> otherDao = daoBuilder.buildDao(other);
+        List<Stem> read = new ArrayList<>();
+        Assert.assertTrue(selects(() -> read.add(otherDao.selectOne(id))).isEmpty());
+        Assert.assertSame(stem, read.get(0));
+        other.close();
+
+        CacheStatistics statistics = daoBuilder.entityCache().statistics();
+        Assert.assertEquals(1, statistics.getHitCount());
+        Assert.assertEquals(1, statistics.getMissCount());
+        Assert.assertEquals(0.5, statistics.hitRate(), 0.0001);
+    }
+
+    @Test
+    public void testSelectByKeysOnlySelectsMissingKeys() throws SQLException {
+        DaoBuilder<Stem> daoBuilder = stemDaoBuilder().withEntityCache(100, null);
+        List<Long> ids = insertStems(daoBuilder, "first", "second", "third");
+
+        Connection connection = helper.connect();
+        Dao<Stem> dao = daoBuilder.buildDao(connection);
+        Stem second = dao.selectOne(ids.get(1));
+
+        List<Stem> stems = new ArrayList<>();
+        List<QueryEvent> events = selects(() -> stems.addAll(dao.select(Arrays.asList(ids.get(2), ids.get(1), ids.get(0)))));
+        Assert.assertEquals(1, events.stream().filter(e -> e.getTableName().equals("stem")).count());
+        Assert.assertEquals(Arrays.asList("third", "second", "first"),
+                stems.stream().map(Stem::getTag).collect(Collectors.toList()));
+        Assert.assertSame(second, stems.get(1));
+
+        Assert.assertTrue(selects(() -> dao.select(ids)).isEmpty());
+        Assert.assertEquals(3, daoBuilder.entityCache().size());
+        connection.close();
+    }
+
+    @Test
+    public void testMissesAreCachedOnlyWhenAsked() throws SQLException {
+        Connection connection = helper.connect();
+        long noSuchId = 987654321L;
+
+        Dao<Stem> dao = stemDaoBuilder().withEntityCache(100, null).buildDao(connection);
+        Assert.assertNull(dao.selectOne(noSuchId));
+        Assert.assertEquals(1, selects(() -> dao.selectOne(noSuchId)).size());
+
+        DaoBuilder<Stem> daoBuilder = stemDaoBuilder().withEntityCache(100, null, true);
+        Dao<Stem> missCachingDao = daoBuilder.buildDao(connection);
+        Assert.assertNull(missCachingDao.selectOne(noSuchId));
+        Assert.assertTrue(selects(() -> missCachingDao.selectOne(noSuchId)).isEmpty());
+        Assert.assertTrue(selects(() -> missCachingDao.select(Arrays.asList(noSuchId))).isEmpty());
+        Assert.assertEquals(2, daoBuilder.entityCache().statistics().getHitCount());
+        connection.close();
+    }
+
+    @Test
+    public void testWritesInvalidate() throws SQLException {
+        DaoBuilder<Stem> daoBuilder = stemDaoBuilder().withEntityCache(100, null);
+        long id = insertStems(daoBuilder, "before").get(0);
+
+        Connection connection = helper.connect();
+        Dao<Stem> dao = daoBuilder.buildDao(connection);
+        Stem stem = dao.selectOne(id);
+        stem.setTag("after");
+        dao.update(stem);
+        Assert.assertEquals(0, daoBuilder.entityCache().size());
+
+        List<Stem> read = new ArrayList<>();
+        Assert.assertEquals(1, selects(() -> read.add(dao.selectOne(id))).stream()
+                .filter(e -> e.getTableName().equals("stem")).count());
+        Assert.assertEquals("after", read.get(0).getTag());
+
+        dao.delete(read.get(0));
+        Assert.assertNull(dao.selectOne(id));
+        connection.close();
+    }
+
+    @Test
+    public void testUncommittedWritesAreNotCached() throws SQLException {
+        DaoBuilder<Stem> daoBuilder = stemDaoBuilder().withEntityCache(100, null, true);
+        long id = insertStems(daoBuilder, "committed").get(0);
+
+        Connection writer = helper.connect();
+        Connection reader = helper.connect();
+        writer.setAutoCommit(false);
+        Dao<Stem> writerDao = daoBuilder.buildDao(writer);
+        Dao<Stem> readerDao = daoBuilder.buildDao(reader);
+
+        Stem stem = stemDaoBuilder().buildDao(writer).selectOne(id);
+        stem.setTag("rolled back");
+        writerDao.update(stem);
+        Assert.assertEquals("rolled back", writerDao.selectOne(id).getTag());
+        Assert.assertEquals(0, daoBuilder.entityCache().size());
+        Transactor.rollback(writer);
+        Assert.assertEquals("committed", readerDao.selectOne(id).getTag());
+
+        Stem inserted = new Stem();
+        inserted.setTag("inserted");
+        inserted.setPod(stem.getPod());
+        long insertedId = writerDao.insert(inserted);
+        Assert.assertNull(readerDao.selectOne(insertedId));
+        Assert.assertEquals(1, selects(() -> readerDao.selectOne(insertedId)).stream()
+                .filter(e -> e.getTableName().equals("stem")).count());
+        Transactor.commit(writer);
+        Assert.assertEquals("inserted", readerDao.selectOne(insertedId).getTag());
+
+        writer.close();
+        reader.close();
+    }
+
+    @Test
+    public void testEviction() throws SQLException, InterruptedException {
+        DaoBuilder<Stem> daoBuilder = stemDaoBuilder().withEntityCache(2, Duration.ofMillis(50));
+        List<Long> ids = insertStems(daoBuilder, "one", "two", "three");
+
+        Connection connection = helper.connect();
+        Dao<Stem> dao = daoBuilder.buildDao(connection);
+        dao.select(ids);
+        Assert.assertEquals(2, daoBuilder.entityCache().size());
+        Assert.assertEquals(1, daoBuilder.entityCache().statistics().getEvictionCount());
+
+        Thread.sleep(100);
+        Assert.assertEquals(1, selects(() -> dao.selectOne(ids.get(2))).stream()
+                .filter(e -> e.getTableName().equals("stem")).count());
+        connection.close();
+    }
+
+    @Test
+    public void testInvalidSettings(){
+        try {
+            stemDaoBuilder().withEntityCache(0, null);
+            Assert.fail("Should not allow an empty cache");
+        } catch (HrormException expected){
+        }
+        try {
+            stemDaoBuilder().withEntityCache(10, Duration.ZERO);
+            Assert.fail("Should not allow a cache that holds nothing");
+        } catch (HrormException expected){
+        }
+    }
+    @Test
+    public void testLazyChildrenAreNotCached() throws SQLException {
+        DaoBuilder<Pod> lazyPodDaoBuilder = new DaoBuilder<>("pod", Pod::new)
+                .withPrimaryKey("id", "pod_seq", Pod::getId, Pod::setId)
+                .withStringColumn("mark", Pod::getMark, Pod::setMark)
+                .withLazyChildren(Pod::getPeas, Pod::setPeas, DaoBuilders.basePeaDaoBuilder());
+        DaoBuilder<Stem> daoBuilder = DaoBuilders.baseStemDaoBuilder(lazyPodDaoBuilder).withEntityCache(100, null);
+        Connection connection = helper.connect();
+        try {
+            daoBuilder.buildDao(connection);
+            Assert.fail("Should not cache the lazily loaded peas of the joined pods");
+        } catch (HrormException expected){
+            Assert.assertTrue(expected.getMessage().contains("pea"));
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testCachedEntitiesAreTracked() throws SQLException {
+        DaoBuilder<Stem> daoBuilder = stemDaoBuilder().withEntityCache(100, Duration.ofMinutes(5)).withChangeTracking();
+        List<Long> ids = insertStems(daoBuilder, "tracked one", "tracked two");
+
+        Connection connection = helper.connect();
+        daoBuilder.buildDao(connection).select(ids);
+        connection.close();
+
+        Connection other = helper.connect();
+        Dao<Stem> dao = daoBuilder.buildDao(other);
+        Stem stem = dao.selectOne(ids.get(0));
+        List<Stem> stems = dao.select(ids);
+        Assert.assertSame(stem, stems.get(0));
+        Assert.assertEquals(3, daoBuilder.entityCache().statistics().getHitCount());
+
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            dao.update(stem);
+            dao.update(stems.get(1));
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        Assert.assertTrue(events.isEmpty());
+        other.close();
+    }
+
+}
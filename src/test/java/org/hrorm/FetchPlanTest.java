@@ -0,0 +1,185 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.EnumeratedColor;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Grandchild;
+import org.hrorm.examples.parentage.Parent;
+import org.hrorm.examples.parentage.ParentChildBuilders;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hrorm.Operator.EQUALS;
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class FetchPlanTest {
+
+    private static Helper helper = HelperFactory.forSchema("parents");
+
+    private static final int PARENT_COUNT = 3;
+
+    private static final FetchPlan CHILDREN_ONLY = FetchPlan.NONE.with("child_table", FetchPlan.NONE);
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        helper.initializeSchema();
+
+        List<Parent> parents = new ArrayList<>();
+        for(int idx = 0; idx < PARENT_COUNT; idx++){
+            parents.add(newParent("planned " + idx, 2));
+        }
+        Connection connection = helper.connect();
+        ParentChildBuilders.ParentDaoBuilder.buildDao(connection).insertAll(parents);
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static Parent newParent(String name, int childCount){
+        List<Child> children = new ArrayList<>();
+        for(long number = 0; number < childCount; number++){
+            Grandchild grandchild = new Grandchild();
+            grandchild.setColor(EnumeratedColor.Green);
+            Child child = new Child();
+            child.setNumber(number);
+            child.setGrandchildList(Arrays.asList(grandchild));
+            children.add(child);
+        }
+        Parent parent = new Parent();
+        parent.setName(name);
+        parent.setChildList(children);
+        return parent;
+    }
+
+    private static <T> List<String> selectedTables(Supplier<T> supplier){
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            supplier.get();
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        return events.stream()
+                .filter(e -> e.getSql().toLowerCase().startsWith("select"))
+                .map(QueryEvent::getTableName)
+                .collect(Collectors.toList());
+    }
+
+    private static void assertPlans(DaoBuilder<Parent> daoBuilder) throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = daoBuilder.buildDao(connection);
+        Where where = where("name", LIKE, "planned%");
+
+        List<Parent> parents = new ArrayList<>();
+        List<String> tables = selectedTables(() -> parents.addAll(dao.select(where, Order.ascending("name"), FetchPlan.NONE)));
+        Assert.assertEquals(Collections.singletonList("parent_table"), tables);
+        Assert.assertEquals(PARENT_COUNT, parents.size());
+
+        // Children left out of the plan are still there when used
+        tables = selectedTables(() -> parents.get(1).getChildList().get(0).getGrandchildList().size());
+        Assert.assertEquals(Arrays.asList("child_table", "grandchild_table"), tables);
+        Assert.assertEquals(2, parents.get(2).getChildList().size());
+
+        List<Parent> withChildren = new ArrayList<>();
+        tables = selectedTables(() -> withChildren.addAll(dao.select(where, CHILDREN_ONLY)));
+        Assert.assertFalse(tables.contains("grandchild_table"));
+        Assert.assertTrue(tables.contains("child_table") || daoBuilder.childSelectStrategy() == ChildSelectStrategy.JoinFetch);
+        tables = selectedTables(() -> withChildren.stream().mapToInt(p -> p.getChildList().size()).sum());
+        Assert.assertTrue(tables.isEmpty());
+
+        tables = selectedTables(() -> dao.select(where, FetchPlan.children("CHILD_TABLE")).get(0).getChildList().get(0).getGrandchildList().size());
+        Assert.assertTrue(tables.contains("grandchild_table"));
+        Assert.assertEquals(selectedTables(() -> dao.select(where)), selectedTables(() -> dao.select(where, FetchPlan.ALL)));
+
+        connection.close();
+    }
+
+    @Test
+    public void testStandardStrategy() throws SQLException {
+        assertPlans(ParentChildBuilders.ParentDaoBuilder);
+    }
+
+    @Test
+    public void testByKeysStrategy() throws SQLException {
+        assertPlans(ParentChildBuilders.ParentDaoBuilder_WithInClauseStrategy);
+    }
+
+    @Test
+    public void testSubSelectStrategy() throws SQLException {
+        assertPlans(ParentChildBuilders.ParentDaoBuilder_WithSubselectStrategy);
+    }
+
+    @Test
+    public void testJoinFetchStrategy() throws SQLException {
+        assertPlans(ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy);
+    }
+
+    @Test
+    public void testSelectOneWithoutChildrenThenUpdate() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        Long id = dao.insert(newParent("renamed later", 3));
+        connection.commit();
+
+        Parent parent = dao.selectOne(id, FetchPlan.NONE);
+        parent.setName("renamed");
+        dao.update(parent);
+        connection.commit();
+
+        Parent read = dao.selectOne(where("name", EQUALS, "renamed"), FetchPlan.ALL);
+        Assert.assertEquals(3, read.getChildList().size());
+        connection.close();
+    }
+
+    @Test
+    public void testStream() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder_WithInClauseStrategy.buildDao(connection);
+
+        List<String> tables = selectedTables(() -> {
+            try (Stream<Parent> parents = dao.stream(where("name", LIKE, "planned%"), FetchPlan.NONE)) {
+                return parents.count();
+            }
+        });
+        Assert.assertEquals(Collections.singletonList("parent_table"), tables);
+        connection.close();
+    }
+
+    @Test
+    public void testUnknownChildren() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        try {
+            dao.select(where("name", LIKE, "planned%"), FetchPlan.children("no_such_table"));
+            Assert.fail("Should not select with a plan naming unknown children");
+        } catch (HrormException expected){
+            Assert.assertTrue(expected.getMessage().contains("no_such_table"));
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testEquality(){
+        Assert.assertEquals(FetchPlan.children("child_table"), FetchPlan.NONE.with("CHILD_TABLE", FetchPlan.ALL));
+        Assert.assertNotEquals(FetchPlan.ALL, FetchPlan.NONE);
+        Assert.assertNotEquals(CHILDREN_ONLY, FetchPlan.children("child_table"));
+    }
+}
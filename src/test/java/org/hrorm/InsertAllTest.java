@@ -0,0 +1,144 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.EnumeratedColor;
+import org.hrorm.examples.Simple;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Grandchild;
+import org.hrorm.examples.parentage.Parent;
+import org.hrorm.examples.parentage.ParentChildBuilders;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class InsertAllTest {
+
+    private static Helper helper = HelperFactory.forSchema("parents");
+
+    @BeforeClass
+    public static void setUpDb(){
+        helper.initializeSchema();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static Parent newParent(String name, long ... childNumbers){
+        List<Child> children = new ArrayList<>();
+        for(long number : childNumbers){
+            Grandchild grandchild = new Grandchild();
+            grandchild.setColor(EnumeratedColor.Red);
+            Child child = new Child();
+            child.setNumber(number);
+            child.setGrandchildList(Arrays.asList(grandchild));
+            children.add(child);
+        }
+        Parent parent = new Parent();
+        parent.setName(name);
+        parent.setChildList(children);
+        return parent;
+    }
+
+    @Test
+    public void testInsertAllWithChildren() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> parentDao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+
+        List<Parent> parents = Arrays.asList(
+                newParent("insert all test one", 1L, 2L),
+                newParent("insert all test two"),
+                newParent("insert all test three", 3L, 4L, 5L));
+
+        List<Long> ids = parentDao.insertAll(parents);
+
+        Assert.assertEquals(3, ids.size());
+        for(int idx=0; idx<parents.size(); idx++){
+            Assert.assertEquals(ids.get(idx), parents.get(idx).getId());
+        }
+
+        List<Parent> readParents = parentDao.select(where("name", LIKE, "insert all test%"));
+        Assert.assertEquals(3, readParents.size());
+
+        Parent readThree = parentDao.selectOne(ids.get(2));
+        Assert.assertEquals(3, readThree.getChildList().size());
+        Assert.assertNotNull(readThree.getChildByNumber(4L));
+        Assert.assertEquals(1, readThree.getChildByNumber(4L).getGrandchildList().size());
+        Assert.assertEquals(EnumeratedColor.Red, readThree.getChildByNumber(4L).getGrandchildList().get(0).getColor());
+
+        Parent readTwo = parentDao.selectOne(ids.get(1));
+        Assert.assertEquals(0, readTwo.getChildList().size());
+
+        connection.commit();
+        connection.close();
+    }
+
+    @Test
+    public void testInsertAllUsesBatches() throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        Statement sequenceStatement = Mockito.mock(Statement.class);
+        ResultSet sequenceResultSet = Mockito.mock(ResultSet.class);
+        PreparedStatement insertStatement = Mockito.mock(PreparedStatement.class);
+
+        Mockito.when(connection.createStatement()).thenReturn(sequenceStatement);
+        Mockito.when(sequenceStatement.executeQuery(Mockito.anyString())).thenReturn(sequenceResultSet);
+        Mockito.when(sequenceResultSet.next()).thenReturn(true);
+        Mockito.when(sequenceResultSet.getLong(1)).thenReturn(1L, 2L, 3L, 4L, 5L);
+
+        DaoBuilder<Simple> daoBuilder = new DaoBuilder<>("simple", Simple::new)
+                .withPrimaryKey("simple_id", "simple_seq", Simple::getId, Simple::setId)
+                .withStringColumn("field", Simple::getField, Simple::setField)
+                .withBatchSize(2);
+        Dao<Simple> dao = daoBuilder.buildDao(connection);
+
+        Mockito.when(connection.prepareStatement(dao.queries().insert())).thenReturn(insertStatement);
+
+        List<Simple> simples = new ArrayList<>();
+        for(int idx=0; idx<5; idx++){
+            Simple simple = new Simple();
+            simple.setField("batch " + idx);
+            simples.add(simple);
+        }
+
+        dao.insertAll(simples);
+
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement(dao.queries().insert());
+        Mockito.verify(insertStatement, Mockito.times(5)).addBatch();
+        Mockito.verify(insertStatement, Mockito.times(3)).executeBatch();
+        Mockito.verify(insertStatement, Mockito.never()).execute();
+    }
+
+    @Test
+    public void testInsertAllOfNothing() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> parentDao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+
+        List<Long> ids = parentDao.insertAll(new ArrayList<>());
+
+        Assert.assertTrue(ids.isEmpty());
+
+        connection.commit();
+        connection.close();
+    }
+
+    @Test(expected = HrormException.class)
+    public void testBatchSizeMustBePositive(){
+        new DaoBuilder<>("simple", Simple::new).withBatchSize(0);
+    }
+}
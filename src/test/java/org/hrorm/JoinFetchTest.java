@@ -0,0 +1,175 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.EnumeratedColor;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Grandchild;
+import org.hrorm.examples.parentage.Parent;
+import org.hrorm.examples.parentage.ParentChildBuilders;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hrorm.Operator.EQUALS;
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class JoinFetchTest {
+
+    private static Helper helper = HelperFactory.forSchema("parents");
+
+    private static final int PARENT_COUNT = 5;
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        helper.initializeSchema();
+
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        List<Parent> parents = new ArrayList<>();
+        for(long idx = 0; idx < PARENT_COUNT; idx++){
+            List<Child> children = new ArrayList<>();
+            // The first parent has no children
+            for(long number = 0; number < idx; number++){
+                Grandchild grandchild = new Grandchild();
+                grandchild.setColor(EnumeratedColor.Blue);
+                Child child = new Child();
+                child.setNumber(idx * 10 + number);
+                child.setGrandchildList(Arrays.asList(grandchild));
+                children.add(child);
+            }
+            Parent parent = new Parent();
+            parent.setName("fetched " + idx);
+            parent.setChildList(children);
+            parents.add(parent);
+        }
+        dao.insertAll(parents);
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static void assertFetched(List<Parent> parents){
+        Assert.assertEquals(PARENT_COUNT, parents.size());
+        for(int idx = 0; idx < PARENT_COUNT; idx++){
+            Parent parent = parents.get(idx);
+            Assert.assertEquals("fetched " + idx, parent.getName());
+            Assert.assertEquals(idx, parent.getChildList().size());
+            for(long number = 0; number < idx; number++){
+                Child child = parent.getChildByNumber(idx * 10 + number);
+                Assert.assertNotNull(child);
+                Assert.assertSame(parent, child.getParent());
+                Assert.assertEquals(1, child.getGrandchildList().size());
+                Assert.assertEquals(EnumeratedColor.Blue, child.getGrandchildList().get(0).getColor());
+            }
+        }
+    }
+
+    private static List<String> selectedTables(List<QueryEvent> events){
+        return events.stream()
+                .filter(e -> e.getSql().toLowerCase().startsWith("select"))
+                .map(QueryEvent::getTableName)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testChildrenAreReadWithTheirParents() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy.buildDao(connection);
+
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        List<Parent> parents;
+        try {
+            parents = dao.select(where("name", LIKE, "fetched%"), Order.ascending("name"));
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+
+        assertFetched(parents);
+        // The grandchildren are selected by the keys of the children
+        Assert.assertEquals(Arrays.asList("parent_table", "grandchild_table"), selectedTables(events));
+        // One row for each child, and one for the parent without children
+        Assert.assertEquals(1 + 2 + 3 + 4 + 1, events.get(0).getRowCount());
+        connection.close();
+    }
+
+    @Test
+    public void testSelectAll() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy.buildDao(connection);
+
+        assertFetched(dao.select(Order.ascending("name")));
+
+        List<Parent> unordered = dao.select();
+        Assert.assertEquals(PARENT_COUNT, unordered.size());
+        connection.close();
+    }
+
+    @Test
+    public void testSelectByColumns() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy.buildDao(connection);
+
+        Parent template = new Parent();
+        template.setName("fetched 3");
+        List<Parent> parents = dao.select(template, "name");
+        Assert.assertEquals(1, parents.size());
+        Assert.assertEquals(3, parents.get(0).getChildList().size());
+
+        Parent parent = dao.selectOne(template, "name");
+        Assert.assertEquals(3, parent.getChildList().size());
+        connection.close();
+    }
+
+    @Test
+    public void testParentWithoutChildren() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy.buildDao(connection);
+
+        List<Parent> parents = dao.select(where("name", EQUALS, "fetched 0"));
+        Assert.assertEquals(1, parents.size());
+        Assert.assertEquals(Collections.emptyList(), parents.get(0).getChildList());
+        connection.close();
+    }
+
+    @Test
+    public void testSelectPageFallsBackToKeys() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy.buildDao(connection);
+
+        Page<Parent> page = dao.selectPage(where("name", LIKE, "fetched%"), Order.ascending("name"), 3, null);
+        Assert.assertEquals(3, page.getItems().size());
+        Assert.assertEquals(2, page.getItems().get(2).getChildList().size());
+        Assert.assertTrue(page.hasNext());
+        connection.close();
+    }
+
+    @Test
+    public void testSqlJoinsTheChildTable(){
+        String sql = ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy.buildQueries().select();
+        // The queries of the dao are unchanged; only the selects it runs join the children
+        Assert.assertFalse(sql.contains("child_table"));
+
+        SqlBuilder<Parent> sqlBuilder = new SqlBuilder<>(ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy);
+        DaoDescriptor<Child, Child> childDescriptor = new RelativeDaoDescriptor<>(
+                ParentChildBuilders.ChildDaoBuilder_WithInClauseStrategy, "j0_a", new Prefixer("j0_"));
+        String joinFetchSql = sqlBuilder.selectJoinFetch(Arrays.asList(childDescriptor));
+        Assert.assertTrue(joinFetchSql.contains(" LEFT JOIN child_table j0_a ON j0_a.parent_table_id=a.id"));
+        Assert.assertTrue(joinFetchSql.contains("j0_a.number as j0_anumber"));
+    }
+}
@@ -441,6 +441,81 @@ public class JoinWithChildrenTest {
     }
 
 
+    @Test
+    public void testLazyChildrenOfJoinedEntitiesAreLoadedTogether(){
+        DaoBuilder<Pod> lazyPodDaoBuilder = new DaoBuilder<>("pod", Pod::new)
+                .withPrimaryKey("id", "pod_seq", Pod::getId, Pod::setId)
+                .withStringColumn("mark", Pod::getMark, Pod::setMark)
+                .withLazyChildren(Pod::getPeas, Pod::setPeas, DaoBuilders.basePeaDaoBuilder());
+        List<QueryEvent> events = new ArrayList<>();
+        helper.useConnection(con -> {
+            Dao<Stem> stemDao = DaoBuilders.baseStemDaoBuilder(DaoBuilders.basePodDaoBuilder()).buildDao(con);
+            for(int idx = 0; idx < 3; idx++){
+                Pea pea = new Pea();
+                pea.setFlag("lazy pea " + idx);
+                Pod pod = new Pod();
+                pod.setMark("lazy pod " + idx);
+                pod.setPeas(Arrays.asList(pea));
+                Stem stem = new Stem();
+                stem.setTag("lazy stem " + idx);
+                stem.setPod(pod);
+                DaoBuilders.basePodDaoBuilder().buildDao(con).insert(pod);
+                stemDao.insert(stem);
+            }
+
+            List<Stem> stems = DaoBuilders.baseStemDaoBuilder(lazyPodDaoBuilder).buildDao(con).select(Order.ascending("tag"));
+            QueryListener.setGlobal(events::add);
+            try {
+                for(int idx = 0; idx < 3; idx++){
+                    Assert.assertEquals("lazy pea " + idx, stems.get(idx).getPod().getPeas().get(0).getFlag());
+                }
+            } finally {
+                QueryListener.setGlobal(QueryListener.NONE);
+            }
+            return null;
+        });
+
+        // Using the peas of one pod loads those of all of them
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals("pea", events.get(0).getTableName());
+    }
+
+    @Test
+    public void testManyOrphansAreDeletedInChunks(){
+        List<QueryEvent> events = new ArrayList<>();
+        List<Pea> peas = helper.useConnection(con -> {
+            Pod pod = new Pod();
+            pod.setMark("many peas");
+            List<Pea> ps = new ArrayList<>();
+            for(int idx = 0; idx < 2500; idx++){
+                Pea pea = new Pea();
+                pea.setFlag("pea " + idx);
+                ps.add(pea);
+            }
+            pod.setPeas(ps);
+            Dao<Pod> dao = DaoBuilders.basePodDaoBuilder().buildDao(con);
+            dao.insert(pod);
+
+            pod.setPeas(new ArrayList<>(ps.subList(0, 10)));
+            QueryListener.setGlobal(events::add);
+            try {
+                dao.update(pod);
+            } finally {
+                QueryListener.setGlobal(QueryListener.NONE);
+            }
+            return dao.selectOne(pod.getId()).getPeas();
+        });
+
+        Assert.assertEquals(10, peas.size());
+        List<String> deletes = events.stream()
+                .map(QueryEvent::getSql)
+                .filter(sql -> sql.toLowerCase().startsWith("delete"))
+                .collect(Collectors.toList());
+        // 2490 orphans, in chunks of 1024, 1024 and 442 padded to 512
+        Assert.assertEquals(3, deletes.size());
+        Assert.assertEquals(512, deletes.get(2).chars().filter(c -> c == '?').count());
+    }
+
     @Test
     public void disallowIncompatibleChildSelectStrategies(){
 
@@ -0,0 +1,145 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.Simple;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public class KeyAllocatorTest {
+
+    private static final DaoBuilder<Simple> POOLED_DAO_BUILDER =
+            new DaoBuilder<>("simple", Simple::new)
+                    .withPrimaryKey("simple_id", "simple_seq", Simple::getId, Simple::setId, KeyAllocator.pooled(10))
+                    .withStringColumn("field", Simple::getField, Simple::setField);
+
+    private static Helper helper = HelperFactory.forSchema("pooled_keys");
+
+    @BeforeClass
+    public static void setUpDb(){
+        Schema schema = new Schema(POOLED_DAO_BUILDER);
+        helper.initializeSchemaFromSql(schema.sql());
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static LongSupplier countingSequence(AtomicLong calls, long start, long increment){
+        AtomicLong value = new AtomicLong(start - increment);
+        return () -> {
+            calls.incrementAndGet();
+            return value.addAndGet(increment);
+        };
+    }
+
+    @Test
+    public void testSequenceAllocatorCallsSequenceEveryTime(){
+        AtomicLong calls = new AtomicLong();
+        LongSupplier sequence = countingSequence(calls, 1, 1);
+        KeyAllocator allocator = KeyAllocator.sequence();
+        for(long expected = 1; expected <= 5; expected++){
+            Assert.assertEquals(expected, allocator.nextKey(sequence));
+        }
+        Assert.assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void testPooledAllocatorReservesBlocks(){
+        AtomicLong calls = new AtomicLong();
+        LongSupplier sequence = countingSequence(calls, 1, 5);
+        KeyAllocator allocator = KeyAllocator.pooled(5);
+        for(long expected = 1; expected <= 12; expected++){
+            Assert.assertEquals(expected, allocator.nextKey(sequence));
+        }
+        Assert.assertEquals(3, calls.get());
+        Assert.assertEquals(5, allocator.sequenceIncrement());
+    }
+
+    @Test
+    public void testHiLoAllocatorReservesBlocks(){
+        AtomicLong calls = new AtomicLong();
+        LongSupplier sequence = countingSequence(calls, 1, 1);
+        KeyAllocator allocator = KeyAllocator.hiLo(10);
+        Assert.assertEquals(10, allocator.nextKey(sequence));
+        for(int idx = 0; idx < 9; idx++){
+            allocator.nextKey(sequence);
+        }
+        Assert.assertEquals(20, allocator.nextKey(sequence));
+        Assert.assertEquals(2, calls.get());
+        Assert.assertEquals(1, allocator.sequenceIncrement());
+    }
+
+    @Test
+    public void testHiLoNeverIssuesZero(){
+        AtomicLong calls = new AtomicLong();
+        LongSupplier sequence = countingSequence(calls, 0, 1);
+        KeyAllocator allocator = KeyAllocator.hiLo(1);
+        Assert.assertEquals(1, allocator.nextKey(sequence));
+        Assert.assertEquals(2, allocator.nextKey(sequence));
+    }
+
+    @Test
+    public void testAllocatorIsThreadSafe() throws InterruptedException {
+        AtomicLong calls = new AtomicLong();
+        LongSupplier sequence = countingSequence(calls, 1, 7);
+        KeyAllocator allocator = KeyAllocator.pooled(7);
+        Set<Long> keys = Collections.synchronizedSet(new HashSet<>());
+        List<Thread> threads = new ArrayList<>();
+        for(int idx = 0; idx < 4; idx++){
+            Thread thread = new Thread(() -> {
+                for(int jdx = 0; jdx < 1000; jdx++){
+                    keys.add(allocator.nextKey(sequence));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for(Thread thread : threads){
+            thread.join();
+        }
+        Assert.assertEquals(4000, keys.size());
+    }
+
+    @Test
+    public void testSchemaDeclaresIncrement(){
+        Schema schema = new Schema(POOLED_DAO_BUILDER);
+        Assert.assertEquals("create sequence simple_seq increment by 10;", schema.sequences().get(0));
+    }
+
+    @Test
+    public void testPooledInsertsAgainstDatabase() throws SQLException {
+        Set<Long> ids = new HashSet<>();
+        for(int round = 0; round < 3; round++) {
+            Connection connection = helper.connect();
+            Dao<Simple> dao = POOLED_DAO_BUILDER.buildDao(connection);
+            for (int idx = 0; idx < 15; idx++) {
+                Simple simple = new Simple();
+                simple.setField("pooled " + round + " " + idx);
+                ids.add(dao.insert(simple));
+            }
+            connection.commit();
+            connection.close();
+        }
+
+        Assert.assertEquals(45, ids.size());
+
+        Connection connection = helper.connect();
+        Dao<Simple> dao = POOLED_DAO_BUILDER.buildDao(connection);
+        Assert.assertEquals(45, dao.select().size());
+        connection.close();
+    }
+}
@@ -0,0 +1,123 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.Simple;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class KeyChunksTest {
+
+    private static Helper helper = HelperFactory.forSchema("simple");
+
+    private static final int RECORD_COUNT = 2500;
+
+    private static List<Long> ids = new ArrayList<>();
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        helper.initializeSchema();
+
+        Connection connection = helper.connect();
+        Dao<Simple> dao = daoBuilder().buildDao(connection);
+        List<Simple> simples = new ArrayList<>();
+        for(int idx = 0; idx < RECORD_COUNT; idx++){
+            Simple simple = new Simple();
+            simple.setField("chunked " + idx);
+            simples.add(simple);
+        }
+        ids.addAll(dao.insertAll(simples));
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static DaoBuilder<Simple> daoBuilder(){
+        return new DaoBuilder<>("simple", Simple::new)
+                .withPrimaryKey("simple_id", "simple_seq", Simple::getId, Simple::setId)
+                .withStringColumn("field", Simple::getField, Simple::setField);
+    }
+
+    private List<Simple> selectByIds(DaoBuilder<Simple> daoBuilder, List<QueryEvent> events) throws SQLException {
+        Connection connection = helper.connect();
+        try {
+            Dao<Simple> dao = daoBuilder.withQueryListener(events::add).buildDao(connection);
+            return dao.select(ids);
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testLargeListsAreSplit() throws SQLException {
+        List<QueryEvent> events = new ArrayList<>();
+        List<Simple> simples = selectByIds(daoBuilder(), events);
+
+        Assert.assertEquals(RECORD_COUNT, simples.size());
+        Assert.assertEquals(3, events.size());
+        // The last chunk of 452 keys is padded to 512
+        long lastBindCount = events.get(2).getSql().chars().filter(c -> c == '?').count();
+        Assert.assertEquals(512, lastBindCount);
+    }
+
+    @Test
+    public void testArrayParameter() throws SQLException {
+        List<QueryEvent> events = new ArrayList<>();
+        List<Simple> simples = selectByIds(daoBuilder().withDialect(SqlDialect.H2), events);
+
+        Assert.assertEquals(RECORD_COUNT, simples.size());
+        Assert.assertEquals(1, events.size());
+        Assert.assertTrue(events.get(0).getSql().contains("simple_id = ANY(?)"));
+        List<Long> foundIds = simples.stream().map(Simple::getId).sorted().collect(Collectors.toList());
+        Assert.assertEquals(ids, foundIds);
+    }
+
+    @Test
+    public void testNoKeysSelectsNothing() throws SQLException {
+        List<QueryEvent> events = new ArrayList<>();
+        Connection connection = helper.connect();
+        Dao<Simple> dao = daoBuilder().withQueryListener(events::add).buildDao(connection);
+
+        Assert.assertEquals(Collections.emptyList(), dao.select(Collections.emptyList()));
+        Assert.assertTrue(events.isEmpty());
+        connection.close();
+    }
+
+    @Test
+    public void testSplitIgnoresRepeats(){
+        List<List<Long>> chunks = KeyChunks.split(Arrays.asList(3L, 1L, 3L, 2L), SqlDialect.Standard);
+        Assert.assertEquals(Collections.singletonList(Arrays.asList(3L, 1L, 2L)), chunks);
+    }
+
+    @Test
+    public void testPaddedSizes(){
+        Assert.assertEquals(8, KeyChunks.paddedSize(1));
+        Assert.assertEquals(8, KeyChunks.paddedSize(8));
+        Assert.assertEquals(16, KeyChunks.paddedSize(9));
+        Assert.assertEquals(KeyChunks.MAX_CHUNK_SIZE, KeyChunks.paddedSize(KeyChunks.MAX_CHUNK_SIZE));
+
+        List<Long> padded = KeyChunks.pad(Arrays.asList(4L, 5L, 6L));
+        Assert.assertEquals(Arrays.asList(4L, 5L, 6L, 6L, 6L, 6L, 6L, 6L), padded);
+    }
+
+    @Test
+    public void testSimilarListsShareSql(){
+        String three = Where.inKeys("id", Arrays.asList(1L, 2L, 3L), SqlDialect.Standard).render();
+        String seven = Where.inKeys("id", Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L), SqlDialect.Standard).render();
+        Assert.assertEquals(three, seven);
+    }
+}
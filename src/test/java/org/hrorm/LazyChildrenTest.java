@@ -0,0 +1,207 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.EnumeratedColor;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Grandchild;
+import org.hrorm.examples.parentage.Parent;
+import org.hrorm.examples.parentage.ParentChildBuilders;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class LazyChildrenTest {
+
+    private static Helper helper = HelperFactory.forSchema("parents");
+
+    private static final int PARENT_COUNT = 4;
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        helper.initializeSchema();
+
+        List<Parent> parents = new ArrayList<>();
+        for(int idx = 0; idx < PARENT_COUNT; idx++){
+            parents.add(newParent("lazy " + idx, idx));
+        }
+        insert(parents);
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static Parent newParent(String name, int childCount){
+        List<Child> children = new ArrayList<>();
+        for(long number = 0; number < childCount; number++){
+            Grandchild grandchild = new Grandchild();
+            grandchild.setColor(EnumeratedColor.Red);
+            Child child = new Child();
+            child.setNumber(number);
+            child.setGrandchildList(Arrays.asList(grandchild));
+            children.add(child);
+        }
+        Parent parent = new Parent();
+        parent.setName(name);
+        parent.setChildList(children);
+        return parent;
+    }
+
+    private static void insert(List<Parent> parents) throws SQLException {
+        Connection connection = helper.connect();
+        ParentChildBuilders.ParentDaoBuilder.buildDao(connection).insertAll(parents);
+        connection.commit();
+        connection.close();
+    }
+
+    private static List<String> selectedTables(Runnable runnable){
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            runnable.run();
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        return events.stream()
+                .filter(e -> e.getSql().toLowerCase().startsWith("select"))
+                .map(QueryEvent::getTableName)
+                .collect(Collectors.toList());
+    }
+
+    private static DaoBuilder<Parent> lazyParentDaoBuilder(ChildSelectStrategy childSelectStrategy){
+        return new DaoBuilder<>("parent_table", Parent::new)
+                .withPrimaryKey("id", "parent_seq", Parent::getId, Parent::setId)
+                .withStringColumn("name", Parent::getName, Parent::setName)
+                .withLazyChildren(Parent::getChildList, Parent::setChildList, ParentChildBuilders.ChildDaoBuilder_WithInClauseStrategy)
+                .withChildSelectStrategy(childSelectStrategy);
+    }
+
+    private void assertLoadedTogether(ChildSelectStrategy childSelectStrategy) throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = lazyParentDaoBuilder(childSelectStrategy).buildDao(connection);
+
+        List<Parent> parents = new ArrayList<>();
+        List<String> tables = selectedTables(() ->
+                parents.addAll(dao.select(where("name", LIKE, "lazy%"), Order.ascending("name"))));
+        Assert.assertEquals(PARENT_COUNT, parents.size());
+        Assert.assertEquals(Arrays.asList("parent_table"), tables);
+
+        // Using the children of one parent loads those of all of them
+        tables = selectedTables(() -> Assert.assertEquals(2, parents.get(2).getChildList().size()));
+        Assert.assertEquals(Arrays.asList("child_table", "grandchild_table"), tables);
+
+        tables = selectedTables(() -> {
+            for(int idx = 0; idx < PARENT_COUNT; idx++){
+                Parent parent = parents.get(idx);
+                Assert.assertEquals(idx, parent.getChildList().size());
+                for(Child child : parent.getChildList()){
+                    Assert.assertSame(parent, child.getParent());
+                    Assert.assertEquals(EnumeratedColor.Red, child.getGrandchildList().get(0).getColor());
+                }
+            }
+        });
+        Assert.assertTrue(tables.isEmpty());
+        connection.close();
+    }
+
+    @Test
+    public void testStandardStrategy() throws SQLException {
+        assertLoadedTogether(ChildSelectStrategy.Standard);
+    }
+
+    @Test
+    public void testByKeysStrategy() throws SQLException {
+        assertLoadedTogether(ChildSelectStrategy.ByKeysInClause);
+    }
+
+    @Test
+    public void testSubSelectStrategy() throws SQLException {
+        assertLoadedTogether(ChildSelectStrategy.SubSelectInClause);
+    }
+
+    @Test
+    public void testJoinFetchStrategy() throws SQLException {
+        assertLoadedTogether(ChildSelectStrategy.JoinFetch);
+    }
+
+    @Test
+    public void testStream() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = lazyParentDaoBuilder(ChildSelectStrategy.Standard).withFetchSize(10).buildDao(connection);
+
+        long[] childCount = new long[1];
+        List<String> tables = selectedTables(() -> {
+            try (Stream<Parent> parents = dao.stream(where("name", LIKE, "lazy%"))) {
+                childCount[0] = parents.mapToLong(p -> p.getChildList().size()).sum();
+            }
+        });
+        Assert.assertEquals(0 + 1 + 2 + 3, childCount[0]);
+        // The stream reports its select when it is closed
+        Assert.assertEquals(Arrays.asList("child_table", "grandchild_table", "parent_table"), tables);
+        connection.close();
+    }
+
+    @Test
+    public void testUnusedChildrenAreLeftAloneOnUpdate() throws SQLException {
+        insert(Arrays.asList(newParent("unused", 3)));
+        Connection connection = helper.connect();
+        Dao<Parent> dao = lazyParentDaoBuilder(ChildSelectStrategy.Standard).buildDao(connection);
+
+        Parent parent = dao.selectOne(where("name", LIKE, "unused"));
+        parent.setName("renamed");
+        dao.update(parent);
+        connection.commit();
+        connection.close();
+
+        Connection readConnection = helper.connect();
+        Parent read = ParentChildBuilders.ParentDaoBuilder.buildDao(readConnection).selectOne(where("name", LIKE, "renamed"));
+        Assert.assertEquals(3, read.getChildList().size());
+        readConnection.close();
+    }
+
+    @Test
+    public void testUsedChildrenAreSaved() throws SQLException {
+        insert(Arrays.asList(newParent("used", 3)));
+        Connection connection = helper.connect();
+        Dao<Parent> dao = lazyParentDaoBuilder(ChildSelectStrategy.ByKeysInClause).buildDao(connection);
+
+        Parent parent = dao.selectOne(where("name", LIKE, "used"));
+        parent.getChildList().remove(0);
+        dao.update(parent);
+        connection.commit();
+        connection.close();
+
+        Connection readConnection = helper.connect();
+        Parent read = ParentChildBuilders.ParentDaoBuilder.buildDao(readConnection).selectOne(where("name", LIKE, "used"));
+        Assert.assertEquals(2, read.getChildList().size());
+        readConnection.close();
+    }
+
+    @Test
+    public void testClosedConnection() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = lazyParentDaoBuilder(ChildSelectStrategy.Standard).buildDao(connection);
+        Parent parent = dao.selectOne(where("name", LIKE, "lazy 2"));
+        connection.close();
+        try {
+            parent.getChildList().size();
+            Assert.fail("Should not load children on a closed connection");
+        } catch (HrormException expected){
+            Assert.assertTrue(expected.getMessage().contains("child_table"));
+        }
+    }
+}
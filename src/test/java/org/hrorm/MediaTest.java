@@ -17,7 +17,10 @@ import org.junit.Test;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.hrorm.Where.where;
@@ -257,4 +260,237 @@ public class MediaTest {
         connection.close();
     }
 
+    @Test
+    public void testAssociationDaoSelectRightAssociatesOfMany() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Actor> actorDao = MediaDaoBuilders.ACTOR_DAO_BUILDER.buildDao(connection);
+        Actor graceKelly = actorDao.select(where("name", Operator.EQUALS, "Grace Kelly")).get(0);
+        Actor caryGrant = actorDao.select(where("name", Operator.EQUALS, "Cary Grant")).get(0);
+        Actor jimmyStewart = new Actor();
+        jimmyStewart.setName("Jimmy Stewart");
+        actorDao.insert(jimmyStewart);
+
+        AssociationDao<Actor, Movie> associationDao = MediaDaoBuilders.ASSOCIATION_DAO_BUILDER.buildDao(connection);
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        Map<Actor, List<Movie>> moviesByActor;
+        try {
+            moviesByActor = associationDao.selectRightAssociates(Arrays.asList(graceKelly, jimmyStewart, caryGrant));
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+
+        Assert.assertEquals(1, events.size());
+        String sql = events.get(0).getSql().toLowerCase();
+        Assert.assertTrue(sql.contains("movies"));
+        Assert.assertFalse(sql.contains("actors"));
+
+        Assert.assertEquals(Arrays.asList(graceKelly, jimmyStewart, caryGrant), new ArrayList<>(moviesByActor.keySet()));
+        AssertHelp.sameContents(new String[]{"High Noon", "To Catch A Thief"},
+                moviesByActor.get(graceKelly).stream().map(Movie::getTitle).collect(Collectors.toList()));
+        AssertHelp.sameContents(new String[]{"North By Northwest", "To Catch A Thief"},
+                moviesByActor.get(caryGrant).stream().map(Movie::getTitle).collect(Collectors.toList()));
+        Assert.assertTrue(moviesByActor.get(jimmyStewart).isEmpty());
+        connection.close();
+    }
+
+    @Test
+    public void testAssociationDaoSelectLeftAssociatesOfMany() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Movie> movieDao = MediaDaoBuilders.MOVIE_DAO_BUILDER.buildDao(connection);
+        Movie raisingArizona = movieDao.select(where("title", Operator.EQUALS, "Raising Arizona")).get(0);
+        Movie highNoon = movieDao.select(where("title", Operator.EQUALS, "High Noon")).get(0);
+
+        AssociationDao<Actor, Movie> associationDao = MediaDaoBuilders.ASSOCIATION_DAO_BUILDER.buildDao(connection);
+        Map<Movie, List<Actor>> actorsByMovie = associationDao.selectLeftAssociates(Arrays.asList(raisingArizona, highNoon));
+
+        Assert.assertEquals(2, actorsByMovie.size());
+        AssertHelp.sameContents(new String[]{"Holly Hunter", "Nicolas Cage"},
+                actorsByMovie.get(raisingArizona).stream().map(Actor::getName).collect(Collectors.toList()));
+        AssertHelp.sameContents(new String[]{"Grace Kelly", "Gary Cooper"},
+                actorsByMovie.get(highNoon).stream().map(Actor::getName).collect(Collectors.toList()));
+        connection.close();
+    }
+
+    @Test
+    public void testAssociationDaoSelectAssociateIds() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Actor> actorDao = MediaDaoBuilders.ACTOR_DAO_BUILDER.buildDao(connection);
+        Dao<Movie> movieDao = MediaDaoBuilders.MOVIE_DAO_BUILDER.buildDao(connection);
+        Actor hollyHunter = actorDao.select(where("name", Operator.EQUALS, "Holly Hunter")).get(0);
+        Movie broadcastNews = movieDao.select(where("title", Operator.EQUALS, "Broadcast News")).get(0);
+        Movie raisingArizona = movieDao.select(where("title", Operator.EQUALS, "Raising Arizona")).get(0);
+
+        AssociationDao<Actor, Movie> associationDao = MediaDaoBuilders.ASSOCIATION_DAO_BUILDER.buildDao(connection);
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        long[] movieIds;
+        try {
+            movieIds = associationDao.selectRightAssociateIds(hollyHunter);
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        Assert.assertEquals(1, events.size());
+        String sql = events.get(0).getSql().toLowerCase();
+        Assert.assertFalse(sql.contains("movies"));
+        Assert.assertFalse(sql.contains("actors"));
+
+        Arrays.sort(movieIds);
+        long[] expected = { raisingArizona.getId(), broadcastNews.getId() };
+        Arrays.sort(expected);
+        Assert.assertArrayEquals(expected, movieIds);
+
+        Assert.assertEquals(3, associationDao.selectLeftAssociateIds(broadcastNews).length);
+        connection.close();
+    }
+
+    private static List<QueryEvent> events(Runnable runnable){
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            runnable.run();
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        return events;
+    }
+
+    private static long countStatements(List<QueryEvent> events, String verb){
+        return events.stream()
+                .map(e -> e.getSql().toLowerCase())
+                .filter(sql -> sql.startsWith(verb) && ! sql.contains("nextval"))
+                .count();
+    }
+
+    @Test
+    public void testInsertAssociations() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Actor> actorDao = MediaDaoBuilders.ACTOR_DAO_BUILDER.buildDao(connection);
+        Dao<Movie> movieDao = MediaDaoBuilders.MOVIE_DAO_BUILDER.buildDao(connection);
+        Actor caryGrant = actorDao.select(where("name", Operator.EQUALS, "Cary Grant")).get(0);
+        Actor graceKelly = actorDao.select(where("name", Operator.EQUALS, "Grace Kelly")).get(0);
+        Movie raisingArizona = movieDao.select(where("title", Operator.EQUALS, "Raising Arizona")).get(0);
+        Movie highNoon = movieDao.select(where("title", Operator.EQUALS, "High Noon")).get(0);
+
+        AssociationDao<Actor, Movie> associationDao = MediaDaoBuilders.ASSOCIATION_DAO_BUILDER.buildDao(connection);
+        List<Long> ids = new ArrayList<>();
+        List<QueryEvent> events = events(() -> ids.addAll(associationDao.insertAssociations(Arrays.asList(
+                new Pair<>(caryGrant, raisingArizona),
+                new Pair<>(caryGrant, highNoon),
+                new Pair<>(graceKelly, raisingArizona)))));
+
+        Assert.assertEquals(3, ids.size());
+        Assert.assertEquals(3, ids.stream().distinct().count());
+        Assert.assertEquals(1, countStatements(events, "insert"));
+
+        AssertHelp.sameContents(new String[]{"North By Northwest", "To Catch A Thief", "Raising Arizona", "High Noon"},
+                associationDao.selectRightAssociates(caryGrant).stream().map(Movie::getTitle).collect(Collectors.toList()));
+        AssertHelp.sameContents(new String[]{"Holly Hunter", "Nicolas Cage", "Cary Grant", "Grace Kelly"},
+                associationDao.selectLeftAssociates(raisingArizona).stream().map(Actor::getName).collect(Collectors.toList()));
+        connection.close();
+    }
+
+    @Test
+    public void testDeleteAssociationRunsOneStatement() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Actor> actorDao = MediaDaoBuilders.ACTOR_DAO_BUILDER.buildDao(connection);
+        Dao<Movie> movieDao = MediaDaoBuilders.MOVIE_DAO_BUILDER.buildDao(connection);
+        Actor williamHurt = actorDao.select(where("name", Operator.EQUALS, "William Hurt")).get(0);
+        Movie broadcastNews = movieDao.select(where("title", Operator.EQUALS, "Broadcast News")).get(0);
+
+        AssociationDao<Actor, Movie> associationDao = MediaDaoBuilders.ASSOCIATION_DAO_BUILDER.buildDao(connection);
+        List<QueryEvent> events = events(() -> associationDao.deleteAssociation(williamHurt, broadcastNews));
+
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(1, countStatements(events, "delete"));
+        Assert.assertEquals(0, associationDao.selectRightAssociateIds(williamHurt).length);
+        Assert.assertEquals(2, associationDao.selectLeftAssociateIds(broadcastNews).length);
+        connection.close();
+    }
+
+    @Test
+    public void testDeleteAssociationOfUnsavedEntity() throws SQLException {
+        Connection connection = helper.connect();
+        Movie broadcastNews = MediaDaoBuilders.MOVIE_DAO_BUILDER.buildDao(connection)
+                .select(where("title", Operator.EQUALS, "Broadcast News")).get(0);
+        Actor unsaved = new Actor();
+        unsaved.setName("Unsaved");
+
+        AssociationDao<Actor, Movie> associationDao = MediaDaoBuilders.ASSOCIATION_DAO_BUILDER.buildDao(connection);
+        try {
+            associationDao.deleteAssociation(unsaved, broadcastNews);
+            Assert.fail("Should not delete the association of an entity without a key");
+        } catch (HrormException expected){
+        }
+        Assert.assertEquals(3, associationDao.selectLeftAssociateIds(broadcastNews).length);
+        connection.close();
+    }
+
+    @Test
+    public void testSyncRightAssociates() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Actor> actorDao = MediaDaoBuilders.ACTOR_DAO_BUILDER.buildDao(connection);
+        Dao<Movie> movieDao = MediaDaoBuilders.MOVIE_DAO_BUILDER.buildDao(connection);
+        Actor hollyHunter = actorDao.select(where("name", Operator.EQUALS, "Holly Hunter")).get(0);
+        Movie broadcastNews = movieDao.select(where("title", Operator.EQUALS, "Broadcast News")).get(0);
+        Movie highNoon = movieDao.select(where("title", Operator.EQUALS, "High Noon")).get(0);
+        Movie northByNorthwest = movieDao.select(where("title", Operator.EQUALS, "North By Northwest")).get(0);
+
+        AssociationDao<Actor, Movie> associationDao = MediaDaoBuilders.ASSOCIATION_DAO_BUILDER.buildDao(connection);
+        List<QueryEvent> events = events(() -> associationDao.syncRightAssociates(hollyHunter,
+                Arrays.asList(broadcastNews, highNoon, northByNorthwest, highNoon)));
+
+        Assert.assertEquals(1, countStatements(events, "select"));
+        Assert.assertEquals(1, countStatements(events, "delete"));
+        Assert.assertEquals(1, countStatements(events, "insert"));
+        AssertHelp.sameContents(new String[]{"Broadcast News", "High Noon", "North By Northwest"},
+                associationDao.selectRightAssociates(hollyHunter).stream().map(Movie::getTitle).collect(Collectors.toList()));
+
+        List<QueryEvent> unchanged = events(() -> associationDao.syncRightAssociates(hollyHunter,
+                Arrays.asList(northByNorthwest, broadcastNews, highNoon)));
+        Assert.assertEquals(1, unchanged.size());
+
+        associationDao.syncRightAssociates(hollyHunter, new ArrayList<>());
+        Assert.assertTrue(associationDao.selectRightAssociates(hollyHunter).isEmpty());
+        AssertHelp.sameContents(new String[]{"Grace Kelly", "Gary Cooper"},
+                associationDao.selectLeftAssociates(highNoon).stream().map(Actor::getName).collect(Collectors.toList()));
+        connection.close();
+    }
+
+    @Test
+    public void testSyncLeftAssociates() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Actor> actorDao = MediaDaoBuilders.ACTOR_DAO_BUILDER.buildDao(connection);
+        Dao<Movie> movieDao = MediaDaoBuilders.MOVIE_DAO_BUILDER.buildDao(connection);
+        Actor nicolasCage = actorDao.select(where("name", Operator.EQUALS, "Nicolas Cage")).get(0);
+        Actor caryGrant = actorDao.select(where("name", Operator.EQUALS, "Cary Grant")).get(0);
+        Movie raisingArizona = movieDao.select(where("title", Operator.EQUALS, "Raising Arizona")).get(0);
+
+        AssociationDao<Actor, Movie> associationDao = MediaDaoBuilders.ASSOCIATION_DAO_BUILDER.buildDao(connection);
+        associationDao.syncLeftAssociates(raisingArizona, Arrays.asList(nicolasCage, caryGrant));
+
+        AssertHelp.sameContents(new String[]{"Nicolas Cage", "Cary Grant"},
+                associationDao.selectLeftAssociates(raisingArizona).stream().map(Actor::getName).collect(Collectors.toList()));
+        connection.close();
+    }
+
+    @Test
+    public void testAssociationSelectsInASession() throws SQLException {
+        Connection connection = helper.connect();
+        try (Session session = new Session(connection)) {
+            Actor graceKelly = session.dao(MediaDaoBuilders.ACTOR_DAO_BUILDER).select(where("name", Operator.EQUALS, "Grace Kelly")).get(0);
+            Movie highNoon = session.dao(MediaDaoBuilders.MOVIE_DAO_BUILDER).select(where("title", Operator.EQUALS, "High Noon")).get(0);
+
+            AssociationDao<Actor, Movie> associationDao = MediaDaoBuilders.ASSOCIATION_DAO_BUILDER.buildDao(connection);
+            List<Movie> movies = associationDao.selectRightAssociates(graceKelly);
+            List<Actor> actors = associationDao.selectLeftAssociates(highNoon);
+            Assert.assertEquals(2, associationDao.selectRightAssociateIds(graceKelly).length);
+            Assert.assertEquals(2, movies.size());
+            Assert.assertEquals(2, actors.size());
+            Assert.assertTrue(movies.contains(highNoon));
+            Assert.assertTrue(actors.contains(graceKelly));
+        }
+        connection.close();
+    }
+
 }
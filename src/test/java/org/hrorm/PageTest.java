@@ -0,0 +1,277 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.Columns;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Parent;
+import org.hrorm.examples.parentage.ParentChildBuilders;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hrorm.Operator.EQUALS;
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class PageTest {
+
+    private static Helper columnsHelper = HelperFactory.forSchema("columns");
+    private static Helper parentsHelper = HelperFactory.forSchema("parents");
+
+    private static final int ROW_COUNT = 25;
+    private static final String[] STRINGS = { "apple", "banana", "cherry" };
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        columnsHelper.initializeSchema();
+        parentsHelper.initializeSchema();
+
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = daoBuilder().buildDao(connection);
+        for(long idx = 0; idx < ROW_COUNT; idx++){
+            Columns columns = new Columns();
+            columns.setIntegerThing(idx / 3);
+            columns.setStringThing(STRINGS[(int) (idx % STRINGS.length)]);
+            dao.insert(columns);
+        }
+        connection.commit();
+        connection.close();
+
+        connection = parentsHelper.connect();
+        Dao<Parent> parentDao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        for(long idx = 0; idx < ROW_COUNT; idx++){
+            Child child = new Child();
+            child.setNumber(idx);
+            Parent parent = new Parent();
+            parent.setName(String.format("paged %02d", idx));
+            parent.setChildList(Arrays.asList(child));
+            parentDao.insert(parent);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        columnsHelper.dropSchema();
+        parentsHelper.dropSchema();
+    }
+
+    private static DaoBuilder<Columns> daoBuilder(){
+        return new DaoBuilder<>("columns_table", Columns::new)
+                .withPrimaryKey("id", "columns_seq", Columns::getId, Columns::setId)
+                .withStringColumn("string_column", Columns::getStringThing, Columns::setStringThing)
+                .withLongColumn("integer_column", Columns::getIntegerThing, Columns::setIntegerThing);
+    }
+
+    private static <T> List<T> readAllPages(KeylessDao<T> dao, Where where, Order order, int limit){
+        List<T> items = new ArrayList<>();
+        Cursor<T> cursor = null;
+        int pages = 0;
+        do {
+            Page<T> page = dao.selectPage(where, order, limit, cursor);
+            Assert.assertTrue(page.getItems().size() <= limit);
+            items.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+            Assert.assertTrue("Too many pages", pages <= ROW_COUNT + 1);
+        } while (cursor != null);
+        return items;
+    }
+
+    private void assertPagedAscending(SqlDialect dialect) throws SQLException {
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = daoBuilder().withDialect(dialect).buildDao(connection);
+
+        List<Columns> paged = readAllPages(dao, new Where(), Order.ascending("integer_column"), 4);
+        List<Columns> expected = dao.select();
+        expected.sort(Comparator.comparing(Columns::getIntegerThing).thenComparing(Columns::getId));
+
+        Assert.assertEquals(ROW_COUNT, paged.size());
+        Assert.assertEquals(expected, paged);
+        connection.close();
+    }
+
+    @Test
+    public void testPagesWithStandardDialect() throws SQLException {
+        assertPagedAscending(SqlDialect.Standard);
+    }
+
+    @Test
+    public void testPagesWithRowValueComparison() throws SQLException {
+        assertPagedAscending(SqlDialect.H2);
+    }
+
+    @Test
+    public void testMixedDirections() throws SQLException {
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = daoBuilder().withDialect(SqlDialect.H2).buildDao(connection);
+
+        Order order = Order.descending("string_column").thenAscending("integer_column");
+        List<Columns> paged = readAllPages(dao, new Where(), order, 5);
+        List<Columns> expected = dao.select();
+        expected.sort(Comparator.comparing(Columns::getStringThing).reversed()
+                .thenComparing(Columns::getIntegerThing)
+                .thenComparing(Columns::getId));
+
+        Assert.assertEquals(expected, paged);
+        Assert.assertEquals(expected, dao.select(order.thenAscending("id")));
+        connection.close();
+    }
+
+    private void assertNullsPaged(Dao<Columns> dao, Order order, Comparator<Columns> comparator){
+        Where where = where("string_column", EQUALS, "nullable");
+        List<Columns> expected = dao.select(where);
+        expected.sort(comparator);
+        Assert.assertEquals(7, expected.size());
+        Assert.assertEquals(expected, readAllPages(dao, where, order, 2));
+    }
+
+    @Test
+    public void testNullsInOrderingColumn() throws SQLException {
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = daoBuilder().buildDao(connection);
+        List<Columns> nullables = new ArrayList<>();
+        for(Long integer : Arrays.asList(null, 3L, null, 1L, 3L, null, 2L)){
+            Columns columns = new Columns();
+            columns.setStringThing("nullable");
+            columns.setIntegerThing(integer);
+            dao.insert(columns);
+            nullables.add(columns);
+        }
+        Comparator<Columns> nullsFirst = Comparator.comparing(Columns::getIntegerThing, Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+                .thenComparing(Columns::getId);
+        try {
+            for(SqlDialect dialect : Arrays.asList(SqlDialect.Standard, SqlDialect.H2)){
+                Dao<Columns> dialectDao = daoBuilder().withDialect(dialect).buildDao(connection);
+                assertNullsPaged(dialectDao, Order.ascending("integer_column"), nullsFirst);
+                assertNullsPaged(dialectDao, Order.descending("integer_column"), nullsFirst.reversed());
+            }
+        } finally {
+            for(Columns columns : nullables){
+                dao.delete(columns);
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testPagesRespectWhereClause() throws SQLException {
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = daoBuilder().buildDao(connection);
+
+        // An "or" must not escape the seek predicate
+        Where where = where("string_column", EQUALS, "apple").or("string_column", EQUALS, "cherry");
+        List<Columns> paged = readAllPages(dao, where, Order.descending("id"), 3);
+
+        Assert.assertEquals(17, paged.size());
+        Set<Long> ids = new HashSet<>();
+        for(int idx = 0; idx < paged.size(); idx++){
+            Columns columns = paged.get(idx);
+            Assert.assertNotEquals("banana", columns.getStringThing());
+            Assert.assertTrue(ids.add(columns.getId()));
+            if( idx > 0 ){
+                Assert.assertTrue(paged.get(idx - 1).getId() > columns.getId());
+            }
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testCursorIgnoresLaterChangesToTheLastEntity() throws SQLException {
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = daoBuilder().buildDao(connection);
+        Order order = Order.ascending("integer_column");
+
+        Page<Columns> first = dao.selectPage(new Where(), order, 4, null);
+        Columns last = first.getItems().get(3);
+        last.setIntegerThing(1000L);
+        last.setId(-1L);
+        Page<Columns> second = dao.selectPage(new Where(), order, 4, first.getNextCursor());
+
+        Assert.assertEquals(dao.select(order.thenAscending("id")).subList(4, 8), second.getItems());
+        connection.close();
+    }
+
+    @Test
+    public void testExactlyFullLastPage() throws SQLException {
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = daoBuilder().buildDao(connection);
+
+        Page<Columns> page = dao.selectPage(where("string_column", EQUALS, "apple"), Order.ascending("id"), 9, null);
+        Assert.assertEquals(9, page.getItems().size());
+        Assert.assertFalse(page.hasNext());
+        Assert.assertNull(page.getNextCursor());
+        connection.close();
+    }
+
+    private void assertParentsPaged(DaoBuilder<Parent> daoBuilder) throws SQLException {
+        Connection connection = parentsHelper.connect();
+        Dao<Parent> dao = daoBuilder.buildDao(connection);
+
+        Page<Parent> first = dao.selectPage(where("name", LIKE, "paged%"), Order.ascending("name"), 10, null);
+        Page<Parent> second = dao.selectPage(where("name", LIKE, "paged%"), Order.ascending("name"), 10, first.getNextCursor());
+
+        Assert.assertTrue(second.hasNext());
+        List<String> names = second.getItems().stream().map(Parent::getName).collect(Collectors.toList());
+        for(int idx = 0; idx < 10; idx++){
+            Assert.assertEquals(String.format("paged %02d", idx + 10), names.get(idx));
+            Parent parent = second.getItems().get(idx);
+            Assert.assertEquals(1, parent.getChildList().size());
+            Assert.assertEquals(idx + 10, (long) parent.getChildList().get(0).getNumber());
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testParentsPagedWithStandardChildSelects() throws SQLException {
+        assertParentsPaged(ParentChildBuilders.ParentDaoBuilder);
+    }
+
+    @Test
+    public void testParentsPagedWithKeysInClauseChildSelects() throws SQLException {
+        assertParentsPaged(ParentChildBuilders.ParentDaoBuilder_WithInClauseStrategy);
+    }
+
+    @Test
+    public void testParentsPagedWithSubSelectChildSelects() throws SQLException {
+        assertParentsPaged(ParentChildBuilders.ParentDaoBuilder_WithSubselectStrategy);
+    }
+
+    @Test
+    public void testCursorFromAnotherOrderingRejected() throws SQLException {
+        Connection connection = columnsHelper.connect();
+        Dao<Columns> dao = daoBuilder().buildDao(connection);
+
+        Page<Columns> page = dao.selectPage(new Where(), Order.ascending("integer_column"), 2, null);
+        try {
+            dao.selectPage(new Where(), Order.descending("integer_column"), 2, page.getNextCursor());
+            Assert.fail("Should not accept a cursor from another ordering");
+        } catch (HrormException expected){
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test(expected = HrormException.class)
+    public void testLimitMustBePositive() throws SQLException {
+        Connection connection = columnsHelper.connect();
+        try {
+            daoBuilder().buildDao(connection).selectPage(new Where(), Order.ascending("id"), 0, null);
+        } finally {
+            connection.close();
+        }
+    }
+}
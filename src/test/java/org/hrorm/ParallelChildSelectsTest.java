@@ -0,0 +1,189 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hrorm.examples.Complex.*;
+
+public class ParallelChildSelectsTest {
+
+    private static Helper helper = HelperFactory.forSchema("complex");
+
+    private static final int BETH_COUNT = 4;
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        helper.initializeSchema();
+
+        Connection connection = helper.connect();
+        Dao<Jules> julesDao = julesDaoBuilder.buildDao(connection);
+        Dao<Ida> idaDao = idaDaoBuilder.buildDao(connection);
+        Dao<Fred> fredDao = fredDaoBuilder.buildDao(connection);
+        Dao<Gap> gapDao = gapDaoBuilder.buildDao(connection);
+        Dao<Beth> bethDao = bethDaoBuilder.buildDao(connection);
+
+        for(int idx = 0; idx < BETH_COUNT; idx++){
+            Jules jules = newJules();
+            julesDao.insert(jules);
+            Ida ida = newIda(jules);
+            idaDao.insert(ida);
+            Fred fred = newFred();
+            fredDao.insert(fred);
+            Gap gap = newGap();
+            gapDao.insert(gap);
+
+            Don don = newDon(newHenry(ida), newHenry(ida));
+            Beth beth = newBeth(Arrays.asList(don), Arrays.asList(newEdith(fred, gap), newEdith(fred, gap)));
+            bethDao.insert(beth);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static DaoBuilder<Beth> bethByKeysDaoBuilder(){
+        return new DaoBuilder<>("beth", Beth::new)
+                .withPrimaryKey("id", "beth_sequence", Beth::getId, Beth::setId)
+                .withLongColumn("number", Beth::getNumber, Beth::setNumber)
+                .withChildren(Beth::getDons, Beth::setDons, donDaoBuilder)
+                .withChildren(Beth::getEdiths, Beth::setEdiths, edithDaoBuilder)
+                .withChildSelectStrategy(ChildSelectStrategy.ByKeysInClause);
+    }
+
+    private static List<Beth> selectAll(DaoBuilder<Beth> daoBuilder) throws SQLException {
+        Connection connection = helper.connect();
+        try {
+            return daoBuilder.buildDao(connection).select(Order.ascending("id"));
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static void assertSameGraphs(List<Beth> expected, List<Beth> actual){
+        Assert.assertEquals(BETH_COUNT, actual.size());
+        for(int idx = 0; idx < BETH_COUNT; idx++){
+            Beth expectedBeth = expected.get(idx);
+            Beth actualBeth = actual.get(idx);
+            Assert.assertEquals(expectedBeth.getId(), actualBeth.getId());
+            Assert.assertEquals(1, actualBeth.getDons().size());
+            Assert.assertEquals(2, actualBeth.getDons().get(0).getHenries().size());
+            Assert.assertEquals(2, actualBeth.getEdiths().size());
+            Assert.assertEquals(
+                    expectedBeth.getEdiths().get(0).getGap().getInsignia(),
+                    actualBeth.getEdiths().get(0).getGap().getInsignia());
+            Assert.assertEquals(
+                    expectedBeth.getDons().get(0).getHenries().get(0).getIda().getJules().getMagnitude(),
+                    actualBeth.getDons().get(0).getHenries().get(0).getIda().getJules().getMagnitude());
+        }
+    }
+
+    @Test
+    public void testParallelSelectsReadTheSameGraph() throws SQLException {
+        List<Beth> expected = selectAll(bethByKeysDaoBuilder());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicInteger connectionsTaken = new AtomicInteger();
+        Supplier<Connection> connectionSupplier = () -> {
+            connectionsTaken.incrementAndGet();
+            return helper.connect();
+        };
+        try {
+            List<Beth> actual = selectAll(bethByKeysDaoBuilder().withParallelChildSelects(connectionSupplier, executor));
+            assertSameGraphs(expected, actual);
+        } finally {
+            executor.shutdown();
+        }
+        // At most the ediths are selected on a connection of their own
+        Assert.assertTrue(connectionsTaken.get() <= 1);
+    }
+
+    @Test
+    public void testNestedLazyChildrenAreBuiltOnTheConnectionOfTheDao() throws SQLException {
+        DaoBuilder<Don> lazyDonDaoBuilder = new DaoBuilder<>("don", Don::new)
+                .withPrimaryKey("id", "don_sequence", Don::getId, Don::setId)
+                .withInstantColumn("datetime", Don::getDateTime, Don::setDateTime)
+                .withLongColumn("quantity", Don::getQuantity, Don::setQuantity)
+                .withLazyChildren(Don::getHenries, Don::setHenries, henryDaoBuilder)
+                .withParentColumn("beth_id", Don::getBeth, Don::setBeth);
+        AtomicInteger connectionsTaken = new AtomicInteger();
+        DaoBuilder<Beth> daoBuilder = new DaoBuilder<>("beth", Beth::new)
+                .withPrimaryKey("id", "beth_sequence", Beth::getId, Beth::setId)
+                .withLongColumn("number", Beth::getNumber, Beth::setNumber)
+                .withChildren(Beth::getEdiths, Beth::setEdiths, edithDaoBuilder)
+                .withChildren(Beth::getDons, Beth::setDons, lazyDonDaoBuilder)
+                .withChildSelectStrategy(ChildSelectStrategy.ByKeysInClause)
+                .withParallelChildSelects(() -> {
+                    connectionsTaken.incrementAndGet();
+                    return helper.connect();
+                }, Runnable::run);
+
+        Connection connection = helper.connect();
+        List<Beth> beths = daoBuilder.buildDao(connection).select(Order.ascending("id"));
+        Assert.assertEquals(BETH_COUNT, beths.size());
+        for(Beth beth : beths){
+            Assert.assertEquals(2, beth.getEdiths().size());
+            Assert.assertEquals(2, beth.getDons().get(0).getHenries().size());
+        }
+        // The ediths are still selected on a connection of their own
+        Assert.assertEquals(1, connectionsTaken.get());
+        connection.close();
+    }
+
+    @Test
+    public void testSelectionsTheExecutorRejectsAreRunByTheCaller() throws SQLException {
+        List<Beth> expected = selectAll(bethByKeysDaoBuilder());
+
+        AtomicInteger rejected = new AtomicInteger();
+        DaoBuilder<Beth> daoBuilder = bethByKeysDaoBuilder().withParallelChildSelects(
+                () -> { throw new AssertionError("No connection should be needed"); },
+                task -> { rejected.incrementAndGet(); throw new RejectedExecutionException(); });
+
+        assertSameGraphs(expected, selectAll(daoBuilder));
+        Assert.assertEquals(1, rejected.get());
+    }
+
+    @Test
+    public void testFailuresArePassedToTheCaller() throws SQLException {
+        DaoBuilder<Beth> daoBuilder = bethByKeysDaoBuilder().withParallelChildSelects(
+                () -> { throw new HrormException("No connections today"); },
+                Runnable::run);
+        try {
+            selectAll(daoBuilder);
+            Assert.fail("Should have failed to select the ediths");
+        } catch (HrormException expected){
+            Assert.assertEquals("No connections today", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testSelectionsRunInOrderWhenSequential(){
+        List<Integer> order = new ArrayList<>();
+        ChildSelectExecutor.SEQUENTIAL.run(null, Arrays.asList(c -> order.add(1), c -> order.add(2)));
+        Assert.assertEquals(Arrays.asList(1, 2), order);
+        Assert.assertFalse(ChildSelectExecutor.SEQUENTIAL.isParallel());
+    }
+
+    @Test(expected = HrormException.class)
+    public void testParallelNeedsAnExecutor(){
+        bethByKeysDaoBuilder().withParallelChildSelects(helper::connect, null);
+    }
+}
@@ -715,4 +715,62 @@ public class ParentsTest {
         return parent;
     }
 
+
+    @Test
+    public void savingManyChildrenUsesSetBasedStatements() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> parentDao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+
+        List<Child> children = new ArrayList<>();
+        for(long idx = 0; idx < 50; idx++){
+            Grandchild first = new Grandchild();
+            first.setColor(EnumeratedColor.Red);
+            Grandchild second = new Grandchild();
+            second.setColor(EnumeratedColor.Blue);
+            Child child = new Child();
+            child.setNumber(idx);
+            child.setGrandchildList(Arrays.asList(first, second));
+            children.add(child);
+        }
+        Parent parent = new Parent();
+        parent.setName("set based saves test");
+        parent.setChildList(children);
+        parentDao.insert(parent);
+
+        Parent readItem = parentDao.selectOne(parent.getId());
+        List<Child> kept = readItem.getChildList().stream()
+                .filter(c -> c.getNumber() < 10)
+                .collect(Collectors.toList());
+        Child added = new Child();
+        added.setNumber(100L);
+        kept.add(added);
+        readItem.setChildList(kept);
+
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            parentDao.update(readItem);
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+
+        List<String> statements = events.stream()
+                .map(e -> e.getSql().toLowerCase().substring(0, 6) + " " + e.getTableName())
+                .collect(Collectors.toList());
+        Assert.assertEquals(1, Collections.frequency(statements, "delete child_table"));
+        Assert.assertEquals(1, Collections.frequency(statements, "delete grandchild_table"));
+        Assert.assertEquals(1, Collections.frequency(statements, "update child_table"));
+        Assert.assertEquals(1, Collections.frequency(statements, "insert child_table"));
+        Assert.assertTrue(events.size() < 10);
+
+        Parent secondReadItem = parentDao.selectOne(parent.getId());
+        Assert.assertEquals(11, secondReadItem.getChildList().size());
+        Dao<Grandchild> grandchildDao = ParentChildBuilders.GrandchildDaoBuilder.buildDao(connection);
+        List<Long> childIds = secondReadItem.getChildList().stream().map(Child::getId).collect(Collectors.toList());
+        List<Grandchild> grandchildren = grandchildDao.select(Where.inLong("child_table_id", childIds));
+        Assert.assertEquals(20, grandchildren.size());
+
+        connection.rollback();
+        connection.close();
+    }
 }
@@ -0,0 +1,182 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.join_with_children.DaoBuilders;
+import org.hrorm.examples.join_with_children.Pea;
+import org.hrorm.examples.join_with_children.Pod;
+import org.hrorm.examples.join_with_children.Root;
+import org.hrorm.examples.join_with_children.Stem;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class ProjectionTest {
+
+    private static Helper helper = HelperFactory.forSchema("projections");
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        DaoBuilder<Pea> peaDaoBuilder = DaoBuilders.basePeaDaoBuilder();
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder();
+        DaoBuilder<Stem> stemDaoBuilder = DaoBuilders.baseStemDaoBuilder(podDaoBuilder);
+        DaoBuilder<Root> rootDaoBuilder = DaoBuilders.baseRootDaoBuilder(stemDaoBuilder);
+        helper.initializeSchemaFromSql(new Schema(peaDaoBuilder, rootDaoBuilder, stemDaoBuilder, podDaoBuilder).sql());
+
+        Connection connection = helper.connect();
+        Pea pea = new Pea();
+        pea.setFlag("green");
+        Pod pod = new Pod();
+        pod.setMark("marked");
+        pod.setPeas(Arrays.asList(pea));
+        podDaoBuilder.buildDao(connection).insert(pod);
+
+        Dao<Stem> stemDao = stemDaoBuilder.buildDao(connection);
+        Dao<Root> rootDao = rootDaoBuilder.buildDao(connection);
+        for(int idx = 1; idx <= 3; idx++){
+            Stem stem = new Stem();
+            stem.setTag("stem " + idx);
+            stem.setPod(idx < 3 ? pod : null);
+            stemDao.insert(stem);
+            Root root = new Root();
+            root.setNumber((long) idx);
+            root.setStem(stem);
+            rootDao.insert(root);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static List<String> sql(Supplier<?> supplier){
+        List<String> sql = new ArrayList<>();
+        QueryListener.setGlobal(event -> sql.add(event.getSql().toLowerCase()));
+        try {
+            supplier.get();
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        return sql;
+    }
+
+    private static Dao<Root> rootDao(Connection connection){
+        return DaoBuilders.baseRootDaoBuilder(DaoBuilders.baseStemDaoBuilder(DaoBuilders.basePodDaoBuilder())).buildDao(connection);
+    }
+
+    private static Dao<Stem> stemDao(Connection connection){
+        return DaoBuilders.baseStemDaoBuilder(DaoBuilders.basePodDaoBuilder()).buildDao(connection);
+    }
+
+    @Test
+    public void testOnlyProjectedColumnsAreSet() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Stem> dao = stemDao(connection);
+
+        List<Stem> stems = new ArrayList<>();
+        List<String> sql = sql(() -> stems.addAll(dao.select(where("tag", LIKE, "stem%"), Order.ascending("tag"), Projection.of("tag"))));
+
+        Assert.assertEquals(1, sql.size());
+        Assert.assertFalse(sql.get(0).contains("join"));
+        Assert.assertFalse(sql.get(0).contains("pod_id"));
+        Assert.assertEquals(3, stems.size());
+        Assert.assertEquals("stem 1", stems.get(0).getTag());
+        Assert.assertNotNull(stems.get(0).getId());
+        Assert.assertNull(stems.get(0).getPod());
+        connection.close();
+    }
+
+    @Test
+    public void testJoinedColumns() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Root> dao = rootDao(connection);
+
+        List<Root> roots = new ArrayList<>();
+        List<String> sql = sql(() -> roots.addAll(dao.select(where(), Order.ascending("number"), Projection.of("number", "stem_id.pod_id.mark"))));
+
+        Assert.assertEquals(1, sql.size());
+        Assert.assertFalse(sql.get(0).contains("tag"));
+        Assert.assertFalse(sql.get(0).contains("pea"));
+        Assert.assertEquals(3, roots.size());
+        Root root = roots.get(0);
+        Assert.assertEquals(1L, (long) root.getNumber());
+        Assert.assertNull(root.getStem().getTag());
+        Assert.assertNotNull(root.getStem().getId());
+        Assert.assertEquals("marked", root.getStem().getPod().getMark());
+        Assert.assertNull(root.getStem().getPod().getPeas());
+        Assert.assertNotNull(roots.get(2).getStem());
+        Assert.assertNull(roots.get(2).getStem().getPod());
+        connection.close();
+    }
+
+    @Test
+    public void testJoinKeyIsReadWithoutJoining() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Root> dao = rootDao(connection);
+
+        List<Root> roots = new ArrayList<>();
+        List<String> sql = sql(() -> roots.addAll(dao.select(where(), Order.ascending("number"), Projection.of("stem_id"))));
+
+        Assert.assertFalse(sql.get(0).contains("join"));
+        Long stemId = stemDao(connection).select(where("tag", LIKE, "stem 1")).get(0).getId();
+        Assert.assertEquals(stemId, roots.get(0).getStem().getId());
+        Assert.assertNull(roots.get(0).getStem().getTag());
+        Assert.assertNull(roots.get(0).getNumber());
+        connection.close();
+    }
+
+    @Test
+    public void testRowsAreMapped() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Stem> dao = stemDao(connection);
+
+        List<String> summaries = dao.select(where(), Order.ascending("tag"), Projection.of("tag", "POD_ID.mark", "pod_id"),
+                row -> row.get("tag") + ":" + row.get("pod_id.mark") + ":" + (row.get("pod_id") != null));
+
+        Assert.assertEquals(Arrays.asList("stem 1:marked:true", "stem 2:marked:true", "stem 3:null:false"), summaries);
+
+        List<Long> numbers = rootDao(connection).select(where(), Projection.of("number"), row -> row.get(0));
+        Assert.assertEquals(3, numbers.size());
+        Assert.assertTrue(numbers.contains(2L));
+        connection.close();
+    }
+
+    @Test
+    public void testUnknownColumn() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Stem> dao = stemDao(connection);
+        try {
+            dao.select(where(), Projection.of("pod_id.no_such_column"));
+            Assert.fail("Should not select an unknown column");
+        } catch (HrormException expected){
+            Assert.assertTrue(expected.getMessage().contains("pod_id.no_such_column"));
+        }
+        try {
+            dao.select(where(), Projection.of("tag.mark"));
+            Assert.fail("Should not select through a column that is not a join");
+        } catch (HrormException expected){
+            Assert.assertTrue(expected.getMessage().contains("tag"));
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testEquality(){
+        Assert.assertEquals(Projection.of("tag", "POD_ID.mark"), Projection.of("TAG", "pod_id.mark", "tag"));
+        Assert.assertEquals(Arrays.asList("tag", "pod_id.mark"), Projection.of("tag", "pod_id.mark").columnNames());
+    }
+}
@@ -0,0 +1,286 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.join_with_children.DaoBuilders;
+import org.hrorm.examples.join_with_children.Pea;
+import org.hrorm.examples.join_with_children.Pod;
+import org.hrorm.examples.join_with_children.Root;
+import org.hrorm.examples.join_with_children.Stem;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hrorm.Operator.EQUALS;
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class QueryCacheTest {
+
+    private static Helper helper = HelperFactory.forSchema("query_caches");
+
+    @BeforeClass
+    public static void setUpDb() {
+        DaoBuilder<Pea> peaDaoBuilder = DaoBuilders.basePeaDaoBuilder();
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder();
+        DaoBuilder<Stem> stemDaoBuilder = DaoBuilders.baseStemDaoBuilder(podDaoBuilder);
+        DaoBuilder<Root> rootDaoBuilder = DaoBuilders.baseRootDaoBuilder(stemDaoBuilder);
+        helper.initializeSchemaFromSql(new Schema(peaDaoBuilder, rootDaoBuilder, stemDaoBuilder, podDaoBuilder).sql());
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static <T> int selectCount(Supplier<T> supplier, List<T> results){
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            results.add(supplier.get());
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        return (int) events.stream().filter(e -> e.getSql().toLowerCase().startsWith("select")).count();
+    }
+
+    private static Pod insertPod(Connection connection, String mark, String ... flags){
+        List<Pea> peas = new ArrayList<>();
+        for(String flag : flags){
+            Pea pea = new Pea();
+            pea.setFlag(flag);
+            peas.add(pea);
+        }
+        Pod pod = new Pod();
+        pod.setMark(mark);
+        pod.setPeas(peas);
+        DaoBuilders.basePodDaoBuilder().buildDao(connection).insert(pod);
+        return pod;
+    }
+
+    private static void insertStems(Connection connection, Pod pod, String ... tags){
+        Dao<Stem> dao = DaoBuilders.baseStemDaoBuilder(DaoBuilders.basePodDaoBuilder()).buildDao(connection);
+        for(String tag : tags){
+            Stem stem = new Stem();
+            stem.setTag(tag);
+            stem.setPod(pod);
+            dao.insert(stem);
+        }
+    }
+
+    private static DaoBuilder<Stem> cachingStemDaoBuilder(Duration timeToLive){
+        return DaoBuilders.baseStemDaoBuilder(DaoBuilders.basePodDaoBuilder()).withQueryCache(100, timeToLive);
+    }
+
+    @Test
+    public void testSelectsAreCachedByTheirBindValues() throws SQLException {
+        Connection connection = helper.connect();
+        Pod pod = insertPod(connection, "binds");
+        insertStems(connection, pod, "binds one", "binds two");
+        DaoBuilder<Stem> daoBuilder = cachingStemDaoBuilder(null);
+        Dao<Stem> dao = daoBuilder.buildDao(connection);
+
+        List<List<Stem>> results = new ArrayList<>();
+        Assert.assertNotEquals(0, selectCount(() -> dao.select(where("tag", LIKE, "binds%"), Order.ascending("tag")), results));
+        Assert.assertEquals(0, selectCount(() -> daoBuilder.buildDao(connection).select(where("tag", LIKE, "binds%"), Order.ascending("tag")), results));
+        Assert.assertEquals(2, results.get(1).size());
+        Assert.assertSame(results.get(0).get(1), results.get(1).get(1));
+        Assert.assertNotSame(results.get(0), results.get(1));
+
+        Assert.assertNotEquals(0, selectCount(() -> dao.select(where("tag", EQUALS, "binds one")), results));
+        Assert.assertEquals(1, results.get(2).size());
+        Assert.assertNotEquals(0, selectCount(() -> dao.select(where("tag", EQUALS, "binds two")), results));
+        Assert.assertEquals("binds two", results.get(3).get(0).getTag());
+
+        CacheStatistics statistics = daoBuilder.queryCache().statistics();
+        Assert.assertEquals(1, statistics.getHitCount());
+        Assert.assertEquals(3, statistics.getMissCount());
+        connection.close();
+    }
+
+    @Test
+    public void testDistinctAndFunctionsAreCached() throws SQLException {
+        Connection connection = helper.connect();
+        Pod pod = insertPod(connection, "distinct");
+        insertStems(connection, pod, "distinct a", "distinct b", "distinct b");
+        Dao<Stem> dao = cachingStemDaoBuilder(null).buildDao(connection);
+        Where where = where("tag", LIKE, "distinct%");
+
+        List<List<String>> tags = new ArrayList<>();
+        Assert.assertEquals(1, selectCount(() -> dao.selectDistinct("tag", where), tags));
+        tags.get(0).clear();
+        Assert.assertEquals(0, selectCount(() -> dao.selectDistinct("tag", where), tags));
+        Assert.assertEquals(2, tags.get(1).size());
+
+        List<Long> counts = new ArrayList<>();
+        Assert.assertEquals(1, selectCount(() -> dao.runLongFunction(SqlFunction.COUNT, "id", where), counts));
+        Assert.assertEquals(0, selectCount(() -> dao.runLongFunction(SqlFunction.COUNT, "id", where), counts));
+        Assert.assertEquals(Arrays.asList(3L, 3L), counts);
+
+        insertStems(connection, pod, "distinct c");
+        Assert.assertEquals(1, selectCount(() -> dao.runLongFunction(SqlFunction.COUNT, "id", where), counts));
+        Assert.assertEquals(4L, (long) counts.get(2));
+        connection.close();
+    }
+
+    @Test
+    public void testWritesToJoinedAndChildTablesInvalidate() throws SQLException {
+        Connection connection = helper.connect();
+        Pod pod = insertPod(connection, "before", "first pea");
+        insertStems(connection, pod, "joined");
+        Dao<Stem> stemDao = cachingStemDaoBuilder(null).buildDao(connection);
+        Dao<Pod> podDao = DaoBuilders.basePodDaoBuilder().buildDao(connection);
+        Where where = where("tag", EQUALS, "joined");
+
+        List<List<Stem>> results = new ArrayList<>();
+        selectCount(() -> stemDao.select(where), results);
+        Assert.assertEquals(0, selectCount(() -> stemDao.select(where), results));
+
+        pod.setMark("after");
+        podDao.update(pod);
+        Assert.assertEquals(2, selectCount(() -> stemDao.select(where), results));
+        Assert.assertEquals("after", results.get(2).get(0).getPod().getMark());
+
+        Pea pea = new Pea();
+        pea.setFlag("second pea");
+        pod.setPeas(Arrays.asList(pod.getPeas().get(0), pea));
+        podDao.update(pod);
+        Assert.assertEquals(2, selectCount(() -> stemDao.select(where), results));
+        Assert.assertEquals(2, results.get(3).get(0).getPod().getPeas().size());
+        Assert.assertEquals(0, selectCount(() -> stemDao.select(where), results));
+        connection.close();
+    }
+
+    @Test
+    public void testTimeToLive() throws SQLException, InterruptedException {
+        Connection connection = helper.connect();
+        insertStems(connection, null, "expiring");
+        Dao<Stem> dao = cachingStemDaoBuilder(Duration.ofMillis(50)).buildDao(connection);
+
+        List<List<Stem>> results = new ArrayList<>();
+        selectCount(() -> dao.select(where("tag", EQUALS, "expiring")), results);
+        Assert.assertEquals(0, selectCount(() -> dao.select(where("tag", EQUALS, "expiring")), results));
+        Thread.sleep(100);
+        Assert.assertEquals(1, selectCount(() -> dao.select(where("tag", EQUALS, "expiring")), results));
+        connection.close();
+    }
+
+    @Test
+    public void testUncommittedWritesAreNotCached() throws SQLException {
+        Connection writer = helper.connect();
+        Connection reader = helper.connect();
+        Pod pod = insertPod(writer, "uncommitted");
+        insertStems(writer, pod, "uncommitted one");
+        writer.setAutoCommit(false);
+        DaoBuilder<Stem> daoBuilder = cachingStemDaoBuilder(null);
+        Dao<Stem> readerDao = daoBuilder.buildDao(reader);
+        Where where = where("tag", LIKE, "uncommitted%");
+
+        insertStems(writer, pod, "uncommitted two");
+        List<List<Stem>> results = new ArrayList<>();
+        Assert.assertNotEquals(0, selectCount(() -> readerDao.select(where), results));
+        Assert.assertEquals(1, results.get(0).size());
+        Assert.assertNotEquals(0, selectCount(() -> daoBuilder.buildDao(writer).select(where), results));
+        Assert.assertEquals(2, results.get(1).size());
+        Assert.assertNotEquals(0, selectCount(() -> daoBuilder.buildDao(reader).select(where), results));
+
+        Transactor.commit(writer);
+        Assert.assertNotEquals(0, selectCount(() -> daoBuilder.buildDao(reader).select(where), results));
+        Assert.assertEquals(2, results.get(3).size());
+        Assert.assertEquals(0, selectCount(() -> daoBuilder.buildDao(reader).select(where), results));
+
+        insertStems(writer, pod, "uncommitted three");
+        Assert.assertNotEquals(0, selectCount(() -> daoBuilder.buildDao(writer).select(where), results));
+        Assert.assertEquals(3, results.get(5).size());
+        Transactor.rollback(writer);
+        Assert.assertNotEquals(0, selectCount(() -> daoBuilder.buildDao(reader).select(where), results));
+        Assert.assertEquals(2, results.get(6).size());
+        Assert.assertEquals(0, selectCount(() -> daoBuilder.buildDao(writer).select(where), results));
+        Assert.assertEquals(2, results.get(7).size());
+
+        writer.close();
+        reader.close();
+    }
+
+    @Test
+    public void testTransactionsEndedOnTheConnectionLapse() throws Exception {
+        Connection writer = helper.connect();
+        Connection reader = helper.connect();
+        Pod pod = insertPod(writer, "lapsed");
+        writer.setAutoCommit(false);
+        DaoBuilder<Stem> daoBuilder = cachingStemDaoBuilder(null);
+        Dao<Stem> readerDao = daoBuilder.buildDao(reader);
+        Where where = where("tag", LIKE, "lapsed%");
+
+        TableVersions.setPendingTimeout(Duration.ofMillis(200));
+        try {
+            insertStems(writer, pod, "lapsed one");
+            writer.commit();
+            List<List<Stem>> results = new ArrayList<>();
+            Assert.assertNotEquals(0, selectCount(() -> readerDao.select(where), results));
+            Assert.assertNotEquals(0, selectCount(() -> readerDao.select(where), results));
+            Assert.assertEquals(1, results.get(1).size());
+
+            Thread.sleep(400);
+            Assert.assertNotEquals(0, selectCount(() -> readerDao.select(where), results));
+            Assert.assertEquals(0, selectCount(() -> readerDao.select(where), results));
+            Assert.assertEquals(1, results.get(3).size());
+        } finally {
+            TableVersions.setPendingTimeout(TableVersions.PENDING_TIMEOUT);
+        }
+
+        writer.close();
+        reader.close();
+    }
+
+    @Test
+    public void testWritesToUncachedTablesAreNotCounted() throws SQLException {
+        Connection connection = helper.connect();
+        connection.setAutoCommit(false);
+        long version = TableVersions.current("uncached_table");
+        TableVersions.written(connection, "uncached_table");
+        Assert.assertEquals(version, TableVersions.current("uncached_table"));
+        Assert.assertFalse(TableVersions.isPending("uncached_table"));
+        connection.close();
+    }
+
+    @Test
+    public void testLazyChildrenAreNotCached() throws SQLException {
+        DaoBuilder<Pod> daoBuilder = new DaoBuilder<>("pod", Pod::new)
+                .withPrimaryKey("id", "pod_seq", Pod::getId, Pod::setId)
+                .withStringColumn("mark", Pod::getMark, Pod::setMark)
+                .withLazyChildren(Pod::getPeas, Pod::setPeas, DaoBuilders.basePeaDaoBuilder())
+                .withQueryCache(100, null);
+        Connection connection = helper.connect();
+        try {
+            daoBuilder.buildDao(connection);
+            Assert.fail("Should not cache the lazily loaded peas of the pods");
+        } catch (HrormException expected){
+            Assert.assertTrue(expected.getMessage().contains("pea"));
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testSizeIsBounded() throws SQLException {
+        Connection connection = helper.connect();
+        DaoBuilder<Stem> daoBuilder = DaoBuilders.baseStemDaoBuilder(DaoBuilders.basePodDaoBuilder()).withQueryCache(2, null);
+        Dao<Stem> dao = daoBuilder.buildDao(connection);
+        for(String tag : Arrays.asList("one", "two", "three")){
+            dao.select(where("tag", EQUALS, tag));
+        }
+        Assert.assertEquals(2, daoBuilder.queryCache().size());
+        Assert.assertEquals(1, daoBuilder.queryCache().statistics().getEvictionCount());
+        connection.close();
+    }
+}
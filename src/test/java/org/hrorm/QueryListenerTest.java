@@ -0,0 +1,252 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.Simple;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Parent;
+import org.hrorm.examples.parentage.ParentChildBuilders;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static org.hrorm.Operator.EQUALS;
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class QueryListenerTest {
+
+    private static Helper simpleHelper = HelperFactory.forSchema("simple");
+    private static Helper parentsHelper = HelperFactory.forSchema("parents");
+
+    @BeforeClass
+    public static void setUpDb(){
+        simpleHelper.initializeSchema();
+        parentsHelper.initializeSchema();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        simpleHelper.dropSchema();
+        parentsHelper.dropSchema();
+    }
+
+    private static DaoBuilder<Simple> daoBuilder(){
+        return new DaoBuilder<>("simple", Simple::new)
+                .withPrimaryKey("simple_id", "simple_seq", Simple::getId, Simple::setId)
+                .withStringColumn("field", Simple::getField, Simple::setField);
+    }
+
+    @Test
+    public void testDaoListenerReceivesEvents() throws SQLException {
+        List<QueryEvent> events = new ArrayList<>();
+        Connection connection = simpleHelper.connect();
+        Dao<Simple> dao = daoBuilder().withQueryListener(events::add).buildDao(connection);
+
+        Simple simple = new Simple();
+        simple.setField("listened");
+        dao.insert(simple);
+
+        Assert.assertEquals(2, events.size());
+        QueryEvent sequenceEvent = events.get(0);
+        Assert.assertEquals(1, sequenceEvent.getRowCount());
+        Assert.assertEquals(0, sequenceEvent.getBindCount());
+        QueryEvent insertEvent = events.get(1);
+        Assert.assertTrue(insertEvent.getSql().toLowerCase().startsWith("insert"));
+        Assert.assertEquals("simple", insertEvent.getTableName());
+        Assert.assertEquals(2, insertEvent.getBindCount());
+        Assert.assertEquals(1, insertEvent.getRowCount());
+        Assert.assertTrue(insertEvent.getElapsedNanos() > 0);
+
+        events.clear();
+        List<Simple> found = dao.select(where("field", EQUALS, "listened"));
+        Assert.assertEquals(1, found.size());
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(1, events.get(0).getRowCount());
+        Assert.assertEquals(1, events.get(0).getBindCount());
+
+        events.clear();
+        dao.delete(simple);
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(1, events.get(0).getRowCount());
+
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    public void testBindCountsOfPages() throws SQLException {
+        List<QueryEvent> events = new ArrayList<>();
+        Connection connection = simpleHelper.connect();
+        Dao<Simple> dao = daoBuilder().withQueryListener(events::add).buildDao(connection);
+        List<Simple> simples = new ArrayList<>();
+        for(int idx = 0; idx < 3; idx++){
+            Simple simple = new Simple();
+            simple.setField("paged " + idx);
+            simples.add(simple);
+        }
+        dao.insertAll(simples);
+
+        events.clear();
+        Page<Simple> page = dao.selectPage(where("field", LIKE, "paged%"), Order.ascending("field"), 2, null);
+        Assert.assertEquals(1, events.size());
+        // The where clause and the limit
+        Assert.assertEquals(2, events.get(0).getBindCount());
+
+        events.clear();
+        dao.selectPage(where("field", LIKE, "paged%"), Order.ascending("field"), 2, page.getNextCursor());
+        Assert.assertEquals(1, events.size());
+        // The where clause, the field and then the field and key of the
+        // keyset predicate, and the limit
+        Assert.assertEquals(5, events.get(0).getBindCount());
+
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    public void testBatchesAreReported() throws SQLException {
+        List<QueryEvent> events = new ArrayList<>();
+        Connection connection = simpleHelper.connect();
+        Dao<Simple> dao = daoBuilder()
+                .withBatchSize(2)
+                .withQueryListener(events::add)
+                .buildDao(connection);
+
+        List<Simple> simples = new ArrayList<>();
+        for(int idx = 0; idx < 5; idx++){
+            Simple simple = new Simple();
+            simple.setField("batched " + idx);
+            simples.add(simple);
+        }
+        dao.insertAll(simples);
+
+        List<QueryEvent> inserts = events.stream()
+                .filter(e -> e.getSql().toLowerCase().startsWith("insert"))
+                .collect(Collectors.toList());
+        Assert.assertEquals(3, inserts.size());
+        Assert.assertEquals(5, inserts.stream().mapToLong(QueryEvent::getRowCount).sum());
+        Assert.assertTrue(inserts.stream().allMatch(e -> e.getBindCount() == 2));
+
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    public void testGlobalListenerHearsChildSelects() throws SQLException {
+        Connection connection = parentsHelper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        Child child = new Child();
+        child.setNumber(5L);
+        Parent parent = new Parent();
+        parent.setName("globally heard");
+        parent.setChildList(Arrays.asList(child));
+        dao.insert(parent);
+
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            dao.select(where("name", LIKE, "globally%"));
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+
+        List<String> tables = events.stream().map(QueryEvent::getTableName).collect(Collectors.toList());
+        // the children are selected while the parents are read
+        Assert.assertEquals("parent_table", tables.get(tables.size() - 1));
+        Assert.assertTrue(tables.contains("child_table"));
+        Assert.assertTrue(tables.contains("grandchild_table"));
+
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    public void testDaoListenerReplacesGlobalListener() throws SQLException {
+        List<QueryEvent> globalEvents = new ArrayList<>();
+        List<QueryEvent> daoEvents = new ArrayList<>();
+        Connection connection = simpleHelper.connect();
+        Dao<Simple> dao = daoBuilder().withQueryListener(daoEvents::add).buildDao(connection);
+
+        QueryListener.setGlobal(globalEvents::add);
+        try {
+            dao.select(where("field", EQUALS, "nothing"));
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+
+        Assert.assertEquals(1, daoEvents.size());
+        Assert.assertEquals(0, daoEvents.get(0).getRowCount());
+        Assert.assertTrue(globalEvents.isEmpty());
+        connection.close();
+    }
+
+    @Test
+    public void testNothingIsAskedWithoutListener() throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Statement sequenceStatement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+        Mockito.when(connection.createStatement()).thenReturn(sequenceStatement);
+        Mockito.when(sequenceStatement.executeQuery(Mockito.anyString())).thenReturn(resultSet);
+        Mockito.when(resultSet.getLong(1)).thenReturn(3L);
+
+        Dao<Simple> dao = daoBuilder().buildDao(connection);
+        Simple simple = new Simple();
+        simple.setField("unheard");
+        dao.insert(simple);
+
+        Mockito.verify(statement).execute();
+        Mockito.verify(statement, Mockito.never()).getUpdateCount();
+    }
+
+    @Test
+    public void testLoggingListener() throws SQLException {
+        List<String> messages = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+            @Override
+            public void flush() {}
+            @Override
+            public void close() {}
+        };
+        Logger logger = Logger.getLogger("org.hrorm");
+        logger.addHandler(handler);
+
+        Connection connection = simpleHelper.connect();
+        try {
+            Dao<Simple> dao = daoBuilder().withQueryListener(QueryListener.logging()).buildDao(connection);
+            dao.select(where("field", EQUALS, "logged"));
+        } finally {
+            logger.removeHandler(handler);
+            connection.close();
+        }
+
+        Assert.assertEquals(1, messages.size());
+        Assert.assertTrue(messages.get(0).toLowerCase().startsWith("select"));
+    }
+
+    @Test(expected = HrormException.class)
+    public void testGlobalListenerCannotBeNull(){
+        QueryListener.setGlobal(null);
+    }
+}
@@ -0,0 +1,185 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.Simple;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Parent;
+import org.hrorm.examples.parentage.ParentChildBuilders;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class QueryOptionsTest {
+
+    private static Helper helper = HelperFactory.forSchema("parents");
+
+    private static final int PARENT_COUNT = 6;
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        helper.initializeSchema();
+
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        List<Parent> parents = new ArrayList<>();
+        for(long idx = 0; idx < PARENT_COUNT; idx++){
+            Child child = new Child();
+            child.setNumber(idx);
+            Parent parent = new Parent();
+            parent.setName("optioned " + idx);
+            parent.setChildList(Arrays.asList(child));
+            parents.add(parent);
+        }
+        dao.insertAll(parents);
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private void assertMaxRows(DaoBuilder<Parent> daoBuilder) throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = daoBuilder.buildDao(connection);
+
+        QueryOptions options = QueryOptions.DEFAULT.withMaxRows(4);
+        List<Parent> parents = dao.select(where("name", LIKE, "optioned%"), Order.ascending("name"), options);
+
+        Assert.assertEquals(4, parents.size());
+        for(int idx = 0; idx < 4; idx++){
+            Parent parent = parents.get(idx);
+            Assert.assertEquals("optioned " + idx, parent.getName());
+            Assert.assertEquals(1, parent.getChildList().size());
+            Assert.assertEquals(idx, (long) parent.getChildList().get(0).getNumber());
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testMaxRowsWithStandardChildSelects() throws SQLException {
+        assertMaxRows(ParentChildBuilders.ParentDaoBuilder);
+    }
+
+    @Test
+    public void testMaxRowsWithKeysInClauseChildSelects() throws SQLException {
+        assertMaxRows(ParentChildBuilders.ParentDaoBuilder_WithInClauseStrategy);
+    }
+
+    @Test
+    public void testMaxRowsWithSubSelectChildSelects() throws SQLException {
+        assertMaxRows(ParentChildBuilders.ParentDaoBuilder_WithSubselectStrategy);
+    }
+
+    @Test
+    public void testMaxRowsWithJoinFetchChildSelects() throws SQLException {
+        assertMaxRows(ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy);
+    }
+
+    @Test
+    public void testSelectOneStillFindsTooMany() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        try {
+            dao.selectOne(where("name", LIKE, "optioned%"));
+            Assert.fail("Should have found too many");
+        } catch (HrormException expected){
+        }
+        Parent parent = dao.selectOne(where("name", LIKE, "optioned 3"));
+        Assert.assertEquals(3, (long) parent.getChildList().get(0).getNumber());
+        connection.close();
+    }
+
+    @Test
+    public void testSelectDistinctWithOptions() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        List<String> names = dao.selectDistinct("name", where("name", LIKE, "optioned%"), QueryOptions.DEFAULT.withMaxRows(3));
+        Assert.assertEquals(3, names.size());
+        connection.close();
+    }
+
+    private static Connection mockConnection(PreparedStatement statement) throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+        Mockito.when(connection.prepareStatement(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt())).thenReturn(statement);
+        Mockito.when(statement.executeQuery()).thenReturn(resultSet);
+        return connection;
+    }
+
+    private static DaoBuilder<Simple> simpleDaoBuilder(){
+        return new DaoBuilder<>("simple", Simple::new)
+                .withPrimaryKey("id", "simple_seq", Simple::getId, Simple::setId)
+                .withStringColumn("field", Simple::getField, Simple::setField);
+    }
+
+    @Test
+    public void testSelectOneReadsAtMostTwoRows() throws SQLException {
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Dao<Simple> dao = simpleDaoBuilder().buildDao(mockConnection(statement));
+
+        Simple template = new Simple();
+        template.setField("x");
+        dao.selectOne(template, "field");
+        dao.selectOne(where("field", LIKE, "x%"));
+
+        Mockito.verify(statement, Mockito.times(2)).setMaxRows(2);
+    }
+
+    @Test
+    public void testBuilderDefaultsAreApplied() throws SQLException {
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Connection connection = mockConnection(statement);
+        DaoBuilder<Simple> daoBuilder = simpleDaoBuilder()
+                .withQueryOptions(QueryOptions.DEFAULT.withQueryTimeout(5).withMaxRows(10))
+                .withFetchSize(50);
+        Dao<Simple> dao = daoBuilder.buildDao(connection);
+
+        dao.select(where("field", LIKE, "x%"));
+
+        Mockito.verify(statement).setFetchSize(50);
+        Mockito.verify(statement).setMaxRows(10);
+        Mockito.verify(statement).setQueryTimeout(5);
+        Mockito.verify(connection).prepareStatement(Mockito.anyString());
+    }
+
+    @Test
+    public void testPassedOptionsReplaceDefaults() throws SQLException {
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Connection connection = mockConnection(statement);
+        DaoBuilder<Simple> daoBuilder = simpleDaoBuilder()
+                .withQueryOptions(QueryOptions.DEFAULT.withMaxRows(10));
+        Dao<Simple> dao = daoBuilder.buildDao(connection);
+
+        dao.foldingSelect(0L, (count, simple) -> count + 1, where("field", LIKE, "x%"), QueryOptions.DEFAULT.withReadOnlyCursor());
+
+        Mockito.verify(statement).setMaxRows(0);
+        Mockito.verify(connection).prepareStatement(Mockito.anyString(), Mockito.eq(ResultSet.TYPE_FORWARD_ONLY), Mockito.eq(ResultSet.CONCUR_READ_ONLY));
+    }
+
+    @Test(expected = HrormException.class)
+    public void testNegativeMaxRowsRejected(){
+        QueryOptions.DEFAULT.withMaxRows(-1);
+    }
+
+    @Test(expected = HrormException.class)
+    public void testNegativeTimeoutRejected(){
+        QueryOptions.DEFAULT.withQueryTimeout(-1);
+    }
+}
@@ -0,0 +1,200 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.join_with_children.DaoBuilders;
+import org.hrorm.examples.join_with_children.Pea;
+import org.hrorm.examples.join_with_children.Pod;
+import org.hrorm.examples.join_with_children.Root;
+import org.hrorm.examples.join_with_children.Stem;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hrorm.Operator.EQUALS;
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class ReferenceColumnTest {
+
+    private static Helper helper = HelperFactory.forSchema("references");
+
+    private static final int STEMS_PER_POD = 3;
+
+    private static String schemaSql;
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        DaoBuilder<Pea> peaDaoBuilder = DaoBuilders.basePeaDaoBuilder();
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder();
+        DaoBuilder<Stem> stemDaoBuilder = referencingStemDaoBuilder(ChildSelectStrategy.Standard);
+        DaoBuilder<Root> rootDaoBuilder = DaoBuilders.baseRootDaoBuilder(stemDaoBuilder);
+        schemaSql = new Schema(peaDaoBuilder, rootDaoBuilder, stemDaoBuilder, podDaoBuilder).sql();
+        helper.initializeSchemaFromSql(schemaSql);
+
+        Connection connection = helper.connect();
+        Dao<Pod> podDao = podDaoBuilder.buildDao(connection);
+        Dao<Stem> stemDao = stemDaoBuilder.buildDao(connection);
+        for(String mark : Arrays.asList("first", "second")){
+            Pod pod = new Pod();
+            pod.setMark(mark);
+            pod.setPeas(Arrays.asList(newPea(mark + " pea")));
+            podDao.insert(pod);
+            for(int idx = 0; idx < STEMS_PER_POD; idx++){
+                stemDao.insert(newStem("referencing " + mark + " " + idx, pod));
+            }
+        }
+        stemDao.insert(newStem("referencing nothing", null));
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static Pea newPea(String flag){
+        Pea pea = new Pea();
+        pea.setFlag(flag);
+        return pea;
+    }
+
+    private static Stem newStem(String tag, Pod pod){
+        Stem stem = new Stem();
+        stem.setTag(tag);
+        stem.setPod(pod);
+        return stem;
+    }
+
+    private static DaoBuilder<Stem> referencingStemDaoBuilder(ChildSelectStrategy childSelectStrategy){
+        return new DaoBuilder<>("stem", Stem::new)
+                .withPrimaryKey("id", "stem_seq", Stem::getId, Stem::setId)
+                .withStringColumn("tag", Stem::getTag, Stem::setTag)
+                .withReferenceColumn("pod_id", Stem::getPod, Stem::setPod, DaoBuilders.basePodDaoBuilder())
+                .withChildSelectStrategy(childSelectStrategy);
+    }
+
+    private static List<QueryEvent> selects(Runnable runnable){
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            runnable.run();
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        return events.stream()
+                .filter(e -> e.getSql().toLowerCase().startsWith("select"))
+                .collect(Collectors.toList());
+    }
+
+    private static void assertReferences(List<Stem> stems){
+        Assert.assertEquals(2 * STEMS_PER_POD + 1, stems.size());
+        for(Stem stem : stems){
+            if( stem.getTag().equals("referencing nothing") ){
+                Assert.assertNull(stem.getPod());
+                continue;
+            }
+            String mark = stem.getTag().split(" ")[1];
+            Assert.assertEquals(mark, stem.getPod().getMark());
+            Assert.assertEquals(Arrays.asList(mark + " pea"), stem.getPeaFlags());
+        }
+        Assert.assertSame(stems.get(0).getPod(), stems.get(STEMS_PER_POD - 1).getPod());
+    }
+
+    private void assertReferencesSelectedTogether(ChildSelectStrategy childSelectStrategy) throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Stem> dao = referencingStemDaoBuilder(childSelectStrategy).buildDao(connection);
+
+        List<Stem> stems = new ArrayList<>();
+        List<QueryEvent> events = selects(() ->
+                stems.addAll(dao.select(where("tag", LIKE, "referencing%"), Order.ascending("tag"))));
+        assertReferences(stems);
+
+        List<String> tables = events.stream().map(QueryEvent::getTableName).collect(Collectors.toList());
+        Assert.assertEquals("stem", tables.get(0));
+        Assert.assertFalse(events.get(0).getSql().toLowerCase().contains("join"));
+        Assert.assertEquals(1, tables.stream().filter("pod"::equals).count());
+        connection.close();
+    }
+
+    @Test
+    public void testStandardStrategy() throws SQLException {
+        assertReferencesSelectedTogether(ChildSelectStrategy.Standard);
+    }
+
+    @Test
+    public void testByKeysStrategy() throws SQLException {
+        assertReferencesSelectedTogether(ChildSelectStrategy.ByKeysInClause);
+    }
+
+    @Test
+    public void testJoinFetchStrategy() throws SQLException {
+        assertReferencesSelectedTogether(ChildSelectStrategy.JoinFetch);
+    }
+
+    @Test
+    public void testStream() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Stem> dao = referencingStemDaoBuilder(ChildSelectStrategy.Standard).withFetchSize(100).buildDao(connection);
+
+        List<Stem> stems = new ArrayList<>();
+        List<QueryEvent> events = selects(() -> {
+            try (Stream<Stem> stream = dao.stream(where("tag", LIKE, "referencing%"), Order.ascending("tag"))) {
+                stream.forEach(stems::add);
+            }
+        });
+        assertReferences(stems);
+        Assert.assertEquals(1, events.stream().filter(e -> e.getTableName().equals("pod")).count());
+        connection.close();
+    }
+
+    @Test
+    public void testReferencesOfJoinedEntities() throws SQLException {
+        Connection connection = helper.connect();
+        DaoBuilder<Stem> stemDaoBuilder = referencingStemDaoBuilder(ChildSelectStrategy.Standard);
+        Dao<Root> rootDao = DaoBuilders.baseRootDaoBuilder(stemDaoBuilder).buildDao(connection);
+        Stem stem = stemDaoBuilder.buildDao(connection).selectOne(where("tag", EQUALS, "referencing second 1"));
+
+        Root root = new Root();
+        root.setNumber(7L);
+        root.setStem(stem);
+        long id = rootDao.insert(root);
+
+        Root read = rootDao.selectOne(id);
+        Assert.assertEquals("referencing second 1", read.getStem().getTag());
+        Assert.assertEquals("second", read.getStem().getPod().getMark());
+        connection.close();
+    }
+
+    @Test
+    public void testUpdate() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Stem> dao = referencingStemDaoBuilder(ChildSelectStrategy.Standard).buildDao(connection);
+        Pod second = DaoBuilders.basePodDaoBuilder().buildDao(connection).selectOne(where("mark", EQUALS, "second"));
+
+        long id = dao.insert(newStem("updated", null));
+        Stem stem = dao.selectOne(id);
+        Assert.assertNull(stem.getPod());
+        stem.setPod(second);
+        dao.update(stem);
+
+        Stem joined = DaoBuilders.baseStemDaoBuilder(DaoBuilders.basePodDaoBuilder()).buildDao(connection).selectOne(id);
+        Assert.assertEquals("second", joined.getPod().getMark());
+        connection.close();
+    }
+
+    @Test
+    public void testSchemaHasForeignKey(){
+        Assert.assertTrue(schemaSql.contains("alter table stem add foreign key (pod_id)  references pod(id);"));
+    }
+}
@@ -0,0 +1,150 @@
+package org.hrorm;
+
+import org.hrorm.examples.Simple;
+import org.hrorm.examples.join_with_children.DaoBuilders;
+import org.hrorm.examples.join_with_children.Pod;
+import org.hrorm.examples.join_with_children.Stem;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+public class RowMapperTest {
+
+    private static final DaoBuilder<Simple> SIMPLE_DAO_BUILDER =
+            new DaoBuilder<>("simple", Simple::new)
+                    .withPrimaryKey("simple_id", "simple_seq", Simple::getId, Simple::setId)
+                    .withStringColumn("field", Simple::getField, Simple::setField);
+
+    private static ResultSetMetaData metaData(String ... labels) throws SQLException {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(labels.length);
+        for(int idx = 0; idx < labels.length; idx++){
+            Mockito.when(metaData.getColumnLabel(idx + 1)).thenReturn(labels[idx]);
+        }
+        return metaData;
+    }
+
+    @Test
+    public void testReadsByIndexWhenMetadataIsAvailable() throws SQLException {
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = metaData("ASIMPLE_ID", "AFIELD");
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.getLong(1)).thenReturn(7L);
+        Mockito.when(resultSet.getString(2)).thenReturn("seven");
+
+        RowMapper<Simple, Simple> mapper = new RowMapper<>(SIMPLE_DAO_BUILDER);
+        int[] indexes = mapper.columnIndexes(resultSet);
+        Simple simple = mapper.populate(null, resultSet, indexes, Simple::new);
+
+        Assert.assertEquals(7L, (long) simple.getId());
+        Assert.assertEquals("seven", simple.getField());
+        Mockito.verify(resultSet, Mockito.never()).getLong(Mockito.anyString());
+        Mockito.verify(resultSet, Mockito.never()).getString(Mockito.anyString());
+        Mockito.verify(metaData, Mockito.times(1)).getColumnCount();
+    }
+
+    @Test
+    public void testFallsBackToLabelsWithoutMetadata() throws SQLException {
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getLong("asimple_id")).thenReturn(8L);
+        Mockito.when(resultSet.getString("afield")).thenReturn("eight");
+
+        RowMapper<Simple, Simple> mapper = new RowMapper<>(SIMPLE_DAO_BUILDER);
+        int[] indexes = mapper.columnIndexes(resultSet);
+        Simple simple = mapper.populate(null, resultSet, indexes, Simple::new);
+
+        Assert.assertEquals(8L, (long) simple.getId());
+        Assert.assertEquals("eight", simple.getField());
+    }
+
+    @Test
+    public void testJoinedEntityReadByIndex() throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder();
+        podDaoBuilder.withChildSelectStrategy(ChildSelectStrategy.ByKeysInClause);
+        DaoBuilder<Stem> stemDaoBuilder = DaoBuilders.baseStemDaoBuilder(podDaoBuilder);
+        stemDaoBuilder.withChildSelectStrategy(ChildSelectStrategy.ByKeysInClause);
+
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = metaData("aid", "atag", "bid", "bmark");
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.getLong(1)).thenReturn(1L);
+        Mockito.when(resultSet.getString(2)).thenReturn("one");
+        Mockito.when(resultSet.getLong(3)).thenReturn(11L);
+        Mockito.when(resultSet.getString(4)).thenReturn("eleven");
+
+        RowMapper<Stem, Stem> mapper = new RowMapper<>(stemDaoBuilder);
+        int[] indexes = mapper.columnIndexes(resultSet);
+        JoinedChildrenSelector<Stem, Stem> selector = new JoinedChildrenSelector<>(stemDaoBuilder, ChildSelectStrategy.ByKeysInClause, false);
+        Envelope<Stem> envelope = mapper.populate(connection, resultSet, indexes, Stem::new, false, selector);
+
+        Assert.assertEquals(1L, (long) envelope.getId());
+        Assert.assertNull(envelope.getParentId());
+        Stem stem = envelope.getItem();
+        Assert.assertEquals("one", stem.getTag());
+        Assert.assertEquals(11L, (long) stem.getPod().getId());
+        Assert.assertEquals("eleven", stem.getPod().getMark());
+        Mockito.verify(resultSet, Mockito.never()).getLong(Mockito.anyString());
+        Mockito.verifyZeroInteractions(connection);
+    }
+
+    @Test
+    public void testMissingJoinIsLeftNull() throws SQLException {
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder();
+        DaoBuilder<Stem> stemDaoBuilder = DaoBuilders.baseStemDaoBuilder(podDaoBuilder);
+
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = metaData("aid", "atag", "bid", "bmark");
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.getLong(1)).thenReturn(2L);
+        Mockito.when(resultSet.getString(2)).thenReturn("two");
+        Mockito.when(resultSet.getLong(3)).thenReturn(0L);
+
+        RowMapper<Stem, Stem> mapper = new RowMapper<>(stemDaoBuilder);
+        Stem stem = mapper.populate(null, resultSet, mapper.columnIndexes(resultSet), Stem::new);
+
+        Assert.assertEquals("two", stem.getTag());
+        Assert.assertNull(stem.getPod());
+        Mockito.verify(resultSet, Mockito.never()).getString(4);
+    }
+
+    @Test
+    public void testJoinedEntitiesAreShared() throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder();
+        podDaoBuilder.withChildSelectStrategy(ChildSelectStrategy.ByKeysInClause);
+        DaoBuilder<Stem> stemDaoBuilder = DaoBuilders.baseStemDaoBuilder(podDaoBuilder);
+        stemDaoBuilder.withChildSelectStrategy(ChildSelectStrategy.ByKeysInClause);
+
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = metaData("aid", "atag", "bid", "bmark");
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.getLong(1)).thenReturn(1L, 2L, 3L);
+        Mockito.when(resultSet.getString(2)).thenReturn("one", "two", "three");
+        Mockito.when(resultSet.getLong(3)).thenReturn(11L);
+        Mockito.when(resultSet.getString(4)).thenReturn("eleven");
+
+        RowMapper<Stem, Stem> mapper = new RowMapper<>(stemDaoBuilder);
+        int[] indexes = mapper.columnIndexes(resultSet);
+        JoinedChildrenSelector<Stem, Stem> selector = new JoinedChildrenSelector<>(stemDaoBuilder, ChildSelectStrategy.ByKeysInClause, false);
+        RowMapper.JoinedEntities joinedEntities = new RowMapper.JoinedEntities();
+        Stem first = mapper.populate(connection, resultSet, indexes, Stem::new, false, selector, joinedEntities).getItem();
+        Stem second = mapper.populate(connection, resultSet, indexes, Stem::new, false, selector, joinedEntities).getItem();
+
+        Assert.assertEquals("one", first.getTag());
+        Assert.assertEquals("two", second.getTag());
+        Assert.assertSame(first.getPod(), second.getPod());
+        Mockito.verify(resultSet, Mockito.times(1)).getString(4);
+
+        // Without a map of joined entities, each row builds its own
+        Stem third = mapper.populate(connection, resultSet, indexes, Stem::new, false, selector).getItem();
+        Assert.assertNotSame(first.getPod(), third.getPod());
+        Assert.assertEquals(first.getPod().getMark(), third.getPod().getMark());
+        Mockito.verifyZeroInteractions(connection);
+    }
+}
@@ -0,0 +1,231 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.join_with_children.DaoBuilders;
+import org.hrorm.examples.join_with_children.Pea;
+import org.hrorm.examples.join_with_children.Pod;
+import org.hrorm.examples.join_with_children.Root;
+import org.hrorm.examples.join_with_children.Stem;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hrorm.Operator.EQUALS;
+import static org.hrorm.Where.where;
+
+public class SessionTest {
+
+    private static Helper helper = HelperFactory.forSchema("sessions");
+
+    @BeforeClass
+    public static void setUpDb() {
+        DaoBuilder<Pea> peaDaoBuilder = DaoBuilders.basePeaDaoBuilder();
+        DaoBuilder<Pod> podDaoBuilder = DaoBuilders.basePodDaoBuilder();
+        DaoBuilder<Stem> stemDaoBuilder = DaoBuilders.baseStemDaoBuilder(podDaoBuilder);
+        DaoBuilder<Root> rootDaoBuilder = DaoBuilders.baseRootDaoBuilder(stemDaoBuilder);
+        helper.initializeSchemaFromSql(new Schema(peaDaoBuilder, rootDaoBuilder, stemDaoBuilder, podDaoBuilder).sql());
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private static DaoBuilder<Stem> stemDaoBuilder(){
+        return DaoBuilders.baseStemDaoBuilder(DaoBuilders.basePodDaoBuilder());
+    }
+
+    private static List<QueryEvent> selects(Runnable runnable){
+        List<QueryEvent> events = new ArrayList<>();
+        QueryListener.setGlobal(events::add);
+        try {
+            runnable.run();
+        } finally {
+            QueryListener.setGlobal(QueryListener.NONE);
+        }
+        return events.stream()
+                .filter(e -> e.getSql().toLowerCase().startsWith("select"))
+                .collect(Collectors.toList());
+    }
+
+    private static Pod insertPod(Connection connection, String mark, String ... flags){
+        Pod pod = newPod(mark, flags);
+        DaoBuilders.basePodDaoBuilder().buildDao(connection).insert(pod);
+        return pod;
+    }
+
+    private static Pod newPod(String mark, String ... flags){
+        List<Pea> peas = new ArrayList<>();
+        for(String flag : flags){
+            Pea pea = new Pea();
+            pea.setFlag(flag);
+            peas.add(pea);
+        }
+        Pod pod = new Pod();
+        pod.setMark(mark);
+        pod.setPeas(peas);
+        return pod;
+    }
+
+    private static long insertStem(Connection connection, String tag, Pod pod){
+        Stem stem = new Stem();
+        stem.setTag(tag);
+        stem.setPod(pod);
+        return stemDaoBuilder().buildDao(connection).insert(stem);
+    }
+
+    @Test
+    public void testSelectOneReturnsKeptInstance() throws SQLException {
+        Connection connection = helper.connect();
+        long id = insertStem(connection, "select one", null);
+        try (Session session = new Session(connection)) {
+            Dao<Stem> dao = session.dao(stemDaoBuilder());
+            Stem stem = dao.selectOne(id);
+
+            List<Stem> again = new ArrayList<>();
+            List<QueryEvent> events = selects(() -> again.add(dao.selectOne(id)));
+            Assert.assertTrue(events.isEmpty());
+            Assert.assertSame(stem, again.get(0));
+
+            Stem byWhere = dao.selectOne(where("tag", EQUALS, "select one"));
+            Assert.assertSame(stem, byWhere);
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testSelectByKeysOnlySelectsMissingKeys() throws SQLException {
+        Connection connection = helper.connect();
+        long first = insertStem(connection, "first by keys", null);
+        long second = insertStem(connection, "second by keys", null);
+        try (Session session = new Session(connection)) {
+            Dao<Stem> dao = session.dao(stemDaoBuilder());
+            Stem firstStem = dao.selectOne(first);
+
+            List<Stem> stems = new ArrayList<>();
+            List<QueryEvent> events = selects(() -> stems.addAll(dao.select(Arrays.asList(second, first, second))));
+            Assert.assertEquals(1, events.size());
+            Assert.assertEquals(2, stems.size());
+            Assert.assertEquals("second by keys", stems.get(0).getTag());
+            Assert.assertSame(firstStem, stems.get(1));
+
+            Assert.assertTrue(selects(() -> dao.select(Arrays.asList(first, second))).isEmpty());
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testJoinedEntitiesAndChildrenAreShared() throws SQLException {
+        Connection connection = helper.connect();
+        Pod pod = insertPod(connection, "shared", "shared pea");
+        long stemId = insertStem(connection, "joined", pod);
+        connection.commit();
+        try (Session session = new Session(connection)) {
+            Pea pea = session.dao(DaoBuilders.basePeaDaoBuilder()).selectOne(pod.getPeas().get(0).getId());
+            Pod readPod = session.dao(DaoBuilders.basePodDaoBuilder()).selectOne(pod.getId());
+            Assert.assertSame(pea, readPod.getPeas().get(0));
+
+            Stem stem = session.dao(stemDaoBuilder()).selectOne(stemId);
+            Assert.assertSame(readPod, stem.getPod());
+
+            Root root = new Root();
+            root.setNumber(1L);
+            root.setStem(stem);
+            Dao<Root> rootDao = session.dao(DaoBuilders.baseRootDaoBuilder(stemDaoBuilder()));
+            long rootId = rootDao.insert(root);
+            session.clear();
+            Root readRoot = rootDao.selectOne(rootId);
+            Assert.assertSame(readRoot.getStem(), session.dao(stemDaoBuilder()).selectOne(stemId));
+            Assert.assertSame(readRoot.getStem().getPod(), session.dao(DaoBuilders.basePodDaoBuilder()).selectOne(pod.getId()));
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testWritesKeepTheSessionConsistent() throws SQLException {
+        Connection connection = helper.connect();
+        try (Session session = new Session(connection)) {
+            Dao<Pod> dao = session.dao(DaoBuilders.basePodDaoBuilder());
+            Dao<Pea> peaDao = session.dao(DaoBuilders.basePeaDaoBuilder());
+            Pod pod = newPod("written", "kept pea", "dropped pea");
+            dao.insert(pod);
+            Pea kept = pod.getPeas().get(0);
+            Pea dropped = pod.getPeas().get(1);
+
+            Assert.assertTrue(selects(() -> dao.selectOne(pod.getId())).isEmpty());
+            Assert.assertSame(pod, dao.selectOne(pod.getId()));
+            Assert.assertSame(kept, peaDao.selectOne(kept.getId()));
+
+            pod.setPeas(Arrays.asList(kept));
+            dao.update(pod);
+            Assert.assertNull(peaDao.selectOne(dropped.getId()));
+            Assert.assertSame(kept, peaDao.selectOne(kept.getId()));
+
+            Pod replacement = new Pod();
+            replacement.setId(pod.getId());
+            replacement.setMark("replaced");
+            replacement.setPeas(new ArrayList<>());
+            dao.update(replacement);
+            Assert.assertSame(replacement, dao.selectOne(pod.getId()));
+
+            dao.delete(replacement);
+            Assert.assertNull(dao.selectOne(pod.getId()));
+            List<QueryEvent> events = selects(() -> peaDao.selectOne(kept.getId()));
+            Assert.assertEquals(1, events.size());
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testSessionsOnlyAffectTheirOwnDaos() throws SQLException {
+        Connection connection = helper.connect();
+        long id = insertStem(connection, "scoped", null);
+        Dao<Stem> dao = stemDaoBuilder().buildDao(connection);
+
+        Session session = new Session(connection);
+        Dao<Stem> sessionDao = session.dao(stemDaoBuilder());
+        Stem stem = sessionDao.selectOne(id);
+        Assert.assertSame(stem, sessionDao.selectOne(id));
+        Assert.assertNotSame(stem, dao.selectOne(id));
+        Assert.assertNotSame(dao.selectOne(id), dao.selectOne(id));
+
+        try (Session other = new Session(connection)) {
+            Assert.assertNotSame(stem, other.dao(stemDaoBuilder()).selectOne(id));
+        }
+        Assert.assertSame(stem, sessionDao.selectOne(id));
+
+        session.close();
+        Assert.assertNotSame(stem, sessionDao.selectOne(id));
+        Assert.assertFalse(selects(() -> sessionDao.selectOne(id)).isEmpty());
+        connection.close();
+    }
+
+    @Test
+    public void testEntitiesReadWithoutSomeChildrenAreNotKept() throws SQLException {
+        Connection connection = helper.connect();
+        Pod pod = insertPod(connection, "planned", "planned pea");
+        try (Session session = new Session(connection)) {
+            Dao<Pod> dao = session.dao(DaoBuilders.basePodDaoBuilder());
+            Pod partial = dao.selectOne(pod.getId(), FetchPlan.NONE);
+
+            List<Pod> full = new ArrayList<>();
+            List<QueryEvent> events = selects(() -> full.add(dao.selectOne(pod.getId())));
+            Assert.assertEquals(2, events.size());
+            Assert.assertNotSame(partial, full.get(0));
+            Assert.assertEquals("planned pea", full.get(0).getPeas().get(0).getFlag());
+
+            Assert.assertSame(full.get(0), dao.selectOne(pod.getId(), FetchPlan.NONE));
+            Assert.assertSame(full.get(0), dao.selectOne(pod.getId()));
+        }
+        connection.close();
+    }
+}
@@ -1,10 +1,15 @@
 package org.hrorm;
 
+import org.hrorm.examples.Simple;
 import org.hrorm.examples.parentage.Child;
 import org.hrorm.examples.parentage.Parent;
 import org.hrorm.examples.parentage.ParentChildBuilders;
 import org.hrorm.util.SimpleSqlFormatter;
+import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
 
 import static org.hrorm.Operator.LIKE;
 import static org.hrorm.Where.where;
@@ -37,6 +42,22 @@ public class SqlBuilderTest {
 
     }
 
+    @Test
+    public void testDeleteChildrenOfSeveralParentsSql(){
+
+        SqlBuilder<Child> sqlBuilder = new SqlBuilder<>(ParentChildBuilders.ChildDaoBuilder);
+
+        SimpleSqlFormatter.assertEqualSql(
+                "delete from child_table where id in (?, ?)",
+                sqlBuilder.deleteByIds("?, ?"));
+        SimpleSqlFormatter.assertEqualSql(
+                "delete from child_table where parent_table_id in (select id from parent_table where id in (?))",
+                sqlBuilder.deleteByParentIds("select id from parent_table where id in (?)"));
+        SimpleSqlFormatter.assertEqualSql(
+                "select id from child_table where parent_table_id in (?, ?, ?)",
+                sqlBuilder.selectChildIds("?, ?, ?"));
+    }
+
     @Test
     public void testSelectByParentSubselect(){
 
@@ -54,4 +75,42 @@ public class SqlBuilderTest {
 
         SimpleSqlFormatter.assertEqualSql(expected, sql);
     }
+
+    @Test
+    public void testSqlIsGeneratedOnce(){
+        SqlBuilder<Child> sqlBuilder = new SqlBuilder<>(ParentChildBuilders.ChildDaoBuilder);
+
+        Assert.assertSame(sqlBuilder.select(), sqlBuilder.select());
+        Assert.assertSame(sqlBuilder.insert(), sqlBuilder.insert());
+        Assert.assertSame(sqlBuilder.update(), sqlBuilder.update());
+        Assert.assertSame(sqlBuilder.delete(), sqlBuilder.delete());
+        Assert.assertSame(sqlBuilder.selectChildIds(), sqlBuilder.selectChildIds());
+        Assert.assertSame(sqlBuilder.nextSequence(), sqlBuilder.nextSequence());
+    }
+
+    @Test
+    public void testDaosShareSqlBuilder(){
+        Connection connection = Mockito.mock(Connection.class);
+
+        Dao<Parent> firstDao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        Dao<Parent> secondDao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+
+        Assert.assertSame(firstDao.queries(), secondDao.queries());
+        Assert.assertSame(firstDao.queries().select(), secondDao.queries().select());
+    }
+
+    @Test
+    public void testAddingColumnRegeneratesSql(){
+        DaoBuilder<Simple> daoBuilder = new DaoBuilder<>("simple", Simple::new)
+                .withPrimaryKey("simple_id", "simple_seq", Simple::getId, Simple::setId);
+
+        Queries before = daoBuilder.buildQueries();
+        SimpleSqlFormatter.assertEqualSql("select a.simple_id as asimple_id from simple a", before.select());
+
+        daoBuilder.withStringColumn("field", Simple::getField, Simple::setField);
+
+        Queries after = daoBuilder.buildQueries();
+        Assert.assertNotSame(before, after);
+        SimpleSqlFormatter.assertEqualSql("select a.simple_id as asimple_id, a.field as afield from simple a", after.select());
+    }
 }
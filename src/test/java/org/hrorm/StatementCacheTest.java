@@ -0,0 +1,168 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.Simple;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Parent;
+import org.hrorm.examples.parentage.ParentChildBuilders;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class StatementCacheTest {
+
+    private static Helper helper = HelperFactory.forSchema("parents");
+    private static Helper simpleHelper = HelperFactory.forSchema("simple");
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        helper.initializeSchema();
+        simpleHelper.initializeSchema();
+
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        List<Parent> parents = new ArrayList<>();
+        for(long idx = 0; idx < 10; idx++){
+            Child child = new Child();
+            child.setNumber(idx);
+            Parent parent = new Parent();
+            parent.setName("cached statement " + idx);
+            parent.setChildList(Arrays.asList(child));
+            parents.add(parent);
+        }
+        dao.insertAll(parents);
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+        simpleHelper.dropSchema();
+    }
+
+    @Test
+    public void testChildSelectsReuseStatements() throws SQLException {
+        Connection connection = StatementCache.cachingConnection(helper.connect(), 10);
+        StatementCache cache = StatementCache.forConnection(connection);
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+
+        List<Parent> parents = dao.select(where("name", LIKE, "cached statement%"));
+
+        Assert.assertEquals(10, parents.size());
+        for(Parent parent : parents){
+            Assert.assertEquals(1, parent.getChildList().size());
+        }
+        // one statement for parents, children and grandchildren
+        Assert.assertEquals(3, cache.getMisses());
+        Assert.assertTrue(cache.getHits() >= 18);
+        Assert.assertEquals(3, cache.size());
+
+        connection.close();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws SQLException {
+        Connection connection = StatementCache.cachingConnection(helper.connect(), 1);
+        StatementCache cache = StatementCache.forConnection(connection);
+
+        PreparedStatement first = connection.prepareStatement("select 1");
+        first.close();
+        PreparedStatement second = connection.prepareStatement("select 2");
+        second.close();
+        PreparedStatement third = connection.prepareStatement("select 1");
+        third.close();
+
+        Assert.assertEquals(3, cache.getMisses());
+        Assert.assertEquals(0, cache.getHits());
+        Assert.assertEquals(1, cache.size());
+
+        PreparedStatement fourth = connection.prepareStatement("select 1");
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertFalse(fourth.isClosed());
+        fourth.close();
+        Assert.assertTrue(fourth.isClosed());
+
+        connection.close();
+    }
+
+    @Test
+    public void testOpenStatementIsNotShared() throws SQLException {
+        Connection connection = StatementCache.cachingConnection(helper.connect(), 5);
+        StatementCache cache = StatementCache.forConnection(connection);
+
+        PreparedStatement first = connection.prepareStatement("select 1");
+        PreparedStatement second = connection.prepareStatement("select 1");
+
+        Assert.assertEquals(2, cache.getMisses());
+        first.close();
+        second.close();
+        Assert.assertEquals(1, cache.size());
+
+        connection.close();
+    }
+
+    @Test
+    public void testUncachedConnectionHasNoCache() throws SQLException {
+        Connection connection = helper.connect();
+        Assert.assertNull(StatementCache.forConnection(connection));
+        connection.close();
+    }
+
+    @Test
+    public void testFailedBatchIsNotReused() throws SQLException {
+        Connection connection = StatementCache.cachingConnection(simpleHelper.connect(), 5);
+        Dao<Simple> dao = new DaoBuilder<>("simple", Simple::new)
+                .withPrimaryKey("simple_id", "simple_seq", Simple::getId, Simple::setId)
+                .withStringColumn("field", simple -> {
+                    if( "boom".equals(simple.getField()) ){
+                        throw new IllegalStateException("boom");
+                    }
+                    return simple.getField();
+                }, Simple::setField)
+                .buildDao(connection);
+
+        try {
+            dao.insertAll(Arrays.asList(simple("batched one"), simple("batched two"), simple("boom")));
+            Assert.fail("Should not insert a boom");
+        } catch (IllegalStateException expected){
+        }
+        dao.insertAll(Arrays.asList(simple("batched three")));
+
+        List<String> fields = dao.select(where("field", LIKE, "batched%"), Order.ascending("field"))
+                .stream().map(Simple::getField).collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList("batched three"), fields);
+
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    public void testStatementsKnowTheCachingConnection() throws SQLException {
+        Connection connection = StatementCache.cachingConnection(helper.connect(), 5);
+        PreparedStatement statement = connection.prepareStatement("select 1");
+        Assert.assertSame(connection, statement.getConnection());
+        statement.close();
+        connection.close();
+    }
+
+    private static Simple simple(String field){
+        Simple simple = new Simple();
+        simple.setField(field);
+        return simple;
+    }
+}
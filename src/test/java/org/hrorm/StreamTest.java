@@ -0,0 +1,146 @@
+package org.hrorm;
+
+import org.hrorm.database.Helper;
+import org.hrorm.database.HelperFactory;
+import org.hrorm.examples.parentage.Child;
+import org.hrorm.examples.parentage.Parent;
+import org.hrorm.examples.parentage.ParentChildBuilders;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hrorm.Operator.LIKE;
+import static org.hrorm.Where.where;
+
+public class StreamTest {
+
+    private static Helper helper = HelperFactory.forSchema("parents");
+
+    private static final int PARENT_COUNT = 25;
+
+    @BeforeClass
+    public static void setUpDb() throws SQLException {
+        helper.initializeSchema();
+
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+        List<Parent> parents = new ArrayList<>();
+        for(long idx = 0; idx < PARENT_COUNT; idx++){
+            Child first = new Child();
+            first.setNumber(idx);
+            Child second = new Child();
+            second.setNumber(idx + 100);
+            Parent parent = new Parent();
+            parent.setName(String.format("streamed %02d", idx));
+            parent.setChildList(Arrays.asList(first, second));
+            parents.add(parent);
+        }
+        dao.insertAll(parents);
+        connection.commit();
+        connection.close();
+    }
+
+    @AfterClass
+    public static void cleanUpDb(){
+        helper.dropSchema();
+    }
+
+    private void assertStreamed(DaoBuilder<Parent> daoBuilder) throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = daoBuilder.buildDao(connection);
+
+        List<Parent> parents;
+        try (Stream<Parent> stream = dao.stream(where("name", LIKE, "streamed%"), Order.ascending("name"))) {
+            parents = stream.collect(Collectors.toList());
+        }
+
+        Assert.assertEquals(PARENT_COUNT, parents.size());
+        for(int idx = 0; idx < PARENT_COUNT; idx++){
+            Parent parent = parents.get(idx);
+            Assert.assertEquals(String.format("streamed %02d", idx), parent.getName());
+            Assert.assertEquals(2, parent.getChildList().size());
+            Assert.assertNotNull(parent.getChildByNumber((long) idx));
+            Assert.assertNotNull(parent.getChildByNumber((long) idx + 100));
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testStreamWithStandardChildSelects() throws SQLException {
+        assertStreamed(ParentChildBuilders.ParentDaoBuilder.withFetchSize(4));
+    }
+
+    @Test
+    public void testStreamWithKeysInClauseChildSelects() throws SQLException {
+        assertStreamed(ParentChildBuilders.ParentDaoBuilder_WithInClauseStrategy.withFetchSize(4));
+    }
+
+    @Test
+    public void testStreamWithSubSelectChildSelects() throws SQLException {
+        assertStreamed(ParentChildBuilders.ParentDaoBuilder_WithSubselectStrategy.withFetchSize(7));
+    }
+
+    @Test
+    public void testStreamWithJoinFetchChildSelects() throws SQLException {
+        assertStreamed(ParentChildBuilders.ParentDaoBuilder_WithJoinFetchStrategy.withFetchSize(5));
+    }
+
+    @Test
+    public void testStreamIsLazy() throws SQLException {
+        Connection connection = helper.connect();
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder_WithInClauseStrategy.buildDao(connection);
+
+        try (Stream<Parent> stream = dao.stream(where("name", LIKE, "streamed%"))) {
+            List<Parent> firstThree = stream.limit(3).collect(Collectors.toList());
+            Assert.assertEquals(3, firstThree.size());
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testClosingRestoresAutoCommit() throws SQLException {
+        Connection connection = helper.connect();
+        connection.setAutoCommit(true);
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+
+        Stream<Parent> stream = dao.stream(where("name", LIKE, "streamed%"));
+        Assert.assertFalse(connection.getAutoCommit());
+        Iterator<Parent> iterator = stream.iterator();
+        Assert.assertTrue(iterator.hasNext());
+        stream.close();
+        Assert.assertTrue(connection.getAutoCommit());
+
+        // closing again does nothing
+        stream.close();
+        Assert.assertTrue(connection.getAutoCommit());
+        connection.close();
+    }
+
+    @Test
+    public void testAutoCommitLeftAloneWhenOff() throws SQLException {
+        Connection connection = helper.connect();
+        connection.setAutoCommit(false);
+        Dao<Parent> dao = ParentChildBuilders.ParentDaoBuilder.buildDao(connection);
+
+        try (Stream<Parent> stream = dao.stream(where("name", LIKE, "streamed%"))) {
+            Assert.assertEquals(PARENT_COUNT, stream.count());
+        }
+        Assert.assertFalse(connection.getAutoCommit());
+        connection.close();
+    }
+
+    @Test(expected = HrormException.class)
+    public void testFetchSizeMustBePositive(){
+        new DaoBuilder<>("parent_table", Parent::new).withFetchSize(0);
+    }
+}
@@ -28,7 +28,7 @@ public abstract class AbstractHelper implements Helper {
     private boolean initialized = false;
 
     private static final Pattern createSequencePattern = Pattern.compile(
-            "create sequence ([a-zA-Z_]+);", Pattern.CASE_INSENSITIVE);
+            "create sequence ([a-zA-Z_]+)( increment by [0-9]+)?;", Pattern.CASE_INSENSITIVE);
 
     private static final Pattern createTablePattern = Pattern.compile(
             "create table ([a-zA-Z_]+)\\s*\\(", Pattern.CASE_INSENSITIVE);
@@ -14,13 +14,13 @@ import java.util.List;
 public class Recipes {
 
     @Data
-    static class Author {
+    public static class Author {
         Long id;
         String name;
     }
 
     @Data
-    static class Recipe {
+    public static class Recipe {
         Long id;
         String name;
         Author author;
@@ -28,7 +28,7 @@ public class Recipes {
     }
 
     @Data
-    static class Ingredient {
+    public static class Ingredient {
         Long id;
         Recipe recipe;
         String name;
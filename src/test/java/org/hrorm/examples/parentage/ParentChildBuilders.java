@@ -57,4 +57,11 @@ public class ParentChildBuilders {
                     .withChildren(Parent::getChildList, Parent::setChildList, ChildDaoBuilder_WithInClauseStrategy)
                     .withChildSelectStrategy(ChildSelectStrategy.SubSelectInClause);
 
+    public static DaoBuilder<Parent> ParentDaoBuilder_WithJoinFetchStrategy =
+            new DaoBuilder<>("parent_table", Parent::new)
+                    .withPrimaryKey("id", "parent_seq", Parent::getId, Parent::setId)
+                    .withStringColumn("name", Parent::getName, Parent::setName)
+                    .withChildren(Parent::getChildList, Parent::setChildList, ChildDaoBuilder_WithInClauseStrategy)
+                    .withChildSelectStrategy(ChildSelectStrategy.JoinFetch);
+
 }